@@ -0,0 +1,70 @@
+package com.ktb.chatapp.config;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import com.corundumstudio.socketio.namespace.NamespacesHub;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.ktb.chatapp.websocket.socketio.codec.EventBatchWriter;
+import com.ktb.chatapp.websocket.socketio.codec.MsgPackFrameDecoder;
+import com.ktb.chatapp.websocket.socketio.codec.MsgPackPacketCodec;
+import com.ktb.chatapp.websocket.socketio.codec.MsgPackPacketWriter;
+import com.ktb.chatapp.websocket.socketio.codec.PacketFrameEncoder;
+import com.ktb.chatapp.websocket.socketio.outbound.ClientEventLoops;
+import io.netty.channel.ChannelPipeline;
+
+/**
+ * netty-socketio 기본 파이프라인에 채팅 서버용 핸들러를 끼워 넣는다.
+ * <ul>
+ *   <li>WebSocket 압축 핸들러를 threshold가 적용된 permessage-deflate로 교체한다.
+ *       netty-socketio는 websocketCompression=true일 때 모든 프레임을 압축하는 기본 핸들러만 지원한다.</li>
+ *   <li>msgpack이 켜져 있으면 연결별 MessagePack 인코딩 핸들러를 추가한다.</li>
+ *   <li>배칭이 켜져 있으면 batch=1 클라이언트의 이벤트를 tick 단위로 묶는 핸들러를 가장 tail 쪽에 추가한다.</li>
+ *   <li>세션별 event loop를 기록하는 핸들러를 packetHandler 앞에 추가한다.</li>
+ * </ul>
+ */
+public class ChatChannelInitializer extends SocketIOChannelInitializer {
+
+    private final WebSocketCompressionSettings compressionSettings;
+    private final boolean msgpackEnabled;
+    private final EventBatchSettings batchSettings;
+    private final ClientEventLoops clientEventLoops;
+    private final MsgPackPacketCodec msgpackCodec = new MsgPackPacketCodec();
+    private PacketFrameEncoder frameEncoder;
+
+    public ChatChannelInitializer(WebSocketCompressionSettings compressionSettings,
+                                  boolean msgpackEnabled,
+                                  EventBatchSettings batchSettings,
+                                  ClientEventLoops clientEventLoops) {
+        this.compressionSettings = compressionSettings;
+        this.msgpackEnabled = msgpackEnabled;
+        this.batchSettings = batchSettings;
+        this.clientEventLoops = clientEventLoops;
+    }
+
+    @Override
+    public void start(Configuration configuration, NamespacesHub namespacesHub) {
+        super.start(configuration, namespacesHub);
+        this.frameEncoder = new PacketFrameEncoder(msgpackCodec, new PacketEncoder(configuration, configuration.getJsonSupport()));
+    }
+
+    @Override
+    protected void addSocketioHandlers(ChannelPipeline pipeline) {
+        super.addSocketioHandlers(pipeline);
+        pipeline.addBefore(PACKET_HANDLER, ClientEventLoops.TRACKER_NAME, clientEventLoops.tracker());
+        if (pipeline.get(WEB_SOCKET_TRANSPORT_COMPRESSION) != null) {
+            pipeline.replace(WEB_SOCKET_TRANSPORT_COMPRESSION, WEB_SOCKET_TRANSPORT_COMPRESSION,
+                    compressionSettings.newHandler());
+        }
+        if (msgpackEnabled) {
+            // 수신 변환은 webSocketTransport 앞, 송신 가로채기는 socketioEncoder 뒤(tail 쪽)에 둔다
+            pipeline.addBefore(WEB_SOCKET_TRANSPORT, MsgPackFrameDecoder.NAME, new MsgPackFrameDecoder(msgpackCodec));
+            pipeline.addAfter(SOCKETIO_ENCODER, MsgPackPacketWriter.NAME, new MsgPackPacketWriter(frameEncoder));
+        }
+        if (batchSettings.isEnabled()) {
+            // 배칭 대상 연결은 msgpack 여부와 관계없이 여기서 인코딩까지 끝내므로 msgpackPacketWriter보다 먼저 가로챈다
+            String previous = msgpackEnabled ? MsgPackPacketWriter.NAME : SOCKETIO_ENCODER;
+            pipeline.addAfter(previous, EventBatchWriter.NAME, new EventBatchWriter(
+                    frameEncoder, batchSettings.getInterval().toMillis(), batchSettings.getMaxEvents()));
+        }
+    }
+}
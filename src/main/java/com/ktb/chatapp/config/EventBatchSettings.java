@@ -0,0 +1,29 @@
+package com.ktb.chatapp.config;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * 연결별 이벤트 배칭 설정.
+ * 서버에서 켜더라도 batch=1 쿼리로 연결한 클라이언트(batch 이벤트를 풀 수 있는 클라이언트)에만 적용된다.
+ */
+@Getter
+public class EventBatchSettings {
+
+    private final boolean enabled;
+    private final Duration interval;
+    private final int maxEvents;
+
+    public EventBatchSettings(boolean enabled, Duration interval, int maxEvents) {
+        this.enabled = enabled;
+        this.interval = interval;
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public String toString() {
+        return "enabled=" + enabled
+                + ", interval=" + interval.toMillis() + "ms"
+                + ", maxEvents=" + maxEvents;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ktb.chatapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 백그라운드 주기 작업(@Scheduled) 활성화 및 공용 스케줄러.
+ * @Scheduled 작업과 각 컴포넌트의 주기 작업(flush, sweep, heartbeat 등)이 같은 스레드 풀을 쓰므로 스레드 수가 pool-size로 제한된다.
+ * 컴포넌트는 이 빈을 주입받으므로 컴포넌트의 @PreDestroy(마지막 flush)가 끝난 뒤 스케줄러가 종료된다.
+ * 블로킹 커서를 계속 읽는 change stream/inbox 스레드와 키별 TTL용 HashedWheelTimer는 대상이 아니다.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduler.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("app-scheduler-");
+        scheduler.setDaemon(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setErrorHandler(e -> log.error("Scheduled task failed", e));
+        return scheduler;
+    }
+}
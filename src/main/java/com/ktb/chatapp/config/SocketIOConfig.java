@@ -1,7 +1,6 @@
 package com.ktb.chatapp.config;
 
 import com.corundumstudio.socketio.AuthTokenListener;
-import com.corundumstudio.socketio.SocketConfig;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.SpringAnnotationScanner;
 import com.corundumstudio.socketio.namespace.Namespace;
@@ -9,7 +8,16 @@ import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
 import com.corundumstudio.socketio.store.MemoryStoreFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ktb.chatapp.websocket.socketio.ChatDataStore;
+import com.ktb.chatapp.websocket.socketio.ConnectedUsers;
 import com.ktb.chatapp.websocket.socketio.LocalChatDataStore;
+import com.ktb.chatapp.websocket.socketio.PersistentChatDataStore;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.outbound.ClientEventLoops;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanPostProcessor;
@@ -18,6 +26,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Role;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.unit.DataSize;
 
 import static org.springframework.beans.factory.config.BeanDefinition.ROLE_INFRASTRUCTURE;
 
@@ -35,19 +45,68 @@ public class SocketIOConfig {
     @Value("${socketio.server.allowed-origins}")
     private String[] allowedOrigins;
 
+    /**
+     * 전송 계층 설정, socketio.transport.profile 프리셋에 개별 속성 override 적용
+     */
+    @Bean
+    public SocketTransportSettings socketTransportSettings(
+            @Value("${socketio.transport.profile:high-connection}") String profile,
+            @Value("${socketio.transport.native-epoll:#{null}}") Boolean nativeEpoll,
+            @Value("${socketio.transport.boss-threads:#{null}}") Integer bossThreads,
+            @Value("${socketio.transport.worker-threads:#{null}}") Integer workerThreads,
+            @Value("${socketio.transport.tcp-no-delay:#{null}}") Boolean tcpNoDelay,
+            @Value("${socketio.transport.send-buffer-size:#{null}}") Integer sendBufferSize,
+            @Value("${socketio.transport.receive-buffer-size:#{null}}") Integer receiveBufferSize,
+            @Value("${socketio.transport.accept-backlog:#{null}}") Integer acceptBacklog,
+            @Value("${socketio.transport.pooled-direct-buffers:#{null}}") Boolean pooledDirectBuffers) {
+        return new SocketTransportSettings(SocketTransportProfile.from(profile), nativeEpoll,
+                bossThreads, workerThreads, tcpNoDelay, sendBufferSize, receiveBufferSize,
+                acceptBacklog, pooledDirectBuffers);
+    }
+
+    /**
+     * WebSocket permessage-deflate 설정, threshold 미만 프레임은 압축하지 않는다
+     */
+    @Bean
+    public WebSocketCompressionSettings webSocketCompressionSettings(
+            @Value("${socketio.compression.websocket.enabled:true}") boolean enabled,
+            @Value("${socketio.compression.websocket.threshold:1024}") int threshold,
+            @Value("${socketio.compression.websocket.level:1}") int level,
+            @Value("${socketio.compression.websocket.context-takeover:true}") boolean contextTakeover) {
+        return new WebSocketCompressionSettings(enabled, threshold, level, contextTakeover);
+    }
+
+    /**
+     * 연결별 이벤트 배칭 설정, batch=1 쿼리로 연결한 클라이언트에만 적용된다
+     */
+    @Bean
+    public EventBatchSettings eventBatchSettings(
+            @Value("${socketio.batch.enabled:false}") boolean enabled,
+            @Value("${socketio.batch.interval:10ms}") Duration interval,
+            @Value("${socketio.batch.max-events:64}") int maxEvents) {
+        return new EventBatchSettings(enabled, interval, maxEvents);
+    }
+
+    /**
+     * 세션별 event loop, 큰 방 브로드캐스트를 loop 단위로 나누는 데 쓴다
+     */
+    @Bean
+    public ClientEventLoops clientEventLoops() {
+        return new ClientEventLoops();
+    }
+
     @Bean(initMethod = "start", destroyMethod = "stop")
-    public SocketIOServer socketIOServer(AuthTokenListener authTokenListener) {
+    public SocketIOServer socketIOServer(AuthTokenListener authTokenListener,
+                                         SocketTransportSettings transportSettings,
+                                         WebSocketCompressionSettings compressionSettings,
+                                         EventBatchSettings batchSettings,
+                                         ClientEventLoops clientEventLoops,
+                                         @Value("${socketio.msgpack.enabled:true}") boolean msgpackEnabled) {
         com.corundumstudio.socketio.Configuration config = new com.corundumstudio.socketio.Configuration();
         config.setHostname(host);
         config.setPort(port);
-        
-        var socketConfig = new SocketConfig();
-        socketConfig.setReuseAddress(true);
-        socketConfig.setTcpNoDelay(false);
-        socketConfig.setAcceptBackLog(10);
-        socketConfig.setTcpSendBufferSize(4096);
-        socketConfig.setTcpReceiveBufferSize(4096);
-        config.setSocketConfig(socketConfig);
+        transportSettings.applyTo(config);
+        config.setWebsocketCompression(compressionSettings.isEnabled());
 
         String joinedAllowedOrigins = String.join(",", allowedOrigins);
         config.setOrigin(joinedAllowedOrigins);
@@ -61,7 +120,12 @@ public class SocketIOConfig {
         config.setStoreFactory(new MemoryStoreFactory()); // 단일노드 전용
 
         log.info("Socket.IO server configured on {}:{} with CORS origins: {}", host, port, joinedAllowedOrigins);
-        var socketIOServer = new SocketIOServer(config);
+        log.info("Socket.IO transport: {}", transportSettings);
+        log.info("Socket.IO websocket compression: {}", compressionSettings);
+        log.info("Socket.IO event batching: {}", batchSettings);
+        var socketIOServer = new TransportTunedSocketIOServer(config, transportSettings);
+        socketIOServer.setPipelineFactory(new ChatChannelInitializer(
+                compressionSettings, msgpackEnabled, batchSettings, clientEventLoops));
         socketIOServer.getNamespace(Namespace.DEFAULT_NAME).addAuthTokenListener(authTokenListener);
         
         return socketIOServer;
@@ -79,10 +143,28 @@ public class SocketIOConfig {
         return new SpringAnnotationScanner(socketIOServer);
     }
     
-    // 인메모리 저장소, 단일 노드 환경에서만 사용
-    @Bean
+    // 인메모리 저장소, 단일 노드 환경에서만 사용. type=mapped이면 변경 내역을 파일에 남겨 재시작 시 복구한다
+    // 연결 정보는 중복 로그인 감지/해제 처리의 기준이므로 max-entries 축출 대상에서 제외한다
+    // TTL이 없는 접속 중 사용자의 방 목록은 저장소가 축출하지 않는다
+    @Bean(destroyMethod = "close")
     @ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
-    public ChatDataStore chatDataStore() {
-        return new LocalChatDataStore();
+    public ChatDataStore chatDataStore(MeterRegistry meterRegistry,
+                                       TaskScheduler taskScheduler,
+                                       @Value("${socketio.store.max-entries:100000}") int maxEntries,
+                                       @Value("${socketio.store.user-rooms-ttl:24h}") Duration userRoomsTtl,
+                                       @Value("${socketio.store.type:memory}") String type,
+                                       @Value("${socketio.store.mapped.path:./data/chat-store.log}") Path path,
+                                       @Value("${socketio.store.mapped.sync-interval:1s}") Duration syncInterval,
+                                       @Value("${socketio.store.mapped.compact-interval:1m}") Duration compactInterval,
+                                       @Value("${socketio.store.mapped.min-compact-size:64MB}") DataSize minCompactSize) {
+        LocalChatDataStore store = new LocalChatDataStore(maxEntries, Set.of(ConnectedUsers.USER_SOCKET_KEY_PREFIX))
+                .bindTo(meterRegistry);
+        if (!"mapped".equalsIgnoreCase(type)) {
+            return store;
+        }
+        // 비정상 종료로 TTL 없이 남은 방 목록은 복구 직후 연결이 끊긴 것으로 보고 만료를 건다
+        return new PersistentChatDataStore(store, path, minCompactSize.toBytes(),
+                Map.of(UserRooms.USER_ROOM_KEY_PREFIX, userRoomsTtl))
+                .start(taskScheduler, syncInterval, compactInterval);
     }
 }
@@ -0,0 +1,80 @@
+package com.ktb.chatapp.config;
+
+/**
+ * Socket.IO 서버 전송 계층 프리셋.
+ * 개별 값은 socketio.transport.* 속성으로 덮어쓸 수 있다.
+ */
+public enum SocketTransportProfile {
+
+    /**
+     * 기존 설정 그대로: NIO, Nagle 사용, 4KB 버퍼, accept backlog 10
+     */
+    COMPAT(false, 0, 0, false, 4096, 4096, 10, false),
+
+    /**
+     * 배포 직후 재연결 폭주 대비: epoll, pooled direct 버퍼, Nagle 비활성화, 큰 accept backlog.
+     * backlog는 커널의 net.core.somaxconn 값을 넘을 수 없다.
+     */
+    HIGH_CONNECTION(true, 1, 0, true, 65536, 16384, 8192, true);
+
+    private final boolean nativeEpoll;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final int acceptBacklog;
+    private final boolean pooledDirectBuffers;
+
+    SocketTransportProfile(boolean nativeEpoll, int bossThreads, int workerThreads, boolean tcpNoDelay,
+                           int sendBufferSize, int receiveBufferSize, int acceptBacklog,
+                           boolean pooledDirectBuffers) {
+        this.nativeEpoll = nativeEpoll;
+        this.bossThreads = bossThreads;
+        this.workerThreads = workerThreads;
+        this.tcpNoDelay = tcpNoDelay;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+        this.acceptBacklog = acceptBacklog;
+        this.pooledDirectBuffers = pooledDirectBuffers;
+    }
+
+    /**
+     * 설정값(compat, high-connection)을 프로필로 변환한다.
+     */
+    public static SocketTransportProfile from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase());
+    }
+
+    boolean nativeEpoll() {
+        return nativeEpoll;
+    }
+
+    int bossThreads() {
+        return bossThreads;
+    }
+
+    int workerThreads() {
+        return workerThreads;
+    }
+
+    boolean tcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    int sendBufferSize() {
+        return sendBufferSize;
+    }
+
+    int receiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    int acceptBacklog() {
+        return acceptBacklog;
+    }
+
+    boolean pooledDirectBuffers() {
+        return pooledDirectBuffers;
+    }
+}
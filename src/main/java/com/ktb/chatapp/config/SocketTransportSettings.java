@@ -0,0 +1,94 @@
+package com.ktb.chatapp.config;
+
+import com.corundumstudio.socketio.SocketConfig;
+import io.netty.channel.epoll.Epoll;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로필 기본값에 개별 속성 override를 적용한 전송 계층 설정.
+ * null인 override는 프로필 값을 그대로 사용한다.
+ */
+@Slf4j
+@Getter
+public class SocketTransportSettings {
+
+    private final SocketTransportProfile profile;
+    private final boolean nativeEpoll;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final int acceptBacklog;
+    private final boolean pooledDirectBuffers;
+
+    public SocketTransportSettings(SocketTransportProfile profile,
+                                   Boolean nativeEpoll,
+                                   Integer bossThreads,
+                                   Integer workerThreads,
+                                   Boolean tcpNoDelay,
+                                   Integer sendBufferSize,
+                                   Integer receiveBufferSize,
+                                   Integer acceptBacklog,
+                                   Boolean pooledDirectBuffers) {
+        this.profile = profile;
+        this.nativeEpoll = resolveEpoll(nativeEpoll != null ? nativeEpoll : profile.nativeEpoll());
+        this.bossThreads = bossThreads != null ? bossThreads : profile.bossThreads();
+        this.workerThreads = workerThreads != null ? workerThreads : profile.workerThreads();
+        this.tcpNoDelay = tcpNoDelay != null ? tcpNoDelay : profile.tcpNoDelay();
+        this.sendBufferSize = sendBufferSize != null ? sendBufferSize : profile.sendBufferSize();
+        this.receiveBufferSize = receiveBufferSize != null ? receiveBufferSize : profile.receiveBufferSize();
+        this.acceptBacklog = acceptBacklog != null ? acceptBacklog : profile.acceptBacklog();
+        this.pooledDirectBuffers = pooledDirectBuffers != null ? pooledDirectBuffers : profile.pooledDirectBuffers();
+    }
+
+    public static SocketTransportSettings of(SocketTransportProfile profile) {
+        return new SocketTransportSettings(profile, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Socket.IO 서버 설정에 전송 계층 값을 반영한다.
+     * 스레드 수 0은 netty 기본값(코어 수 * 2)을 의미한다.
+     */
+    public void applyTo(com.corundumstudio.socketio.Configuration config) {
+        config.setUseLinuxNativeEpoll(nativeEpoll);
+        config.setBossThreads(bossThreads);
+        config.setWorkerThreads(workerThreads);
+        config.setPreferDirectBuffer(pooledDirectBuffers);
+
+        var socketConfig = new SocketConfig();
+        socketConfig.setReuseAddress(true);
+        socketConfig.setTcpNoDelay(tcpNoDelay);
+        socketConfig.setAcceptBackLog(acceptBacklog);
+        socketConfig.setTcpSendBufferSize(sendBufferSize);
+        socketConfig.setTcpReceiveBufferSize(receiveBufferSize);
+        config.setSocketConfig(socketConfig);
+    }
+
+    // epoll 네이티브 라이브러리를 못 쓰는 환경(macOS, 로컬 개발)에서는 NIO로 내려간다
+    private static boolean resolveEpoll(boolean requested) {
+        if (!requested) {
+            return false;
+        }
+        if (!Epoll.isAvailable()) {
+            log.warn("Native epoll transport unavailable, falling back to NIO: {}",
+                    Epoll.unavailabilityCause() != null ? Epoll.unavailabilityCause().getMessage() : "unknown");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "profile=" + profile
+                + ", epoll=" + nativeEpoll
+                + ", bossThreads=" + bossThreads
+                + ", workerThreads=" + workerThreads
+                + ", tcpNoDelay=" + tcpNoDelay
+                + ", sndbuf=" + sendBufferSize
+                + ", rcvbuf=" + receiveBufferSize
+                + ", backlog=" + acceptBacklog
+                + ", pooledDirect=" + pooledDirectBuffers;
+    }
+}
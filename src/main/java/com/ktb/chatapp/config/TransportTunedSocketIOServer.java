@@ -0,0 +1,32 @@
+package com.ktb.chatapp.config;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.SocketIOServer;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+
+/**
+ * netty-socketio가 노출하지 않는 채널 옵션(ByteBuf allocator)을 적용하는 SocketIOServer.
+ * 연결마다 read/write 버퍼를 새로 할당하지 않도록 pooled allocator를 명시적으로 지정해
+ * io.netty.allocator.type 같은 JVM 옵션에 영향받지 않게 한다.
+ */
+public class TransportTunedSocketIOServer extends SocketIOServer {
+
+    private final SocketTransportSettings transportSettings;
+
+    public TransportTunedSocketIOServer(Configuration configuration, SocketTransportSettings transportSettings) {
+        super(configuration);
+        this.transportSettings = transportSettings;
+    }
+
+    @Override
+    protected void applyConnectionOptions(ServerBootstrap bootstrap) {
+        super.applyConnectionOptions(bootstrap);
+        if (transportSettings.isPooledDirectBuffers()) {
+            // 다른 netty 클라이언트(Redisson 등)와 arena를 공유하도록 기본 인스턴스를 사용한다
+            bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+            bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        }
+    }
+}
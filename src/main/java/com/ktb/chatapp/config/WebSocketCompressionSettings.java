@@ -0,0 +1,81 @@
+package com.ktb.chatapp.config;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.DeflateFrameServerExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import lombok.Getter;
+
+/**
+ * WebSocket permessage-deflate 설정.
+ * <ul>
+ *   <li>threshold 미만 프레임은 압축하지 않는다. 채팅 메시지, 읽음 처리 같은 작은 이벤트는
+ *       deflate 헤더/CPU 비용이 절감량보다 크다.</li>
+ *   <li>context-takeover=false이면 클라이언트가 no_context_takeover를 제안할 때 수락하고
+ *       클라이언트에도 요청한다. 메시지 간 사전을 공유하지 않아 압축률은 조금 떨어지지만
+ *       연결마다 유지되는 압축 상태를 메시지 단위로 해제할 수 있다.</li>
+ * </ul>
+ */
+@Getter
+public class WebSocketCompressionSettings {
+
+    // 수신 프레임 압축 해제 후 최대 크기, netty-socketio 기본 maxFramePayloadLength와 같다
+    static final int MAX_ALLOCATION = 64 * 1024;
+
+    private final boolean enabled;
+    private final int threshold;
+    private final int level;
+    private final boolean contextTakeover;
+
+    public WebSocketCompressionSettings(boolean enabled, int threshold, int level, boolean contextTakeover) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.level = level;
+        this.contextTakeover = contextTakeover;
+    }
+
+    public PerMessageDeflateServerExtensionHandshaker perMessageDeflate() {
+        return new PerMessageDeflateServerExtensionHandshaker(
+                level,
+                true,
+                PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE,
+                !contextTakeover,
+                !contextTakeover,
+                new ThresholdFilterProvider(threshold),
+                MAX_ALLOCATION);
+    }
+
+    /**
+     * netty-socketio 기본 WebSocketServerCompressionHandler를 대체하는 핸들러
+     */
+    public ChannelHandler newHandler() {
+        return new WebSocketServerExtensionHandler(
+                perMessageDeflate(),
+                new DeflateFrameServerExtensionHandshaker(level, new ThresholdFilterProvider(threshold), MAX_ALLOCATION));
+    }
+
+    @Override
+    public String toString() {
+        return "enabled=" + enabled
+                + ", threshold=" + threshold
+                + ", level=" + level
+                + ", contextTakeover=" + contextTakeover;
+    }
+
+    private record ThresholdFilterProvider(int threshold) implements WebSocketExtensionFilterProvider {
+
+        @Override
+        public WebSocketExtensionFilter encoderFilter() {
+            return (WebSocketFrame frame) -> frame.content().readableBytes() < threshold;
+        }
+
+        // 클라이언트가 압축해 보낸 프레임은 크기와 관계없이 풀어야 한다
+        @Override
+        public WebSocketExtensionFilter decoderFilter() {
+            return WebSocketExtensionFilter.NEVER_SKIP;
+        }
+    }
+}
@@ -5,6 +5,9 @@ import com.ktb.chatapp.dto.*;
 import com.ktb.chatapp.model.Room;
 import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
+import com.ktb.chatapp.service.RoomRetentionService;
 import com.ktb.chatapp.service.RoomService;
 import jakarta.validation.Valid;
 import java.security.Principal;
@@ -29,6 +32,9 @@ public class RoomController {
 
     private final UserRepository userRepository;
     private final RoomService roomService;
+    private final RoomRetentionService roomRetentionService;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final RoomParticipantService roomParticipantService;
 
     @Value("${spring.profiles.active:production}")
     private String activeProfile;
@@ -208,14 +214,113 @@ public class RoomController {
         }
     }
 
+    // 참가자 목록 페이지 조회, participantsDiff 버전이 맞지 않을 때 클라이언트가 다시 동기화하는 용도 (참가자만 가능)
+    @GetMapping("/{roomId}/participants")
+    public ResponseEntity<?> getParticipants(
+            @PathVariable String roomId,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        try {
+            // 대형 방의 참가자 배열 전체를 읽지 않도록 참가 여부는 exists로만 확인하고, 거부할 때만 방 존재 여부를 구분한다
+            User user = userRepository.findByEmail(principal.getName()).orElse(null);
+            if (user == null || !roomParticipantService.isParticipant(roomId, user.getId())) {
+                if (roomService.findRoomById(roomId).isEmpty()) {
+                    return ResponseEntity.status(404).body(
+                        ApiResponse.error("채팅방을 찾을 수 없습니다.")
+                    );
+                }
+                return ResponseEntity.status(403).body(
+                    ApiResponse.error("채팅방 접근 권한이 없습니다.")
+                );
+            }
+
+            FetchParticipantsRequest request = new FetchParticipantsRequest(roomId, offset, limit);
+            return roomParticipantService.page(roomId, request.offsetOrZero(), request.limit(largeRoomPolicy.getPageSize()))
+                    .<ResponseEntity<?>>map(page -> ResponseEntity.ok(ApiResponse.success(page)))
+                    .orElseGet(() -> ResponseEntity.status(404)
+                            .body(ApiResponse.error("채팅방을 찾을 수 없습니다.")));
+        } catch (Exception e) {
+            log.error("참가자 목록 조회 에러", e);
+            return ResponseEntity.status(500).body(
+                ApiResponse.error("참가자 목록을 불러오는데 실패했습니다.")
+            );
+        }
+    }
+
+    // 방별 메시지 보존 정책 및 정리 현황 조회 (참가자만 가능)
+    @GetMapping("/{roomId}/retention")
+    public ResponseEntity<?> getRetention(@PathVariable String roomId, Principal principal) {
+        try {
+            Optional<Room> roomOpt = roomService.findRoomById(roomId);
+            if (roomOpt.isEmpty()) {
+                return ResponseEntity.status(404).body(
+                    ApiResponse.error("채팅방을 찾을 수 없습니다.")
+                );
+            }
+
+            User user = userRepository.findByEmail(principal.getName()).orElse(null);
+            if (user == null || !roomOpt.get().getParticipantIds().contains(user.getId())) {
+                return ResponseEntity.status(403).body(
+                    ApiResponse.error("채팅방 접근 권한이 없습니다.")
+                );
+            }
+
+            return roomRetentionService.getStats(roomId)
+                    .<ResponseEntity<?>>map(stats -> ResponseEntity.ok(ApiResponse.success(stats)))
+                    .orElseGet(() -> ResponseEntity.status(404)
+                            .body(ApiResponse.error("채팅방을 찾을 수 없습니다.")));
+        } catch (Exception e) {
+            log.error("보존 정책 조회 에러", e);
+            return ResponseEntity.status(500).body(
+                ApiResponse.error("보존 정책을 불러오는데 실패했습니다.")
+            );
+        }
+    }
+
+    // 방별 메시지 보존 정책 변경 (방 생성자만 가능)
+    @PutMapping("/{roomId}/retention")
+    public ResponseEntity<?> updateRetention(
+            @PathVariable String roomId,
+            @Valid @RequestBody RetentionPolicyRequest request,
+            Principal principal) {
+        try {
+            Optional<Room> roomOpt = roomService.findRoomById(roomId);
+            if (roomOpt.isEmpty()) {
+                return ResponseEntity.status(404).body(
+                    ApiResponse.error("채팅방을 찾을 수 없습니다.")
+                );
+            }
+
+            User user = userRepository.findByEmail(principal.getName()).orElse(null);
+            if (user == null || !user.getId().equals(roomOpt.get().getCreator())) {
+                return ResponseEntity.status(403).body(
+                    ApiResponse.error("보존 정책은 방 생성자만 변경할 수 있습니다.")
+                );
+            }
+
+            roomRetentionService.updatePolicy(roomId, request);
+            return ResponseEntity.ok(ApiResponse.success(roomRetentionService.getStats(roomId).orElse(null)));
+
+        } catch (Exception e) {
+            log.error("보존 정책 변경 에러", e);
+            return ResponseEntity.status(500).body(
+                ApiResponse.error("보존 정책 변경에 실패했습니다.")
+            );
+        }
+    }
+
     private RoomResponse mapToRoomResponse(Room room, String name) {
         User creator = userRepository.findById(room.getCreator()).orElse(null);
         if (creator == null) {
             throw new RuntimeException("Creator not found for room " + room.getId());
         }
         UserResponse creatorSummary = UserResponse.from(creator);
+        // 대형 방은 참가자 첫 페이지만 담는다. 모드 전환은 참가자 변경 경로에서만 한다
+        boolean largeRoom = largeRoomPolicy.isLarge(room.getId(), room.getParticipantCount());
         List<UserResponse> participantSummaries = room.getParticipantIds()
                 .stream()
+                .limit(largeRoom ? largeRoomPolicy.getPageSize() : Long.MAX_VALUE)
                 .map(userRepository::findById).peek(optUser -> {
                     if (optUser.isEmpty()) {
                         log.warn("Participant not found: roomId={}, userId={}", room.getId(), optUser);
@@ -228,14 +333,15 @@ public class RoomController {
 
         boolean isCreator = room.getCreator().equals(name);
 
-        return new RoomResponse(
-                room.getId(),
-                room.getName(),
-                room.isHasPassword(),
-                creatorSummary,
-                participantSummaries,
-                room.getCreatedAt() != null ? room.getCreatedAt() : LocalDateTime.now(),
-                isCreator
-        );
+        return RoomResponse.builder()
+                .id(room.getId())
+                .name(room.getName())
+                .hasPassword(room.isHasPassword())
+                .creator(creatorSummary)
+                .participants(participantSummaries)
+                .participantTotal(room.getParticipantCount())
+                .createdAtDateTime(room.getCreatedAt() != null ? room.getCreatedAt() : LocalDateTime.now())
+                .isCreator(isCreator)
+                .build();
     }
 }
@@ -0,0 +1,24 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 연결 직후 보내는 선호 노드 안내.
+ * 클라이언트가 url로 다시 연결하면 가장 활발한 방의 멤버들과 같은 노드에 붙는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffinityHintResponse {
+    // 현재 연결된 노드
+    private String currentNodeId;
+    private String nodeId;
+    // 선호 노드의 Socket.IO 주소, 노드별 주소가 없으면 null
+    private String url;
+    // 선호 노드가 소유한 방 (활발한 순)
+    private List<String> roomIds;
+}
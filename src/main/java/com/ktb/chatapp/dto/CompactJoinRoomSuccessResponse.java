@@ -0,0 +1,41 @@
+package com.ktb.chatapp.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * COMPACT wire format용 joinRoomSuccess 응답 DTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactJoinRoomSuccessResponse {
+    private String roomId;
+    private List<UserResponse> participants;
+    private int participantCount;
+    private long participantsVersion;
+    private boolean largeRoom;
+    private List<CompactMessageResponse> messages;
+    private Map<String, UserResponse> senders;
+    private boolean hasMore;
+    private List<ActiveStreamResponse> activeStreams;
+
+    public static CompactJoinRoomSuccessResponse from(JoinRoomSuccessResponse response, String viewerId) {
+        return CompactJoinRoomSuccessResponse.builder()
+                .roomId(response.getRoomId())
+                .participants(response.getParticipants())
+                .participantCount(response.getParticipantCount())
+                .participantsVersion(response.getParticipantsVersion())
+                .largeRoom(response.isLargeRoom())
+                .messages(CompactMessagePage.compactMessages(response.getMessages(), viewerId))
+                .senders(CompactMessagePage.senders(response.getMessages()))
+                .hasMore(response.isHasMore())
+                .activeStreams(response.getActiveStreams())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ktb.chatapp.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * COMPACT wire format 메시지 페이지.
+ * 같은 사용자가 여러 메시지를 보낸 경우 sender 정보는 senders 맵에 한 번만 담는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactMessagePage {
+    private List<CompactMessageResponse> messages;
+    private Map<String, UserResponse> senders;
+    private boolean hasMore;
+
+    public static CompactMessagePage from(FetchMessagesResponse page, String viewerId) {
+        return new CompactMessagePage(
+                compactMessages(page.getMessages(), viewerId),
+                senders(page.getMessages()),
+                page.isHasMore());
+    }
+
+    static List<CompactMessageResponse> compactMessages(List<MessageResponse> messages, String viewerId) {
+        return messages.stream()
+                .map(message -> CompactMessageResponse.from(message, viewerId, false))
+                .toList();
+    }
+
+    static Map<String, UserResponse> senders(List<MessageResponse> messages) {
+        Map<String, UserResponse> senders = new LinkedHashMap<>();
+        for (MessageResponse message : messages) {
+            if (message.getSender() != null && message.getSender().getId() != null) {
+                senders.putIfAbsent(message.getSender().getId(), message.getSender());
+            }
+        }
+        return senders;
+    }
+}
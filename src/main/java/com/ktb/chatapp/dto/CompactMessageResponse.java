@@ -0,0 +1,103 @@
+package com.ktb.chatapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ktb.chatapp.model.AiType;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * COMPACT wire format 메시지 DTO.
+ * readers/reactions 사용자 목록 대신 개수와 조회자 기준 값만 보낸다.
+ * sender는 페이지에서는 senders 맵으로 분리되고, 단건 브로드캐스트에서만 포함된다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactMessageResponse {
+    @JsonProperty("_id")
+    private String id;
+
+    @JsonProperty("room")
+    private String roomId;
+
+    private String content;
+
+    private String senderId;
+
+    private UserResponse sender;
+
+    private MessageType type;
+
+    @JsonProperty("file")
+    private FileResponse file;
+
+    private AiType aiType;
+
+    private long timestamp;
+
+    private Long seq;
+
+    private int readerCount;
+
+    private boolean readByMe;
+
+    // 리액션별 사용자 수
+    private Map<String, Integer> reactions;
+
+    private List<String> myReactions;
+
+    // 파일 메시지의 metadata는 file 정보와 중복되므로 보내지 않는다
+    private Map<String, Object> metadata;
+
+    /**
+     * @param viewerId 수신자 ID, readByMe/myReactions 계산에 사용
+     * @param inlineSender sender 객체 포함 여부
+     */
+    public static CompactMessageResponse from(MessageResponse message, String viewerId, boolean inlineSender) {
+        var readers = message.getReaders() != null ? message.getReaders() : List.<Message.MessageReader>of();
+        Map<String, Integer> reactionCounts = new LinkedHashMap<>();
+        List<String> myReactions = new ArrayList<>();
+        if (message.getReactions() != null) {
+            for (Map.Entry<String, Set<String>> entry : message.getReactions().entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                reactionCounts.put(entry.getKey(), entry.getValue().size());
+                if (viewerId != null && entry.getValue().contains(viewerId)) {
+                    myReactions.add(entry.getKey());
+                }
+            }
+        }
+
+        return CompactMessageResponse.builder()
+                .id(message.getId())
+                .roomId(message.getRoomId())
+                .content(message.getContent())
+                .senderId(message.getSender() != null ? message.getSender().getId() : null)
+                .sender(inlineSender ? message.getSender() : null)
+                .type(message.getType())
+                .file(message.getFile())
+                .aiType(message.getAiType())
+                .timestamp(message.getTimestamp())
+                .seq(message.getSeq())
+                .readerCount(readers.size() + (int) message.getReadCount())
+                .readByMe(viewerId != null && readers.stream().anyMatch(r -> viewerId.equals(r.getUserId())))
+                .reactions(reactionCounts.isEmpty() ? null : reactionCounts)
+                .myReactions(myReactions.isEmpty() ? null : myReactions)
+                .metadata(message.getFile() == null && message.getMetadata() != null && !message.getMetadata().isEmpty()
+                        ? message.getMetadata() : null)
+                .build();
+    }
+}
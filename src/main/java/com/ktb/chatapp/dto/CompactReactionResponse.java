@@ -0,0 +1,41 @@
+package com.ktb.chatapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * COMPACT wire format용 messageReactionUpdate 응답 DTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactReactionResponse {
+    private String messageId;
+    private Map<String, Integer> reactions;
+    private List<String> myReactions;
+
+    public static CompactReactionResponse from(MessageReactionResponse response, String viewerId) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        List<String> mine = new ArrayList<>();
+        if (response.getReactions() != null) {
+            for (Map.Entry<String, Set<String>> entry : response.getReactions().entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                counts.put(entry.getKey(), entry.getValue().size());
+                if (entry.getValue().contains(viewerId)) {
+                    mine.add(entry.getKey());
+                }
+            }
+        }
+        return new CompactReactionResponse(response.getMessageId(), counts, mine.isEmpty() ? null : mine);
+    }
+}
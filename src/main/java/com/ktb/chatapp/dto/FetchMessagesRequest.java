@@ -4,7 +4,13 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 
 // 최초는 limit 개수만 조회, 이후에는 before 메시지 ID 기준으로 이전 메시지 조회
-public record FetchMessagesRequest(String roomId, Integer limit, Long before) {
+// afterSeq가 있으면 해당 시퀀스 이후 메시지를 오름차순으로 조회 (재접속 동기화)
+public record FetchMessagesRequest(String roomId, Integer limit, Long before, Long afterSeq) {
+    
+    public FetchMessagesRequest(String roomId, Integer limit, Long before) {
+        this(roomId, limit, before, null);
+    }
+    
     public int limit(int defaultLimit) {
         return limit != null && limit > 0 ? limit : defaultLimit;
     }
@@ -18,4 +24,8 @@ public record FetchMessagesRequest(String roomId, Integer limit, Long before) {
         }
         return defaultBeforeTime;
     }
+    
+    public boolean hasAfterSeq() {
+        return afterSeq != null && afterSeq >= 0;
+    }
 }
@@ -0,0 +1,13 @@
+package com.ktb.chatapp.dto;
+
+// 참가자 목록 페이지 요청, offset은 0부터 시작
+public record FetchParticipantsRequest(String roomId, Integer offset, Integer limit) {
+
+    public int offsetOrZero() {
+        return offset != null && offset > 0 ? offset : 0;
+    }
+
+    public int limit(int defaultLimit) {
+        return limit != null && limit > 0 ? Math.min(limit, defaultLimit) : defaultLimit;
+    }
+}
@@ -9,6 +9,8 @@ import java.util.List;
 
 /**
  * joinRoomSuccess 이벤트 응답 DTO.
+ * 대형 방은 participants에 첫 페이지만 담기므로 전체 수는 participantCount로 전달한다.
+ * participantsVersion은 이후 participantsDiff를 적용할 기준 버전이다.
  */
 @Data
 @NoArgsConstructor
@@ -17,6 +19,9 @@ import java.util.List;
 public class JoinRoomSuccessResponse {
     private String roomId;
     private List<UserResponse> participants;
+    private int participantCount;
+    private long participantsVersion;
+    private boolean largeRoom;
     private List<MessageResponse> messages;
     private boolean hasMore;
     private List<ActiveStreamResponse> activeStreams;
@@ -6,5 +6,7 @@ import java.util.List;
 
 @Data
 public class MarkAsReadRequest {
+    // 선택 값, 있으면 캐시된 입장 정보로 검증하고 메시지 조회를 생략한다
+    private String roomId;
     private List<String> messageIds;
 }
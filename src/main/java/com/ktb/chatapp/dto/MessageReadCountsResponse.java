@@ -0,0 +1,19 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 대형 방의 읽음 수 갱신, 한 tick 동안 읽은 사람 수가 바뀐 메시지의 현재 값
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageReadCountsResponse {
+    private String roomId;
+    // messageId -> 읽은 사람 수
+    private Map<String, Integer> counts;
+}
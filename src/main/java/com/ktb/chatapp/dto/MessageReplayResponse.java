@@ -0,0 +1,32 @@
+package com.ktb.chatapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * messagesReplayed 이벤트 응답 DTO.
+ * messages는 wire format에 따라 MessageResponse 또는 CompactMessageResponse 목록이다.
+ * resyncRequired가 true면 메시지 외 방 이벤트(리액션, 읽음, 참가자, AI 스트리밍 등)를 놓쳤을 수 있으므로
+ * 클라이언트는 방 정보와 최신 메시지 페이지를 다시 불러와야 한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MessageReplayResponse {
+    public static final String MEMORY = "memory";
+    public static final String DATABASE = "database";
+
+    private String roomId;
+    private String source;
+    private List<?> messages;
+    private Map<String, UserResponse> senders;
+    private boolean hasMore;
+    private boolean resyncRequired;
+}
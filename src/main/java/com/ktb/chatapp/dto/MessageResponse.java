@@ -39,10 +39,16 @@ public class MessageResponse {
     
     private long timestamp;
     
+    // 방별 메시지 시퀀스, 누락 감지 및 afterSeq 동기화에 사용
+    private Long seq;
+    
     private Map<String, Set<String>> reactions;
     
     private List<Message.MessageReader> readers;
     
+    // 대형 방 모드에서 readers 대신 기록된 읽은 사람 수
+    private long readCount;
+    
     // metadata는 자유 형식 (Map<String, Object>)
     private Map<String, Object> metadata;
 }
@@ -0,0 +1,18 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 한 tick 동안 모인 방의 읽음 처리 묶음 (COMPACT wire format)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessagesReadBatchResponse {
+    private String roomId;
+    private List<MessagesReadResponse> reads;
+}
@@ -0,0 +1,26 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 참가자 목록 한 페이지.
+ * version은 조회 시점의 participantsVersion이며, 페이지마다 version이 다르면 그 사이에 참가자가 바뀐 것이다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantPageResponse {
+    private String roomId;
+    private long version;
+    private int offset;
+    private int total;
+    private List<UserResponse> participants;
+
+    public boolean isHasMore() {
+        return offset + participants.size() < total;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 참가자 변경 diff, fromVersion 상태에서 version 상태로 가는 데 필요한 추가/제거 사용자.
+ * 클라이언트는 보유한 버전이 fromVersion과 같으면 적용하고, version 이하이면 이미 반영된 것으로 무시하며,
+ * 그 외(중간 버전 누락)에는 fetchParticipants 또는 GET /api/rooms/{roomId}/participants로 다시 동기화한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantsDiffResponse {
+    private String roomId;
+    private long fromVersion;
+    private long version;
+    private int participantCount;
+    private List<UserResponse> added;
+    private List<String> removed;
+}
@@ -0,0 +1,19 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 방별 presence 변경 묶음, 한 tick 동안 온라인/오프라인으로 바뀐 참가자
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDiffResponse {
+    private String roomId;
+    private List<String> online;
+    private List<String> offline;
+}
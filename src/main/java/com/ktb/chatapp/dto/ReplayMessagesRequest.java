@@ -0,0 +1,11 @@
+package com.ktb.chatapp.dto;
+
+import java.util.Map;
+
+/**
+ * 재연결 후 놓친 메시지 요청
+ *
+ * @param rooms roomId -> 클라이언트가 마지막으로 받은 seq
+ */
+public record ReplayMessagesRequest(Map<String, Long> rooms) {
+}
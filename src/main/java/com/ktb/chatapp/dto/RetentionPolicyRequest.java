@@ -0,0 +1,24 @@
+package com.ktb.chatapp.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionPolicyRequest {
+
+    // null이면 기간 제한 없음
+    @Min(1)
+    @Max(3650)
+    private Integer maxAgeDays;
+
+    // null이면 개수 제한 없음
+    @Min(1)
+    private Integer maxMessages;
+}
@@ -0,0 +1,24 @@
+package com.ktb.chatapp.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 방별 메시지 보존 현황
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionStatsResponse {
+    private String roomId;
+    private Integer maxAgeDays;
+    private Integer maxMessages;
+    private long messageCount;
+    private LocalDateTime oldestMessageAt;
+    private long trimmedCount;
+    private LocalDateTime lastTrimmedAt;
+}
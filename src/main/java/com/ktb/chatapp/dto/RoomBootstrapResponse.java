@@ -0,0 +1,29 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * roomsBootstrap 이벤트의 방별 요약 DTO.
+ * 클라이언트는 latestSeq로 afterSeq 동기화를, participantsVersion 변화로 참가자 재조회를 결정한다.
+ * unreadCount는 socketio.rejoin.unread-cap이 상한이다.
+ * onlineUserIds는 이후 presenceUpdate diff의 기준 상태이다. 대형 방은 onlineUserIds를 보내지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomBootstrapResponse {
+    private String roomId;
+    private Long latestSeq;
+    private Long latestTimestamp;
+    private long unreadCount;
+    private long participantsVersion;
+    private int participantCount;
+    private List<String> onlineUserIds;
+    private boolean largeRoom;
+}
@@ -23,6 +23,10 @@ public class RoomResponse {
     private UserResponse creator;
     private List<UserResponse> participants;
     
+    // 대형 방은 participants에 첫 페이지만 담기므로 전체 참가자 수를 따로 둔다
+    @JsonIgnore
+    private Integer participantTotal;
+    
     @JsonIgnore
     private LocalDateTime createdAtDateTime;
     
@@ -30,6 +34,9 @@ public class RoomResponse {
     
     @JsonGetter("participantsCount")
     public int getParticipantsCount() {
+        if (participantTotal != null) {
+            return participantTotal;
+        }
         return participants != null ? participants.size() : 0;
     }
     
@@ -0,0 +1,21 @@
+package com.ktb.chatapp.event;
+
+import java.util.Collection;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 메시지 읽음 상태(readers 또는 readCount) 변경 이벤트.
+ * messageIds는 읽음 상태가 바뀌었을 수 있는 메시지 ID이다.
+ */
+@Getter
+public class MessagesReadEvent extends ApplicationEvent {
+    private final String roomId;
+    private final Collection<String> messageIds;
+
+    public MessagesReadEvent(Object source, String roomId, Collection<String> messageIds) {
+        super(source);
+        this.roomId = roomId;
+        this.messageIds = messageIds;
+    }
+}
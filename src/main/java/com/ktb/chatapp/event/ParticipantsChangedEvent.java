@@ -0,0 +1,27 @@
+package com.ktb.chatapp.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 방 참가자 추가/제거 이벤트.
+ * version은 변경 후 participantsVersion, participantCount는 변경 후 참가자 수이다.
+ */
+@Getter
+public class ParticipantsChangedEvent extends ApplicationEvent {
+    private final String roomId;
+    private final String userId;
+    private final boolean joined;
+    private final long version;
+    private final int participantCount;
+
+    public ParticipantsChangedEvent(Object source, String roomId, String userId, boolean joined,
+                                    long version, int participantCount) {
+        super(source);
+        this.roomId = roomId;
+        this.userId = userId;
+        this.joined = joined;
+        this.version = version;
+        this.participantCount = participantCount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ktb.chatapp.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Change stream 재개 토큰.
+ * 노드 재시작 시 마지막으로 처리한 이벤트 이후부터 이어서 구독하기 위해 저장한다.
+ * id는 "{nodeId}:{collection}" 형식이다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "change_stream_resume_tokens")
+public class ChangeStreamResumeToken {
+
+    @Id
+    private String id;
+
+    // BsonDocument JSON 문자열
+    private String token;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.ktb.chatapp.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 살아 있는 백엔드 노드.
+ * id는 nodeId이며, heartbeat가 끊긴 노드는 TTL로 정리된다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "cluster_nodes")
+public class ClusterNodeEntry {
+
+    @Id
+    private String id;
+
+    // 클라이언트가 이 노드에 직접 붙을 때 쓰는 Socket.IO 주소 (없으면 null)
+    private String url;
+
+    private long connections;
+
+    @Indexed(expireAfter = "60s")
+    private Instant heartbeatAt;
+}
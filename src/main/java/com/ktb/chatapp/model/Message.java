@@ -31,7 +31,9 @@ import java.util.Set;
 @Document(collection = "messages")
 @CompoundIndexes({
     @CompoundIndex(name = "readers_userId_idx", def = "{'readers.userId': 1}"),
-    @CompoundIndex(name = "reactions_userId_idx", def = "{'reactions': 1}")
+    @CompoundIndex(name = "reactions_userId_idx", def = "{'reactions': 1}"),
+    @CompoundIndex(name = "room_seq_idx", def = "{'room': 1, 'seq': 1}", unique = true,
+            partialFilter = "{'seq': {$exists: true}}")
 })
 public class Message {
 
@@ -67,6 +69,9 @@ public class Message {
     @CreatedDate
     private LocalDateTime timestamp;
 
+    // 방별 단조 증가 시퀀스 (MessageSequenceService가 저장 시 부여)
+    private Long seq;
+
     @Builder.Default
     private Map<String, Set<String>> reactions = new HashMap<>();
 
@@ -74,6 +79,9 @@ public class Message {
     @Builder.Default
     private List<MessageReader> readers = new ArrayList<>();
 
+    // 대형 방 모드에서 readers 대신 기록하는 읽은 사람 수
+    private long readCount;
+
     // 자유 형식 metadata 저장 필드
     @Builder.Default
     private Map<String, Object> metadata = new HashMap<>();
@@ -82,6 +90,10 @@ public class Message {
     @Builder.Default
     private Boolean isDeleted = false;
 
+    // 보존 기간 만료 시각, 기간 정책이 있는 방의 메시지에만 설정 (partial TTL)
+    @Indexed(name = "expireAt_ttl_idx", expireAfter = "0s", partialFilter = "{'expireAt': {$exists: true}}")
+    private LocalDateTime expireAt;
+
     // 메시지 읽음 상태를 나타내는 내부 클래스
     @Data
     @Builder
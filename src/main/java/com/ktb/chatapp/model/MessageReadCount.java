@@ -0,0 +1,14 @@
+package com.ktb.chatapp.model;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * 메시지별 읽은 사람 수 (aggregation 결과)
+ *
+ * @param messageId 메시지 ID
+ * @param readerCount readers 목록 크기와 readCount의 합
+ */
+public record MessageReadCount(
+        @Id String messageId,
+        int readerCount) {
+}
@@ -0,0 +1,48 @@
+package com.ktb.chatapp.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 특정 노드에 접속한 사용자 또는 노드의 방 구독자에게 보낼 이벤트.
+ * 대상 노드만 change stream으로 받아 전달하며, 전달 여부와 관계없이 TTL로 정리된다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "node_inbox")
+public class NodeInboxMessage {
+
+    @Id
+    private String id;
+
+    private String nodeId;
+
+    private String userId;
+
+    // 있으면 해당 연결에만, 없으면 사용자의 모든 로컬 연결에 전달
+    private String socketId;
+
+    // 있으면 사용자 대신 대상 노드의 방 구독자에게 전달 (방 이벤트 relay)
+    private String roomId;
+
+    // relay를 시작한 노드. 소유 노드가 다시 중계할 때 제외한다
+    private String originNodeId;
+
+    private String event;
+
+    private Object payload;
+
+    // LATEST 정책 이벤트의 교체 키 (없으면 RELIABLE)
+    private String mergeKey;
+
+    @Indexed(expireAfter = "60s")
+    private Instant createdAt;
+}
@@ -0,0 +1,31 @@
+package com.ktb.chatapp.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 방별 메시지 보존 정책.
+ * maxAgeDays와 maxMessages 중 설정된 조건을 모두 적용하며, null이면 해당 조건은 무제한이다.
+ * trimmedCount/lastTrimmedAt은 백그라운드 정리 통계이다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionPolicy {
+
+    private Integer maxAgeDays;
+
+    private Integer maxMessages;
+
+    private long trimmedCount;
+
+    private LocalDateTime lastTrimmedAt;
+
+    public boolean hasLimit() {
+        return maxAgeDays != null || maxMessages != null;
+    }
+}
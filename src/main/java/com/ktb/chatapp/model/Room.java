@@ -39,6 +39,16 @@ public class Room {
     @Field("participantIds")
     @Builder.Default
     private Set<String> participantIds = new HashSet<>();
+
+    // 참가자 변경 시마다 증가, 클라이언트가 참가자 목록 재조회 필요 여부를 판단할 때 사용
+    private long participantsVersion;
+
+    // 마지막 참가자 변경 ("+userId" 입장, "-userId" 퇴장)
+    // $pull은 change stream에 배열 전체로 기록되므로 변경 내용을 scalar 필드로 함께 남긴다
+    private String lastParticipantChange;
+
+    // 메시지 보존 정책 (없으면 무기한 보존)
+    private RetentionPolicy retention;
     
     /**
      * 방에 참가자를 추가한다.
@@ -0,0 +1,19 @@
+package com.ktb.chatapp.model;
+
+import java.time.LocalDateTime;
+import org.springframework.data.annotation.Id;
+
+/**
+ * 방별 메시지 요약 (aggregation 결과)
+ *
+ * @param roomId 방 ID
+ * @param latestSeq 최신 메시지 시퀀스 (시퀀스가 없는 방은 null)
+ * @param latestTimestamp 최신 메시지 시각
+ * @param unreadCount 사용자가 읽지 않은 메시지 수
+ */
+public record RoomMessageSummary(
+        @Id String roomId,
+        Long latestSeq,
+        LocalDateTime latestTimestamp,
+        long unreadCount) {
+}
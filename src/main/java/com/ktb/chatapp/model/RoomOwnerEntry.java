@@ -0,0 +1,36 @@
+package com.ktb.chatapp.model;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 방 소유 노드.
+ * id는 roomId이다. 소유 노드가 방 이벤트 relay의 중계점이 되고,
+ * followers는 소유 노드가 아니면서 로컬에 방 구독자가 있는 노드이다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "room_owners")
+public class RoomOwnerEntry {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String nodeId;
+
+    @Builder.Default
+    private Set<String> followers = new HashSet<>();
+
+    private Instant assignedAt;
+}
@@ -0,0 +1,16 @@
+package com.ktb.chatapp.model;
+
+import java.util.List;
+
+/**
+ * 방 참가자 ID 일부 구간 (aggregation 결과)
+ *
+ * @param total 전체 참가자 수
+ * @param participantsVersion 조회 시점의 참가자 버전
+ * @param participantIds offset부터 limit개의 참가자 ID
+ */
+public record RoomParticipantSlice(
+        int total,
+        long participantsVersion,
+        List<String> participantIds) {
+}
@@ -0,0 +1,45 @@
+package com.ktb.chatapp.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 대형 방의 사용자별 읽음 커서 문서.
+ * seq 이하의 메시지는 읽은 사람 수에 다시 더하지 않는다. seq보다 큰 메시지 중 이미 센 것은 readSeqs에 따로 기억해
+ * 나중에 도착한 더 작은 시퀀스의 메시지도 셀 수 있게 한다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "room_read_cursors")
+public class RoomReadCursor {
+
+    // roomId:userId
+    @Id
+    private String id;
+
+    private String roomId;
+
+    private String userId;
+
+    private long seq;
+
+    // seq보다 크고 이미 센 메시지 시퀀스 (오름차순)
+    private List<Long> readSeqs;
+
+    // 조건부 갱신용, 저장할 때마다 1씩 증가
+    private long version;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String roomId, String userId) {
+        return roomId + ":" + userId;
+    }
+}
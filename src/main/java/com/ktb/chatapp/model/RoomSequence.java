@@ -0,0 +1,26 @@
+package com.ktb.chatapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 방별 메시지 시퀀스 카운터 문서.
+ * seq는 지금까지 할당(예약)된 마지막 시퀀스 번호이다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "room_sequences")
+public class RoomSequence {
+
+    // roomId
+    @Id
+    private String id;
+
+    private long seq;
+}
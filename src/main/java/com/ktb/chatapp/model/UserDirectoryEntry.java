@@ -0,0 +1,32 @@
+package com.ktb.chatapp.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 사용자별 현재 활성 연결이 붙어 있는 노드.
+ * id는 userId이다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_directory")
+public class UserDirectoryEntry {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String nodeId;
+
+    private String socketId;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.ktb.chatapp.repository;
+
+import com.ktb.chatapp.model.ChangeStreamResumeToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeStreamResumeTokenRepository extends MongoRepository<ChangeStreamResumeToken, String> {
+}
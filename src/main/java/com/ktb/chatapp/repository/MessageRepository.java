@@ -2,10 +2,12 @@ package com.ktb.chatapp.repository;
 
 import com.ktb.chatapp.model.Message;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.Update;
@@ -15,6 +17,11 @@ import org.springframework.stereotype.Repository;
 public interface MessageRepository extends MongoRepository<Message, String> {
     Page<Message> findByRoomIdAndIsDeletedAndTimestampBefore(String roomId, Boolean isDeleted, LocalDateTime timestamp, Pageable pageable);
 
+    /**
+     * 특정 시퀀스 이후 메시지 조회 (room_seq_idx 범위 스캔)
+     */
+    Slice<Message> findByRoomIdAndIsDeletedAndSeqGreaterThan(String roomId, Boolean isDeleted, Long seq, Pageable pageable);
+
     // 읽음 상태 관리를 위한 쿼리 메서드들
 
     /**
@@ -32,12 +39,27 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     /**
      * roomId를 검증하며 읽음 처리 상태를 원자적으로 업데이트 (삭제되지 않은 메시지만)
+     * 대형 방 모드에서 readCount로 세기 시작한 메시지는 제외한다. (ReadCountService.recordCountedReads)
      * @return 업데이트된 문서 수
      */
-    @Query("{'_id': {$in: ?0}, 'room': ?1, 'isDeleted': false, 'readers.userId': {$ne: ?2}}")
+    @Query("{'_id': {$in: ?0}, 'room': ?1, 'isDeleted': false, 'readers.userId': {$ne: ?2}, 'readCount': {$not: {$gt: 0}}}")
     @Update("{$push: {'readers': ?3}}")
     long addReaderToMessages(List<String> messageIds, String roomId, String userId, Message.MessageReader reader);
 
+    /**
+     * 메시지 ID 목록의 시퀀스와 읽은 사람 수만 조회 (대형 방 읽음 수 집계용)
+     */
+    @Query(value = "{'_id': {$in: ?0}, 'room': ?1, 'isDeleted': false}", fields = "{'seq': 1, 'readCount': 1}")
+    List<Message> findSeqsByIds(Collection<String> messageIds, String roomId);
+
+    /**
+     * 대형 방 모드의 읽은 사람 수 증가. 일반 모드에서 readers에 이미 기록된 사용자는 다시 세지 않는다.
+     * @return 업데이트된 문서 수
+     */
+    @Query("{'_id': {$in: ?0}, 'readers.userId': {$ne: ?1}}")
+    @Update("{$inc: {'readCount': 1}}")
+    long incrementReadCount(List<String> messageIds, String userId);
+
     /**
      * fileId로 메시지 조회 (파일 권한 검증용)
      */
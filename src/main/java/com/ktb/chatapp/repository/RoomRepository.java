@@ -5,7 +5,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
-import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -26,12 +25,4 @@ public interface RoomRepository extends MongoRepository<Room, String> {
     // Health Check용 단순 조회 (지연 시간 측정)
     @Query(value = "{}", fields = "{ '_id': 1 }")
     Optional<Room> findOneForHealthCheck();
-
-    @Query("{'_id': ?0}")
-    @Update("{'$addToSet': {'participantIds': ?1}}")
-    void addParticipant(String roomId, String userId);
-
-    @Query("{'_id': ?0}")
-    @Update("{'$pull': {'participantIds': ?1}}")
-    void removeParticipant(String roomId, String userId);
 }
@@ -0,0 +1,97 @@
+package com.ktb.chatapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 대형 방 모드 판정.
+ * 참가자 수가 enter-threshold 이상이 되면 대형 방으로 전환하고, exit-threshold 미만으로 줄어야 일반 모드로 돌아온다.
+ * 두 기준 사이에서는 직전 모드를 유지해 경계에서 입장/퇴장이 반복될 때 모드가 흔들리지 않게 한다.
+ * 대형 방에서는 다음과 같이 동작한다.
+ * <ul>
+ *   <li>참가자 목록은 첫 페이지만 보내고 나머지는 요청 시 페이지 단위로 조회한다.</li>
+ *   <li>참가자 브로드캐스트는 전체 목록 대신 참가자 수와 입장/퇴장 diff만 보낸다.</li>
+ *   <li>읽음 처리는 readers 목록 대신 메시지별 읽은 사람 수와 사용자별 읽음 커서로 기록한다.</li>
+ * </ul>
+ * 모드는 노드가 관찰한 참가자 수로 노드마다 판정하며, 관찰한 적 없는 방은 일반 모드로 본다.
+ */
+@Slf4j
+@Service
+public class LargeRoomPolicy {
+
+    private final int enterThreshold;
+    private final int exitThreshold;
+    @Getter
+    private final int pageSize;
+    private final Set<String> largeRooms = ConcurrentHashMap.newKeySet();
+    private final Counter entered;
+    private final Counter exited;
+
+    public LargeRoomPolicy(
+            MeterRegistry meterRegistry,
+            @Value("${socketio.large-room.enter-threshold:1000}") int enterThreshold,
+            @Value("${socketio.large-room.exit-threshold:800}") int exitThreshold,
+            @Value("${socketio.large-room.page-size:50}") int pageSize) {
+        if (exitThreshold > enterThreshold) {
+            throw new IllegalArgumentException("exit-threshold는 enter-threshold보다 클 수 없습니다.");
+        }
+        this.enterThreshold = enterThreshold;
+        this.exitThreshold = exitThreshold;
+        this.pageSize = Math.max(1, pageSize);
+        this.entered = meterRegistry.counter("socketio.large-room.transitions", "to", "large");
+        this.exited = meterRegistry.counter("socketio.large-room.transitions", "to", "normal");
+        Gauge.builder("socketio.large-room.rooms", largeRooms, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * 관찰한 참가자 수로 방의 모드를 갱신한다.
+     *
+     * @return 갱신 후 대형 방 모드 여부
+     */
+    public boolean update(String roomId, int participantCount) {
+        if (participantCount >= enterThreshold) {
+            if (largeRooms.add(roomId)) {
+                entered.increment();
+                log.info("Room switched to large mode - roomId: {}, participants: {}", roomId, participantCount);
+            }
+            return true;
+        }
+        if (participantCount < exitThreshold) {
+            if (largeRooms.remove(roomId)) {
+                exited.increment();
+                log.info("Room switched back to normal mode - roomId: {}, participants: {}", roomId, participantCount);
+            }
+            return false;
+        }
+        return largeRooms.contains(roomId);
+    }
+
+    public boolean isLarge(String roomId) {
+        return roomId != null && largeRooms.contains(roomId);
+    }
+
+    /**
+     * 모드와 지표를 바꾸지 않고 주어진 참가자 수로 대형 방 여부만 판정한다.
+     * 두 기준 사이에서는 update()로 기록된 직전 모드를 따른다. 조회 응답처럼 참가자 변경이 아닌 경로에서 쓴다.
+     */
+    public boolean isLarge(String roomId, int participantCount) {
+        if (participantCount >= enterThreshold) {
+            return true;
+        }
+        return participantCount >= exitThreshold && isLarge(roomId);
+    }
+
+    /**
+     * 삭제된 방의 상태를 정리한다.
+     */
+    public void forget(String roomId) {
+        largeRooms.remove(roomId);
+    }
+}
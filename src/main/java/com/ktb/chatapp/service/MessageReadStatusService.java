@@ -1,19 +1,23 @@
 package com.ktb.chatapp.service;
 
+import com.ktb.chatapp.event.MessagesReadEvent;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * 메시지 읽음 상태 관리 서비스
  * 비동기로 메시지 읽음 상태를 업데이트
+ * 대형 방은 readers 대신 ReadCountService로 읽은 사람 수만 기록한다.
+ * 일반 모드에서도 대형 방 모드일 때 readCount로 세기 시작한 메시지는 readCount로 센다.
+ * 읽음 상태가 바뀌면 MessagesReadEvent를 발행해 캐시된 과거 메시지 페이지를 무효화한다.
  */
 @Slf4j
 @Service
@@ -21,47 +25,65 @@ import java.util.stream.Collectors;
 public class MessageReadStatusService {
 
     private final MessageRepository messageRepository;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final ReadCountService readCountService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * 메시지 읽음 상태 업데이트
+     * 메시지 ID 목록을 한 번의 업데이트로 읽음 처리한다.
+     * 캐시된 페이지를 받은 사용자처럼 메시지 엔티티가 없을 때 사용한다.
      *
-     * @param messages 읽음 상태를 업데이트할 메시지 리스트
+     * @param roomId 메시지가 속한 방 ID
+     * @param messageIds 읽음 처리할 메시지 ID 목록
      * @param userId 읽은 사용자 ID
      */
-    public void updateReadStatus(List<Message> messages, String userId) {
-        if (messages.isEmpty()) {
+    public void markAsRead(String roomId, List<String> messageIds, String userId) {
+        if (messageIds.isEmpty()) {
             return;
         }
         
         try {
-            List<String> messageIds = messages.stream()
-                    .map(Message::getId)
-                    .collect(Collectors.toList());
-
-            List<Message> messagesToUpdate = messageRepository.findAllById(messageIds);
-
+            if (largeRoomPolicy.isLarge(roomId)) {
+                publishRead(roomId, readCountService.recordReads(roomId, userId, messageIds));
+                return;
+            }
             Message.MessageReader readerInfo = Message.MessageReader.builder()
                     .userId(userId)
                     .readAt(LocalDateTime.now())
                     .build();
-            
-            for (Message message : messagesToUpdate) {
-                if (message.getReaders() == null) {
-                    message.setReaders(new ArrayList<>());
-                }
-                boolean alreadyRead = message.getReaders().stream()
-                        .anyMatch(r -> r.getUserId().equals(userId));
-                if (!alreadyRead) {
-                    message.getReaders().add(readerInfo);
-                }
-                messageRepository.save(message);
+            long modified = messageRepository.addReaderToMessages(messageIds, roomId, userId, readerInfo);
+            if (modified > 0) {
+                publishRead(roomId, messageIds);
+            }
+            if (modified < messageIds.size()) {
+                publishRead(roomId, readCountService.recordCountedReads(roomId, userId, messageIds));
             }
-            
-            log.debug("Read status updated for {} messages by user {}",
-                    messagesToUpdate.size(), userId);
-
         } catch (Exception e) {
             log.error("Read status update error for user {}", userId, e);
         }
     }
+
+    private void publishRead(String roomId, List<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            eventPublisher.publishEvent(new MessagesReadEvent(this, roomId, messageIds));
+        }
+    }
+
+    /**
+     * 메시지 읽음 상태 업데이트
+     *
+     * @param messages 읽음 상태를 업데이트할 메시지 리스트
+     * @param userId 읽은 사용자 ID
+     */
+    public void updateReadStatus(List<Message> messages, String userId) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        List<String> messageIds = messages.stream()
+                .map(Message::getId)
+                .collect(Collectors.toList());
+        markAsRead(messages.getFirst().getRoomId(), messageIds, userId);
+        log.debug("Read status updated for {} messages by user {}", messageIds.size(), userId);
+    }
 }
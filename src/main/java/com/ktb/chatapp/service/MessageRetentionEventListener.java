@@ -0,0 +1,28 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * 신규 메시지 저장 직전에 방 보존 정책에 따른 expireAt을 설정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageRetentionEventListener extends AbstractMongoEventListener<Message> {
+
+    private final RoomRetentionService roomRetentionService;
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Message> event) {
+        Message message = event.getSource();
+        if (message.getId() != null || message.getExpireAt() != null || message.getRoomId() == null) {
+            return;
+        }
+        LocalDateTime timestamp = message.getTimestamp() != null ? message.getTimestamp() : LocalDateTime.now();
+        message.setExpireAt(roomRetentionService.expireAtFor(message.getRoomId(), timestamp));
+    }
+}
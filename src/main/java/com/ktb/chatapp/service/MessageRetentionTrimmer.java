@@ -0,0 +1,191 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.RetentionPolicy;
+import com.ktb.chatapp.model.Room;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보존 정책을 초과한 메시지를 주기적으로 정리한다.
+ * trim-interval마다 정리할 방 목록을 잡아 두고, batch-pause 간격의 별도 tick에서 batchSize개씩 삭제한다.
+ * 배치 사이에 스케줄러 스레드를 재우지 않으므로 다른 @Scheduled 작업을 막지 않으며,
+ * 실행당 배치 수를 제한해 남은 분량은 다음 주기로 넘긴다.
+ * 예산이 떨어져 남은 방은 다음 실행에서 가장 먼저 정리하므로, 앞쪽 방이 매번 예산을 다 써도 뒤쪽 방이 밀리지 않는다.
+ */
+@Slf4j
+@Component
+public class MessageRetentionTrimmer {
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    // 이번 실행에서 남은 방과 배치 예산
+    private final Deque<RoomTrim> pending = new ArrayDeque<>();
+    private int budget;
+    // 앞선 실행에서 예산이 떨어져 정리하지 못한 방, 다음 실행의 맨 앞에 둔다
+    private final Set<String> deferred = new LinkedHashSet<>();
+
+    public MessageRetentionTrimmer(
+            MongoTemplate mongoTemplate,
+            @Value("${message.retention.batch-size:500}") int batchSize,
+            @Value("${message.retention.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * 정리할 방 목록을 새로 잡는다. 앞선 실행이 끝나지 않았으면 남은 방을 그대로 둔다.
+     */
+    @Scheduled(fixedDelayString = "${message.retention.trim-interval-ms:60000}",
+            initialDelayString = "${message.retention.trim-interval-ms:60000}")
+    public synchronized void planRun() {
+        if (!pending.isEmpty()) {
+            log.debug("Retention run still in progress - {} rooms left", pending.size());
+            return;
+        }
+        List<Room> rooms = mongoTemplate.find(
+                Query.query(new Criteria().orOperator(
+                        Criteria.where("retention.maxAgeDays").ne(null),
+                        Criteria.where("retention.maxMessages").ne(null))),
+                Room.class);
+        // 밀린 방을 앞에 두고 나머지는 조회 순서대로 둔다. 그사이 정책이 없어진 방은 조회되지 않으므로 빠진다
+        rooms.stream().filter(room -> deferred.contains(room.getId()))
+                .forEach(room -> pending.add(new RoomTrim(room.getId(), room.getRetention())));
+        rooms.stream().filter(room -> !deferred.contains(room.getId()))
+                .forEach(room -> pending.add(new RoomTrim(room.getId(), room.getRetention())));
+        deferred.clear();
+        budget = maxBatchesPerRun;
+    }
+
+    /**
+     * 현재 방에서 배치 하나를 삭제한다. 예산을 다 쓰면 남은 방은 다음 실행의 앞쪽으로 넘긴다.
+     */
+    @Scheduled(fixedDelayString = "${message.retention.batch-pause:200ms}")
+    public synchronized void trimNextBatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (budget <= 0) {
+            log.debug("Retention batch budget exhausted - {} rooms deferred", pending.size());
+            pending.forEach(trim -> {
+                trim.finish();
+                deferred.add(trim.roomId);
+            });
+            pending.clear();
+            return;
+        }
+        RoomTrim trim = pending.peek();
+        if (trim.step()) {
+            budget--;
+        }
+        if (trim.done) {
+            pending.poll();
+            trim.finish();
+        }
+    }
+
+    /**
+     * 보존 기준 시각. 이보다 오래된 메시지는 삭제 대상이다.
+     */
+    private LocalDateTime cutoff(String roomId, RetentionPolicy policy) {
+        if (policy == null || !policy.hasLimit()) {
+            return null;
+        }
+        LocalDateTime cutoff = null;
+        if (policy.getMaxAgeDays() != null) {
+            cutoff = LocalDateTime.now().minusDays(policy.getMaxAgeDays());
+        }
+        if (policy.getMaxMessages() != null) {
+            // 최신 maxMessages번째 메시지보다 오래된 메시지
+            Message boundary = mongoTemplate.findOne(
+                    Query.query(Criteria.where("room").is(roomId))
+                            .with(Sort.by("timestamp").descending())
+                            .skip(policy.getMaxMessages() - 1L)
+                            .limit(1),
+                    Message.class);
+            if (boundary != null && (cutoff == null || boundary.getTimestamp().isAfter(cutoff))) {
+                cutoff = boundary.getTimestamp();
+            }
+        }
+        return cutoff;
+    }
+
+    /**
+     * 방 하나의 정리 진행 상태. 기준 시각은 첫 배치에서 한 번만 계산한다.
+     */
+    private final class RoomTrim {
+
+        private final String roomId;
+        private final RetentionPolicy policy;
+        private LocalDateTime cutoff;
+        private boolean started;
+        private boolean done;
+        private int batches;
+        private long deleted;
+
+        RoomTrim(String roomId, RetentionPolicy policy) {
+            this.roomId = roomId;
+            this.policy = policy;
+        }
+
+        /**
+         * @return 삭제 배치를 실행했으면 true
+         */
+        boolean step() {
+            if (!started) {
+                started = true;
+                cutoff = cutoff(roomId, policy);
+            }
+            if (cutoff == null) {
+                done = true;
+                return false;
+            }
+
+            Query query = Query.query(Criteria.where("room").is(roomId).and("timestamp").lt(cutoff))
+                    .limit(batchSize);
+            query.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(query, Message.class).stream()
+                    .map(message -> (Object) message.getId())
+                    .toList();
+            if (ids.isEmpty()) {
+                done = true;
+                return false;
+            }
+
+            deleted += mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Message.class)
+                    .getDeletedCount();
+            batches++;
+            done = ids.size() < batchSize;
+            return true;
+        }
+
+        void finish() {
+            if (deleted == 0) {
+                return;
+            }
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(roomId)),
+                    new Update().inc("retention.trimmedCount", deleted)
+                            .set("retention.lastTrimmedAt", LocalDateTime.now()),
+                    Room.class);
+            log.info("Retention trimmed - roomId: {}, deleted: {}, batches: {}", roomId, deleted, batches);
+            deleted = 0;
+        }
+    }
+}
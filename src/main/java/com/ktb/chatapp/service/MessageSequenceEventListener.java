@@ -0,0 +1,26 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * 신규 메시지 저장 직전에 방별 시퀀스를 부여한다.
+ * 저장 경로(채팅, 시스템, AI 메시지)와 관계없이 한 곳에서 처리한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageSequenceEventListener extends AbstractMongoEventListener<Message> {
+
+    private final MessageSequenceService messageSequenceService;
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Message> event) {
+        Message message = event.getSource();
+        if (message.getId() == null && message.getSeq() == null && message.getRoomId() != null) {
+            message.setSeq(messageSequenceService.next(message.getRoomId()));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.RoomSequence;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * 방별 메시지 시퀀스 발급 서비스.
+ * room_sequences 카운터를 $inc로 blockSize만큼 한 번에 예약하고, 노드 메모리에서 하나씩 꺼내 쓴다.
+ * <ul>
+ *   <li>blockSize=1(기본): 메시지마다 DB 왕복 1회. 클러스터 전체에서 발급 순서대로 빈틈 없이 증가하므로
+ *       재전송 버퍼, afterSeq 동기화, 읽음 커서가 seq를 순서 커서로 쓸 수 있다.
+ *       발급 후 저장에 실패한 seq는 빈 구간으로 남고, 그 구간을 지나는 재전송은 DB 조회로 대체된다.</li>
+ *   <li>blockSize &gt; 1: DB 왕복이 줄지만 노드 재시작 시 블록 잔여분을 건너뛰고,
+ *       여러 노드가 같은 방에 쓰면 노드별 블록이 섞여 seq가 시간 순서와 달라진다.
+ *       쓰는 노드가 하나일 때만 사용한다.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class MessageSequenceService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int blockSize;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public MessageSequenceService(
+            MongoTemplate mongoTemplate,
+            @Value("${message.sequence.block-size:1}") int blockSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.blockSize = Math.max(1, blockSize);
+        if (this.blockSize > 1) {
+            log.warn("message.sequence.block-size={} - seq is not time-ordered across writer nodes; "
+                    + "use only with a single writer node", this.blockSize);
+        }
+    }
+
+    /**
+     * 방의 다음 시퀀스 번호를 발급한다.
+     *
+     * @param roomId 방 ID
+     * @return 1부터 시작하는 시퀀스 번호
+     */
+    public long next(String roomId) {
+        Block block = blocks.computeIfAbsent(roomId, id -> new Block());
+        synchronized (block) {
+            if (block.next > block.end) {
+                long end = reserve(roomId);
+                block.next = end - blockSize + 1;
+                block.end = end;
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * 방이 삭제되면 노드에 남은 블록과 room_sequences 카운터를 정리한다.
+     */
+    public void release(String roomId) {
+        blocks.remove(roomId);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(roomId)), RoomSequence.class);
+    }
+
+    private long reserve(String roomId) {
+        RoomSequence counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(roomId)),
+                new Update().inc("seq", blockSize),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                RoomSequence.class);
+        if (counter == null) {
+            throw new IllegalStateException("시퀀스 예약 실패: " + roomId);
+        }
+        log.debug("Sequence block reserved - roomId: {}, end: {}, size: {}", roomId, counter.getSeq(), blockSize);
+        return counter.getSeq();
+    }
+
+    private static final class Block {
+        private long next = 1;
+        private long end = 0;
+    }
+}
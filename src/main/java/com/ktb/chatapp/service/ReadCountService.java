@@ -0,0 +1,204 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageReadCount;
+import com.ktb.chatapp.model.RoomReadCursor;
+import com.ktb.chatapp.repository.MessageRepository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * 대형 방 읽음 수 관리 서비스.
+ * 메시지마다 readers를 쌓는 대신 readCount만 늘리고, 중복 집계는 사용자별 읽음 커서(room_read_cursors)로 막는다.
+ * <ul>
+ *   <li>커서는 seq 이하를 모두 센 것으로 보고, 그보다 큰 seq 중 센 것은 readSeqs에 기억한다.
+ *       시퀀스 할당과 저장 순서가 어긋나 작은 seq가 늦게 보여도 처음 읽을 때 한 번 센다.</li>
+ *   <li>readSeqs는 가장 큰 seq에서 TRACKED_WINDOW 안쪽만 기억하고, 그 아래로 밀려난 seq는 센 것으로 본다.
+ *       커서를 넘긴 뒤 과거 메시지를 처음 읽어도 수에 더하지 않는다.</li>
+ *   <li>커서는 version 조건부 갱신으로 저장하므로 같은 사용자의 동시 처리도 한 번만 센다.</li>
+ *   <li>일반 모드로 돌아온 방에서도 readCount로 세기 시작한 메시지는 readers 대신 계속 readCount로 센다
+ *       ({@link #recordCountedReads}). 한 사용자가 readCount와 readers에 함께 들어가 두 번 세지지 않는다.</li>
+ * </ul>
+ * 시퀀스가 없는 메시지는 커서로 비교할 수 없어 집계하지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReadCountService {
+
+    static final long TRACKED_WINDOW = 256;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final MessageRepository messageRepository;
+
+    /**
+     * 사용자가 아직 세지 않은 메시지의 읽은 사람 수를 1씩 늘리고 커서에 기록한다.
+     *
+     * @return 읽은 사람 수가 늘어난 메시지 ID
+     */
+    public List<String> recordReads(String roomId, String userId, Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return List.of();
+        }
+        return count(roomId, userId, messageRepository.findSeqsByIds(messageIds, roomId));
+    }
+
+    /**
+     * 일반 모드에서 readers에 추가되지 않은 메시지 중 이미 readCount로 세고 있는 메시지를 readCount로 센다.
+     * readers에 이미 있는 사용자는 incrementReadCount가 다시 세지 않는다.
+     *
+     * @return 읽은 사람 수가 늘어난 메시지 ID
+     */
+    public List<String> recordCountedReads(String roomId, String userId, Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return List.of();
+        }
+        List<Message> counted = messageRepository.findSeqsByIds(messageIds, roomId).stream()
+                .filter(m -> m.getReadCount() > 0)
+                .toList();
+        return counted.isEmpty() ? List.of() : count(roomId, userId, counted);
+    }
+
+    /**
+     * 메시지별 읽은 사람 수(readers 목록 크기 + readCount)를 조회한다.
+     */
+    public Map<String, Integer> readerCounts(Collection<String> messageIds) {
+        var aggregation = Aggregation.newAggregation(Message.class,
+                Aggregation.match(Criteria.where("_id").in(messageIds)),
+                Aggregation.project()
+                        .and(ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("readCount").then(0))
+                                .add(ArrayOperators.Size.lengthOfArray(
+                                        ConditionalOperators.ifNull("readers").then(List.of()))))
+                        .as("readerCount"));
+        return mongoTemplate.aggregate(aggregation, MessageReadCount.class)
+                .getMappedResults()
+                .stream()
+                .collect(Collectors.toMap(MessageReadCount::messageId, MessageReadCount::readerCount));
+    }
+
+    /**
+     * 읽음 커서 이후의 안 읽은 메시지 수 (cap에서 세기를 멈춘다)
+     */
+    public long unreadCount(String roomId, String userId, int cap) {
+        RoomReadCursor cursor = mongoTemplate.findById(RoomReadCursor.idOf(roomId, userId), RoomReadCursor.class);
+        ReadSeqs reads = ReadSeqs.of(cursor);
+        return mongoTemplate.count(Query.query(Criteria.where("roomId").is(roomId)
+                .and("isDeleted").is(false)
+                .and("seq").gt(reads.floor).nin(reads.above))
+                .limit(cap), Message.class);
+    }
+
+    private List<String> count(String roomId, String userId, List<Message> messages) {
+        List<Message> sequenced = messages.stream()
+                .filter(m -> m.getSeq() != null)
+                .sorted(Comparator.comparingLong(Message::getSeq))
+                .toList();
+        if (sequenced.isEmpty()) {
+            return List.of();
+        }
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            RoomReadCursor cursor = mongoTemplate.findById(RoomReadCursor.idOf(roomId, userId), RoomReadCursor.class);
+            ReadSeqs reads = ReadSeqs.of(cursor);
+            List<String> counted = sequenced.stream()
+                    .filter(m -> reads.add(m.getSeq()))
+                    .map(Message::getId)
+                    .toList();
+            if (counted.isEmpty()) {
+                return List.of();
+            }
+            if (save(roomId, userId, cursor, reads)) {
+                messageRepository.incrementReadCount(counted, userId);
+                return counted;
+            }
+        }
+        log.warn("Read cursor update conflicted {} times - roomId: {}, userId: {}", MAX_ATTEMPTS, roomId, userId);
+        return List.of();
+    }
+
+    /**
+     * 읽은 뒤의 커서를 저장한다. 다른 요청이 먼저 커서를 바꿨으면 false.
+     */
+    private boolean save(String roomId, String userId, RoomReadCursor previous, ReadSeqs reads) {
+        if (previous == null) {
+            try {
+                mongoTemplate.insert(RoomReadCursor.builder()
+                        .id(RoomReadCursor.idOf(roomId, userId))
+                        .roomId(roomId)
+                        .userId(userId)
+                        .seq(reads.floor)
+                        .readSeqs(List.copyOf(reads.above))
+                        .version(1)
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+        // version 필드 없이 저장된 커서는 0으로 읽힌다
+        Criteria sameVersion = previous.getVersion() == 0
+                ? new Criteria().orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                : Criteria.where("version").is(previous.getVersion());
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(previous.getId()).andOperator(sameVersion)),
+                new Update().set("seq", reads.floor)
+                        .set("readSeqs", List.copyOf(reads.above))
+                        .set("version", previous.getVersion() + 1)
+                        .set("updatedAt", LocalDateTime.now()),
+                RoomReadCursor.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * 커서가 센 것으로 보는 seq 집합: floor 이하 전부와 above.
+     */
+    static final class ReadSeqs {
+
+        long floor;
+        final TreeSet<Long> above;
+
+        ReadSeqs(long floor, Collection<Long> above) {
+            this.floor = floor;
+            this.above = new TreeSet<>(above);
+        }
+
+        static ReadSeqs of(RoomReadCursor cursor) {
+            if (cursor == null) {
+                return new ReadSeqs(0, List.of());
+            }
+            return new ReadSeqs(cursor.getSeq(), cursor.getReadSeqs() != null ? cursor.getReadSeqs() : List.of());
+        }
+
+        /**
+         * @return 처음 센 seq면 true
+         */
+        boolean add(long seq) {
+            if (seq <= floor || !above.add(seq)) {
+                return false;
+            }
+            floor = Math.max(floor, above.last() - TRACKED_WINDOW);
+            above.headSet(floor, true).clear();
+            while (above.remove(floor + 1)) {
+                floor++;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.ParticipantPageResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.event.ParticipantsChangedEvent;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.model.RoomParticipantSlice;
+import com.ktb.chatapp.model.User;
+import com.ktb.chatapp.repository.UserRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * 방 참가자 변경/조회 서비스.
+ * <ul>
+ *   <li>추가/제거는 실제로 참가자가 바뀐 경우에만 participantsVersion을 올리고 ParticipantsChangedEvent를 발행한다.
+ *       변경 후 버전과 참가자 수는 같은 findAndModify에서 받아 오므로 방 문서를 다시 읽지 않는다.</li>
+ *   <li>페이지 조회는 참가자 ID 배열 전체를 읽지 않도록 $slice로 필요한 구간만 가져오고,
+ *       사용자는 한 번의 $in 조회로 해석한다. 순서는 participantIds 배열 순서(입장 순)를 따른다.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomParticipantService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return 참가자가 새로 추가되었으면 true, 이미 참가자이거나 방이 없으면 false
+     */
+    public boolean add(String roomId, String userId) {
+        return change(roomId, userId, true);
+    }
+
+    /**
+     * @return 참가자가 제거되었으면 true, 참가자가 아니거나 방이 없으면 false
+     */
+    public boolean remove(String roomId, String userId) {
+        return change(roomId, userId, false);
+    }
+
+    /**
+     * 참가자 배열을 읽지 않고 참가 여부만 확인한다.
+     *
+     * @return 방이 없거나 참가자가 아니면 false
+     */
+    public boolean isParticipant(String roomId, String userId) {
+        return mongoTemplate.exists(
+                Query.query(Criteria.where("_id").is(roomId).and("participantIds").is(userId)), Room.class);
+    }
+
+    /**
+     * @return 방이 없으면 empty
+     */
+    public Optional<ParticipantPageResponse> page(String roomId, int offset, int limit) {
+        var aggregation = Aggregation.newAggregation(Room.class,
+                Aggregation.match(Criteria.where("_id").is(roomId)),
+                Aggregation.project("participantsVersion")
+                        .and(ArrayOperators.Size.lengthOfArray("participantIds")).as("total")
+                        .and(ArrayOperators.Slice.sliceArrayOf("participantIds").offset(offset).itemCount(limit))
+                        .as("participantIds"));
+        RoomParticipantSlice slice = mongoTemplate.aggregate(aggregation, RoomParticipantSlice.class)
+                .getUniqueMappedResult();
+        if (slice == null) {
+            return Optional.empty();
+        }
+        List<String> ids = slice.participantIds() != null ? slice.participantIds() : List.of();
+        return Optional.of(new ParticipantPageResponse(
+                roomId, slice.participantsVersion(), offset, slice.total(), resolve(ids)));
+    }
+
+    /**
+     * 사용자 ID 목록을 순서를 유지하며 UserResponse로 변환한다. 없는 사용자는 건너뛴다.
+     */
+    public List<UserResponse> resolve(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserResponse::from)
+                .toList();
+    }
+
+    private boolean change(String roomId, String userId, boolean joined) {
+        Criteria member = joined
+                ? Criteria.where("participantIds").ne(userId)
+                : Criteria.where("participantIds").is(userId);
+        Query query = Query.query(Criteria.where("_id").is(roomId).andOperator(member));
+        query.fields()
+                .include("participantsVersion")
+                .project(ArrayOperators.Size.lengthOfArray("participantIds")).as("participantCount");
+        Update update = (joined ? new Update().push("participantIds", userId) : new Update().pull("participantIds", userId))
+                .inc("participantsVersion", 1)
+                .set("lastParticipantChange", (joined ? "+" : "-") + userId);
+
+        ParticipantVersion result = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), ParticipantVersion.class,
+                mongoTemplate.getCollectionName(Room.class));
+        if (result == null) {
+            return false;
+        }
+        log.debug("Participants changed - roomId: {}, userId: {}, joined: {}, version: {}",
+                roomId, userId, joined, result.participantsVersion());
+        eventPublisher.publishEvent(new ParticipantsChangedEvent(
+                this, roomId, userId, joined, result.participantsVersion(), result.participantCount()));
+        return true;
+    }
+
+    private record ParticipantVersion(long participantsVersion, int participantCount) {
+    }
+}
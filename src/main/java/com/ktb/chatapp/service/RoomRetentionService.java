@@ -0,0 +1,155 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.RetentionPolicyRequest;
+import com.ktb.chatapp.dto.RetentionStatsResponse;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.RetentionPolicy;
+import com.ktb.chatapp.model.Room;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * 방별 메시지 보존 정책 관리 서비스.
+ * 기간 정책은 메시지 저장 시 expireAt을 설정해 TTL 인덱스가 삭제하고,
+ * 개수 정책과 expireAt이 없는 이전 메시지는 MessageRetentionTrimmer가 배치로 정리한다.
+ * 기간 정책이 바뀌면 이미 저장된 메시지의 expireAt도 새 정책으로 다시 계산한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomRetentionService {
+
+    private static final long POLICY_CACHE_TTL_MILLIS = 30_000L;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final MongoTemplate mongoTemplate;
+
+    // 메시지 저장마다 방을 조회하지 않도록 정책을 짧게 캐시한다
+    private final ConcurrentHashMap<String, CachedPolicy> policyCache = new ConcurrentHashMap<>();
+
+    /**
+     * 보존 정책을 변경한다. 기간 정책이 바뀌면 저장된 메시지의 expireAt을 다시 계산한다.
+     *
+     * @return 정책이 반영된 방, 방이 없으면 empty
+     */
+    public Optional<Room> updatePolicy(String roomId, RetentionPolicyRequest request) {
+        Update update = new Update()
+                .set("retention.maxAgeDays", request.getMaxAgeDays())
+                .set("retention.maxMessages", request.getMaxMessages());
+        Room room = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(roomId)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Room.class);
+        policyCache.remove(roomId);
+        if (room == null) {
+            return Optional.empty();
+        }
+
+        RetentionPolicy policy = room.getRetention() != null ? room.getRetention() : new RetentionPolicy();
+        Integer previousMaxAgeDays = policy.getMaxAgeDays();
+        policy.setMaxAgeDays(request.getMaxAgeDays());
+        policy.setMaxMessages(request.getMaxMessages());
+        room.setRetention(policy);
+        if (!Objects.equals(previousMaxAgeDays, request.getMaxAgeDays())) {
+            long updated = rescheduleExpiry(roomId, request.getMaxAgeDays());
+            log.info("Message expiry rescheduled - roomId: {}, maxAgeDays: {} -> {}, messages: {}",
+                    roomId, previousMaxAgeDays, request.getMaxAgeDays(), updated);
+        }
+        log.info("Retention policy updated - roomId: {}, maxAgeDays: {}, maxMessages: {}",
+                roomId, request.getMaxAgeDays(), request.getMaxMessages());
+        return Optional.of(room);
+    }
+
+    /**
+     * 방 메시지의 expireAt을 새 기간 정책에 맞춘다. 메시지마다 저장하지 않고 updateMany 한 번으로 서버에서 계산한다.
+     * 기간 정책이 없어지면 expireAt을 지워 TTL 인덱스 대상에서 뺀다.
+     *
+     * @return 변경된 메시지 수
+     */
+    long rescheduleExpiry(String roomId, Integer maxAgeDays) {
+        if (maxAgeDays == null) {
+            return mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("room").is(roomId).and("expireAt").exists(true)),
+                    new Update().unset("expireAt"),
+                    Message.class).getModifiedCount();
+        }
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("room").is(roomId).and("timestamp").exists(true)),
+                AggregationUpdate.update()
+                        .set("expireAt").toValue(ArithmeticOperators.valueOf("timestamp").add(maxAgeDays * DAY_MILLIS)),
+                Message.class).getModifiedCount();
+    }
+
+    /**
+     * 새 메시지의 만료 시각을 계산한다.
+     *
+     * @return 기간 정책이 없으면 null
+     */
+    public LocalDateTime expireAtFor(String roomId, LocalDateTime timestamp) {
+        RetentionPolicy policy = cachedPolicy(roomId);
+        if (policy == null || policy.getMaxAgeDays() == null) {
+            return null;
+        }
+        return timestamp.plusDays(policy.getMaxAgeDays());
+    }
+
+    /**
+     * 방의 보존 현황을 조회한다.
+     */
+    public Optional<RetentionStatsResponse> getStats(String roomId) {
+        Room room = mongoTemplate.findById(roomId, Room.class);
+        if (room == null) {
+            return Optional.empty();
+        }
+        RetentionPolicy policy = room.getRetention() != null ? room.getRetention() : new RetentionPolicy();
+
+        Query roomMessages = Query.query(Criteria.where("room").is(roomId));
+        long messageCount = mongoTemplate.count(roomMessages, Message.class);
+        Message oldest = mongoTemplate.findOne(
+                Query.query(Criteria.where("room").is(roomId))
+                        .with(Sort.by("timestamp").ascending())
+                        .limit(1),
+                Message.class);
+
+        return Optional.of(RetentionStatsResponse.builder()
+                .roomId(roomId)
+                .maxAgeDays(policy.getMaxAgeDays())
+                .maxMessages(policy.getMaxMessages())
+                .messageCount(messageCount)
+                .oldestMessageAt(oldest != null ? oldest.getTimestamp() : null)
+                .trimmedCount(policy.getTrimmedCount())
+                .lastTrimmedAt(policy.getLastTrimmedAt())
+                .build());
+    }
+
+    private RetentionPolicy cachedPolicy(String roomId) {
+        long now = System.currentTimeMillis();
+        CachedPolicy cached = policyCache.get(roomId);
+        if (cached != null && now - cached.loadedAt() < POLICY_CACHE_TTL_MILLIS) {
+            return cached.policy();
+        }
+        Query query = Query.query(Criteria.where("_id").is(roomId));
+        query.fields().include("retention");
+        Room room = mongoTemplate.findOne(query, Room.class);
+        RetentionPolicy policy = room != null ? room.getRetention() : null;
+        policyCache.put(roomId, new CachedPolicy(policy, now));
+        return policy;
+    }
+
+    private record CachedPolicy(RetentionPolicy policy, long loadedAt) {
+    }
+}
@@ -31,6 +31,8 @@ public class RoomService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ApplicationEventPublisher eventPublisher;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final RoomParticipantService roomParticipantService;
 
     public PagedResponse<RoomResponse> getAllRoomsWithPagination(
             com.ktb.chatapp.dto.PageRequest pageRequest, String name) {
@@ -201,9 +203,10 @@ public class RoomService {
 
         // 이미 참여중인지 확인
         if (!room.getParticipantIds().contains(user.getId())) {
-            // 채팅방 참여
-            room.getParticipantIds().add(user.getId());
-            room = roomRepository.save(room);
+            // 채팅방 참여, 문서 전체를 저장하지 않고 버전이 붙은 참가자 변경으로 반영한다
+            if (roomParticipantService.add(roomId, user.getId())) {
+                room = roomRepository.findById(roomId).orElse(room);
+            }
         }
         
         // Publish event for room updated
@@ -225,7 +228,10 @@ public class RoomService {
             creator = userRepository.findById(room.getCreator()).orElse(null);
         }
 
+        // 대형 방은 참가자 첫 페이지만 담는다
+        boolean largeRoom = largeRoomPolicy.update(room.getId(), room.getParticipantCount());
         List<User> participants = room.getParticipantIds().stream()
+            .limit(largeRoom ? largeRoomPolicy.getPageSize() : Long.MAX_VALUE)
             .map(userRepository::findById)
             .filter(Optional::isPresent)
             .map(Optional::get)
@@ -248,6 +254,7 @@ public class RoomService {
                     .email(p.getEmail() != null ? p.getEmail() : "")
                     .build())
                 .collect(Collectors.toList()))
+            .participantTotal(room.getParticipantCount())
             .createdAtDateTime(room.getCreatedAt())
             .isCreator(creator != null && creator.getId().equals(name))
             .build();
@@ -0,0 +1,89 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.model.RoomMessageSummary;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+/**
+ * 재연결 bootstrap용 방별 메시지 요약 서비스.
+ * 방마다 room_seq_idx를 seq 역순으로 unreadCap개까지만 읽고($sort/$limit), $unionWith로 묶어 한 번에 집계한다.
+ * 방 이력 전체를 훑지 않으므로 재연결 비용은 방 수 x unreadCap으로 제한된다.
+ * <ul>
+ *   <li>안 읽은 수는 최근 unreadCap개 안에서만 세므로 unreadCap이 상한이다. (클라이언트는 "99+"처럼 표시)</li>
+ *   <li>사용자가 보낸 메시지와 시스템 메시지는 readers에 들어가지 않으므로 안 읽은 수에서 뺀다.
+ *       latestSeq는 afterSeq 동기화 기준이라 이 메시지들도 포함한다.</li>
+ *   <li>seq가 없는 메시지는 인덱스 범위 밖이라 요약에 포함하지 않는다.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class RoomSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int unreadCap;
+
+    public RoomSummaryService(
+            MongoTemplate mongoTemplate,
+            @Value("${socketio.rejoin.unread-cap:99}") int unreadCap) {
+        this.mongoTemplate = mongoTemplate;
+        this.unreadCap = Math.max(1, unreadCap);
+    }
+
+    public int getUnreadCap() {
+        return unreadCap;
+    }
+
+    /**
+     * 방별 최신 seq/시각과 최근 unreadCap개 중 사용자가 읽지 않은 메시지 수를 조회한다.
+     * 메시지가 없는 방은 결과에 없다.
+     */
+    public List<RoomMessageSummary> summarize(List<String> roomIds, String userId) {
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
+        List<AggregationOperation> operations = new ArrayList<>(latest(roomIds.getFirst()));
+        roomIds.stream().skip(1).forEach(roomId -> operations.add(
+                UnionWithOperation.unionWith(mongoTemplate.getCollectionName(Message.class))
+                        .pipeline(latest(roomId))
+                        .mapFieldsTo(Message.class)));
+        operations.add(Aggregation.group("roomId")
+                .max("seq").as("latestSeq")
+                .max("timestamp").as("latestTimestamp")
+                .sum(ConditionalOperators
+                        .when(BooleanOperators.Or.or(
+                                ArrayOperators.In.arrayOf(ConditionalOperators.ifNull("readers.userId").then(List.of()))
+                                        .containsValue(userId),
+                                ComparisonOperators.valueOf("senderId").equalToValue(userId),
+                                ComparisonOperators.valueOf("type").equalToValue(MessageType.system.name())))
+                        .then(0)
+                        .otherwise(1))
+                .as("unreadCount"));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Message.class, operations), RoomMessageSummary.class)
+                .getMappedResults();
+    }
+
+    private List<AggregationOperation> latest(String roomId) {
+        return List.of(
+                Aggregation.match(Criteria.where("roomId").is(roomId)
+                        .and("seq").exists(true)
+                        .and("isDeleted").is(false)),
+                Aggregation.sort(Sort.Direction.DESC, "seq"),
+                Aggregation.limit(unreadCap));
+    }
+}
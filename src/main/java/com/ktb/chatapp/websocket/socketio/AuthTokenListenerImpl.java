@@ -70,6 +70,7 @@ public class AuthTokenListenerImpl implements AuthTokenListener {
 
             log.info("Socket.IO connection authorized for user: {} ({})", user.getName(), userId);
             
+            client.set(WireFormat.CLIENT_KEY, WireFormat.negotiate(authToken, client));
             var socketUser = new SocketUser(user.getId(), user.getName(), sessionId, client.getSessionId().toString());
             socketIOChatHandlerProvider.getObject().onConnect(client, socketUser);
             return AuthTokenResult.AuthTokenResultSuccess;
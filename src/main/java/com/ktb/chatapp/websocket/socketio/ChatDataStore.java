@@ -1,10 +1,16 @@
 package com.ktb.chatapp.websocket.socketio;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Data store interface for chat-related data storage.
  * Provides key-value storage operations for chat user and room data.
+ * Set and hash operations modify a single member atomically, so callers never
+ * read-modify-write whole collections. They map 1:1 onto Redis SADD/SREM/SISMEMBER/SMEMBERS,
+ * HSET/HGET/HDEL/HGETALL and PEXPIRE for remote backends.
  */
 public interface ChatDataStore {
     
@@ -19,17 +25,85 @@ public interface ChatDataStore {
     <T> Optional<T> get(String key, Class<T> type);
     
     /**
-     * Store a value with the given key
+     * Store a value with the given key, clearing any TTL
      *
      * @param key the storage key
      * @param value the value to store
      */
     void set(String key, Object value);
     
+    /**
+     * Store a value with the given key that expires after ttl
+     *
+     * @param key the storage key
+     * @param value the value to store
+     * @param ttl time to live
+     */
+    void set(String key, Object value, Duration ttl);
+    
     /**
      * Delete a value by key
      *
      * @param key the storage key
      */
     void delete(String key);
+    
+    /**
+     * Set a TTL on an existing key
+     *
+     * @param key the storage key
+     * @param ttl time to live
+     * @return true if the key exists
+     */
+    boolean expire(String key, Duration ttl);
+    
+    /**
+     * Remove the TTL from an existing key
+     *
+     * @param key the storage key
+     * @return true if the key exists
+     */
+    boolean persist(String key);
+    
+    /**
+     * Atomically add a member to the set stored at key, creating it if needed
+     *
+     * @return true if the member was added, false if it was already present
+     */
+    boolean setAdd(String key, String member);
+    
+    /**
+     * Atomically remove a member from the set stored at key.
+     * The key is deleted when the set becomes empty.
+     *
+     * @return true if the member was removed
+     */
+    boolean setRemove(String key, String member);
+    
+    boolean setContains(String key, String member);
+    
+    /**
+     * @return an immutable snapshot of the set members, empty if the key does not exist
+     */
+    Set<String> setMembers(String key);
+    
+    /**
+     * Set a field of the hash stored at key, creating it if needed
+     */
+    void hashPut(String key, String field, Object value);
+    
+    <T> Optional<T> hashGet(String key, String field, Class<T> type);
+    
+    /**
+     * Remove a field from the hash stored at key.
+     * The key is deleted when the hash becomes empty.
+     *
+     * @return true if the field was removed
+     */
+    boolean hashRemove(String key, String field);
+    
+    /**
+     * @return an immutable snapshot of the hash, empty if the key does not exist
+     */
+    Map<String, Object> hashEntries(String key);
 }
@@ -0,0 +1,20 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 현재 백엔드 노드 식별자.
+ * 컨테이너 환경에서는 HOSTNAME이 노드마다 다르므로 기본값으로 사용한다.
+ */
+@Getter
+@Component
+public class ClusterNode {
+
+    private final String nodeId;
+
+    public ClusterNode(@Value("${socketio.node-id:${HOSTNAME:local}}") String nodeId) {
+        this.nodeId = nodeId;
+    }
+}
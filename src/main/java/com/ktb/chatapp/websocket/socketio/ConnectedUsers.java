@@ -1,24 +1,36 @@
 package com.ktb.chatapp.websocket.socketio;
 
-import lombok.RequiredArgsConstructor;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+/**
+ * 사용자별 현재 활성 연결.
+ * 사용자마다 키 하나로 저장해 TTL/축출이 사용자 단위로 적용된다.
+ * 해제 처리가 실행되지 못한 연결의 항목은 TTL이 지나면 정리된다.
+ */
 @Component
 @ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
-@RequiredArgsConstructor
 public class ConnectedUsers {
     
-    private static final String USER_SOCKET_KEY_PREFIX = "conn_users:userid:";
+    public static final String USER_SOCKET_KEY_PREFIX = "conn_users:userid:";
     
     private final ChatDataStore chatDataStore;
+    private final Duration ttl;
+    
+    public ConnectedUsers(ChatDataStore chatDataStore,
+                          @Value("${socketio.store.connected-user-ttl:24h}") Duration ttl) {
+        this.chatDataStore = chatDataStore;
+        this.ttl = ttl;
+    }
     
     public SocketUser get(String userId) {
         return chatDataStore.get(buildKey(userId), SocketUser.class).orElse(null);
     }
     
     public void set(String userId, SocketUser sockerUser) {
-        chatDataStore.set(buildKey(userId), sockerUser);
+        chatDataStore.set(buildKey(userId), sockerUser, ttl);
     }
     
     public void del(String userId) {
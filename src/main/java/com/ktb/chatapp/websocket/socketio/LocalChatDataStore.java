@@ -1,19 +1,107 @@
 package com.ktb.chatapp.websocket.socketio;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Local in-memory implementation of ChatDataStore using ConcurrentHashMap.
  * Thread-safe storage for chat-related data without external dependencies.
+ * Set and hash mutations run inside ConcurrentHashMap.compute, so they are atomic per key.
+ * <ul>
+ *   <li>TTL이 있는 키는 HashedWheelTimer에 만료 작업을 걸어 접근이 없어도 지운다.
+ *       키가 교체되거나 TTL이 바뀌면 이전 작업은 취소되고, 늦게 실행되더라도 같은 엔트리일 때만 지운다.</li>
+ *   <li>maxEntries를 넘으면 TTL이 걸린 엔트리의 무작위 표본 중 가장 오래 접근되지 않은 엔트리를 내보낸다
+ *       (Redis의 volatile-lru와 같은 방식).
+ *       TTL이 없는 엔트리(접속 중인 사용자의 방 목록)는 연결이 소유한 상태라 내보내지 않는다. 지우면 다음 재접속 때
+ *       빈 방 목록으로 복구되므로, 이런 엔트리는 접속자 수만큼 maxEntries를 넘을 수 있다.
+ *       pinnedPrefixes로 시작하는 키(접속 중인 사용자의 연결 정보 등)는 TTL이 있어도 축출 대상에서 제외한다.</li>
+ *   <li>bindTo로 등록하면 키 prefix별 엔트리 수와 대략적인 점유 바이트를 주기적으로 집계해 노출한다.</li>
+ * </ul>
  */
-public class LocalChatDataStore implements ChatDataStore {
+@Slf4j
+public class LocalChatDataStore implements ChatDataStore, AutoCloseable {
     
-    private final ConcurrentHashMap<String, Object> storage = new ConcurrentHashMap<>();
+    private static final int EVICTION_SAMPLES = 8;
+    private static final int MAX_SAMPLE_SKIP = 1024;
+    // 축출할 수 없는 키만 이어질 때 표본 하나를 찾으려고 훑는 최대 엔트리 수
+    private static final int MAX_SKIP_SCAN = EVICTION_SAMPLES * 64;
+    private static final Duration STATS_INTERVAL = Duration.ofSeconds(10);
+    
+    private final ConcurrentHashMap<String, Entry> storage = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Set<String> pinnedPrefixes;
+    private final LongSupplier clock;
+    private final HashedWheelTimer timer = new HashedWheelTimer(r -> {
+        Thread thread = new Thread(r, "chat-store-expiry");
+        thread.setDaemon(true);
+        return thread;
+    }, 100, TimeUnit.MILLISECONDS, 512);
+    
+    private volatile Map<String, PrefixStats> stats = Map.of();
+    private MeterRegistry meterRegistry;
+    private Counter expired;
+    private Counter evicted;
+    
+    public LocalChatDataStore() {
+        this(Integer.MAX_VALUE);
+    }
+    
+    public LocalChatDataStore(int maxEntries) {
+        this(maxEntries, Set.of());
+    }
+    
+    /**
+     * @param pinnedPrefixes 축출하지 않을 키 prefix. TTL 만료나 delete로만 지워진다
+     */
+    public LocalChatDataStore(int maxEntries, Set<String> pinnedPrefixes) {
+        this(maxEntries, pinnedPrefixes, System::currentTimeMillis);
+    }
+    
+    LocalChatDataStore(int maxEntries, LongSupplier clock) {
+        this(maxEntries, Set.of(), clock);
+    }
+    
+    LocalChatDataStore(int maxEntries, Set<String> pinnedPrefixes, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.pinnedPrefixes = Set.copyOf(pinnedPrefixes);
+        this.clock = clock;
+    }
+    
+    /**
+     * 엔트리 수/만료/축출 메트릭을 등록하고 prefix별 집계를 시작한다.
+     */
+    public LocalChatDataStore bindTo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.expired = Counter.builder("socketio.store.removed").tag("reason", "expired").register(meterRegistry);
+        this.evicted = Counter.builder("socketio.store.removed").tag("reason", "evicted").register(meterRegistry);
+        Gauge.builder("socketio.store.entries.total", storage, Map::size).register(meterRegistry);
+        timer.newTimeout(this::refreshStatsPeriodically, STATS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+    
+    @Override
+    public void close() {
+        timer.stop();
+    }
     
     @Override
     public <T> Optional<T> get(String key, Class<T> type) {
-        Object value = storage.get(key);
+        Object value = value(key);
         if (value == null) {
             return Optional.empty();
         }
@@ -27,11 +115,430 @@ public class LocalChatDataStore implements ChatDataStore {
     
     @Override
     public void set(String key, Object value) {
-        storage.put(key, value);
+        put(key, new Entry(value, 0, clock.getAsLong()));
+    }
+    
+    @Override
+    public void set(String key, Object value, Duration ttl) {
+        put(key, withExpiry(key, value, ttl));
     }
     
     @Override
     public void delete(String key) {
-        storage.remove(key);
+        cancel(storage.remove(key));
+    }
+    
+    @Override
+    public boolean expire(String key, Duration ttl) {
+        return replaceExpiry(key, ttl);
+    }
+    
+    @Override
+    public boolean persist(String key) {
+        return replaceExpiry(key, null);
+    }
+    
+    @Override
+    public boolean setAdd(String key, String member) {
+        boolean[] added = new boolean[1];
+        boolean[] created = new boolean[1];
+        storage.compute(key, (k, entry) -> {
+            Entry live = live(entry, Set.class);
+            if (live == null) {
+                cancel(entry);
+                Set<String> members = ConcurrentHashMap.newKeySet();
+                live = new Entry(members, 0, clock.getAsLong());
+                created[0] = true;
+            }
+            added[0] = setOf(live).add(member);
+            live.touch(clock.getAsLong());
+            return live;
+        });
+        if (created[0]) {
+            evictIfFull(key);
+        }
+        return added[0];
+    }
+    
+    @Override
+    public boolean setRemove(String key, String member) {
+        boolean[] removed = new boolean[1];
+        storage.computeIfPresent(key, (k, entry) -> {
+            Entry live = live(entry, Set.class);
+            if (live == null) {
+                cancel(entry);
+                return null;
+            }
+            Set<String> members = setOf(live);
+            removed[0] = members.remove(member);
+            if (members.isEmpty()) {
+                cancel(live);
+                return null;
+            }
+            return live;
+        });
+        return removed[0];
+    }
+    
+    @Override
+    public boolean setContains(String key, String member) {
+        Object value = value(key);
+        return value instanceof Set<?> members && members.contains(member);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> setMembers(String key) {
+        Object value = value(key);
+        return value instanceof Set<?> members ? Set.copyOf((Set<String>) members) : Set.of();
+    }
+    
+    @Override
+    public void hashPut(String key, String field, Object value) {
+        boolean[] created = new boolean[1];
+        storage.compute(key, (k, entry) -> {
+            Entry live = live(entry, Map.class);
+            if (live == null) {
+                cancel(entry);
+                live = new Entry(new ConcurrentHashMap<String, Object>(), 0, clock.getAsLong());
+                created[0] = true;
+            }
+            hashOf(live).put(field, value);
+            live.touch(clock.getAsLong());
+            return live;
+        });
+        if (created[0]) {
+            evictIfFull(key);
+        }
+    }
+    
+    @Override
+    public <T> Optional<T> hashGet(String key, String field, Class<T> type) {
+        Object value = value(key);
+        if (!(value instanceof Map<?, ?> hash)) {
+            return Optional.empty();
+        }
+        Object fieldValue = hash.get(field);
+        return type.isInstance(fieldValue) ? Optional.of(type.cast(fieldValue)) : Optional.empty();
+    }
+    
+    @Override
+    public boolean hashRemove(String key, String field) {
+        boolean[] removed = new boolean[1];
+        storage.computeIfPresent(key, (k, entry) -> {
+            Entry live = live(entry, Map.class);
+            if (live == null) {
+                cancel(entry);
+                return null;
+            }
+            Map<String, Object> hash = hashOf(live);
+            removed[0] = hash.remove(field) != null;
+            if (hash.isEmpty()) {
+                cancel(live);
+                return null;
+            }
+            return live;
+        });
+        return removed[0];
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> hashEntries(String key) {
+        Object value = value(key);
+        return value instanceof Map<?, ?> hash ? Map.copyOf((Map<String, Object>) hash) : Map.of();
+    }
+    
+    int size() {
+        return storage.size();
+    }
+    
+    /**
+     * 만료되지 않은 모든 엔트리를 순회한다. set/hash 값은 살아 있는 컬렉션이므로 읽기만 해야 한다.
+     */
+    void forEach(EntryVisitor visitor) {
+        long now = clock.getAsLong();
+        storage.forEach((key, entry) -> {
+            if (!entry.isExpired(now)) {
+                visitor.visit(key, entry.value, entry.expiresAt);
+            }
+        });
+    }
+    
+    @FunctionalInterface
+    interface EntryVisitor {
+        /**
+         * @param expiresAt 만료 시각(epoch millis), 0이면 만료 없음
+         */
+        void visit(String key, Object value, long expiresAt);
+    }
+    
+    private void put(String key, Entry entry) {
+        Entry previous = storage.put(key, entry);
+        cancel(previous);
+        if (previous == null) {
+            evictIfFull(key);
+        }
+    }
+    
+    private boolean replaceExpiry(String key, Duration ttl) {
+        long now = clock.getAsLong();
+        Entry updated = storage.computeIfPresent(key, (k, entry) -> {
+            cancel(entry);
+            if (entry.isExpired(now)) {
+                return null;
+            }
+            return ttl == null ? new Entry(entry.value, 0, now) : withExpiry(key, entry.value, ttl);
+        });
+        return updated != null;
+    }
+    
+    private Entry withExpiry(String key, Object value, Duration ttl) {
+        long now = clock.getAsLong();
+        Entry entry = new Entry(value, now + ttl.toMillis(), now);
+        entry.timeout = timer.newTimeout(timeout -> expire(key, entry), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        return entry;
+    }
+    
+    private void expire(String key, Entry entry) {
+        if (!entry.isExpired(clock.getAsLong())) {
+            return;
+        }
+        if (storage.remove(key, entry) && expired != null) {
+            expired.increment();
+        }
+    }
+    
+    private Object value(String key) {
+        Entry entry = storage.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (entry.isExpired(now)) {
+            if (storage.remove(key, entry)) {
+                cancel(entry);
+            }
+            return null;
+        }
+        entry.touch(now);
+        return entry.value;
+    }
+    
+    /**
+     * compute 안에서 사용. 만료됐거나 없으면 null, 다른 타입이 저장돼 있으면 Redis WRONGTYPE처럼 실패한다.
+     */
+    private Entry live(Entry entry, Class<?> type) {
+        if (entry == null || entry.isExpired(clock.getAsLong())) {
+            return null;
+        }
+        if (!type.isInstance(entry.value)) {
+            throw new IllegalStateException("Key holds " + entry.value.getClass().getSimpleName()
+                    + ", not " + type.getSimpleName());
+        }
+        return entry;
+    }
+    
+    private void evictIfFull(String insertedKey) {
+        while (storage.size() > maxEntries) {
+            String victim = sampleVictim(insertedKey);
+            if (victim == null) {
+                return;
+            }
+            Entry removed = storage.remove(victim);
+            if (removed != null) {
+                cancel(removed);
+                if (evicted != null) {
+                    evicted.increment();
+                }
+                log.debug("Evicted chat store entry {} - max entries {}", victim, maxEntries);
+            }
+        }
+    }
+    
+    private String sampleVictim(String insertedKey) {
+        int skip = ThreadLocalRandom.current().nextInt(Math.min(MAX_SAMPLE_SKIP, Math.max(1, storage.size())));
+        Iterator<Map.Entry<String, Entry>> iterator = storage.entrySet().iterator();
+        for (int i = 0; i < skip && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        String victim = null;
+        Entry victimEntry = null;
+        int sampled = 0;
+        int skipped = 0;
+        while (sampled < EVICTION_SAMPLES && skipped < MAX_SKIP_SCAN) {
+            if (!iterator.hasNext()) {
+                if (sampled > 0 || skip == 0) {
+                    break;
+                }
+                iterator = storage.entrySet().iterator();
+                skip = 0;
+                continue;
+            }
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getKey().equals(insertedKey)) {
+                continue;
+            }
+            if (candidate.getValue().expiresAt == 0 || isPinned(candidate.getKey())) {
+                skipped++;
+                continue;
+            }
+            sampled++;
+            if (victimEntry == null || candidate.getValue().lastAccess < victimEntry.lastAccess) {
+                victim = candidate.getKey();
+                victimEntry = candidate.getValue();
+            }
+        }
+        return victim;
+    }
+    
+    private boolean isPinned(String key) {
+        for (String prefix : pinnedPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    void refreshStats() {
+        Map<String, PrefixStats> next = new HashMap<>();
+        for (Map.Entry<String, Entry> entry : storage.entrySet()) {
+            long bytes = MemoryEstimate.ENTRY + MemoryEstimate.of(entry.getKey()) + MemoryEstimate.of(entry.getValue().value);
+            next.merge(prefixOf(entry.getKey()), new PrefixStats(1, bytes), PrefixStats::plus);
+        }
+        for (String prefix : next.keySet()) {
+            if (!stats.containsKey(prefix)) {
+                registerPrefix(prefix);
+            }
+        }
+        stats = next;
+    }
+    
+    private void refreshStatsPeriodically(Timeout timeout) {
+        try {
+            refreshStats();
+        } catch (Exception e) {
+            log.warn("Failed to refresh chat store stats", e);
+        }
+        try {
+            timer.newTimeout(this::refreshStatsPeriodically, STATS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException stopped) {
+            // close() 이후
+        }
+    }
+    
+    private void registerPrefix(String prefix) {
+        Gauge.builder("socketio.store.entries", this, store -> store.stats.getOrDefault(prefix, PrefixStats.EMPTY).entries())
+                .tag("prefix", prefix)
+                .register(meterRegistry);
+        Gauge.builder("socketio.store.bytes", this, store -> store.stats.getOrDefault(prefix, PrefixStats.EMPTY).bytes())
+                .tag("prefix", prefix)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * "userroom:roomids:{userId}" → "userroom:roomids:"
+     */
+    static String prefixOf(String key) {
+        int index = key.lastIndexOf(':');
+        return index < 0 ? key : key.substring(0, index + 1);
+    }
+    
+    private static void cancel(Entry entry) {
+        if (entry != null && entry.timeout != null) {
+            entry.timeout.cancel();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Set<String> setOf(Entry entry) {
+        return (Set<String>) entry.value;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> hashOf(Entry entry) {
+        return (Map<String, Object>) entry.value;
+    }
+    
+    record PrefixStats(long entries, long bytes) {
+        
+        static final PrefixStats EMPTY = new PrefixStats(0, 0);
+        
+        PrefixStats plus(PrefixStats other) {
+            return new PrefixStats(entries + other.entries, bytes + other.bytes);
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final Object value;
+        // 만료 시각(epoch millis), 0이면 만료 없음
+        private final long expiresAt;
+        private volatile long lastAccess;
+        private Timeout timeout;
+        
+        private Entry(Object value, long expiresAt, long now) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = now;
+        }
+        
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now >= expiresAt;
+        }
+        
+        void touch(long now) {
+            lastAccess = now;
+        }
+    }
+    
+    /**
+     * 대략적인 힙 점유량 (64bit JVM, compressed oops, compact strings 기준)
+     */
+    private static final class MemoryEstimate {
+        
+        // ConcurrentHashMap.Node + Entry
+        static final long ENTRY = 32 + 32;
+        private static final long OBJECT = 16;
+        private static final long STRING = 40;
+        private static final long COLLECTION = 64;
+        private static final long NODE = 32;
+        
+        static long of(Object value) {
+            if (value == null) {
+                return 0;
+            }
+            if (value instanceof String string) {
+                return STRING + string.length();
+            }
+            if (value instanceof Collection<?> collection) {
+                long bytes = COLLECTION;
+                for (Object element : collection) {
+                    bytes += NODE + of(element);
+                }
+                return bytes;
+            }
+            if (value instanceof Map<?, ?> map) {
+                long bytes = COLLECTION;
+                for (Map.Entry<?, ?> element : map.entrySet()) {
+                    bytes += NODE + of(element.getKey()) + of(element.getValue());
+                }
+                return bytes;
+            }
+            if (value instanceof Record record) {
+                long bytes = OBJECT;
+                for (var component : record.getClass().getRecordComponents()) {
+                    try {
+                        bytes += 4 + of(component.getAccessor().invoke(record));
+                    } catch (ReflectiveOperationException e) {
+                        bytes += OBJECT;
+                    }
+                }
+                return bytes;
+            }
+            return OBJECT;
+        }
     }
 }
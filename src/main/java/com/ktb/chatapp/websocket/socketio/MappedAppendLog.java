@@ -0,0 +1,167 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메모리 매핑된 append-only 레코드 파일.
+ * 레코드는 [length:int][crc32c:int][body] 형식이며 파일은 0으로 채워진 상태로 늘어나므로
+ * length가 0이거나 CRC가 맞지 않는 위치를 로그의 끝으로 본다(중간에 끊긴 마지막 레코드는 버린다).
+ * 프로세스가 죽어도 매핑된 페이지는 OS가 기록하며, OS 장애에 대비해 sync()로 주기적으로 디스크에 내린다.
+ * 스레드 안전하지 않으므로 호출자가 동기화한다.
+ */
+@Slf4j
+final class MappedAppendLog implements AutoCloseable {
+
+    private static final int HEADER = 8;
+    private static final int INITIAL_SIZE = 16 * 1024 * 1024;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    MappedAppendLog(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + path, e);
+        }
+    }
+
+    /**
+     * 처음부터 유효한 레코드 body를 차례로 넘긴 뒤 쓰기 위치를 마지막 유효 레코드 뒤로 맞춘다.
+     *
+     * @return 읽은 레코드 수
+     */
+    long replay(Consumer<ByteBuffer> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        long records = 0;
+        while (view.remaining() >= HEADER) {
+            int start = view.position();
+            int length = view.getInt();
+            int checksum = view.getInt();
+            if (length <= 0 || length > view.remaining()) {
+                truncate(start, length != 0);
+                return records;
+            }
+            ByteBuffer body = view.slice(view.position(), length);
+            if (checksum != checksum(body)) {
+                truncate(start, true);
+                return records;
+            }
+            consumer.accept(body);
+            view.position(view.position() + length);
+            records++;
+        }
+        buffer.position(view.position());
+        return records;
+    }
+
+    void append(byte[] body) {
+        ensureCapacity(HEADER + body.length);
+        buffer.putInt(body.length);
+        buffer.putInt(checksum(ByteBuffer.wrap(body)));
+        buffer.put(body);
+    }
+
+    /**
+     * @return 기록된 바이트 수
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    void sync() {
+        buffer.force();
+    }
+
+    /**
+     * 새 파일에 records를 쓰고 원자적으로 교체한다 (compaction).
+     */
+    void rewrite(Consumer<MappedAppendLog> records) {
+        Path compacting = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            Files.deleteIfExists(compacting);
+            MappedAppendLog next = new MappedAppendLog(compacting);
+            records.accept(next);
+            next.sync();
+            next.channel.close();
+            channel.close();
+            Files.move(compacting, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open(path);
+            replay(body -> { });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close {}", path, e);
+        }
+    }
+
+    private void open(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(INITIAL_SIZE, channel.size());
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        long required = (long) buffer.position() + bytes;
+        long size = Math.max((long) buffer.capacity() * 2, required);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Append log exceeds 2GB, compaction is required: " + path);
+        }
+        try {
+            int position = buffer.position();
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow " + path, e);
+        }
+    }
+
+    /**
+     * start부터 뒤를 버린다. 손상된 꼬리가 남아 있으면 0으로 덮어 이후 append와 섞이지 않게 한다.
+     */
+    private void truncate(int start, boolean corrupted) {
+        if (corrupted) {
+            log.warn("Discarding corrupted tail of {} at offset {}", path, start);
+            for (int i = start; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.position(start);
+    }
+
+    private int checksum(ByteBuffer body) {
+        crc.reset();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+}
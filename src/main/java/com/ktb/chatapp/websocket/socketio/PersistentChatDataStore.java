@@ -0,0 +1,461 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * 변경 내역을 메모리 매핑된 append-only 파일에 남기는 ChatDataStore.
+ * 조회는 내부 LocalChatDataStore에서 바로 처리하고, 변경은 메모리 반영과 로그 기록을 하나의 잠금 안에서 수행해
+ * 로그 순서와 메모리 상태가 어긋나지 않게 한다. 값이 바뀌지 않은 변경(이미 있는 멤버 추가 등)은 기록하지 않는다.
+ * <p>
+ * 잠금은 저장소 전체에 하나이므로 mapped 모드에서는 모든 사용자의 입장/퇴장 기록이 한 줄로 선다.
+ * UserRooms의 사용자별 stripe 잠금은 같은 사용자의 변경 순서만 보장하고, 여기서 다시 직렬화된다.
+ * 레코드 인코딩(JSON 변환 포함)은 잠금 밖에서 미리 하므로 잠금 안에서는 메모리 반영과 매핑된 버퍼로의 복사만 한다.
+ * 디스크 동기화(force)는 sync-interval마다 따로 하므로 변경마다 디스크를 기다리지 않는다.
+ * compaction은 현재 상태 전체를 새 파일에 쓰는 동안 잠금을 잡으므로 그동안 변경이 멈춘다.
+ * 로그 순서를 잠금 없이 맞추려면 단일 writer 큐가 필요하지만, 변경이 입장/퇴장과 연결 시점에만 일어나므로
+ * 이 정도 직렬화를 감수한다. 변경 처리량이 중요하면 memory 모드를 쓴다.
+ * <ul>
+ *   <li>기동 시 로그를 재생해 방 참여 정보 등을 복구한다. 만료 시각은 절대 시각으로 기록되어 재생 시점에 이미 지난 키는 건너뛴다.</li>
+ *   <li>로그가 마지막 compaction 크기의 2배와 최소 크기를 모두 넘으면 현재 상태만 담은 새 파일로 교체한다.</li>
+ *   <li>TTL 만료나 축출로 메모리에서 사라진 키는 로그에 남지 않으므로 재생 후 다시 만료/축출되거나 compaction 때 정리된다.</li>
+ *   <li>연결 중에만 TTL 없이 두는 키(사용자 방 목록)는 비정상 종료 뒤 재생하면 TTL 없이 남는다. 기동 시점에는 연결된 사용자가 없으므로
+ *       recoveredTtls에 등록된 prefix의 키 중 TTL이 없는 키에 해당 TTL을 걸어, 재접속하지 않는 사용자의 키가 쌓이지 않게 한다.</li>
+ *   <li>값은 String과 RESTORABLE_TYPES에 등록된 타입만 기록한다. 재생은 로그에 적힌 클래스 이름을 그대로 로드하지 않고 이 목록에서만 찾으며,
+ *       DTO 변경 등으로 복원할 수 없는 레코드는 경고만 남기고 건너뛴다(해당 키는 비워 둔다).</li>
+ * </ul>
+ */
+@Slf4j
+public class PersistentChatDataStore implements ChatDataStore, AutoCloseable {
+
+    private static final byte SET = 1;
+    private static final byte DELETE = 2;
+    private static final byte EXPIRE = 3;
+    private static final byte SET_ADD = 4;
+    private static final byte SET_REMOVE = 5;
+    private static final byte HASH_PUT = 6;
+    private static final byte HASH_REMOVE = 7;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte JSON_VALUE = 2;
+
+    // 재생 시 JSON으로 복원할 수 있는 값 타입 (클래스 이름 → 타입)
+    private static final Map<String, Class<?>> RESTORABLE_TYPES = Map.of(
+            SocketUser.class.getName(), SocketUser.class,
+            Long.class.getName(), Long.class,
+            Integer.class.getName(), Integer.class,
+            Boolean.class.getName(), Boolean.class);
+
+    private final LocalChatDataStore delegate;
+    private final MappedAppendLog appendLog;
+    private final long minCompactBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final List<ScheduledFuture<?>> maintenance = new ArrayList<>();
+
+    private long compactedBytes;
+    private long skippedRecords;
+
+    public PersistentChatDataStore(LocalChatDataStore delegate, Path path, long minCompactBytes) {
+        this(delegate, path, minCompactBytes, Map.of());
+    }
+
+    /**
+     * @param recoveredTtls 재생 후 TTL이 없는 키에 걸 TTL (키 prefix → TTL)
+     */
+    public PersistentChatDataStore(LocalChatDataStore delegate, Path path, long minCompactBytes,
+                                   Map<String, Duration> recoveredTtls) {
+        this.delegate = delegate;
+        this.appendLog = new MappedAppendLog(path);
+        this.minCompactBytes = minCompactBytes;
+
+        long started = System.nanoTime();
+        long records = appendLog.replay(this::applySafely);
+        this.compactedBytes = appendLog.size();
+        int expiring = expireUnbounded(recoveredTtls);
+        log.info("Recovered chat store from {} - records: {}, skipped: {}, entries: {}, expiring: {}, {}ms",
+                path, records, skippedRecords, delegate.size(), expiring,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * 공용 스케줄러에서 sync-interval마다 디스크에 내리고 compact-interval마다 compaction 필요 여부를 확인한다.
+     */
+    public PersistentChatDataStore start(TaskScheduler scheduler, Duration syncInterval, Duration compactInterval) {
+        maintenance.add(scheduler.scheduleWithFixedDelay(this::syncSafely,
+                Instant.now().plus(syncInterval), syncInterval));
+        maintenance.add(scheduler.scheduleWithFixedDelay(this::compactSafely,
+                Instant.now().plus(compactInterval), compactInterval));
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        maintenance.forEach(task -> task.cancel(false));
+        appendLog.close();
+        delegate.close();
+    }
+
+    @Override
+    public <T> Optional<T> get(String key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        requireRestorable(value);
+        byte[] record = encode(SET, key, null, value, 0);
+        synchronized (this) {
+            delegate.set(key, value);
+            appendLog.append(record);
+        }
+    }
+
+    @Override
+    public void set(String key, Object value, Duration ttl) {
+        requireRestorable(value);
+        byte[] record = encode(SET, key, null, value, System.currentTimeMillis() + ttl.toMillis());
+        synchronized (this) {
+            delegate.set(key, value, ttl);
+            appendLog.append(record);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        byte[] record = encode(DELETE, key, null, null, 0);
+        synchronized (this) {
+            delegate.delete(key);
+            appendLog.append(record);
+        }
+    }
+
+    @Override
+    public boolean expire(String key, Duration ttl) {
+        byte[] record = encode(EXPIRE, key, null, null, System.currentTimeMillis() + ttl.toMillis());
+        synchronized (this) {
+            return appendIf(delegate.expire(key, ttl), record);
+        }
+    }
+
+    @Override
+    public boolean persist(String key) {
+        byte[] record = encode(EXPIRE, key, null, null, 0);
+        synchronized (this) {
+            return appendIf(delegate.persist(key), record);
+        }
+    }
+
+    @Override
+    public boolean setAdd(String key, String member) {
+        byte[] record = encode(SET_ADD, key, member, null, 0);
+        synchronized (this) {
+            return appendIf(delegate.setAdd(key, member), record);
+        }
+    }
+
+    @Override
+    public boolean setRemove(String key, String member) {
+        byte[] record = encode(SET_REMOVE, key, member, null, 0);
+        synchronized (this) {
+            return appendIf(delegate.setRemove(key, member), record);
+        }
+    }
+
+    @Override
+    public boolean setContains(String key, String member) {
+        return delegate.setContains(key, member);
+    }
+
+    @Override
+    public Set<String> setMembers(String key) {
+        return delegate.setMembers(key);
+    }
+
+    @Override
+    public void hashPut(String key, String field, Object value) {
+        requireRestorable(value);
+        byte[] record = encode(HASH_PUT, key, field, value, 0);
+        synchronized (this) {
+            delegate.hashPut(key, field, value);
+            appendLog.append(record);
+        }
+    }
+
+    @Override
+    public <T> Optional<T> hashGet(String key, String field, Class<T> type) {
+        return delegate.hashGet(key, field, type);
+    }
+
+    @Override
+    public boolean hashRemove(String key, String field) {
+        byte[] record = encode(HASH_REMOVE, key, field, null, 0);
+        synchronized (this) {
+            return appendIf(delegate.hashRemove(key, field), record);
+        }
+    }
+
+    @Override
+    public Map<String, Object> hashEntries(String key) {
+        return delegate.hashEntries(key);
+    }
+
+    /**
+     * 현재 상태만 담은 로그로 교체한다.
+     */
+    synchronized void compact() {
+        long before = appendLog.size();
+        appendLog.rewrite(next -> delegate.forEach((key, value, expiresAt) -> writeSnapshot(next, key, value, expiresAt)));
+        compactedBytes = appendLog.size();
+        log.info("Compacted chat store log {} -> {} bytes", before, compactedBytes);
+    }
+
+    /**
+     * TTL이 없는 키 중 prefix가 recoveredTtls에 등록된 키에 TTL을 건다. 로그에도 남겨 다시 재생해도 유지된다.
+     *
+     * @return TTL을 건 키 수
+     */
+    private int expireUnbounded(Map<String, Duration> recoveredTtls) {
+        if (recoveredTtls.isEmpty()) {
+            return 0;
+        }
+        Map<String, Duration> targets = new HashMap<>();
+        delegate.forEach((key, value, expiresAt) -> {
+            if (expiresAt != 0) {
+                return;
+            }
+            recoveredTtls.forEach((prefix, ttl) -> {
+                if (key.startsWith(prefix)) {
+                    targets.put(key, ttl);
+                }
+            });
+        });
+        targets.forEach(this::expire);
+        return targets.size();
+    }
+
+    synchronized long logSize() {
+        return appendLog.size();
+    }
+
+    private void writeSnapshot(MappedAppendLog target, String key, Object value, long expiresAt) {
+        if (value instanceof Set<?> members) {
+            for (Object member : members) {
+                target.append(encode(SET_ADD, key, (String) member, null, 0));
+            }
+        } else if (value instanceof Map<?, ?> hash) {
+            for (Map.Entry<?, ?> field : hash.entrySet()) {
+                target.append(encode(HASH_PUT, key, (String) field.getKey(), field.getValue(), 0));
+            }
+        } else {
+            target.append(encode(SET, key, null, value, expiresAt));
+            return;
+        }
+        if (expiresAt != 0) {
+            target.append(encode(EXPIRE, key, null, null, expiresAt));
+        }
+    }
+
+    /**
+     * 값이 바뀐 변경만 기록한다. 잠금 안에서 호출한다.
+     */
+    private boolean appendIf(boolean changed, byte[] record) {
+        if (changed) {
+            appendLog.append(record);
+        }
+        return changed;
+    }
+
+    private byte[] encode(byte op, String key, String field, Object value, long expiresAt) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(op);
+            writeString(out, key);
+            switch (op) {
+                case SET -> {
+                    out.writeLong(expiresAt);
+                    writeValue(out, value);
+                }
+                case EXPIRE -> out.writeLong(expiresAt);
+                case SET_ADD, SET_REMOVE, HASH_REMOVE -> writeString(out, field);
+                case HASH_PUT -> {
+                    writeString(out, field);
+                    writeValue(out, value);
+                }
+                default -> {
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void applySafely(ByteBuffer record) {
+        try {
+            apply(record);
+        } catch (RuntimeException e) {
+            skippedRecords++;
+            log.warn("Skipped undecodable chat store record: {}", e.getMessage());
+        }
+    }
+
+    private void apply(ByteBuffer record) {
+        byte op = record.get();
+        String key = readString(record);
+        long now = System.currentTimeMillis();
+        switch (op) {
+            case SET -> {
+                long expiresAt = record.getLong();
+                Object value;
+                try {
+                    value = readValue(record);
+                } catch (UnrestorableValueException e) {
+                    delegate.delete(key);
+                    throw e;
+                }
+                if (expiresAt == 0) {
+                    delegate.set(key, value);
+                } else if (expiresAt > now) {
+                    delegate.set(key, value, Duration.ofMillis(expiresAt - now));
+                } else {
+                    delegate.delete(key);
+                }
+            }
+            case DELETE -> delegate.delete(key);
+            case EXPIRE -> {
+                long expiresAt = record.getLong();
+                if (expiresAt == 0) {
+                    delegate.persist(key);
+                } else if (expiresAt > now) {
+                    delegate.expire(key, Duration.ofMillis(expiresAt - now));
+                } else {
+                    delegate.delete(key);
+                }
+            }
+            case SET_ADD -> delegate.setAdd(key, readString(record));
+            case SET_REMOVE -> delegate.setRemove(key, readString(record));
+            case HASH_PUT -> {
+                String field = readString(record);
+                Object value;
+                try {
+                    value = readValue(record);
+                } catch (UnrestorableValueException e) {
+                    delegate.hashRemove(key, field);
+                    throw e;
+                }
+                delegate.hashPut(key, field, value);
+            }
+            case HASH_REMOVE -> delegate.hashRemove(key, readString(record));
+            default -> throw new IllegalStateException("Unknown chat store record: " + op);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING_VALUE);
+            writeString(out, string);
+        } else {
+            out.writeByte(JSON_VALUE);
+            writeString(out, value.getClass().getName());
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    private Object readValue(ByteBuffer record) {
+        byte type = record.get();
+        return switch (type) {
+            case NULL_VALUE -> null;
+            case STRING_VALUE -> readString(record);
+            case JSON_VALUE -> {
+                String className = readString(record);
+                byte[] json = new byte[record.getInt()];
+                record.get(json);
+                Class<?> valueType = RESTORABLE_TYPES.get(className);
+                if (valueType == null) {
+                    throw new UnrestorableValueException("Unsupported value type " + className, null);
+                }
+                try {
+                    yield objectMapper.readValue(json, valueType);
+                } catch (IOException e) {
+                    throw new UnrestorableValueException("Failed to restore " + className, e);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown value type: " + type);
+        };
+    }
+
+    private static void requireRestorable(Object value) {
+        if (value != null && !(value instanceof String) && !RESTORABLE_TYPES.containsKey(value.getClass().getName())) {
+            throw new IllegalArgumentException("Unsupported chat store value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private synchronized void syncSafely() {
+        try {
+            appendLog.sync();
+        } catch (Exception e) {
+            log.warn("Failed to sync chat store log", e);
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            boolean needed;
+            synchronized (this) {
+                needed = appendLog.size() > Math.max(minCompactBytes, compactedBytes * 2);
+            }
+            if (needed) {
+                compact();
+            }
+        } catch (Exception e) {
+            log.error("Chat store compaction failed", e);
+        }
+    }
+
+    private static final class UnrestorableValueException extends IllegalStateException {
+
+        private UnrestorableValueException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.ktb.chatapp.websocket.socketio;
 
-import com.corundumstudio.socketio.SocketIOServer;
 import com.ktb.chatapp.event.*;
+import com.ktb.chatapp.websocket.socketio.affinity.RoomRelay;
+import com.ktb.chatapp.websocket.socketio.directory.UserDelivery;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,16 +20,18 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class SocketIOEventListener {
 
-    private final SocketIOServer socketIOServer;
+    private final OutboundDispatcher outboundDispatcher;
+    private final UserDelivery userDelivery;
+    // 저장되지 않는 방 이벤트는 change stream으로 전달되지 않으므로 다른 노드의 구독자에게는 relay로 보낸다
+    private final RoomRelay roomRelay;
 
     @EventListener
     public void handleSessionEndedEvent(SessionEndedEvent event) {
         try {
-            socketIOServer.getRoomOperations("user:" + event.getUserId())
-                    .sendEvent("session_ended", Map.of(
-                            "reason", event.getReason(),
-                            "message", event.getMessage()
-                    ));
+            userDelivery.sendToUser(event.getUserId(), OutboundEvent.reliable(SESSION_ENDED, Map.of(
+                    "reason", event.getReason(),
+                    "message", event.getMessage()
+            )));
             log.info("session_ended 이벤트 발송: userId={}, reason={}", event.getUserId(), event.getReason());
         } catch (Exception e) {
             log.error("session_ended 이벤트 발송 실패: userId={}", event.getUserId(), e);
@@ -36,7 +41,7 @@ public class SocketIOEventListener {
     @EventListener
     public void handleRoomCreatedEvent(RoomCreatedEvent event) {
         try {
-            socketIOServer.getRoomOperations("room-list").sendEvent(ROOM_CREATED, event.getRoomResponse());
+            outboundDispatcher.sendToRoom("room-list", OutboundEvent.reliable(ROOM_CREATED, event.getRoomResponse()));
             log.info("roomCreated 이벤트 발송: roomId={}", event.getRoomResponse().getId());
         } catch (Exception e) {
             log.error("roomCreated 이벤트 발송 실패", e);
@@ -46,7 +51,8 @@ public class SocketIOEventListener {
     @EventListener
     public void handleRoomUpdatedEvent(RoomUpdatedEvent event) {
         try {
-            socketIOServer.getRoomOperations(event.getRoomId()).sendEvent(ROOM_UPDATE, event.getRoomResponse());
+            roomRelay.sendToRoom(event.getRoomId(),
+                    OutboundEvent.latest(ROOM_UPDATE, event.getRoomResponse(), event.getRoomId()));
             log.info("roomUpdate 이벤트 발송: roomId={}", event.getRoomId());
         } catch (Exception e) {
             log.error("roomUpdate 이벤트 발송 실패: roomId={}", event.getRoomId(), e);
@@ -61,8 +67,7 @@ public class SocketIOEventListener {
                 "aiType", event.getAiType(),
                 "timestamp", event.getStartTime()
             );
-            socketIOServer.getRoomOperations(event.getRoomId())
-                    .sendEvent(AI_MESSAGE_START, data);
+            roomRelay.sendToRoom(event.getRoomId(), OutboundEvent.reliable(AI_MESSAGE_START, data));
             log.info("aiMessageStart 이벤트 발송: roomId={}, messageId={}",
                     event.getRoomId(), event.getMessageId());
         } catch (Exception e) {
@@ -79,8 +84,9 @@ public class SocketIOEventListener {
                 "isCodeBlock", event.isCodeBlock(),
                 "isComplete", false
             );
-            socketIOServer.getRoomOperations(event.getRoomId())
-                    .sendEvent(AI_MESSAGE_CHUNK, data);
+            // fullContent를 담고 있으므로 밀린 청크는 마지막 것만 보내도 된다
+            roomRelay.sendToRoom(event.getRoomId(),
+                    OutboundEvent.latest(AI_MESSAGE_CHUNK, data, event.getMessageId()));
         } catch (Exception e) {
             log.error("aiMessageChunk 이벤트 발송 실패: roomId={}", event.getRoomId(), e);
         }
@@ -96,8 +102,7 @@ public class SocketIOEventListener {
                 "aiType", event.getAiType(),
                 "timestamp", event.getStartTime()
             );
-            socketIOServer.getRoomOperations(event.getRoomId())
-                    .sendEvent(AI_MESSAGE_COMPLETE, data);
+            roomRelay.sendToRoom(event.getRoomId(), OutboundEvent.reliable(AI_MESSAGE_COMPLETE, data));
             log.info("aiMessageComplete 이벤트 발송: roomId={}, messageId={}",
                     event.getRoomId(), event.getSavedMessageId());
         } catch (Exception e) {
@@ -113,8 +118,7 @@ public class SocketIOEventListener {
                 "error", event.getErrorMessage(),
                 "aiType", event.getAiType()
             );
-            socketIOServer.getRoomOperations(event.getRoomId())
-                    .sendEvent(AI_MESSAGE_ERROR, data);
+            roomRelay.sendToRoom(event.getRoomId(), OutboundEvent.reliable(AI_MESSAGE_ERROR, data));
             log.error("aiMessageError 이벤트 발송: roomId={}, messageId={}, error={}",
                     event.getRoomId(), event.getMessageId(), event.getErrorMessage());
         } catch (Exception e) {
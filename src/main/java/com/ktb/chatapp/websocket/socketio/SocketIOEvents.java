@@ -37,10 +37,17 @@ public final class SocketIOEvents {
 
     /**
      * 이전 메시지 로드 요청
-     * Payload: { roomId, before }
+     * Payload: { roomId, before, limit, afterSeq }
+     * afterSeq가 있으면 해당 시퀀스 이후 메시지를 오름차순으로 반환
      */
     public static final String FETCH_PREVIOUS_MESSAGES = "fetchPreviousMessages";
 
+    /**
+     * 재연결 후 놓친 메시지 요청
+     * Payload: { rooms: { roomId: lastSeq } }
+     */
+    public static final String REPLAY_MESSAGES = "replayMessages";
+
     /**
      * 메시지 읽음 처리
      * Payload: { roomId, messageIds }
@@ -52,6 +59,13 @@ public final class SocketIOEvents {
      * Payload: { messageId, reaction, type }
      */
     public static final String MESSAGE_REACTION = "messageReaction";
+
+    /**
+     * 참가자 목록 페이지 요청 (대형 방은 joinRoomSuccess에 첫 페이지만 포함)
+     * participantsDiff의 fromVersion이 보유한 버전과 맞지 않을 때 다시 동기화하는 데도 사용한다
+     * Payload: { roomId, offset, limit }
+     */
+    public static final String FETCH_PARTICIPANTS = "fetchParticipants";
     
     // ============================================
     // Server → Client Events (전송 이벤트)
@@ -71,7 +85,7 @@ public final class SocketIOEvents {
 
     /**
      * 채팅방 입장 성공
-     * Payload: JoinRoomSuccessResponse
+     * Payload: JoinRoomSuccessResponse (COMPACT: CompactJoinRoomSuccessResponse)
      */
     public static final String JOIN_ROOM_SUCCESS = "joinRoomSuccess";
 
@@ -84,6 +98,7 @@ public final class SocketIOEvents {
     /**
      * 이전 메시지 로드 완료
      * Payload: { messages, hasMore, oldestTimestamp }
+     * COMPACT wire format: { messages, senders, hasMore } (CompactMessagePage)
      */
     public static final String PREVIOUS_MESSAGES_LOADED = "previousMessagesLoaded";
 
@@ -93,11 +108,24 @@ public final class SocketIOEvents {
     public static final String MESSAGE_LOAD_START = "messageLoadStart";
 
     /**
-     * 참가자 업데이트
+     * 참가자 업데이트, 일반 모드 방의 LEGACY 클라이언트에만 coalesce window당 한 번 전송
      * Payload: List<UserDto>
      */
     public static final String PARTICIPANTS_UPDATE = "participantsUpdate";
 
+    /**
+     * 참가자 변경 diff, coalesce window 동안 방별로 모아 전송 (COMPACT 클라이언트와 대형 방의 모든 클라이언트)
+     * fromVersion이 보유한 버전과 같으면 적용하고, version 이하이면 무시하며, 그 외에는 fetchParticipants로 다시 동기화한다
+     * Payload: { roomId, fromVersion, version, participantCount, added: [UserDto], removed: [userId] }
+     */
+    public static final String PARTICIPANTS_DIFF = "participantsDiff";
+
+    /**
+     * fetchParticipants 응답
+     * Payload: { roomId, version, offset, total, participants, hasMore }
+     */
+    public static final String PARTICIPANTS_PAGE = "participantsPage";
+
     /**
      * 채팅방 생성 알림
      * Payload: RoomResponse
@@ -123,11 +151,53 @@ public final class SocketIOEvents {
     public static final String USER_LEFT = "userLeft";
 
     /**
-     * 메시지 읽음 상태 업데이트
+     * 방 참가자 온라인 상태 변경, tick마다 방별로 모아서 전송
+     * joinRoom 직후에는 해당 방의 현재 온라인 참가자 전체를 online으로 보낸다
+     * Payload: { roomId, online: [userId], offline: [userId] }
+     */
+    public static final String PRESENCE_UPDATE = "presenceUpdate";
+
+    /**
+     * 여러 이벤트를 묶은 프레임, batch=1 쿼리로 연결한 클라이언트에만 전송
+     * 클라이언트는 순서대로 각 이벤트를 dispatch한다
+     * Payload: [[event, ...args], ...]
+     */
+    public static final String BATCH = "batch";
+
+    /**
+     * 메시지 읽음 상태 업데이트, 방별로 flush 주기마다 모아서 전송
      * Payload: { userId, messageIds }
+     * COMPACT wire format: { roomId, reads: [{ userId, messageIds }] }
      */
     public static final String MESSAGES_READ = "messagesRead";
 
+    /**
+     * 대형 방 읽음 수 갱신, 읽은 사용자 목록 없이 메시지별 현재 읽은 사람 수만 전송
+     * Payload: { roomId, counts: { messageId: count } }
+     */
+    public static final String MESSAGES_READ_COUNT = "messagesReadCount";
+
+    /**
+     * 재연결 시 기존 참여 방 요약, 방별 메시지/참가자 재조회 여부 판단용
+     * Payload: { rooms: [{ roomId, latestSeq, latestTimestamp, unreadCount, participantsVersion, participantCount }] }
+     */
+    public static final String ROOMS_BOOTSTRAP = "roomsBootstrap";
+
+    /**
+     * 연결 직후 선호 노드 안내, 가장 활발한 방들의 소유 노드가 현재 노드와 다를 때만 전송
+     * Payload: { currentNodeId, nodeId, url, roomIds }
+     * url이 있으면 클라이언트는 적당한 시점에 그 주소로 다시 연결한다
+     */
+    public static final String AFFINITY_HINT = "affinityHint";
+
+    /**
+     * 놓친 메시지 응답, 방별로 전송
+     * Payload: { roomId, source: memory|database, messages, hasMore }
+     * COMPACT wire format: senders 추가, messages는 CompactMessageResponse
+     * hasMore가 true이면 마지막 메시지의 seq로 fetchPreviousMessages(afterSeq)를 이어서 요청
+     */
+    public static final String MESSAGES_REPLAYED = "messagesReplayed";
+
     /**
      * 메시지 리액션 업데이트
      * Payload: { messageId, reactions }
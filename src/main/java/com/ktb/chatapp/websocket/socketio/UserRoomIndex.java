@@ -0,0 +1,86 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.ktb.chatapp.websocket.socketio.ordinal.IntHashSet;
+import java.util.Arrays;
+
+/**
+ * Node-local index of room ordinals per user ordinal.
+ * Users are looked up by array index, rooms are kept in an {@link IntHashSet}, so a membership check
+ * touches no strings and allocates nothing. Only users that were loaded are indexed.
+ * Slots live in fixed-size pages that are never copied, so growing the page directory does not race with
+ * writers of other users. Callers must hold the same lock for every access to a given user.
+ */
+final class UserRoomIndex {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private volatile IntHashSet[][] pages = new IntHashSet[16][];
+
+    boolean isLoaded(int user) {
+        return rooms(user) != null;
+    }
+
+    IntHashSet rooms(int user) {
+        if (user < 0) {
+            return null;
+        }
+        IntHashSet[][] directory = pages;
+        int page = user >>> PAGE_BITS;
+        if (page >= directory.length || directory[page] == null) {
+            return null;
+        }
+        return directory[page][user & (PAGE_SIZE - 1)];
+    }
+
+    void load(int user, IntHashSet roomSet) {
+        page(user)[user & (PAGE_SIZE - 1)] = roomSet;
+    }
+
+    void drop(int user) {
+        if (isLoaded(user)) {
+            pages[user >>> PAGE_BITS][user & (PAGE_SIZE - 1)] = null;
+        }
+    }
+
+    /**
+     * Visits every loaded user. Callers must hold all user locks.
+     */
+    void forEach(UserVisitor visitor) {
+        IntHashSet[][] directory = pages;
+        for (int page = 0; page < directory.length; page++) {
+            if (directory[page] == null) {
+                continue;
+            }
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                IntHashSet rooms = directory[page][slot];
+                if (rooms != null) {
+                    visitor.visit((page << PAGE_BITS) | slot, rooms);
+                }
+            }
+        }
+    }
+
+    private IntHashSet[] page(int user) {
+        int page = user >>> PAGE_BITS;
+        IntHashSet[][] directory = pages;
+        if (page < directory.length && directory[page] != null) {
+            return directory[page];
+        }
+        synchronized (this) {
+            directory = pages;
+            if (page >= directory.length) {
+                directory = Arrays.copyOf(directory, Math.max(page + 1, directory.length << 1));
+            }
+            if (directory[page] == null) {
+                directory[page] = new IntHashSet[PAGE_SIZE];
+            }
+            pages = directory;
+            return directory[page];
+        }
+    }
+
+    interface UserVisitor {
+        void visit(int user, IntHashSet rooms);
+    }
+}
@@ -1,26 +1,60 @@
 package com.ktb.chatapp.websocket.socketio;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.stereotype.Component;
-
-import java.util.Collections;
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import com.ktb.chatapp.websocket.socketio.ordinal.IntHashSet;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
 
 /**
  * Registry for tracking which rooms each user is currently in.
  * Maps userId -> Set<roomId> to maintain user room state across the application.
  * Users can now participate in multiple rooms simultaneously.
+ * While a user is connected to this node their rooms are also loaded into a {@link UserRoomIndex} keyed by
+ * {@link IdInterner} ordinals, so the per-event membership checks do not hash or compare ID strings.
+ * The {@link ChatDataStore} set stays the source of truth: every join/leave is written through to it
+ * (so a persistent store can rejoin users after a crash), and it carries no TTL while the user is connected.
+ * On the last disconnect (and on shutdown) the set gets {@code socketio.store.user-rooms-ttl}, so it expires
+ * if the user does not come back. After a crash a persistent store applies the same TTL to recovered sets that have none.
+ * Users that are not loaded are read and updated directly in the store.
+ * The index holds one interner reference per loaded user and per membership and releases them on leave/unload,
+ * so ordinals of deleted rooms and departed users are reclaimed.
+ * Every operation for a user runs under one of {@code STRIPES} locks chosen by the user ID hash, so joins/leaves
+ * of the same user are serialized (including the move between index and store) while different users proceed in parallel.
  */
 @Component
 @ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
-@RequiredArgsConstructor
 public class UserRooms {
 
-    private static final String USER_ROOM_KEY_PREFIX = "userroom:roomids:";
+    public static final String USER_ROOM_KEY_PREFIX = "userroom:roomids:";
+    private static final int STRIPES = 64;
 
     private final ChatDataStore chatDataStore;
+    private final IdInterner idInterner;
+    private final Duration disconnectedTtl;
+    private final UserRoomIndex index = new UserRoomIndex();
+    private final Object[] locks;
+
+    @Autowired
+    public UserRooms(ChatDataStore chatDataStore,
+                     IdInterner idInterner,
+                     @Value("${socketio.store.user-rooms-ttl:24h}") Duration disconnectedTtl) {
+        this(chatDataStore, idInterner, disconnectedTtl, STRIPES);
+    }
+
+    UserRooms(ChatDataStore chatDataStore, IdInterner idInterner, Duration disconnectedTtl, int stripes) {
+        this.chatDataStore = chatDataStore;
+        this.idInterner = idInterner;
+        this.disconnectedTtl = disconnectedTtl;
+        this.locks = new Object[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        Arrays.setAll(locks, i -> new Object());
+    }
 
     /**
      * Get all room IDs for a user
@@ -28,11 +62,16 @@ public class UserRooms {
      * @param userId the user ID
      * @return the set of room IDs the user is currently in, or empty set if not in any room
      */
-    @SuppressWarnings("unchecked")
     public Set<String> get(String userId) {
-        return chatDataStore.get(buildKey(userId), Set.class)
-                .map(obj -> (Set<String>) obj)
-                .orElse(Collections.emptySet());
+        synchronized (lockFor(userId)) {
+            IntHashSet rooms = index.rooms(idInterner.find(userId));
+            if (rooms != null) {
+                Set<String> roomIds = new HashSet<>(rooms.size() * 2);
+                rooms.forEach(room -> roomIds.add(idInterner.resolve(room)));
+                return roomIds;
+            }
+            return chatDataStore.setMembers(buildKey(userId));
+        }
     }
 
     /**
@@ -40,11 +79,22 @@ public class UserRooms {
      *
      * @param userId the user ID
      * @param roomId the room ID to add to the user's room set
+     * @return true if the user was not already in the room
      */
-    public void add(String userId, String roomId) {
-        Set<String> rooms = new HashSet<>(get(userId));
-        rooms.add(roomId);
-        chatDataStore.set(buildKey(userId), rooms);
+    public boolean add(String userId, String roomId) {
+        synchronized (lockFor(userId)) {
+            IntHashSet rooms = index.rooms(idInterner.find(userId));
+            if (rooms != null) {
+                int room = idInterner.acquire(roomId);
+                if (!rooms.add(room)) {
+                    idInterner.release(room);
+                    return false;
+                }
+                chatDataStore.setAdd(buildKey(userId), roomId);
+                return true;
+            }
+            return chatDataStore.setAdd(buildKey(userId), roomId);
+        }
     }
 
     /**
@@ -52,14 +102,21 @@ public class UserRooms {
      *
      * @param userId the user ID
      * @param roomId the room ID to remove
+     * @return true if the user was in the room
      */
-    public void remove(String userId, String roomId) {
-        Set<String> rooms = new HashSet<>(get(userId));
-        rooms.remove(roomId);
-        if (rooms.isEmpty()) {
-            chatDataStore.delete(buildKey(userId));
-        } else {
-            chatDataStore.set(buildKey(userId), rooms);
+    public boolean remove(String userId, String roomId) {
+        synchronized (lockFor(userId)) {
+            IntHashSet rooms = index.rooms(idInterner.find(userId));
+            if (rooms != null) {
+                int room = idInterner.find(roomId);
+                if (room < 0 || !rooms.remove(room)) {
+                    return false;
+                }
+                idInterner.release(room);
+                chatDataStore.setRemove(buildKey(userId), roomId);
+                return true;
+            }
+            return chatDataStore.setRemove(buildKey(userId), roomId);
         }
     }
 
@@ -69,7 +126,15 @@ public class UserRooms {
      * @param userId the user ID
      */
     public void clear(String userId) {
-        chatDataStore.delete(buildKey(userId));
+        synchronized (lockFor(userId)) {
+            int user = idInterner.find(userId);
+            IntHashSet rooms = index.rooms(user);
+            if (rooms != null) {
+                rooms.forEach(idInterner::release);
+                index.load(user, new IntHashSet());
+            }
+            chatDataStore.delete(buildKey(userId));
+        }
     }
 
     /**
@@ -80,10 +145,78 @@ public class UserRooms {
      * @return true if the user is in the room, false otherwise
      */
     public boolean isInRoom(String userId, String roomId) {
-        return get(userId).contains(roomId);
+        synchronized (lockFor(userId)) {
+            IntHashSet rooms = index.rooms(idInterner.find(userId));
+            if (rooms != null) {
+                int room = idInterner.find(roomId);
+                return room >= 0 && rooms.contains(room);
+            }
+            return chatDataStore.setContains(buildKey(userId), roomId);
+        }
+    }
+
+    /**
+     * Load the user's room set into the ordinal index and keep the store copy from expiring while connected
+     *
+     * @param userId the user ID
+     */
+    public void retain(String userId) {
+        synchronized (lockFor(userId)) {
+            if (index.isLoaded(idInterner.find(userId))) {
+                return;
+            }
+            int user = idInterner.acquire(userId);
+            Set<String> roomIds = chatDataStore.setMembers(buildKey(userId));
+            IntHashSet rooms = new IntHashSet(roomIds.size());
+            roomIds.forEach(roomId -> rooms.add(idInterner.acquire(roomId)));
+            index.load(user, rooms);
+            chatDataStore.persist(buildKey(userId));
+        }
+    }
+
+    /**
+     * Unload the user from the index and let the stored room set expire unless the user reconnects in time
+     *
+     * @param userId the user ID
+     */
+    public void expireAfterDisconnect(String userId) {
+        synchronized (lockFor(userId)) {
+            int user = idInterner.find(userId);
+            IntHashSet rooms = index.rooms(user);
+            if (rooms != null) {
+                index.drop(user);
+                rooms.forEach(idInterner::release);
+                idInterner.release(user);
+            }
+            chatDataStore.expire(buildKey(userId), disconnectedTtl);
+        }
+    }
+
+    /**
+     * Start the expiry of every loaded user's room set, as if they all disconnected, when the node stops
+     */
+    @PreDestroy
+    public void expireAll() {
+        lockAll(0, () -> index.forEach((user, rooms) ->
+                chatDataStore.expire(buildKey(idInterner.resolve(user)), disconnectedTtl)));
+    }
+
+    private Object lockFor(String userId) {
+        int hash = userId.hashCode() * 0x9E3779B9;
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+
+    private void lockAll(int stripe, Runnable action) {
+        if (stripe == locks.length) {
+            action.run();
+            return;
+        }
+        synchronized (locks[stripe]) {
+            lockAll(stripe + 1, action);
+        }
     }
 
     private String buildKey(String userId) {
         return USER_ROOM_KEY_PREFIX + userId;
     }
-}
\ No newline at end of file
+}
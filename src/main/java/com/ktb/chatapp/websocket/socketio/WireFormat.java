@@ -0,0 +1,34 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import java.util.Map;
+
+/**
+ * 클라이언트별 메시지 페이로드 형식.
+ * handshake에서 auth.wireFormat 또는 ?wireFormat= 쿼리로 협상하며, 지정하지 않은 기존 클라이언트는 LEGACY를 받는다.
+ * <ul>
+ *   <li>LEGACY: readers/reactions 전체 목록과 메시지별 sender 객체</li>
+ *   <li>COMPACT: 읽은 수 + 내가 읽었는지, 리액션 수 + 내 리액션, 페이지 단위로 한 번만 보내는 sender</li>
+ * </ul>
+ */
+public enum WireFormat {
+    LEGACY,
+    COMPACT;
+
+    public static final String CLIENT_KEY = "wireFormat";
+
+    /**
+     * handshake 값으로 형식을 결정한다. 알 수 없는 값은 LEGACY로 처리한다.
+     */
+    public static WireFormat negotiate(Map<?, ?> auth, SocketIOClient client) {
+        Object requested = auth != null ? auth.get(CLIENT_KEY) : null;
+        if (requested == null && client.getHandshakeData() != null) {
+            requested = client.getHandshakeData().getSingleUrlParam(CLIENT_KEY);
+        }
+        return requested != null && "compact".equalsIgnoreCase(requested.toString()) ? COMPACT : LEGACY;
+    }
+
+    public static boolean isCompact(SocketIOClient client) {
+        return client.get(CLIENT_KEY) == COMPACT;
+    }
+}
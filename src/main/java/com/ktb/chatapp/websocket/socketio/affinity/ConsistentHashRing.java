@@ -0,0 +1,102 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 가상 노드를 둔 consistent hash ring.
+ * 노드가 추가/제거되어도 그 노드 몫의 키만 옮겨 간다.
+ * 부하 제한 배정(consistent hashing with bounded loads)은 키 위치에서 시계 방향으로 돌며
+ * 부하가 ceil(loadFactor * (전체 부하 + 1) / 노드 수)보다 작은 첫 노드를 고른다.
+ * 링은 불변이며, 노드 목록이 바뀌면 새로 만든다.
+ */
+final class ConsistentHashRing {
+
+    private final Set<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("노드가 하나 이상 필요합니다.");
+        }
+        this.nodes = Set.copyOf(nodes);
+        int replicas = Math.max(1, virtualNodes);
+        long[][] entries = new long[this.nodes.size() * replicas][];
+        String[] names = this.nodes.stream().sorted().toArray(String[]::new);
+        int n = 0;
+        for (int node = 0; node < names.length; node++) {
+            for (int replica = 0; replica < replicas; replica++) {
+                entries[n++] = new long[]{hash(names[node] + "#" + replica), node};
+            }
+        }
+        // 해시가 같으면 노드 이름 순으로 정해 노드마다 같은 링이 나오게 한다
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[entries.length];
+        this.owners = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = names[(int) entries[i][1]];
+        }
+    }
+
+    Set<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * 부하를 보지 않고 키 위치 다음의 노드를 고른다.
+     */
+    String locate(String key) {
+        return owners[start(key)];
+    }
+
+    /**
+     * 부하 제한을 넘지 않는 첫 노드를 고른다. loadFactor는 1 이상이어야 항상 답이 있다.
+     *
+     * @param loads 노드별 현재 부하. 링에 없는 노드의 부하는 무시한다
+     */
+    String locate(String key, Map<String, Long> loads, double loadFactor) {
+        long total = 0;
+        for (String node : nodes) {
+            total += loads.getOrDefault(node, 0L);
+        }
+        long capacity = (long) Math.ceil(loadFactor * (total + 1) / nodes.size());
+        int index = start(key);
+        for (int i = 0; i < points.length; i++) {
+            String node = owners[(index + i) % points.length];
+            if (loads.getOrDefault(node, 0L) < capacity) {
+                return node;
+            }
+        }
+        return owners[index];
+    }
+
+    private int start(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * FNV-1a 64비트 해시에 splitmix64 finalizer를 더해 짧은 키도 링 전체에 고르게 퍼지게 한다.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 27;
+        h *= 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h;
+    }
+}
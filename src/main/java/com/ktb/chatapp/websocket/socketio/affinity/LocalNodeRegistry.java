@@ -0,0 +1,29 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 단일 노드용 노드 목록 (기본값). 노드가 하나뿐이라 연결 수는 기록하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "local", matchIfMissing = true)
+public class LocalNodeRegistry implements NodeRegistry {
+
+    private final List<NodeInfo> nodes;
+
+    public LocalNodeRegistry(ClusterNode clusterNode,
+                             @Value("${socketio.affinity.advertised-url:}") String advertisedUrl) {
+        this.nodes = List.of(new NodeInfo(clusterNode.getNodeId(),
+                StringUtils.hasText(advertisedUrl) ? advertisedUrl : null, 0));
+    }
+
+    @Override
+    public List<NodeInfo> liveNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 단일 노드용 메모리 디렉터리 (기본값)
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRoomOwnerDirectory implements RoomOwnerDirectory {
+
+    private final ConcurrentHashMap<String, String> owners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> followers = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<String> find(String roomId) {
+        return Optional.ofNullable(owners.get(roomId));
+    }
+
+    @Override
+    public String claim(String roomId, String candidate, String expected) {
+        return owners.compute(roomId, (id, current) ->
+                current == null || current.equals(expected) ? candidate : current);
+    }
+
+    @Override
+    public Map<String, Long> ownedCounts() {
+        return owners.values().stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Override
+    public void addFollower(String roomId, String nodeId) {
+        followers.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(nodeId);
+    }
+
+    @Override
+    public void removeFollower(String roomId, String nodeId) {
+        followers.computeIfPresent(roomId, (id, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Set<String> followers(String roomId) {
+        Set<String> nodes = followers.get(roomId);
+        return nodes != null ? Set.copyOf(nodes) : Set.of();
+    }
+
+    @Override
+    public void remove(String roomId) {
+        owners.remove(roomId);
+        followers.remove(roomId);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.ClusterNodeEntry;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 멀티 노드용 MongoDB 노드 목록.
+ * 각 노드는 heartbeat-interval마다 cluster_nodes에 자기 항목(주소, 연결 수)을 갱신하고 같은 주기로 목록을 다시 읽는다.
+ * heartbeat가 3회 연속 없는 노드는 죽은 것으로 보고 목록에서 뺀다. 조회는 메모리의 마지막 목록만 본다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "mongo")
+public class MongoNodeRegistry implements NodeRegistry {
+
+    private static final int MISSED_HEARTBEATS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final Optional<SocketIOServer> socketIOServer;
+    private final String nodeId;
+    private final String url;
+    private final Duration heartbeatInterval;
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> heartbeatTask;
+
+    private volatile List<NodeInfo> liveNodes;
+
+    public MongoNodeRegistry(MongoTemplate mongoTemplate,
+                             Optional<SocketIOServer> socketIOServer,
+                             ClusterNode clusterNode,
+                             TaskScheduler taskScheduler,
+                             @Value("${socketio.affinity.advertised-url:}") String advertisedUrl,
+                             @Value("${socketio.affinity.heartbeat-interval:5s}") Duration heartbeatInterval) {
+        this.taskScheduler = taskScheduler;
+        this.mongoTemplate = mongoTemplate;
+        this.socketIOServer = socketIOServer;
+        this.nodeId = clusterNode.getNodeId();
+        this.url = StringUtils.hasText(advertisedUrl) ? advertisedUrl : null;
+        this.heartbeatInterval = heartbeatInterval;
+        this.liveNodes = List.of(new NodeInfo(nodeId, url, 0));
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat();
+        long interval = heartbeatInterval.toMillis();
+        heartbeatTask = taskScheduler.scheduleWithFixedDelay(this::heartbeat,
+                Instant.now().plusMillis(interval), Duration.ofMillis(interval));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+        }
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeId)), ClusterNodeEntry.class);
+        } catch (Exception e) {
+            log.warn("Failed to unregister node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<NodeInfo> liveNodes() {
+        return liveNodes;
+    }
+
+    void heartbeat() {
+        try {
+            Instant now = Instant.now();
+            long connections = socketIOServer.map(server -> (long) server.getAllClients().size()).orElse(0L);
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeId)),
+                    new Update().set("url", url).set("connections", connections).set("heartbeatAt", now),
+                    ClusterNodeEntry.class);
+
+            Instant cutoff = now.minus(heartbeatInterval.multipliedBy(MISSED_HEARTBEATS));
+            List<NodeInfo> nodes = new ArrayList<>();
+            nodes.add(new NodeInfo(nodeId, url, connections));
+            mongoTemplate.find(Query.query(Criteria.where("heartbeatAt").gt(cutoff)), ClusterNodeEntry.class)
+                    .stream()
+                    .filter(entry -> !nodeId.equals(entry.getId()))
+                    .forEach(entry -> nodes.add(new NodeInfo(entry.getId(), entry.getUrl(), entry.getConnections())));
+            if (nodes.size() != liveNodes.size()) {
+                log.info("Cluster membership changed - {} live nodes", nodes.size());
+            }
+            liveNodes = List.copyOf(nodes);
+        } catch (Exception e) {
+            log.warn("Node heartbeat failed - keeping last membership: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.ktb.chatapp.model.RoomOwnerEntry;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * 멀티 노드용 MongoDB 디렉터리.
+ * 처음 배정은 insert의 _id 중복으로, 재배정은 이전 소유 노드 조건부 update로 경합을 정리한다.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "mongo")
+public class MongoRoomOwnerDirectory implements RoomOwnerDirectory {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoRoomOwnerDirectory(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<String> find(String roomId) {
+        Query query = Query.query(Criteria.where("_id").is(roomId));
+        query.fields().include("nodeId");
+        return Optional.ofNullable(mongoTemplate.findOne(query, RoomOwnerEntry.class)).map(RoomOwnerEntry::getNodeId);
+    }
+
+    @Override
+    public String claim(String roomId, String candidate, String expected) {
+        if (expected == null) {
+            try {
+                mongoTemplate.insert(RoomOwnerEntry.builder()
+                        .id(roomId)
+                        .nodeId(candidate)
+                        .assignedAt(Instant.now())
+                        .build());
+                return candidate;
+            } catch (DuplicateKeyException e) {
+                return find(roomId).orElse(candidate);
+            }
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(roomId).and("nodeId").is(expected)),
+                new Update().set("nodeId", candidate).set("assignedAt", Instant.now()),
+                RoomOwnerEntry.class);
+        return find(roomId).orElse(candidate);
+    }
+
+    @Override
+    public Map<String, Long> ownedCounts() {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group("nodeId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, RoomOwnerEntry.class, Document.class)
+                .forEach(result -> counts.put(result.getString("_id"), result.get("count", Number.class).longValue()));
+        return counts;
+    }
+
+    @Override
+    public void addFollower(String roomId, String nodeId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(roomId)),
+                new Update().addToSet("followers", nodeId), RoomOwnerEntry.class);
+    }
+
+    @Override
+    public void removeFollower(String roomId, String nodeId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(roomId)),
+                new Update().pull("followers", nodeId), RoomOwnerEntry.class);
+    }
+
+    @Override
+    public Set<String> followers(String roomId) {
+        Query query = Query.query(Criteria.where("_id").is(roomId));
+        query.fields().include("followers");
+        RoomOwnerEntry entry = mongoTemplate.findOne(query, RoomOwnerEntry.class);
+        return entry != null && entry.getFollowers() != null ? Set.copyOf(entry.getFollowers()) : Set.of();
+    }
+
+    @Override
+    public void remove(String roomId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(roomId)), RoomOwnerEntry.class);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+/**
+ * 살아 있는 백엔드 노드
+ *
+ * @param nodeId 노드 ID
+ * @param url 클라이언트가 이 노드에 직접 붙을 때 쓰는 Socket.IO 주소 (없으면 null)
+ * @param connections 마지막 heartbeat 시점의 Socket.IO 연결 수
+ */
+public record NodeInfo(String nodeId, String url, long connections) {
+}
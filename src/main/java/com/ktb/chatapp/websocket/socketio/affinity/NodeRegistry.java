@@ -0,0 +1,15 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import java.util.List;
+
+/**
+ * 클러스터 노드 목록.
+ * 방 소유 노드 배정은 모든 노드가 같은 목록을 볼 때 일치하므로, 목록이 바뀌는 동안에는 노드마다 잠시 다를 수 있다.
+ */
+public interface NodeRegistry {
+
+    /**
+     * 살아 있는 노드 목록. 현재 노드를 항상 포함한다.
+     */
+    List<NodeInfo> liveNodes();
+}
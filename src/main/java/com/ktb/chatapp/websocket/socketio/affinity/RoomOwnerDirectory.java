@@ -0,0 +1,35 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 방 → 소유 노드 디렉터리.
+ * 배정은 먼저 기록한 노드가 이기므로 여러 노드가 동시에 배정해도 결과는 하나로 수렴한다.
+ */
+public interface RoomOwnerDirectory {
+
+    Optional<String> find(String roomId);
+
+    /**
+     * 소유 노드가 없거나 expected일 때만 candidate로 기록한다.
+     *
+     * @param expected 교체할 이전 소유 노드 (처음 배정이면 null)
+     * @return 기록된 소유 노드. 다른 노드가 먼저 배정했으면 그 노드
+     */
+    String claim(String roomId, String candidate, String expected);
+
+    /**
+     * 노드별 소유 방 수
+     */
+    Map<String, Long> ownedCounts();
+
+    void addFollower(String roomId, String nodeId);
+
+    void removeFollower(String roomId, String nodeId);
+
+    Set<String> followers(String roomId);
+
+    void remove(String roomId);
+}
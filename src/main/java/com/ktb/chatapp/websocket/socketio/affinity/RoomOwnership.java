@@ -0,0 +1,217 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방 소유 노드 배정.
+ * 처음 조회된 방을 consistent hashing with bounded loads로 살아 있는 노드 중 하나에 배정하고 디렉터리에 기록한다.
+ * 부하는 노드별 소유 방 수이며, 한 노드가 평균의 load-factor배를 넘는 방을 갖지 않는다.
+ * 소유 노드가 죽으면 그 방은 다음 조회 때 남은 노드에 다시 배정된다.
+ * <ul>
+ *   <li>연결 시 클라이언트에게 가장 활발한 방들의 소유 노드를 선호 노드로 알려 같은 방 멤버가 한 노드에 모이게 한다.</li>
+ *   <li>소유 노드는 RoomRelay가 방 이벤트를 중계하는 기준점이 된다.</li>
+ * </ul>
+ * 배정 결과는 디렉터리가 정하므로 노드마다 부하 스냅샷이 조금 달라도 소유 노드는 하나로 수렴한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.affinity.enabled", havingValue = "true")
+public class RoomOwnership {
+
+    private static final long LOAD_REFRESH_MILLIS = 5_000;
+
+    private final NodeRegistry nodeRegistry;
+    private final RoomOwnerDirectory directory;
+    @Getter
+    private final String nodeId;
+    private final int virtualNodes;
+    private final double loadFactor;
+    private final int hintRooms;
+    private final long followersTtlMillis;
+
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+    private final Map<String, CachedFollowers> followers = new ConcurrentHashMap<>();
+    private final Map<String, Long> loads = new ConcurrentHashMap<>();
+    private volatile long loadsRefreshedAt;
+    private volatile ConsistentHashRing ring;
+
+    private final Counter claims;
+    private final Counter reassignments;
+
+    public RoomOwnership(
+            NodeRegistry nodeRegistry,
+            RoomOwnerDirectory directory,
+            ClusterNode clusterNode,
+            MeterRegistry meterRegistry,
+            @Value("${socketio.affinity.virtual-nodes:64}") int virtualNodes,
+            @Value("${socketio.affinity.load-factor:1.25}") double loadFactor,
+            @Value("${socketio.affinity.hint-rooms:5}") int hintRooms,
+            @Value("${socketio.affinity.followers-ttl:1s}") Duration followersTtl) {
+        if (loadFactor < 1.0) {
+            throw new IllegalArgumentException("load-factor는 1 이상이어야 합니다.");
+        }
+        this.nodeRegistry = nodeRegistry;
+        this.directory = directory;
+        this.nodeId = clusterNode.getNodeId();
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+        this.hintRooms = Math.max(1, hintRooms);
+        this.followersTtlMillis = followersTtl.toMillis();
+        this.claims = meterRegistry.counter("socketio.affinity.claims");
+        this.reassignments = meterRegistry.counter("socketio.affinity.reassignments");
+    }
+
+    /**
+     * 방의 소유 노드. 배정되지 않았거나 소유 노드가 죽었으면 지금 배정한다.
+     */
+    public String ownerOf(String roomId) {
+        ConsistentHashRing current = ring();
+        String cached = owners.get(roomId);
+        if (cached != null && current.nodes().contains(cached)) {
+            return cached;
+        }
+
+        String stored = directory.find(roomId).orElse(null);
+        if (stored != null && current.nodes().contains(stored)) {
+            owners.put(roomId, stored);
+            return stored;
+        }
+
+        String candidate = current.locate(roomId, loads(), loadFactor);
+        String owner = directory.claim(roomId, candidate, stored);
+        loads.merge(owner, 1L, Long::sum);
+        owners.put(roomId, owner);
+        claims.increment();
+        if (stored != null) {
+            reassignments.increment();
+            log.info("Room {} reassigned from dead node {} to {}", roomId, stored, owner);
+        }
+        return owner;
+    }
+
+    public boolean isOwner(String roomId) {
+        return nodeId.equals(ownerOf(roomId));
+    }
+
+    /**
+     * 활발한 순서로 정렬된 방 목록에서 선호 노드를 고른다.
+     * 앞쪽 hint-rooms개 방에 순위 가중치(hint-rooms, hint-rooms - 1, ...)를 주고 소유 노드별로 합산한다.
+     * 방 수만 제한하면 인기 방의 소유 노드로 연결이 몰리므로, 연결 수가 평균의 load-factor배 이상인 노드는
+     * 건너뛰고 다음 점수의 노드를 고른다. 현재 노드보다 점수가 높은 노드가 없으면 옮기지 않는다.
+     *
+     * @return 현재 노드가 아닌 선호 노드와 그 노드가 소유한 방. 옮길 필요가 없으면 empty
+     */
+    public Optional<Preference> preferredNode(List<String> activeRoomIds) {
+        List<String> candidates = activeRoomIds.subList(0, Math.min(hintRooms, activeRoomIds.size()));
+        Map<String, Integer> scores = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            scores.merge(ownerOf(candidates.get(i)), hintRooms - i, Integer::sum);
+        }
+        int own = scores.getOrDefault(nodeId, 0);
+
+        List<NodeInfo> live = nodeRegistry.liveNodes();
+        long total = live.stream().mapToLong(NodeInfo::connections).sum();
+        double capacity = Math.ceil(loadFactor * (total + 1) / live.size());
+        return live.stream()
+                .filter(node -> scores.getOrDefault(node.nodeId(), 0) > own && node.connections() < capacity)
+                .max(Comparator.<NodeInfo>comparingInt(node -> scores.get(node.nodeId()))
+                        .thenComparing(NodeInfo::nodeId))
+                .map(node -> new Preference(node, candidates.stream()
+                        .filter(roomId -> node.nodeId().equals(owners.get(roomId)))
+                        .toList()));
+    }
+
+    /**
+     * 이 노드를 방의 follower로 기록한다. 소유 노드이면 기록하지 않는다.
+     *
+     * @return 기록했으면 true
+     */
+    public boolean follow(String roomId) {
+        if (isOwner(roomId)) {
+            return false;
+        }
+        directory.addFollower(roomId, nodeId);
+        return true;
+    }
+
+    public void unfollow(String roomId) {
+        directory.removeFollower(roomId, nodeId);
+    }
+
+    /**
+     * 방의 follower 노드 (소유 노드와 현재 노드 제외).
+     * 이벤트마다 디렉터리를 읽지 않도록 followers-ttl 동안 캐시하므로 새 follower는 그만큼 늦게 반영될 수 있다.
+     */
+    public Set<String> followers(String roomId) {
+        long now = System.currentTimeMillis();
+        CachedFollowers cached = followers.get(roomId);
+        if (cached == null || now - cached.loadedAt() >= followersTtlMillis) {
+            Set<String> live = ring().nodes();
+            Set<String> nodes = directory.followers(roomId).stream()
+                    .filter(node -> !node.equals(nodeId) && live.contains(node))
+                    .collect(Collectors.toUnmodifiableSet());
+            cached = new CachedFollowers(nodes, now);
+            followers.put(roomId, cached);
+        }
+        return cached.nodes();
+    }
+
+    /**
+     * 삭제된 방의 배정을 정리한다.
+     */
+    public void forget(String roomId) {
+        String owner = owners.remove(roomId);
+        followers.remove(roomId);
+        if (owner != null) {
+            loads.computeIfPresent(owner, (node, load) -> load > 1 ? load - 1 : null);
+        }
+        directory.remove(roomId);
+    }
+
+    private ConsistentHashRing ring() {
+        ConsistentHashRing current = ring;
+        Set<String> live = nodeRegistry.liveNodes().stream().map(NodeInfo::nodeId).collect(Collectors.toSet());
+        if (current == null || !current.nodes().equals(live)) {
+            current = new ConsistentHashRing(live, virtualNodes);
+            ring = current;
+        }
+        return current;
+    }
+
+    private Map<String, Long> loads() {
+        long now = System.currentTimeMillis();
+        if (now - loadsRefreshedAt > LOAD_REFRESH_MILLIS) {
+            Map<String, Long> counts = directory.ownedCounts();
+            loads.clear();
+            loads.putAll(counts);
+            loadsRefreshedAt = now;
+        }
+        return loads;
+    }
+
+    /**
+     * @param node 선호 노드
+     * @param roomIds 선호 노드가 소유한 활발한 방 (활발한 순)
+     */
+    public record Preference(NodeInfo node, List<String> roomIds) {
+    }
+
+    private record CachedFollowers(Set<String> nodes, long loadedAt) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.namespace.Namespace;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.directory.NodeInbox;
+import com.ktb.chatapp.websocket.socketio.handler.MessageReplayBuffer;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 저장되지 않는 방 이벤트(AI 스트리밍, 방 정보 변경)의 노드 간 중계.
+ * 저장되는 메시지/참가자 변경은 change stream이 모든 노드에 전달하지만, 이 이벤트들은 만든 노드의 클라이언트에게만 갔다.
+ * 방 소유 노드를 중계점으로 삼는다.
+ * <ul>
+ *   <li>소유 노드가 아닌 노드는 로컬에 보낸 뒤 소유 노드의 node_inbox로 넘긴다 (1 hop).</li>
+ *   <li>소유 노드는 로컬에 보낸 뒤 follower 노드(로컬에 방 구독자가 있는 다른 노드)로 보낸다. 시작한 노드는 제외한다.</li>
+ * </ul>
+ * 같은 방 멤버가 소유 노드에 모여 있으면 follower가 없어 노드 간 전송이 생기지 않는다.
+ * follower 기록은 입장/재입장 시 바로 하고, follow-sync-interval마다 로컬 구독자가 없어진 방을 정리한다.
+ * LATEST 이벤트(AI 청크, 방 정보 변경)는 대상 노드별로 mergeKey당 최신 하나만 모아 두었다가 relay-flush-interval마다
+ * 한 번의 insert로 보낸다. RELIABLE 이벤트는 그 노드에 모아 둔 이벤트와 함께 바로 보내 순서를 지킨다.
+ * room affinity가 꺼져 있거나 node inbox가 없으면 로컬 전송만 한다.
+ * 로컬에 보내는 이벤트는 MessageReplayBuffer에 방 이벤트로 기록해, 재연결한 클라이언트가 재동기화 여부를 알 수 있게 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class RoomRelay {
+
+    private final SocketIOServer socketIOServer;
+    private final OutboundDispatcher outboundDispatcher;
+    private final MessageReplayBuffer messageReplayBuffer;
+    private final Optional<RoomOwnership> roomOwnership;
+    private final Optional<NodeInbox> nodeInbox;
+    private final String nodeId;
+    private final Duration followSyncInterval;
+    private final Duration flushInterval;
+    // node_inbox payload는 클라이언트가 받는 JSON과 같은 모양이어야 하므로 JacksonJsonSupport와 같은 설정으로 변환한다
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final Set<String> followed = ConcurrentHashMap.newKeySet();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> syncTask;
+    private ScheduledFuture<?> flushTask;
+
+    // 대상 노드 -> mergeKey -> 아직 보내지 않은 최신 LATEST 이벤트
+    private final Map<String, Map<String, NodeInboxMessage>> pending = new ConcurrentHashMap<>();
+
+    private final Counter forwarded;
+    private final Counter coalesced;
+    private final Counter received;
+
+    public RoomRelay(SocketIOServer socketIOServer,
+                     OutboundDispatcher outboundDispatcher,
+                     MessageReplayBuffer messageReplayBuffer,
+                     Optional<RoomOwnership> roomOwnership,
+                     Optional<NodeInbox> nodeInbox,
+                     ClusterNode clusterNode,
+                     MeterRegistry meterRegistry,
+                     TaskScheduler taskScheduler,
+                     @Value("${socketio.affinity.follow-sync-interval:10s}") Duration followSyncInterval,
+                     @Value("${socketio.affinity.relay-flush-interval:50ms}") Duration flushInterval) {
+        this.taskScheduler = taskScheduler;
+        this.socketIOServer = socketIOServer;
+        this.outboundDispatcher = outboundDispatcher;
+        this.messageReplayBuffer = messageReplayBuffer;
+        this.roomOwnership = roomOwnership;
+        this.nodeInbox = nodeInbox;
+        this.nodeId = clusterNode.getNodeId();
+        this.followSyncInterval = followSyncInterval;
+        this.flushInterval = flushInterval;
+        this.forwarded = Counter.builder("socketio.affinity.relay").tag("direction", "forwarded").register(meterRegistry);
+        this.coalesced = Counter.builder("socketio.affinity.relay").tag("direction", "coalesced").register(meterRegistry);
+        this.received = Counter.builder("socketio.affinity.relay").tag("direction", "received").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        nodeInbox.get().subscribe(this::receive);
+        long interval = followSyncInterval.toMillis();
+        syncTask = taskScheduler.scheduleWithFixedDelay(this::syncFollowers,
+                Instant.now().plusMillis(interval), Duration.ofMillis(interval));
+        if (flushInterval.isPositive()) {
+            long flush = flushInterval.toMillis();
+            flushTask = taskScheduler.scheduleWithFixedDelay(this::flush,
+                    Instant.now().plusMillis(flush), Duration.ofMillis(flush));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncTask != null) {
+            syncTask.cancel(false);
+        }
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        if (isEnabled()) {
+            flush();
+        }
+    }
+
+    /**
+     * 로컬 방 구독자에게 보내고, 다른 노드의 구독자에게는 소유 노드를 거쳐 전달한다.
+     */
+    public void sendToRoom(String roomId, OutboundEvent event) {
+        messageReplayBuffer.recordRoomEvent(roomId);
+        outboundDispatcher.sendToRoom(roomId, event);
+        if (!isEnabled()) {
+            return;
+        }
+        String owner = roomOwnership.get().ownerOf(roomId);
+        if (nodeId.equals(owner)) {
+            Set<String> followers = roomOwnership.get().followers(roomId);
+            if (!followers.isEmpty()) {
+                relay(followers, roomId, event.name(), payloadOf(event), event.mergeKey(), nodeId);
+            }
+        } else {
+            post(owner, roomId, event.name(), payloadOf(event), event.mergeKey(), nodeId);
+        }
+    }
+
+    /**
+     * 입장/재입장한 방에 이 노드를 follower로 기록한다.
+     */
+    public void follow(Collection<String> roomIds) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (String roomId : roomIds) {
+            if (!followed.contains(roomId) && roomOwnership.get().follow(roomId)) {
+                followed.add(roomId);
+            }
+        }
+    }
+
+    void receive(NodeInboxMessage message) {
+        String roomId = message.getRoomId();
+        if (roomId == null) {
+            return;
+        }
+        received.increment();
+        OutboundEvent event = message.getMergeKey() != null
+                ? new OutboundEvent(message.getEvent(), message.getPayload(), OutboundPolicy.LATEST, message.getMergeKey())
+                : OutboundEvent.reliable(message.getEvent(), message.getPayload());
+        messageReplayBuffer.recordRoomEvent(roomId);
+        outboundDispatcher.sendToRoom(roomId, event);
+        if (roomOwnership.get().isOwner(roomId)) {
+            relay(roomOwnership.get().followers(roomId), roomId, message.getEvent(), message.getPayload(),
+                    message.getMergeKey(), message.getOriginNodeId());
+        }
+    }
+
+    /**
+     * 모아 둔 LATEST 이벤트를 모든 대상 노드에 한 번의 insert로 보낸다.
+     */
+    void flush() {
+        List<NodeInboxMessage> batch = new ArrayList<>();
+        for (String targetNode : pending.keySet()) {
+            drain(targetNode, batch);
+        }
+        send(batch);
+    }
+
+    /**
+     * 로컬 구독자가 생긴 방은 follow하고, 없어진 방은 unfollow한다.
+     */
+    void syncFollowers() {
+        try {
+            Namespace namespace = (Namespace) socketIOServer.getNamespace(Namespace.DEFAULT_NAME);
+            follow(namespace.getRooms().stream().filter(ObjectId::isValid).toList());
+            for (String roomId : followed) {
+                if (socketIOServer.getRoomOperations(roomId).getClients().isEmpty()) {
+                    followed.remove(roomId);
+                    roomOwnership.get().unfollow(roomId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Room follower sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void relay(Set<String> followers, String roomId, String event, Object payload, String mergeKey,
+                       String originNodeId) {
+        for (String follower : followers) {
+            if (!follower.equals(originNodeId)) {
+                post(follower, roomId, event, payload, mergeKey, originNodeId);
+            }
+        }
+    }
+
+    private void post(String targetNode, String roomId, String event, Object payload, String mergeKey,
+                      String originNodeId) {
+        NodeInboxMessage message = NodeInboxMessage.builder()
+                .nodeId(targetNode)
+                .roomId(roomId)
+                .originNodeId(originNodeId)
+                .event(event)
+                .payload(payload)
+                .mergeKey(mergeKey)
+                .build();
+        if (mergeKey != null && flushInterval.isPositive()) {
+            Map<String, NodeInboxMessage> queued = pending.computeIfAbsent(targetNode, key -> new LinkedHashMap<>());
+            synchronized (queued) {
+                // mergeKey는 이벤트 이름과 메시지/방 ID로 만들어지므로 방이 달라도 겹치지 않는다
+                if (queued.put(mergeKey, message) != null) {
+                    coalesced.increment();
+                }
+            }
+            return;
+        }
+        List<NodeInboxMessage> batch = new ArrayList<>();
+        drain(targetNode, batch);
+        batch.add(message);
+        send(batch);
+    }
+
+    private void drain(String targetNode, List<NodeInboxMessage> batch) {
+        Map<String, NodeInboxMessage> queued = pending.get(targetNode);
+        if (queued == null) {
+            return;
+        }
+        synchronized (queued) {
+            batch.addAll(queued.values());
+            queued.clear();
+        }
+    }
+
+    private void send(List<NodeInboxMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        batch.forEach(message -> message.setCreatedAt(now));
+        try {
+            nodeInbox.get().postAll(batch);
+            forwarded.increment(batch.size());
+        } catch (Exception e) {
+            log.warn("Room relay failed - {} events dropped: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private Object payloadOf(OutboundEvent event) {
+        return objectMapper.convertValue(event.payload(), Object.class);
+    }
+
+    private boolean isEnabled() {
+        return roomOwnership.isPresent() && nodeInbox.isPresent();
+    }
+}
@@ -0,0 +1,185 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.ktb.chatapp.websocket.socketio.SocketIOEvents;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.PromiseCombiner;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 연결별 이벤트 배칭.
+ * batch=1 쿼리로 연결한 websocket 클라이언트의 이벤트를 모아 interval마다 또는 maxEvents개가 차면
+ * batch 이벤트 하나([[event, ...args], ...])로 보낸다. 프레임/flush(syscall) 수가 이벤트 수가 아니라 tick 수에 비례한다.
+ * <ul>
+ *   <li>ack가 필요한 이벤트, 바이너리 attachment가 있는 이벤트, Engine.IO 패킷(ping 등)은 모아 둔 이벤트를 먼저 보낸 뒤 바로 보낸다.</li>
+ *   <li>모인 이벤트가 하나뿐이면 batch로 감싸지 않고 원래 이벤트로 보낸다.</li>
+ * </ul>
+ * 채널 상태를 가지므로 채널마다 새 인스턴스를 쓴다. 모든 메서드는 채널 event loop에서 실행된다.
+ */
+@Slf4j
+public class EventBatchWriter extends ChannelOutboundHandlerAdapter {
+
+    public static final String NAME = "eventBatchWriter";
+    public static final String BATCH_PARAM = "batch";
+
+    private final PacketFrameEncoder frameEncoder;
+    private final long intervalMillis;
+    private final int maxEvents;
+
+    private final List<Packet> pending = new ArrayList<>();
+    private Boolean enabled;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean unflushed;
+
+    public EventBatchWriter(PacketFrameEncoder frameEncoder, long intervalMillis, int maxEvents) {
+        this.frameEncoder = frameEncoder;
+        this.intervalMillis = intervalMillis;
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (!(msg instanceof OutPacketMessage message)
+                || message.getTransport() != Transport.WEBSOCKET
+                || !isEnabled(message.getClientHead())) {
+            unflushed = true;
+            ctx.write(msg, promise);
+            return;
+        }
+        Queue<Packet> queue = message.getClientHead().getPacketsQueue(message.getTransport());
+        PromiseCombiner combiner = new PromiseCombiner(ctx.executor());
+        boolean written = false;
+        Packet packet;
+        while ((packet = queue.poll()) != null) {
+            if (!isBatchable(packet)) {
+                written |= writePending(ctx);
+                written |= writePacket(ctx, packet, combiner);
+                continue;
+            }
+            if (!pending.isEmpty() && !Objects.equals(pending.get(0).getNsp(), packet.getNsp())) {
+                written |= writePending(ctx);
+            }
+            pending.add(packet);
+            if (pending.size() >= maxEvents) {
+                written |= writePending(ctx);
+            }
+        }
+        combiner.finish(promise);
+        if (written) {
+            flushNow(ctx);
+        }
+        if (!pending.isEmpty() && scheduledFlush == null) {
+            scheduledFlush = ctx.executor().schedule(() -> flushPending(ctx), intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * ClientHead.send는 이벤트마다 writeAndFlush를 호출한다. 배칭 중에는 내려보낸 프레임이 없으면 flush도 삼킨다.
+     */
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (unflushed || !Boolean.TRUE.equals(enabled)) {
+            flushNow(ctx);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        cancelScheduledFlush();
+        pending.clear();
+    }
+
+    private boolean isEnabled(ClientHead clientHead) {
+        if (enabled == null) {
+            var handshakeData = clientHead.getHandshakeData();
+            String param = handshakeData != null ? handshakeData.getSingleUrlParam(BATCH_PARAM) : null;
+            enabled = "1".equals(param) || "true".equals(param);
+        }
+        return enabled;
+    }
+
+    private boolean isBatchable(Packet packet) {
+        return packet.getType() == PacketType.MESSAGE
+                && packet.getSubType() == PacketType.EVENT
+                && packet.getAckId() == null
+                && !packet.hasAttachments();
+    }
+
+    private void flushPending(ChannelHandlerContext ctx) {
+        scheduledFlush = null;
+        if (writePending(ctx)) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        unflushed = false;
+        ctx.flush();
+    }
+
+    private boolean writePending(ChannelHandlerContext ctx) {
+        cancelScheduledFlush();
+        if (pending.isEmpty()) {
+            return false;
+        }
+        Packet packet = pending.size() == 1 ? pending.get(0) : batchOf(pending);
+        pending.clear();
+        return writePacket(ctx, packet, null);
+    }
+
+    private boolean writePacket(ChannelHandlerContext ctx, Packet packet, PromiseCombiner combiner) {
+        try {
+            var frame = frameEncoder.encode(packet, MsgPackSupport.isEnabled(ctx.channel()), ctx.alloc());
+            if (combiner != null) {
+                combiner.add(ctx.write(frame));
+            } else {
+                ctx.write(frame, ctx.voidPromise());
+            }
+            unflushed = true;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to encode packet: {}", packet, e);
+            return false;
+        }
+    }
+
+    private Packet batchOf(List<Packet> packets) {
+        List<List<Object>> events = new ArrayList<>(packets.size());
+        for (Packet packet : packets) {
+            List<Object> event = new ArrayList<>();
+            event.add(packet.getName());
+            List<?> args = packet.getData();
+            if (args != null) {
+                event.addAll(args);
+            }
+            events.add(event);
+        }
+        Packet first = packets.get(0);
+        Packet batch = new Packet(PacketType.MESSAGE, first.getEngineIOVersion());
+        batch.setSubType(PacketType.EVENT);
+        batch.setNsp(first.getNsp());
+        batch.setName(SocketIOEvents.BATCH);
+        batch.setData(List.of(events));
+        return batch;
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * msgpack 연결의 수신 바이너리 프레임을 텍스트 Socket.IO 패킷으로 바꿔 기존 디코더/이벤트 매핑을 그대로 쓴다.
+ * 클라이언트 → 서버 이벤트는 적으므로 변환 비용보다 호환성을 택한다.
+ * 업그레이드 요청의 parser 쿼리를 보고 채널의 msgpack 여부를 정한다.
+ */
+@Slf4j
+public class MsgPackFrameDecoder extends ChannelInboundHandlerAdapter {
+
+    public static final String NAME = "msgpackFrameDecoder";
+
+    private final MsgPackPacketCodec codec;
+    private CompositeByteBuf fragments;
+
+    public MsgPackFrameDecoder(MsgPackPacketCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof FullHttpRequest request) {
+            ctx.channel().attr(MsgPackSupport.ENABLED).set(MsgPackSupport.isMsgPackUpgrade(request.uri()));
+            ctx.fireChannelRead(msg);
+            return;
+        }
+        if (!(msg instanceof WebSocketFrame frame) || !MsgPackSupport.isEnabled(ctx.channel())) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+        if (frame instanceof BinaryWebSocketFrame) {
+            if (frame.isFinalFragment()) {
+                decode(ctx, frame.content());
+                frame.release();
+                return;
+            }
+            fragments = ctx.alloc().compositeBuffer();
+            fragments.addComponent(true, frame.content().retain());
+            frame.release();
+            return;
+        }
+        if (frame instanceof ContinuationWebSocketFrame && fragments != null) {
+            fragments.addComponent(true, frame.content().retain());
+            boolean last = frame.isFinalFragment();
+            frame.release();
+            if (last) {
+                CompositeByteBuf complete = fragments;
+                fragments = null;
+                decode(ctx, complete);
+                complete.release();
+            }
+            return;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (fragments != null) {
+            fragments.release();
+            fragments = null;
+        }
+    }
+
+    private void decode(ChannelHandlerContext ctx, ByteBuf content) {
+        try {
+            String text = codec.toTextMessage(ByteBufUtil.getBytes(content));
+            ctx.fireChannelRead(new TextWebSocketFrame(text));
+        } catch (IOException e) {
+            log.warn("Dropping malformed msgpack packet from {}", ctx.channel().remoteAddress(), e);
+        }
+    }
+}
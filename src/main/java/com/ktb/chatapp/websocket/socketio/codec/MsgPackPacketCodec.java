@@ -0,0 +1,116 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+/**
+ * socket.io-msgpack-parser 형식의 Socket.IO 패킷 인코더/디코더.
+ * 패킷 전체를 { type, nsp, data, id } MessagePack map 하나로 표현하며 바이너리 attachment가 따로 없다.
+ * ObjectMapper 설정은 JacksonJsonSupport와 같게 맞춰 JSON 클라이언트와 같은 필드를 받는다.
+ */
+public class MsgPackPacketCodec {
+
+    private static final int CONNECT = 0;
+    private static final int DISCONNECT = 1;
+    private static final int EVENT = 2;
+    private static final int ACK = 3;
+    private static final int CONNECT_ERROR = 4;
+
+    private final ObjectMapper msgpackMapper = newMapper(new MessagePackFactory());
+    private final ObjectMapper jsonMapper = newMapper(new JsonFactory());
+
+    static ObjectMapper newMapper(JsonFactory factory) {
+        return JsonMapper.builder(factory)
+                .addModule(new JavaTimeModule())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN, true)
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+                .build();
+    }
+
+    /**
+     * Engine.IO MESSAGE 패킷(Socket.IO 패킷)을 MessagePack으로 인코딩한다.
+     */
+    public byte[] encode(Packet packet) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>(4);
+        map.put("type", typeOf(packet.getSubType()));
+        map.put("nsp", packet.getNsp() == null || packet.getNsp().isEmpty() ? "/" : packet.getNsp());
+        Object data = dataOf(packet);
+        if (data != null) {
+            map.put("data", data);
+        }
+        if (packet.getAckId() != null) {
+            map.put("id", packet.getAckId());
+        }
+        return msgpackMapper.writeValueAsBytes(map);
+    }
+
+    /**
+     * 클라이언트가 보낸 MessagePack 패킷을 netty-socketio가 처리하는 텍스트 Engine.IO 메시지("4" + Socket.IO 패킷)로 바꾼다.
+     */
+    public String toTextMessage(byte[] bytes) throws IOException {
+        JsonNode packet = msgpackMapper.readTree(bytes);
+        int type = packet.path("type").asInt(-1);
+        if (type < CONNECT || type > ACK) {
+            throw new IOException("Unsupported msgpack packet type: " + type);
+        }
+        StringBuilder text = new StringBuilder("4").append(type);
+        String nsp = packet.path("nsp").asText("/");
+        if (!"/".equals(nsp)) {
+            text.append(nsp).append(',');
+        }
+        JsonNode id = packet.get("id");
+        if (id != null && id.canConvertToLong()) {
+            text.append(id.asLong());
+        }
+        JsonNode data = packet.get("data");
+        if (data != null && !data.isNull() && type != DISCONNECT) {
+            text.append(jsonMapper.writeValueAsString(data));
+        }
+        return text.toString();
+    }
+
+    private static int typeOf(PacketType subType) {
+        return switch (subType) {
+            case CONNECT -> CONNECT;
+            case DISCONNECT -> DISCONNECT;
+            case EVENT, BINARY_EVENT -> EVENT;
+            case ACK, BINARY_ACK -> ACK;
+            case ERROR -> CONNECT_ERROR;
+            default -> throw new IllegalArgumentException("Not a Socket.IO packet: " + subType);
+        };
+    }
+
+    private static Object dataOf(Packet packet) {
+        PacketType subType = packet.getSubType();
+        if (subType == PacketType.EVENT || subType == PacketType.BINARY_EVENT) {
+            List<Object> args = new ArrayList<>();
+            args.add(packet.getName());
+            List<?> data = packet.getData();
+            if (data != null) {
+                args.addAll(data);
+            }
+            return args;
+        }
+        if (subType == PacketType.DISCONNECT) {
+            return null;
+        }
+        return packet.getData();
+    }
+}
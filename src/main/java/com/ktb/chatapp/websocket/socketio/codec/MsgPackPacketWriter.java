@@ -0,0 +1,50 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.Packet;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.PromiseCombiner;
+import java.io.IOException;
+import java.util.Queue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * msgpack 연결의 OutPacketMessage를 EncoderHandler보다 먼저 가로채 대기열의 패킷을 직접 인코딩한다.
+ * Socket.IO 패킷은 MessagePack 바이너리 프레임으로, ping/pong 같은 Engine.IO 패킷은 기존 텍스트 인코딩으로 보낸다.
+ */
+@Slf4j
+public class MsgPackPacketWriter extends ChannelOutboundHandlerAdapter {
+
+    public static final String NAME = "msgpackPacketWriter";
+
+    private final PacketFrameEncoder frameEncoder;
+
+    public MsgPackPacketWriter(PacketFrameEncoder frameEncoder) {
+        this.frameEncoder = frameEncoder;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (!(msg instanceof OutPacketMessage message)
+                || message.getTransport() != Transport.WEBSOCKET
+                || !MsgPackSupport.isEnabled(ctx.channel())) {
+            ctx.write(msg, promise);
+            return;
+        }
+        Queue<Packet> queue = message.getClientHead().getPacketsQueue(message.getTransport());
+        PromiseCombiner combiner = new PromiseCombiner(ctx.executor());
+        Packet packet;
+        while ((packet = queue.poll()) != null) {
+            try {
+                combiner.add(ctx.write(frameEncoder.encode(packet, true, ctx.alloc())));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to encode msgpack packet: {}", packet, e);
+            }
+        }
+        combiner.finish(promise);
+        ctx.flush();
+    }
+}
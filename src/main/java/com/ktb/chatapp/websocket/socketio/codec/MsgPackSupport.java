@@ -0,0 +1,36 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Transport;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.AttributeKey;
+import java.util.List;
+
+/**
+ * 연결별 MessagePack 인코딩 선택.
+ * websocket 업그레이드 요청에 parser=msgpack 쿼리가 있으면 그 채널의 Socket.IO 패킷을
+ * socket.io-msgpack-parser 형식의 바이너리 프레임으로 주고받는다. 그 외 연결은 기존 JSON 경로 그대로이다.
+ * msgpack 파서는 polling 바이너리를 지원하지 않으므로 클라이언트는 transports: ['websocket']로 연결해야 한다.
+ */
+public final class MsgPackSupport {
+
+    public static final String PARSER_PARAM = "parser";
+    public static final String MSGPACK = "msgpack";
+
+    static final AttributeKey<Boolean> ENABLED = AttributeKey.valueOf("msgpack");
+
+    private MsgPackSupport() {
+    }
+
+    public static boolean isEnabled(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(ENABLED).get());
+    }
+
+    static boolean isMsgPackUpgrade(String uri) {
+        var parameters = new QueryStringDecoder(uri).parameters();
+        List<String> transport = parameters.get("transport");
+        List<String> parser = parameters.get(PARSER_PARAM);
+        return transport != null && transport.contains(Transport.WEBSOCKET.getValue())
+                && parser != null && parser.contains(MSGPACK);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import java.io.IOException;
+
+/**
+ * EncoderHandler를 거치지 않고 패킷 하나를 WebSocket 프레임 하나로 인코딩한다.
+ * msgpack 연결의 Socket.IO 패킷은 바이너리 프레임으로, 나머지는 netty-socketio 텍스트 인코딩으로 만든다.
+ */
+public class PacketFrameEncoder {
+
+    private final MsgPackPacketCodec msgpackCodec;
+    private final PacketEncoder textEncoder;
+
+    public PacketFrameEncoder(MsgPackPacketCodec msgpackCodec, PacketEncoder textEncoder) {
+        this.msgpackCodec = msgpackCodec;
+        this.textEncoder = textEncoder;
+    }
+
+    public WebSocketFrame encode(Packet packet, boolean msgpack, ByteBufAllocator alloc) throws IOException {
+        if (msgpack && packet.getType() == PacketType.MESSAGE) {
+            return new BinaryWebSocketFrame(Unpooled.wrappedBuffer(msgpackCodec.encode(packet)));
+        }
+        ByteBuf out = textEncoder.allocateBuffer(alloc);
+        try {
+            textEncoder.encodePacket(packet, out, alloc, false);
+        } catch (IOException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+        return new TextWebSocketFrame(out);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 단일 노드용 메모리 디렉터리 (기본값)
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "local", matchIfMissing = true)
+public class LocalUserDirectory implements UserDirectory {
+
+    private final ConcurrentHashMap<String, UserLocation> locations = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<UserLocation> register(UserLocation location) {
+        return Optional.ofNullable(locations.put(location.userId(), location));
+    }
+
+    @Override
+    public void unregister(String userId, String socketId) {
+        locations.computeIfPresent(userId, (id, current) -> current.socketId().equals(socketId) ? null : current);
+    }
+
+    @Override
+    public Optional<UserLocation> find(String userId) {
+        return Optional.ofNullable(locations.get(userId));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import com.ktb.chatapp.model.UserDirectoryEntry;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * 멀티 노드용 MongoDB 디렉터리.
+ * 노드가 비정상 종료되면 그 노드의 항목이 남으므로 기동 시 자기 nodeId 항목을 지운다.
+ * 남은 항목으로 보낸 이벤트는 대상 노드가 없어 node_inbox TTL로 정리된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "mongo")
+public class MongoUserDirectory implements UserDirectory {
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+
+    public MongoUserDirectory(MongoTemplate mongoTemplate, ClusterNode clusterNode) {
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = clusterNode.getNodeId();
+    }
+
+    @PostConstruct
+    public void removeStaleEntries() {
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("nodeId").is(nodeId)), UserDirectoryEntry.class)
+                .getDeletedCount();
+        if (removed > 0) {
+            log.info("Removed {} stale directory entries of node {}", removed, nodeId);
+        }
+    }
+
+    @Override
+    public Optional<UserLocation> register(UserLocation location) {
+        UserDirectoryEntry previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(location.userId())),
+                new Update()
+                        .set("nodeId", location.nodeId())
+                        .set("socketId", location.socketId())
+                        .set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(false),
+                UserDirectoryEntry.class);
+        return Optional.ofNullable(previous).map(this::toLocation);
+    }
+
+    @Override
+    public void unregister(String userId, String socketId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId).and("socketId").is(socketId)),
+                UserDirectoryEntry.class);
+    }
+
+    @Override
+    public Optional<UserLocation> find(String userId) {
+        return Optional.ofNullable(mongoTemplate.findById(userId, UserDirectoryEntry.class)).map(this::toLocation);
+    }
+
+    private UserLocation toLocation(UserDirectoryEntry entry) {
+        return new UserLocation(entry.getId(), entry.getNodeId(), entry.getSocketId());
+    }
+}
@@ -0,0 +1,125 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 노드별 수신함.
+ * 다른 노드는 node_inbox에 대상 nodeId로 insert하고, 각 노드는 자기 nodeId로 필터링된 change stream만 구독한다.
+ * 클러스터 전체 브로드캐스트 없이 사용자가 접속한 노드 하나에만 전달된다.
+ * 수신함 이벤트는 대상 연결이 살아 있을 때만 의미가 있으므로 resume token 없이 구독 시점부터 받는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.directory.mode", havingValue = "mongo")
+public class NodeInbox implements Runnable {
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+    private final Thread thread;
+
+    private final List<Consumer<NodeInboxMessage>> handlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+
+    public NodeInbox(MongoTemplate mongoTemplate, ClusterNode clusterNode) {
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = clusterNode.getNodeId();
+        this.thread = new Thread(this, "node-inbox");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 수신 처리기를 등록하고 구독을 시작한다.
+     * 모든 처리기가 모든 메시지를 받으므로 처리기는 자기 대상이 아닌 메시지를 무시해야 한다.
+     */
+    public synchronized void subscribe(Consumer<NodeInboxMessage> handler) {
+        handlers.add(handler);
+        if (!running) {
+            running = true;
+            thread.start();
+            log.info("Node inbox started - nodeId: {}", nodeId);
+        }
+    }
+
+    public void post(NodeInboxMessage message) {
+        mongoTemplate.insert(message);
+    }
+
+    /**
+     * 여러 노드로 가는 메시지를 한 번의 insert로 보낸다. 대상 노드는 insert 순서대로 받는다.
+     */
+    public void postAll(List<NodeInboxMessage> messages) {
+        mongoTemplate.insert(messages, NodeInboxMessage.class);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null && change.getFullDocument() != null) {
+                        dispatch(mongoTemplate.getConverter().read(NodeInboxMessage.class, change.getFullDocument()));
+                    }
+                }
+            } catch (Exception e) {
+                if (running) {
+                    log.error("Node inbox change stream failed - reconnecting", e);
+                    backoff();
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(NodeInboxMessage.class))
+                .watch(List.of(Aggregates.match(Filters.and(
+                        Filters.eq("operationType", "insert"),
+                        Filters.eq("fullDocument.nodeId", nodeId)))))
+                .fullDocument(FullDocument.DEFAULT)
+                .maxAwaitTime(500, TimeUnit.MILLISECONDS)
+                .cursor();
+    }
+
+    private void dispatch(NodeInboxMessage message) {
+        for (Consumer<NodeInboxMessage> handler : handlers) {
+            try {
+                handler.accept(message);
+            } catch (Exception e) {
+                log.error("Node inbox message handling failed - userId: {}, roomId: {}, event: {}",
+                        message.getUserId(), message.getRoomId(), message.getEvent(), e);
+            }
+        }
+    }
+
+    private void backoff() {
+        try {
+            Thread.sleep(Duration.ofSeconds(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
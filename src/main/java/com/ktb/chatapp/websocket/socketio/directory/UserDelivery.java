@@ -0,0 +1,142 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자 지정 이벤트 전송 (세션 종료, 중복 로그인 등).
+ * 디렉터리에서 사용자가 접속한 노드를 찾아 로컬이면 바로, 다른 노드면 그 노드의 수신함으로 보낸다.
+ * <ul>
+ *   <li>socketio.user.delivery.latency: 요청부터 대상 노드에서 전송될 때까지 걸린 시간 (route=local|remote).
+ *       remote는 노드 간 시계 차이를 포함한다.</li>
+ *   <li>socketio.user.delivery: 결과별 건수 (delivered, forwarded, offline)</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class UserDelivery {
+
+    private final SocketIOServer socketIOServer;
+    private final OutboundDispatcher outboundDispatcher;
+    private final UserDirectory userDirectory;
+    private final Optional<NodeInbox> nodeInbox;
+    private final String nodeId;
+
+    private final Timer localLatency;
+    private final Timer remoteLatency;
+    private final Counter delivered;
+    private final Counter forwarded;
+    private final Counter offline;
+
+    public UserDelivery(SocketIOServer socketIOServer,
+                        OutboundDispatcher outboundDispatcher,
+                        UserDirectory userDirectory,
+                        Optional<NodeInbox> nodeInbox,
+                        ClusterNode clusterNode,
+                        MeterRegistry meterRegistry) {
+        this.socketIOServer = socketIOServer;
+        this.outboundDispatcher = outboundDispatcher;
+        this.userDirectory = userDirectory;
+        this.nodeInbox = nodeInbox;
+        this.nodeId = clusterNode.getNodeId();
+
+        this.localLatency = latencyTimer(meterRegistry, "local");
+        this.remoteLatency = latencyTimer(meterRegistry, "remote");
+        this.delivered = Counter.builder("socketio.user.delivery").tag("result", "delivered").register(meterRegistry);
+        this.forwarded = Counter.builder("socketio.user.delivery").tag("result", "forwarded").register(meterRegistry);
+        this.offline = Counter.builder("socketio.user.delivery").tag("result", "offline").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        nodeInbox.ifPresent(inbox -> inbox.subscribe(this::receive));
+    }
+
+    /**
+     * 사용자의 현재 연결이 있는 노드로 이벤트를 보낸다.
+     */
+    public void sendToUser(String userId, OutboundEvent event) {
+        Optional<UserLocation> location = userDirectory.find(userId);
+        if (location.isEmpty()) {
+            offline.increment();
+            return;
+        }
+        route(location.get().nodeId(), userId, null, event);
+    }
+
+    /**
+     * 특정 연결 하나로 이벤트를 보낸다. 새 연결이 디렉터리를 덮어쓴 뒤 이전 연결에 알릴 때 쓴다.
+     */
+    public void sendToSocket(UserLocation location, OutboundEvent event) {
+        route(location.nodeId(), location.userId(), location.socketId(), event);
+    }
+
+    private void route(String targetNode, String userId, String socketId, OutboundEvent event) {
+        long requestedAt = System.currentTimeMillis();
+        if (nodeId.equals(targetNode)) {
+            deliverLocally(userId, socketId, event, requestedAt, localLatency);
+            return;
+        }
+        if (nodeInbox.isEmpty()) {
+            log.warn("User {} is on node {} but node inbox is disabled - dropping {}", userId, targetNode, event.name());
+            offline.increment();
+            return;
+        }
+        nodeInbox.get().post(NodeInboxMessage.builder()
+                .nodeId(targetNode)
+                .userId(userId)
+                .socketId(socketId)
+                .event(event.name())
+                .payload(event.payload())
+                .createdAt(Instant.ofEpochMilli(requestedAt))
+                .build());
+        forwarded.increment();
+    }
+
+    void receive(NodeInboxMessage message) {
+        if (message.getRoomId() != null) {
+            return;
+        }
+        deliverLocally(message.getUserId(), message.getSocketId(),
+                OutboundEvent.reliable(message.getEvent(), message.getPayload()),
+                message.getCreatedAt().toEpochMilli(), remoteLatency);
+    }
+
+    private void deliverLocally(String userId, String socketId, OutboundEvent event, long requestedAt, Timer latency) {
+        if (socketId == null) {
+            outboundDispatcher.sendToRoom("user:" + userId, event);
+        } else {
+            SocketIOClient client = socketIOServer.getClient(UUID.fromString(socketId));
+            if (client == null) {
+                offline.increment();
+                return;
+            }
+            outboundDispatcher.send(client, event);
+        }
+        delivered.increment();
+        latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - requestedAt)));
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String route) {
+        return Timer.builder("socketio.user.delivery.latency")
+                .tag("route", route)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
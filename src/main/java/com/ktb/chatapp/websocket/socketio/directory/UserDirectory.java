@@ -0,0 +1,24 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import java.util.Optional;
+
+/**
+ * 사용자 → 노드 디렉터리.
+ * 중복 로그인 시 이전 세션을 끊는 정책이므로 사용자당 활성 연결은 하나만 기록한다.
+ */
+public interface UserDirectory {
+
+    /**
+     * 새 연결을 기록한다.
+     *
+     * @return 덮어쓴 이전 연결 위치
+     */
+    Optional<UserLocation> register(UserLocation location);
+
+    /**
+     * socketId가 현재 기록된 연결일 때만 제거한다. 새 연결이 이미 덮어쓴 경우는 유지한다.
+     */
+    void unregister(String userId, String socketId);
+
+    Optional<UserLocation> find(String userId);
+}
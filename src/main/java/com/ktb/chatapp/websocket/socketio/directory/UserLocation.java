@@ -0,0 +1,11 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+/**
+ * 사용자의 현재 활성 연결 위치
+ *
+ * @param userId 사용자 ID
+ * @param nodeId 연결이 붙어 있는 노드
+ * @param socketId Socket.IO 세션 ID
+ */
+public record UserLocation(String userId, String nodeId, String socketId) {
+}
@@ -0,0 +1,326 @@
+package com.ktb.chatapp.websocket.socketio.fanout;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.ChangeStreamResumeToken;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.model.User;
+import com.ktb.chatapp.repository.ChangeStreamResumeTokenRepository;
+import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.handler.HistoryPageCache;
+import com.ktb.chatapp.websocket.socketio.handler.MessageBroadcaster;
+import com.ktb.chatapp.websocket.socketio.handler.MessageResponseMapper;
+import com.ktb.chatapp.websocket.socketio.handler.ParticipantDiffAggregator;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * MongoDB change stream 기반 노드 간 방 이벤트 fan-out.
+ * 각 노드는 messages/rooms 컬렉션의 변경을 구독하고, 로컬에 구독자가 있는 방에만 브로드캐스트한다.
+ * 처리한 위치는 resume token으로 저장되어 재시작 시 놓친 이벤트부터 이어서 전달한다(at-least-once).
+ * change stream은 replica set 구성이 필요하다.
+ * 참가자 변경은 update description의 participantsVersion/lastParticipantChange로 ParticipantDiffAggregator에 넘겨
+ * 노드마다 같은 버전의 diff를 보낸다. 버전 없이 바뀐 참가자(방 생성, 문서 교체)는 diff로 옮기지 않는다.
+ * 메시지 문서 교체(리액션, 삭제 저장)는 브로드캐스트하지 않고 모든 노드의 과거 페이지 캐시만 무효화한다.
+ * AI 응답 저장은 AI_MESSAGE_COMPLETE로 이미 전달되므로 insert를 구독하지 않는다(중복 표시 방지).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.fanout.mode", havingValue = FanoutSettings.CHANGE_STREAM)
+public class ChangeStreamFanout {
+
+    static final String MESSAGES = "messages";
+    static final String ROOMS = "rooms";
+
+    // resume history가 oplog에서 사라진 경우
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(260, 280, 286);
+
+    private final SocketIOServer socketIOServer;
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final MessageResponseMapper messageResponseMapper;
+    private final MessageBroadcaster messageBroadcaster;
+    private final OutboundDispatcher outboundDispatcher;
+    private final ChangeStreamResumeTokenRepository resumeTokenRepository;
+    private final ParticipantDiffAggregator participantDiffAggregator;
+    private final HistoryPageCache historyPageCache;
+    private final String nodeId;
+    private final Duration tokenFlushInterval;
+
+    private final List<Watcher> watchers = new ArrayList<>();
+
+    public ChangeStreamFanout(
+            SocketIOServer socketIOServer,
+            MongoTemplate mongoTemplate,
+            UserRepository userRepository,
+            MessageResponseMapper messageResponseMapper,
+            MessageBroadcaster messageBroadcaster,
+            OutboundDispatcher outboundDispatcher,
+            ChangeStreamResumeTokenRepository resumeTokenRepository,
+            ParticipantDiffAggregator participantDiffAggregator,
+            HistoryPageCache historyPageCache,
+            ClusterNode clusterNode,
+            @Value("${socketio.fanout.token-flush-interval:1s}") Duration tokenFlushInterval) {
+        this.socketIOServer = socketIOServer;
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.messageResponseMapper = messageResponseMapper;
+        this.messageBroadcaster = messageBroadcaster;
+        this.outboundDispatcher = outboundDispatcher;
+        this.resumeTokenRepository = resumeTokenRepository;
+        this.participantDiffAggregator = participantDiffAggregator;
+        this.historyPageCache = historyPageCache;
+        this.nodeId = clusterNode.getNodeId();
+        this.tokenFlushInterval = tokenFlushInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        watchers.add(new Watcher(MESSAGES,
+                List.of(Aggregates.match(Filters.or(
+                        Filters.eq("operationType", "replace"),
+                        Filters.and(
+                                Filters.eq("operationType", "insert"),
+                                Filters.ne("fullDocument.type", MessageType.ai.name()))))),
+                this::onMessageChange));
+        watchers.add(new Watcher(ROOMS,
+                List.of(Aggregates.match(Filters.in("operationType", "update", "replace", "delete"))),
+                this::onRoomChange));
+        watchers.forEach(Watcher::start);
+        log.info("Change stream fan-out started - nodeId: {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchers.forEach(Watcher::stop);
+        watchers.clear();
+    }
+
+    void onMessageChange(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return;
+        }
+        String roomId = document.getString("room");
+        if (change.getOperationType() == OperationType.REPLACE) {
+            if (roomId != null) {
+                historyPageCache.invalidateRoom(roomId);
+            }
+            return;
+        }
+        if (!hasLocalSubscribers(roomId)) {
+            return;
+        }
+
+        Message message = mongoTemplate.getConverter().read(Message.class, document);
+        User sender = message.getSenderId() != null
+                ? userRepository.findById(message.getSenderId()).orElse(null)
+                : null;
+
+        messageBroadcaster.broadcastMessage(roomId, messageResponseMapper.mapToMessageResponse(message, sender));
+    }
+
+    void onRoomChange(ChangeStreamDocument<Document> change) {
+        if (change.getOperationType() == OperationType.DELETE) {
+            String roomId = change.getDocumentKey().get("_id").asObjectId().getValue().toHexString();
+            outboundDispatcher.sendToRoom("room-list", OutboundEvent.reliable(ROOM_DELETED, roomId));
+            return;
+        }
+
+        if (change.getOperationType() == OperationType.UPDATE && !participantsChanged(change)) {
+            return;
+        }
+
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return;
+        }
+        Room room = mongoTemplate.getConverter().read(Room.class, document);
+        if (room.isEmpty() || !hasLocalSubscribers(room.getId())) {
+            return;
+        }
+
+        BsonDocument updated = change.getUpdateDescription() != null
+                ? change.getUpdateDescription().getUpdatedFields()
+                : null;
+        if (updated == null || !updated.isString("lastParticipantChange") || !updated.isNumber("participantsVersion")) {
+            return;
+        }
+        String lastChange = updated.getString("lastParticipantChange").getValue();
+        // 참가자 수는 updateLookup 시점의 문서 기준이라 연속 변경 중에는 diff 버전보다 앞설 수 있다
+        participantDiffAggregator.record(room.getId(), lastChange.substring(1), lastChange.startsWith("+"),
+                updated.getNumber("participantsVersion").longValue(), room.getParticipantCount());
+    }
+
+    private boolean participantsChanged(ChangeStreamDocument<Document> change) {
+        var description = change.getUpdateDescription();
+        if (description == null) {
+            return false;
+        }
+        boolean updated = description.getUpdatedFields() != null && description.getUpdatedFields()
+                .keySet().stream().anyMatch(key -> key.startsWith("participantIds"));
+        boolean removed = description.getRemovedFields() != null && description.getRemovedFields()
+                .stream().anyMatch(key -> key.startsWith("participantIds"));
+        return updated || removed;
+    }
+
+    private boolean hasLocalSubscribers(String roomId) {
+        return roomId != null && !socketIOServer.getRoomOperations(roomId).getClients().isEmpty();
+    }
+
+    private String tokenId(String collection) {
+        return nodeId + ":" + collection;
+    }
+
+    /**
+     * 컬렉션 하나를 구독하는 스레드.
+     * 오류가 나면 마지막 resume token부터 다시 연결한다.
+     */
+    private class Watcher implements Runnable {
+
+        private final String collection;
+        private final List<Bson> pipeline;
+        private final Consumer<ChangeStreamDocument<Document>> handler;
+        private final Thread thread;
+
+        private volatile boolean running;
+        private BsonDocument resumeToken;
+        private BsonDocument lastSavedToken;
+        private long lastFlushAt;
+
+        Watcher(String collection, List<Bson> pipeline, Consumer<ChangeStreamDocument<Document>> handler) {
+            this.collection = collection;
+            this.pipeline = pipeline;
+            this.handler = handler;
+            this.thread = new Thread(this, "change-stream-" + collection);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            resumeToken = resumeTokenRepository.findById(tokenId(collection))
+                    .map(saved -> BsonDocument.parse(saved.getToken()))
+                    .orElse(null);
+            lastSavedToken = resumeToken;
+            running = true;
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushToken(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                    while (running) {
+                        ChangeStreamDocument<Document> change = cursor.tryNext();
+                        if (change != null) {
+                            dispatch(change);
+                        }
+                        // 이벤트가 없어도 postBatchResumeToken으로 위치를 전진시킨다
+                        if (cursor.getResumeToken() != null) {
+                            resumeToken = cursor.getResumeToken();
+                        }
+                        flushToken(false);
+                    }
+                } catch (MongoCommandException e) {
+                    if (HISTORY_LOST_CODES.contains(e.getErrorCode())) {
+                        log.warn("Resume token expired for {} - restarting from now", collection);
+                        resumeToken = null;
+                    } else {
+                        backoff(e);
+                    }
+                } catch (Exception e) {
+                    if (running) {
+                        backoff(e);
+                    }
+                }
+            }
+        }
+
+        private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+            var iterable = mongoTemplate.getCollection(collection)
+                    .watch(pipeline)
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(500, TimeUnit.MILLISECONDS);
+            if (resumeToken != null) {
+                iterable = iterable.resumeAfter(resumeToken);
+            }
+            return iterable.cursor();
+        }
+
+        private void dispatch(ChangeStreamDocument<Document> change) {
+            try {
+                handler.accept(change);
+            } catch (Exception e) {
+                log.error("Change stream event handling failed - collection: {}", collection, e);
+            }
+        }
+
+        private void flushToken(boolean force) {
+            if (resumeToken == null || resumeToken.equals(lastSavedToken)) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (!force && now - lastFlushAt < tokenFlushInterval.toMillis()) {
+                return;
+            }
+            try {
+                resumeTokenRepository.save(ChangeStreamResumeToken.builder()
+                        .id(tokenId(collection))
+                        .token(resumeToken.toJson())
+                        .updatedAt(Instant.now())
+                        .build());
+                lastSavedToken = resumeToken;
+                lastFlushAt = now;
+            } catch (Exception e) {
+                log.warn("Failed to persist resume token for {}: {}", collection, e.getMessage());
+            }
+        }
+
+        private void backoff(Exception e) {
+            log.error("Change stream on {} failed - reconnecting", collection, e);
+            try {
+                Thread.sleep(Duration.ofSeconds(1));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
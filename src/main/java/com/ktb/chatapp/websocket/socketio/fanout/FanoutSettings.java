@@ -0,0 +1,32 @@
+package com.ktb.chatapp.websocket.socketio.fanout;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방 이벤트 fan-out 모드 설정.
+ * <ul>
+ *   <li>local (기본): 메시지를 저장한 노드가 직접 브로드캐스트한다.</li>
+ *   <li>change-stream: 모든 노드가 MongoDB change stream을 구독해 로컬 클라이언트에 브로드캐스트한다.
+ *       저장한 노드도 change stream을 통해서만 전달하므로 중복 전송이 없다.</li>
+ * </ul>
+ */
+@Component
+public class FanoutSettings {
+
+    public static final String CHANGE_STREAM = "change-stream";
+
+    private final String mode;
+
+    public FanoutSettings(@Value("${socketio.fanout.mode:local}") String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * 저장된 메시지/방 변경 이벤트를 change stream이 전달하는지 여부.
+     * true이면 핸들러는 해당 이벤트를 직접 브로드캐스트하지 않는다.
+     */
+    public boolean isChangeStreamEnabled() {
+        return CHANGE_STREAM.equals(mode);
+    }
+}
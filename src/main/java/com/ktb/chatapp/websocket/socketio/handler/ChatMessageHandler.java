@@ -1,7 +1,6 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
 import com.ktb.chatapp.dto.ChatMessageRequest;
 import com.ktb.chatapp.dto.FileResponse;
@@ -17,6 +16,7 @@ import com.ktb.chatapp.websocket.socketio.ai.AiService;
 import com.ktb.chatapp.service.SessionService;
 import com.ktb.chatapp.service.SessionValidationResult;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
 import java.time.LocalDateTime;
 import java.util.*;
 import lombok.RequiredArgsConstructor;
@@ -31,13 +31,14 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class ChatMessageHandler {
-    private final SocketIOServer socketIOServer;
     private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final FileRepository fileRepository;
     private final AiService aiService;
     private final SessionService sessionService;
+    private final FanoutSettings fanoutSettings;
+    private final MessageBroadcaster messageBroadcaster;
     
     @OnEvent(CHAT_MESSAGE)
     public void handleChatMessage(SocketIOClient client, ChatMessageRequest data) {
@@ -107,8 +108,10 @@ public class ChatMessageHandler {
 
             Message savedMessage = messageRepository.save(message);
             
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGE, createMessageResponse(savedMessage, sender));
+            // change stream 모드에서는 모든 노드가 change stream으로 전달한다
+            if (!fanoutSettings.isChangeStreamEnabled()) {
+                messageBroadcaster.broadcastMessage(roomId, createMessageResponse(savedMessage, sender));
+            }
             
             // AI 멘션 처리
             aiService.handleAIMentions(roomId, socketUser.id(), messageContent);
@@ -181,6 +184,7 @@ public class ChatMessageHandler {
         messageResponse.setContent(message.getContent());
         messageResponse.setType(message.getType());
         messageResponse.setTimestamp(message.toTimestampMillis());
+        messageResponse.setSeq(message.getSeq());
         messageResponse.setReactions(message.getReactions() != null ? message.getReactions() : Collections.emptyMap());
         messageResponse.setSender(UserResponse.from(sender));
         messageResponse.setMetadata(message.getMetadata());
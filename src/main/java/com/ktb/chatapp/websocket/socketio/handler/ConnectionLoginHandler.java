@@ -1,15 +1,24 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnDisconnect;
+import com.ktb.chatapp.dto.AffinityHintResponse;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
 import com.ktb.chatapp.websocket.socketio.ConnectedUsers;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.affinity.RoomOwnership;
+import com.ktb.chatapp.websocket.socketio.affinity.RoomRelay;
+import com.ktb.chatapp.websocket.socketio.directory.UserDelivery;
+import com.ktb.chatapp.websocket.socketio.directory.UserDirectory;
+import com.ktb.chatapp.websocket.socketio.directory.UserLocation;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import com.ktb.chatapp.websocket.socketio.presence.PresenceService;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -28,10 +37,15 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class ConnectionLoginHandler {
 
-    private final SocketIOServer socketIOServer;
     private final ConnectedUsers connectedUsers;
+    private final ClusterNode clusterNode;
+    private final UserDirectory userDirectory;
+    private final UserDelivery userDelivery;
     private final UserRooms userRooms;
-    private final RoomJoinHandler roomJoinHandler;
+    private final RoomRejoinHandler roomRejoinHandler;
+    private final PresenceService presenceService;
+    private final RoomRelay roomRelay;
+    private final Optional<RoomOwnership> roomOwnership;
     
     /**
      * auth 처리가 선행되어야 해서 @OnConnect 대신 별도 메서드로 구현
@@ -40,15 +54,21 @@ public class ConnectionLoginHandler {
         String userId = user.id();
         
         try {
-            // 다른 노드에 접속된 사용자는 통보 불가
-            notifyDuplicateLogin(client, userId);
-            userRooms.get(userId).forEach(roomId -> {
-                // 재접속 시 기존 참여 방 재입장 처리
-                roomJoinHandler.handleJoinRoom(client, roomId);
-            });
+            // 이전 연결이 다른 노드에 있어도 디렉터리로 해당 노드에 통보한다
+            var location = new UserLocation(userId, clusterNode.getNodeId(), client.getSessionId().toString());
+            userDirectory.register(location)
+                    .filter(previous -> !previous.socketId().equals(location.socketId()))
+                    .ifPresent(previous -> notifyDuplicateLogin(client, previous));
             
             connectedUsers.set(userId, user);
             client.set("user", user);
+            presenceService.connected(userId);
+            
+            // 재접속 시 기존 참여 방 일괄 재입장 처리
+            userRooms.retain(userId);
+            List<String> activeRoomIds = roomRejoinHandler.rejoin(client, userId);
+            roomRelay.follow(activeRoomIds);
+            sendAffinityHint(client, activeRoomIds);
             
             log.info("Socket.IO user connected: {} ({})", getUserName(client), userId);
             
@@ -76,7 +96,13 @@ public class ConnectionLoginHandler {
             if (socketUser != null && socketId.equals(socketUser.socketId())) {
                 connectedUsers.del(userId);
             }
+            userDirectory.unregister(userId, socketId);
             
+            presenceService.disconnected(userId);
+            if (!presenceService.isOnline(userId)) {
+                // 마지막 연결이 끊기면 재접속 대기 시간 뒤 방 목록을 정리한다
+                userRooms.expireAfterDisconnect(userId);
+            }
             client.leaveRooms(Set.of("user:" + userId, "room-list"));
             client.del("user");
             
@@ -104,35 +130,36 @@ public class ConnectionLoginHandler {
     }
     
     /**
-     * TODO 멀티 클러스터에서 동작 안함
-     * socketIOServer.getRoomOperations("user:" + userId) 로 처리 변경.
+     * 활발한 방들의 소유 노드가 현재 노드와 다르면 선호 노드를 알린다.
      */
-    private void notifyDuplicateLogin(SocketIOClient client, String userId) {
-        var socketUser = connectedUsers.get(userId);
-        if (socketUser == null) {
-            return;
-        }
-        String existingSocketId = socketUser.socketId();
-        SocketIOClient existingClient = socketIOServer.getClient(UUID.fromString(existingSocketId));
-        if (existingClient == null) {
+    private void sendAffinityHint(SocketIOClient client, List<String> activeRoomIds) {
+        if (activeRoomIds.isEmpty()) {
             return;
         }
-        
+        roomOwnership.flatMap(ownership -> ownership.preferredNode(activeRoomIds))
+                .ifPresent(preference -> client.sendEvent(AFFINITY_HINT, new AffinityHintResponse(
+                        clusterNode.getNodeId(),
+                        preference.node().nodeId(),
+                        preference.node().url(),
+                        preference.roomIds())));
+    }
+    
+    private void notifyDuplicateLogin(SocketIOClient client, UserLocation previous) {
         // Send duplicate login notification
-        existingClient.sendEvent(DUPLICATE_LOGIN, Map.of(
+        userDelivery.sendToSocket(previous, OutboundEvent.reliable(DUPLICATE_LOGIN, Map.of(
                 "type", "new_login_attempt",
                 "deviceInfo", client.getHandshakeData().getHttpHeaders().get("User-Agent"),
                 "ipAddress", client.getRemoteAddress().toString(),
                 "timestamp", System.currentTimeMillis()
-        ));
+        )));
         
         new Thread(() -> {
             try {
                 Thread.sleep(Duration.ofSeconds(10));
-                existingClient.sendEvent(SESSION_ENDED, Map.of(
+                userDelivery.sendToSocket(previous, OutboundEvent.reliable(SESSION_ENDED, Map.of(
                         "reason", "duplicate_login",
                         "message", "다른 기기에서 로그인하여 현재 세션이 종료되었습니다."
-                ));
+                )));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 log.error("Error in duplicate login notification thread", e);
@@ -0,0 +1,225 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.event.MessagesReadEvent;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 과거 메시지 페이지 캐시.
+ * before 커서가 있는 페이지는 내용이 거의 바뀌지 않으므로 로드한 응답 객체를 그대로 힙에 보관해
+ * 조회 시 역직렬화 없이 돌려준다. 용량은 저장할 때 한 번 계산한 JSON 크기 합계 기준 LRU로 제한한다.
+ * <ul>
+ *   <li>같은 (roomId, before, limit) 요청이 동시에 들어오면 한 번만 로드한다.</li>
+ *   <li>캐시된 응답은 여러 요청이 공유하므로 읽기 전용으로 다룬다.</li>
+ *   <li>리액션/삭제가 발생하면 해당 방의 페이지를 모두 무효화한다. change-stream 모드에서는
+ *       다른 노드의 메시지 변경도 ChangeStreamFanout이 전달해 무효화하고, 그 외 모드에서는 ttl까지 오래된 값일 수 있다.</li>
+ *   <li>읽음 상태(readers, readCount)가 바뀌면 MessagesReadEvent로 해당 메시지가 든 페이지만 무효화한다.
+ *       읽음 처리는 대부분 캐시하지 않는 최신 메시지에 일어나므로 과거 페이지는 계속 캐시에 남는다.
+ *       다른 노드에서 기록한 읽음은 전달되지 않으므로 ttl까지 오래된 값일 수 있다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryPageCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final boolean prefetch;
+
+    private final LinkedHashMap<PageKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<PageKey, CompletableFuture<FetchMessagesResponse>> inFlight = new ConcurrentHashMap<>();
+    // 로드 도중 무효화된 페이지가 다시 저장되지 않도록 방별 세대 번호를 둔다
+    private final Map<String, Long> roomGenerations = new ConcurrentHashMap<>();
+    private final TaskScheduler taskScheduler;
+    private long usedBytes;
+
+    public HistoryPageCache(
+            ObjectMapper objectMapper,
+            TaskScheduler taskScheduler,
+            @Value("${history.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${history.cache.ttl:1m}") Duration ttl,
+            @Value("${history.cache.prefetch:false}") boolean prefetch) {
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttl.toMillis();
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * 캐시에서 페이지를 찾고, 없으면 loader로 로드해 저장한다.
+     * 동일 키의 동시 요청은 먼저 시작한 로드 결과를 함께 사용한다.
+     */
+    public FetchMessagesResponse get(PageKey key, Function<PageKey, FetchMessagesResponse> loader) {
+        FetchMessagesResponse cached = read(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<FetchMessagesResponse> future = new CompletableFuture<>();
+        CompletableFuture<FetchMessagesResponse> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            log.debug("History page load coalesced - {}", key);
+            return existing.join();
+        }
+
+        try {
+            long generation = roomGenerations.getOrDefault(key.roomId(), 0L);
+            FetchMessagesResponse loaded = loader.apply(key);
+            write(key, loaded, generation);
+            future.complete(loaded);
+            prefetchNext(key, loaded, loader);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 방의 모든 캐시 페이지를 제거한다.
+     */
+    public synchronized void invalidateRoom(String roomId) {
+        roomGenerations.merge(roomId, 1L, Long::sum);
+        Iterator<Map.Entry<PageKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PageKey, Entry> entry = iterator.next();
+            if (entry.getKey().roomId().equals(roomId)) {
+                usedBytes -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 주어진 메시지가 든 방의 캐시 페이지만 제거한다.
+     * 로드 중인 페이지는 바뀌기 전 값을 읽었을 수 있으므로 방 세대 번호는 항상 올린다.
+     */
+    public synchronized void invalidateMessages(String roomId, Collection<String> messageIds) {
+        roomGenerations.merge(roomId, 1L, Long::sum);
+        Iterator<Map.Entry<PageKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PageKey, Entry> entry = iterator.next();
+            if (entry.getKey().roomId().equals(roomId) && contains(entry.getValue().page(), messageIds)) {
+                usedBytes -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    @EventListener
+    public void onMessagesRead(MessagesReadEvent event) {
+        invalidateMessages(event.getRoomId(), event.getMessageIds());
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void prefetchNext(PageKey key, FetchMessagesResponse page,
+                              Function<PageKey, FetchMessagesResponse> loader) {
+        if (!prefetch || !page.isHasMore() || page.getMessages().isEmpty()) {
+            return;
+        }
+        PageKey next = new PageKey(key.roomId(), page.firstMessageTimestamp(), key.limit());
+        try {
+            taskScheduler.schedule(() -> {
+                try {
+                    get(next, loader);
+                } catch (Exception e) {
+                    log.debug("History page prefetch failed - {}: {}", next, e.getMessage());
+                }
+            }, Instant.now());
+        } catch (TaskRejectedException e) {
+            log.debug("History page prefetch skipped during shutdown - {}", next);
+        }
+    }
+
+    private static boolean contains(FetchMessagesResponse page, Collection<String> messageIds) {
+        for (MessageResponse message : page.getMessages()) {
+            if (messageIds.contains(message.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized FetchMessagesResponse read(PageKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.createdAt() > ttlMillis) {
+            entries.remove(key);
+            usedBytes -= entry.size();
+            return null;
+        }
+        return entry.page();
+    }
+
+    private void write(PageKey key, FetchMessagesResponse page, long generation) {
+        long size;
+        try {
+            size = objectMapper.writeValueAsBytes(page).length;
+        } catch (IOException e) {
+            log.warn("History page serialization failed - {}: {}", key, e.getMessage());
+            return;
+        }
+        if (size > maxBytes) {
+            return;
+        }
+
+        synchronized (this) {
+            if (roomGenerations.getOrDefault(key.roomId(), 0L) != generation) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(page, size, System.currentTimeMillis()));
+            if (previous != null) {
+                usedBytes -= previous.size();
+            }
+            usedBytes += size;
+
+            // LRU 순서로 용량 초과분 제거
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                usedBytes -= iterator.next().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 페이지 식별 키
+     *
+     * @param roomId 방 ID
+     * @param before 커서 (epoch millis)
+     * @param limit 페이지 크기
+     */
+    public record PageKey(String roomId, long before, int limit) {
+    }
+
+    private record Entry(FetchMessagesResponse page, long size, long createdAt) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.dto.CompactMessageResponse;
+import com.ktb.chatapp.dto.CompactReactionResponse;
+import com.ktb.chatapp.dto.MessageReactionResponse;
+import com.ktb.chatapp.dto.MessageReadCountsResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.MessagesReadBatchResponse;
+import com.ktb.chatapp.dto.MessagesReadResponse;
+import com.ktb.chatapp.dto.ParticipantsDiffResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.WireFormat;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * 방 단위 메시지 브로드캐스트.
+ * 방 구독자의 wire format에 따라 LEGACY/COMPACT 페이로드를 골라 OutboundDispatcher로 보낸다.
+ * 채팅 메시지, 읽음 처리, 참가자 diff는 버리지 않고, 리액션과 참가자 전체 목록은 밀려 있으면 최신 값만 보낸다.
+ * 채팅 메시지는 MessageReplayBuffer에 보관하고, 그 외 방 이벤트는 재연결 시 재동기화 판단을 위해 발생만 기록한다.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MessageBroadcaster {
+
+    private final SocketIOServer socketIOServer;
+    private final MessageReplayBuffer messageReplayBuffer;
+    private final OutboundDispatcher outboundDispatcher;
+
+    public void broadcastMessage(String roomId, MessageResponse message) {
+        messageReplayBuffer.record(roomId, message);
+        OutboundEvent legacy = OutboundEvent.reliable(MESSAGE, message);
+        OutboundEvent compact = null;
+        for (SocketIOClient client : clients(roomId)) {
+            if (WireFormat.isCompact(client)) {
+                // 새 메시지는 readers/reactions가 비어 있으므로 수신자 구분 없이 같은 페이로드를 보낸다
+                if (compact == null) {
+                    compact = OutboundEvent.reliable(MESSAGE, CompactMessageResponse.from(message, null, true));
+                }
+                outboundDispatcher.send(client, compact);
+            } else {
+                outboundDispatcher.send(client, legacy);
+            }
+        }
+    }
+
+    public void broadcastReactionUpdate(String roomId, MessageReactionResponse response) {
+        messageReplayBuffer.recordRoomEvent(roomId);
+        OutboundEvent legacy = OutboundEvent.latest(MESSAGE_REACTION_UPDATE, response, response.getMessageId());
+        for (SocketIOClient client : clients(roomId)) {
+            if (WireFormat.isCompact(client)) {
+                // myReactions는 수신자마다 다르다
+                SocketUser user = client.get("user");
+                outboundDispatcher.send(client, OutboundEvent.latest(MESSAGE_REACTION_UPDATE,
+                        CompactReactionResponse.from(response, user != null ? user.id() : null),
+                        response.getMessageId()));
+            } else {
+                outboundDispatcher.send(client, legacy);
+            }
+        }
+    }
+
+    /**
+     * 한 tick 동안 모인 방의 읽음 처리를 전달한다.
+     * COMPACT 클라이언트는 묶음 하나를, LEGACY 클라이언트는 기존 형식대로 사용자별 이벤트를 받는다.
+     * LEGACY 형식은 이벤트마다 사용자 한 명이라 방 단위로 합칠 수 없으며, 이 요청 범위의 예외로 둔다.
+     */
+    public void broadcastReads(String roomId, List<MessagesReadResponse> reads) {
+        messageReplayBuffer.recordRoomEvent(roomId);
+        OutboundEvent batch = OutboundEvent.reliable(MESSAGES_READ, new MessagesReadBatchResponse(roomId, reads));
+        for (SocketIOClient client : clients(roomId)) {
+            if (WireFormat.isCompact(client)) {
+                outboundDispatcher.send(client, batch);
+            } else {
+                reads.forEach(read -> outboundDispatcher.send(client, OutboundEvent.reliable(MESSAGES_READ, read)));
+            }
+        }
+    }
+
+    /**
+     * 대형 방은 읽은 사용자 목록 대신 메시지별 읽은 사람 수만 보낸다.
+     */
+    public void broadcastReadCounts(String roomId, Map<String, Integer> counts) {
+        messageReplayBuffer.recordRoomEvent(roomId);
+        outboundDispatcher.sendToRoom(roomId, OutboundEvent.reliable(MESSAGES_READ_COUNT,
+                new MessageReadCountsResponse(roomId, counts)));
+    }
+
+    /**
+     * 참가자 변경 diff는 앞선 diff를 대체하지 않으므로 버리지 않고 순서대로 보낸다.
+     * fullList가 있으면(일반 모드 방) LEGACY 클라이언트에는 기존 형식대로 전체 목록을 보내고, 밀려 있으면 마지막 목록만 보낸다.
+     * 전체 목록은 LEGACY 클라이언트가 있을 때 한 번만 만든다.
+     */
+    public void broadcastParticipantsDiff(ParticipantsDiffResponse diff, Supplier<List<UserResponse>> fullList) {
+        messageReplayBuffer.recordRoomEvent(diff.getRoomId());
+        OutboundEvent diffEvent = OutboundEvent.reliable(PARTICIPANTS_DIFF, diff);
+        if (fullList == null) {
+            outboundDispatcher.sendToRoom(diff.getRoomId(), diffEvent);
+            return;
+        }
+        OutboundEvent legacy = null;
+        for (SocketIOClient client : clients(diff.getRoomId())) {
+            if (WireFormat.isCompact(client)) {
+                outboundDispatcher.send(client, diffEvent);
+            } else {
+                if (legacy == null) {
+                    legacy = OutboundEvent.latest(PARTICIPANTS_UPDATE, fullList.get(), diff.getRoomId());
+                }
+                outboundDispatcher.send(client, legacy);
+            }
+        }
+    }
+
+    private Iterable<SocketIOClient> clients(String roomId) {
+        return socketIOServer.getRoomOperations(roomId).getClients();
+    }
+}
@@ -2,11 +2,16 @@ package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.dto.CompactMessagePage;
 import com.ktb.chatapp.dto.FetchMessagesRequest;
 import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.MessageResponse;
 import com.ktb.chatapp.model.Room;
 import com.ktb.chatapp.repository.RoomRepository;
+import com.ktb.chatapp.service.MessageReadStatusService;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.WireFormat;
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -14,6 +19,7 @@ import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
@@ -31,13 +37,16 @@ public class MessageFetchHandler {
     private final RoomRepository roomRepository;
     private final MessageLoader messageLoader;
     private final RetryTemplate retryTemplate;
+    private final HistoryPageCache historyPageCache;
+    private final MessageReadStatusService messageReadStatusService;
+    private final IdInterner idInterner;
 
-    private final Map<String, Boolean> messageQueues = new ConcurrentHashMap<>();
+    // 로드 중인 (방, 사용자) 쌍, 두 ordinal을 long 하나로 묶는다
+    private final Set<Long> loading = ConcurrentHashMap.newKeySet();
     
     @OnEvent(FETCH_PREVIOUS_MESSAGES)
     public void handleFetchMessages(SocketIOClient client, FetchMessagesRequest data) {
         String userId = getUserId(client);
-        String queueKey = data.roomId() + ":" + userId;
         if (userId == null) {
             client.sendEvent(ERROR, Map.of(
                     "code", "UNAUTHORIZED",
@@ -46,14 +55,10 @@ public class MessageFetchHandler {
             return;
         }
         
+        Long queueKey = null;
+        int roomOrdinal = -1;
+        int userOrdinal = -1;
         try {
-            // 이미 로드 중인지 확인
-            if (Boolean.TRUE.equals(messageQueues.get(queueKey))) {
-                log.debug("Message load skipped - already loading for user {} in room {}",
-                        userId, data.roomId());
-                return;
-            }
-
             // 권한 체크
             Room room = roomRepository.findById(data.roomId()).orElse(null);
             if (room == null || !room.getParticipantIds().contains(userId)) {
@@ -64,24 +69,32 @@ public class MessageFetchHandler {
                 return;
             }
 
-            messageQueues.put(queueKey, true);
+            // 이미 로드 중인지 확인, 권한이 확인된 ID만 등록하고 로드가 끝나면 반납한다
+            roomOrdinal = idInterner.acquire(data.roomId());
+            userOrdinal = idInterner.acquire(userId);
+            long key = ((long) roomOrdinal << 32) | userOrdinal;
+            if (!loading.add(key)) {
+                log.debug("Message load skipped - already loading for user {} in room {}",
+                        userId, data.roomId());
+                return;
+            }
+            queueKey = key;
             client.sendEvent(MESSAGE_LOAD_START);
 
             log.debug("Starting message load for user {} in room {}, limit: {}, before: {}",
                     userId, data.roomId(), data.limit(), data.before());
 
-            // RetryTemplate을 사용한 동기 방식 메시지 로드
-            FetchMessagesResponse result = retryTemplate.execute(context -> {
-                log.debug("Loading messages for room {} (attempt {})",
-                        data.roomId(), context.getRetryCount() + 1);
-                return messageLoader.loadMessages(data, userId);
-            });
+            FetchMessagesResponse result = isHistoryPage(data)
+                    ? loadCachedHistoryPage(data, userId)
+                    : loadWithRetry(data, userId);
             
             log.debug("Previous messages loaded - room: {}, count: {}, hasMore: {}",
                     data.roomId(), result.getMessages().size(),
                     result.isHasMore());
             
-            client.sendEvent(PREVIOUS_MESSAGES_LOADED, result);
+            client.sendEvent(PREVIOUS_MESSAGES_LOADED, WireFormat.isCompact(client)
+                    ? CompactMessagePage.from(result, userId)
+                    : result);
 
         } catch (Exception e) {
             log.error("Error handling fetchPreviousMessages", e);
@@ -91,10 +104,45 @@ public class MessageFetchHandler {
                             e.getMessage() : "이전 메시지를 불러오는 중 오류가 발생했습니다."
             ));
         } finally {
-            messageQueues.remove(queueKey);
+            if (queueKey != null) {
+                loading.remove(queueKey);
+            }
+            if (roomOrdinal >= 0) {
+                idInterner.release(roomOrdinal);
+            }
+            if (userOrdinal >= 0) {
+                idInterner.release(userOrdinal);
+            }
         }
     }
 
+    /**
+     * before 커서가 있는 과거 페이지만 캐시한다. (최신 페이지와 afterSeq 동기화는 제외)
+     */
+    private boolean isHistoryPage(FetchMessagesRequest data) {
+        return data.before() != null && data.before() > 0 && !data.hasAfterSeq();
+    }
+
+    private FetchMessagesResponse loadWithRetry(FetchMessagesRequest data, String userId) {
+        // RetryTemplate을 사용한 동기 방식 메시지 로드
+        return retryTemplate.execute(context -> {
+            log.debug("Loading messages for room {} (attempt {})",
+                    data.roomId(), context.getRetryCount() + 1);
+            return messageLoader.loadMessages(data, userId);
+        });
+    }
+
+    private FetchMessagesResponse loadCachedHistoryPage(FetchMessagesRequest data, String userId) {
+        var key = new HistoryPageCache.PageKey(data.roomId(), data.before(), data.limit(MessageLoader.BATCH_SIZE));
+        FetchMessagesResponse page = historyPageCache.get(key, k -> retryTemplate.execute(context ->
+                messageLoader.loadHistoryPage(new FetchMessagesRequest(k.roomId(), k.limit(), k.before()))));
+
+        // 캐시된 페이지는 사용자 무관하므로 읽음 처리는 요청자별로 한다
+        messageReadStatusService.markAsRead(data.roomId(),
+                page.getMessages().stream().map(MessageResponse::getId).toList(), userId);
+        return page;
+    }
+
     private String getUserId(SocketIOClient client) {
         var user = (SocketUser) client.get("user");
         return user.id();
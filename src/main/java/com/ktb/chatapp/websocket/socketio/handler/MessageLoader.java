@@ -17,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
@@ -32,13 +33,16 @@ public class MessageLoader {
     private final MessageResponseMapper messageResponseMapper;
     private final MessageReadStatusService messageReadStatusService;
 
-    private static final int BATCH_SIZE = 30;
+    static final int BATCH_SIZE = 30;
 
     /**
      * 메시지 로드 (RetryTemplate에서 호출)
      */
     public FetchMessagesResponse loadMessages(FetchMessagesRequest data, String userId) {
         try {
+            if (data.hasAfterSeq()) {
+                return loadMessagesAfterSeq(data.roomId(), data.limit(BATCH_SIZE), data.afterSeq(), userId);
+            }
             return loadMessagesInternal(data.roomId(), data.limit(BATCH_SIZE), data.before(LocalDateTime.now()), userId);
         } catch (Exception e) {
             log.error("Error loading initial messages for room {}", data.roomId(), e);
@@ -49,15 +53,22 @@ public class MessageLoader {
         }
     }
 
+    /**
+     * 사용자와 무관한 과거 메시지 페이지 로드 (읽음 처리 없음, 캐시용)
+     * 오류는 호출자에게 전파하여 빈 페이지가 캐시되지 않게 한다.
+     */
+    public FetchMessagesResponse loadHistoryPage(FetchMessagesRequest data) {
+        int limit = data.limit(BATCH_SIZE);
+        Page<Message> messagePage = findPage(data.roomId(), limit, data.before(LocalDateTime.now()));
+        return toResponse(data.roomId(), limit, messagePage.getContent().reversed(), messagePage.hasNext());
+    }
+
     private FetchMessagesResponse loadMessagesInternal(
             String roomId,
             int limit,
             LocalDateTime before,
             String userId) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by("timestamp").descending());
-
-        Page<Message> messagePage = messageRepository
-                .findByRoomIdAndIsDeletedAndTimestampBefore(roomId, false, before, pageable);
+        Page<Message> messagePage = findPage(roomId, limit, before);
 
         List<Message> messages = messagePage.getContent();
 
@@ -66,6 +77,20 @@ public class MessageLoader {
         
         messageReadStatusService.updateReadStatus(sortedMessages, userId);
         
+        return toResponse(roomId, limit, sortedMessages, messagePage.hasNext());
+    }
+
+    private Page<Message> findPage(String roomId, int limit, LocalDateTime before) {
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("timestamp").descending());
+        return messageRepository
+                .findByRoomIdAndIsDeletedAndTimestampBefore(roomId, false, before, pageable);
+    }
+
+    private FetchMessagesResponse toResponse(
+            String roomId,
+            int limit,
+            List<Message> sortedMessages,
+            boolean hasMore) {
         // 메시지 응답 생성
         List<MessageResponse> messageResponses = sortedMessages.stream()
                 .map(message -> {
@@ -74,8 +99,6 @@ public class MessageLoader {
                 })
                 .collect(Collectors.toList());
 
-        boolean hasMore = messagePage.hasNext();
-
         log.debug("Messages loaded - roomId: {}, limit: {}, count: {}, hasMore: {}",
                 roomId, limit, messageResponses.size(), hasMore);
 
@@ -85,6 +108,38 @@ public class MessageLoader {
                 .build();
     }
 
+    /**
+     * afterSeq 이후 메시지를 오름차순으로 조회한다.
+     * hasMore가 true이면 마지막 메시지의 seq로 다시 요청한다.
+     */
+    private FetchMessagesResponse loadMessagesAfterSeq(
+            String roomId,
+            int limit,
+            long afterSeq,
+            String userId) {
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("seq").ascending());
+
+        Slice<Message> messageSlice = messageRepository
+                .findByRoomIdAndIsDeletedAndSeqGreaterThan(roomId, false, afterSeq, pageable);
+
+        List<Message> messages = messageSlice.getContent();
+
+        messageReadStatusService.updateReadStatus(messages, userId);
+
+        List<MessageResponse> messageResponses = messages.stream()
+                .map(message -> messageResponseMapper.mapToMessageResponse(
+                        message, findUserById(message.getSenderId())))
+                .collect(Collectors.toList());
+
+        log.debug("Messages loaded after seq - roomId: {}, afterSeq: {}, count: {}, hasMore: {}",
+                roomId, afterSeq, messageResponses.size(), messageSlice.hasNext());
+
+        return FetchMessagesResponse.builder()
+                .messages(messageResponses)
+                .hasMore(messageSlice.hasNext())
+                .build();
+    }
+
     /**
      * AI 경우 null 반환 가능
      */
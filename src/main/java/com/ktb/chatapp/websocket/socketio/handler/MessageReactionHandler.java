@@ -1,7 +1,6 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
 import com.ktb.chatapp.dto.MessageReactionRequest;
 import com.ktb.chatapp.dto.MessageReactionResponse;
@@ -26,8 +25,9 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class MessageReactionHandler {
     
-    private final SocketIOServer socketIOServer;
+    private final MessageBroadcaster messageBroadcaster;
     private final MessageRepository messageRepository;
+    private final HistoryPageCache historyPageCache;
     
     @OnEvent(MESSAGE_REACTION)
     public void handleMessageReaction(SocketIOClient client, MessageReactionRequest data) {
@@ -57,14 +57,14 @@ public class MessageReactionHandler {
                 data.getType(), data.getReaction(), message.getId(), userId);
 
             messageRepository.save(message);
+            historyPageCache.invalidateRoom(message.getRoomId());
 
             MessageReactionResponse response = new MessageReactionResponse(
                 message.getId(),
                 message.getReactions()
             );
 
-            socketIOServer.getRoomOperations(message.getRoomId())
-                .sendEvent(MESSAGE_REACTION_UPDATE, response);
+            messageBroadcaster.broadcastReactionUpdate(message.getRoomId(), response);
 
         } catch (Exception e) {
             log.error("Error handling messageReaction", e);
@@ -1,18 +1,14 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
 import com.ktb.chatapp.dto.MarkAsReadRequest;
-import com.ktb.chatapp.dto.MessagesReadResponse;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
-import java.time.LocalDateTime;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,7 +19,7 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 
 /**
  * 메시지 읽음 상태 처리 핸들러
- * 메시지 읽음 상태 업데이트 및 브로드캐스트 담당
+ * 요청을 검증한 뒤 ReadReceiptAggregator에 넘기고, 저장과 브로드캐스트는 flush 주기마다 모아서 처리한다.
  */
 @Slf4j
 @Component
@@ -31,10 +27,10 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class MessageReadHandler {
     
-    private final SocketIOServer socketIOServer;
     private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final UserRooms userRooms;
+    private final ReadReceiptAggregator readReceiptAggregator;
     
     @OnEvent(MARK_MESSAGES_AS_READ)
     public void handleMarkAsRead(SocketIOClient client, MarkAsReadRequest data) {
@@ -48,52 +44,15 @@ public class MessageReadHandler {
             if (data == null || data.getMessageIds() == null || data.getMessageIds().isEmpty()) {
                 return;
             }
-            
-            String roomId = messageRepository.findById(data.getMessageIds().getFirst())
-                    .map(Message::getRoomId).orElse(null);
-            
-            if (roomId == null || roomId.isBlank()) {
-                client.sendEvent(ERROR, Map.of("message", "Invalid room"));
-                return;
-            }
-
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                client.sendEvent(ERROR, Map.of("message", "User not found"));
-                return;
-            }
 
-            Room room = roomRepository.findById(roomId).orElse(null);
-            if (room == null || !room.getParticipantIds().contains(userId)) {
+            String roomId = resolveRoomId(data, userId);
+            if (roomId == null) {
                 client.sendEvent(ERROR, Map.of("message", "Room access denied"));
                 return;
             }
 
-            Message.MessageReader readerInfo = Message.MessageReader.builder()
-                    .userId(userId)
-                    .readAt(LocalDateTime.now())
-                    .build();
-
-            long modifiedCount = messageRepository.addReaderToMessages(
-                    data.getMessageIds(),
-                    roomId,
-                    userId,
-                    readerInfo
-            );
-
-            if (modifiedCount == 0) {
-                log.debug("No messages marked as read - roomId: {}, userId: {}", roomId, userId);
-                return;
-            }
-
-            log.debug("Messages marked as read - roomId: {}, userId: {}, modified: {}",
-                roomId, userId, modifiedCount);
-
-            MessagesReadResponse response = new MessagesReadResponse(userId, data.getMessageIds());
-
-            // Broadcast to room
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGES_READ, response);
+            // 업데이트 조건에 roomId가 포함되므로 다른 방의 메시지 ID는 반영되지 않는다
+            readReceiptAggregator.enqueue(roomId, userId, data.getMessageIds());
 
         } catch (Exception e) {
             log.error("Error handling markMessagesAsRead", e);
@@ -102,6 +61,29 @@ public class MessageReadHandler {
             ));
         }
     }
+
+    /**
+     * 클라이언트가 보낸 roomId가 입장 시 등록된 방이면 DB 조회 없이 사용한다.
+     * roomId가 없거나 등록되지 않은 방이면 메시지와 방을 조회해 참가 여부를 확인한다.
+     */
+    private String resolveRoomId(MarkAsReadRequest data, String userId) {
+        if (data.getRoomId() != null && userRooms.isInRoom(userId, data.getRoomId())) {
+            return data.getRoomId();
+        }
+
+        String roomId = data.getRoomId() != null ? data.getRoomId()
+                : messageRepository.findById(data.getMessageIds().getFirst())
+                        .map(Message::getRoomId).orElse(null);
+        if (roomId == null || roomId.isBlank()) {
+            return null;
+        }
+
+        Room room = roomRepository.findById(roomId).orElse(null);
+        if (room == null || !room.getParticipantIds().contains(userId)) {
+            return null;
+        }
+        return roomId;
+    }
     
     private String getUserId(SocketIOClient client) {
         var user = (SocketUser) client.get("user");
@@ -0,0 +1,179 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 최근 브로드캐스트한 메시지의 재전송 버퍼.
+ * 같은 방의 구독자는 모두 같은 메시지를 받으므로 사용자별 사본 대신 방별로 seq 순 버퍼 하나를 공유한다.
+ * 재연결한 클라이언트가 마지막으로 받은 seq를 보내면 버퍼가 (afterSeq, 최대 seq] 구간을 빈틈 없이 갖고 있을 때만
+ * 메모리에서 응답하고, 그렇지 않으면 호출자가 DB 조회로 대체한다.
+ * <ul>
+ *   <li>방별 최대 capacity개, retention이 지난 항목은 제거한다.</li>
+ *   <li>여러 노드가 같은 방에 쓰면 낮은 seq가 나중에 도착할 수 있으므로, 제거된 구간보다 위라면 순서와 무관하게 보관한다.</li>
+ *   <li>아직 도착하지 않았거나 저장에 실패해 비어 있는 seq가 구간 안에 있으면 DB로 조회한다.</li>
+ * </ul>
+ * 리액션, 읽음, 참가자 변경, AI 스트리밍 같은 메시지 외 방 이벤트는 보관하지 않고 방별 발생 횟수만 센다.
+ * 클라이언트가 마지막으로 받은 메시지 이후 이 횟수가 바뀌었으면 재전송만으로는 따라잡을 수 없으므로
+ * 방 상태 전체를 다시 불러오라고 알린다 ({@link #missedRoomEvents}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class MessageReplayBuffer {
+
+    private final int capacity;
+    private final long retentionMillis;
+
+    private final Map<String, RoomBuffer> rooms = new ConcurrentHashMap<>();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> sweepTask;
+
+    public MessageReplayBuffer(
+            TaskScheduler taskScheduler,
+            @Value("${socketio.replay.capacity:256}") int capacity,
+            @Value("${socketio.replay.retention:2m}") Duration retention) {
+        this.taskScheduler = taskScheduler;
+        this.capacity = capacity;
+        this.retentionMillis = retention.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        long period = Math.max(1_000, retentionMillis / 4);
+        sweepTask = taskScheduler.scheduleWithFixedDelay(() -> sweep(System.currentTimeMillis()),
+                Instant.now().plusMillis(period), Duration.ofMillis(period));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel(false);
+        }
+    }
+
+    public void record(String roomId, MessageResponse message) {
+        if (message.getSeq() == null) {
+            return;
+        }
+        rooms.computeIfAbsent(roomId, k -> new RoomBuffer())
+                .add(message, System.currentTimeMillis(), capacity);
+    }
+
+    /**
+     * 메시지 외 방 이벤트가 발생했음을 기록한다. 버퍼가 없는 방은 어차피 재동기화 대상이므로 기록하지 않는다.
+     */
+    public void recordRoomEvent(String roomId) {
+        RoomBuffer buffer = rooms.get(roomId);
+        if (buffer != null) {
+            buffer.markRoomEvent();
+        }
+    }
+
+    /**
+     * afterSeq 메시지를 기록한 뒤 메시지 외 방 이벤트가 있었는지 확인한다.
+     *
+     * @return 이벤트가 있었거나 afterSeq 메시지가 버퍼에 없어 알 수 없으면 true
+     */
+    public boolean missedRoomEvents(String roomId, long afterSeq) {
+        RoomBuffer buffer = rooms.get(roomId);
+        return buffer == null || buffer.roomEventsSince(afterSeq);
+    }
+
+    /**
+     * afterSeq 이후 메시지를 seq 오름차순으로 반환한다.
+     *
+     * @return 버퍼가 afterSeq 이후를 빈틈 없이 보관하고 있지 않으면 null (DB 조회 필요)
+     */
+    public List<MessageResponse> replay(String roomId, long afterSeq) {
+        RoomBuffer buffer = rooms.get(roomId);
+        if (buffer == null) {
+            return null;
+        }
+        return buffer.after(afterSeq, System.currentTimeMillis() - retentionMillis);
+    }
+
+    public void invalidateRoom(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    void sweep(long now) {
+        long expireBefore = now - retentionMillis;
+        rooms.entrySet().removeIf(entry -> entry.getValue().expire(expireBefore));
+    }
+
+    private record Entry(MessageResponse message, long recordedAt, long roomEventMark) {
+    }
+
+    private static class RoomBuffer {
+        private final TreeMap<Long, Entry> entries = new TreeMap<>();
+        // 용량/retention으로 제거한 가장 큰 seq, 이 seq 이하는 버퍼에 없다고 본다
+        private long evictedFloor = Long.MIN_VALUE;
+        // 메시지 외 방 이벤트 발생 횟수, 메시지마다 기록 시점의 값을 남긴다
+        private long roomEvents;
+
+        synchronized void add(MessageResponse message, long now, int capacity) {
+            if (message.getSeq() <= evictedFloor) {
+                return;
+            }
+            entries.put(message.getSeq(), new Entry(message, now, roomEvents));
+            while (entries.size() > capacity) {
+                evict();
+            }
+        }
+
+        synchronized List<MessageResponse> after(long afterSeq, long expireBefore) {
+            expire(expireBefore);
+            if (afterSeq < evictedFloor) {
+                return null;
+            }
+            List<MessageResponse> result = new ArrayList<>();
+            long expected = afterSeq + 1;
+            for (Map.Entry<Long, Entry> entry : entries.tailMap(afterSeq, false).entrySet()) {
+                if (entry.getKey() != expected) {
+                    return null;
+                }
+                result.add(entry.getValue().message());
+                expected++;
+            }
+            return result;
+        }
+
+        synchronized void markRoomEvent() {
+            roomEvents++;
+        }
+
+        synchronized boolean roomEventsSince(long seq) {
+            Entry entry = entries.get(seq);
+            return entry == null || entry.roomEventMark() != roomEvents;
+        }
+
+        /**
+         * @return 버퍼가 비었으면 true
+         */
+        synchronized boolean expire(long expireBefore) {
+            while (!entries.isEmpty() && entries.firstEntry().getValue().recordedAt() < expireBefore) {
+                evict();
+            }
+            return entries.isEmpty();
+        }
+
+        private void evict() {
+            evictedFloor = Math.max(evictedFloor, entries.pollFirstEntry().getKey());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.dto.CompactMessagePage;
+import com.ktb.chatapp.dto.FetchMessagesRequest;
+import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.MessageReplayResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.ReplayMessagesRequest;
+import com.ktb.chatapp.service.MessageReadStatusService;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.WireFormat;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * 재연결 후 놓친 메시지 재전송 핸들러
+ * MessageReplayBuffer가 gap 전체를 갖고 있으면 메모리에서, 아니면 afterSeq DB 조회로 응답한다.
+ * 재전송하는 것은 채팅 메시지뿐이므로, 그 사이 리액션/읽음/참가자 변경 같은 방 이벤트를 놓쳤을 수 있으면
+ * resyncRequired로 알려 클라이언트가 방 상태를 다시 불러오게 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MessageReplayHandler {
+
+    private final MessageReplayBuffer messageReplayBuffer;
+    private final MessageLoader messageLoader;
+    private final MessageReadStatusService messageReadStatusService;
+    private final UserRooms userRooms;
+
+    @OnEvent(REPLAY_MESSAGES)
+    public void handleReplay(SocketIOClient client, ReplayMessagesRequest data) {
+        SocketUser user = client.get("user");
+        if (user == null) {
+            client.sendEvent(ERROR, Map.of("message", "Unauthorized"));
+            return;
+        }
+        if (data == null || data.rooms() == null) {
+            return;
+        }
+
+        data.rooms().forEach((roomId, lastSeq) -> {
+            if (lastSeq == null || !userRooms.isInRoom(user.id(), roomId)) {
+                return;
+            }
+            try {
+                client.sendEvent(MESSAGES_REPLAYED, replay(client, user.id(), roomId, lastSeq));
+            } catch (Exception e) {
+                log.error("Error replaying messages - roomId: {}, userId: {}", roomId, user.id(), e);
+                client.sendEvent(ERROR, Map.of(
+                        "code", "REPLAY_ERROR",
+                        "message", "놓친 메시지를 불러오는 중 오류가 발생했습니다."
+                ));
+            }
+        });
+    }
+
+    private MessageReplayResponse replay(SocketIOClient client, String userId, String roomId, long lastSeq) {
+        List<MessageResponse> buffered = messageReplayBuffer.replay(roomId, lastSeq);
+        FetchMessagesResponse page;
+        String source;
+        if (buffered != null) {
+            page = new FetchMessagesResponse(buffered, false);
+            source = MessageReplayResponse.MEMORY;
+            messageReadStatusService.markAsRead(roomId,
+                    buffered.stream().map(MessageResponse::getId).toList(), userId);
+        } else {
+            page = messageLoader.loadMessages(new FetchMessagesRequest(roomId, null, null, lastSeq), userId);
+            source = MessageReplayResponse.DATABASE;
+        }
+        log.debug("Messages replayed - roomId: {}, afterSeq: {}, count: {}, source: {}",
+                roomId, lastSeq, page.getMessages().size(), source);
+
+        var response = MessageReplayResponse.builder()
+                .roomId(roomId)
+                .source(source)
+                .hasMore(page.isHasMore())
+                .resyncRequired(messageReplayBuffer.missedRoomEvents(roomId, lastSeq));
+        if (WireFormat.isCompact(client)) {
+            CompactMessagePage compact = CompactMessagePage.from(page, userId);
+            return response.messages(compact.getMessages()).senders(compact.getSenders()).build();
+        }
+        return response.messages(page.getMessages()).build();
+    }
+}
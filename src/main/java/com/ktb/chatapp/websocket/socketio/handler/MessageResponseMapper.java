@@ -37,11 +37,13 @@ public class MessageResponseMapper {
                 .content(message.getContent())
                 .type(message.getType())
                 .timestamp(message.toTimestampMillis())
+                .seq(message.getSeq())
                 .roomId(message.getRoomId())
                 .reactions(message.getReactions() != null ?
                         message.getReactions() : new HashMap<>())
                 .readers(message.getReaders() != null ?
-                        message.getReaders() : new ArrayList<>());
+                        message.getReaders() : new ArrayList<>())
+                .readCount(message.getReadCount());
 
         // 발신자 정보 설정
         if (sender != null) {
@@ -0,0 +1,189 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.ParticipantPageResponse;
+import com.ktb.chatapp.dto.ParticipantsDiffResponse;
+import com.ktb.chatapp.event.ParticipantsChangedEvent;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 참가자 변경 diff 모음 전송기.
+ * 입장/퇴장마다 방 전체 참가자를 다시 조회해 전체 목록을 보내지 않고, window 동안 방별 변경을 버전 순으로 모아
+ * (fromVersion, version, added, removed) diff 하나로 보낸다.
+ * <ul>
+ *   <li>같은 window 안의 입장 후 퇴장, 퇴장 후 재입장은 서로 상쇄된다.</li>
+ *   <li>버전이 연속된 구간만 하나의 diff로 합친다. 다른 노드의 변경처럼 중간 버전이 빠지면 diff를 나누고,
+ *       클라이언트는 버전 차이를 보고 참가자 목록을 다시 조회한다.</li>
+ *   <li>추가된 사용자는 diff마다 한 번의 $in 조회로 해석한다.</li>
+ *   <li>일반 모드 방의 LEGACY 클라이언트에는 diff 대신 기존 participantsUpdate 전체 목록을 window당 한 번 보낸다.</li>
+ * </ul>
+ * change stream 모드에서는 로컬 이벤트 대신 ChangeStreamFanout이 모든 노드의 변경을 record로 넘긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class ParticipantDiffAggregator {
+
+    private final RoomParticipantService roomParticipantService;
+    private final MessageBroadcaster messageBroadcaster;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final FanoutSettings fanoutSettings;
+    private final long windowMillis;
+
+    // roomId -> version -> change
+    private Map<String, TreeMap<Long, Change>> pending = new HashMap<>();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> flushTask;
+
+    public ParticipantDiffAggregator(
+            RoomParticipantService roomParticipantService,
+            MessageBroadcaster messageBroadcaster,
+            LargeRoomPolicy largeRoomPolicy,
+            FanoutSettings fanoutSettings,
+            TaskScheduler taskScheduler,
+            @Value("${socketio.participants.coalesce-window:200ms}") Duration window) {
+        this.taskScheduler = taskScheduler;
+        this.roomParticipantService = roomParticipantService;
+        this.messageBroadcaster = messageBroadcaster;
+        this.largeRoomPolicy = largeRoomPolicy;
+        this.fanoutSettings = fanoutSettings;
+        this.windowMillis = window.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushSafely,
+                Instant.now().plusMillis(windowMillis), Duration.ofMillis(windowMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushSafely();
+    }
+
+    @EventListener
+    public void onParticipantsChanged(ParticipantsChangedEvent event) {
+        // change stream 모드에서는 같은 변경을 change stream이 다시 전달한다
+        if (fanoutSettings.isChangeStreamEnabled()) {
+            return;
+        }
+        record(event.getRoomId(), event.getUserId(), event.isJoined(), event.getVersion(), event.getParticipantCount());
+    }
+
+    /**
+     * 참가자 변경을 다음 tick에 보내도록 등록한다. 같은 버전이 다시 들어오면(at-least-once 재전달) 무시한다.
+     */
+    public synchronized void record(String roomId, String userId, boolean joined, long version, int participantCount) {
+        pending.computeIfAbsent(roomId, k -> new TreeMap<>())
+                .putIfAbsent(version, new Change(userId, joined, participantCount));
+    }
+
+    void flush() {
+        Map<String, TreeMap<Long, Change>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        batch.forEach((roomId, changes) -> {
+            for (Diff diff : coalesce(changes)) {
+                try {
+                    publish(roomId, diff);
+                } catch (Exception e) {
+                    log.error("Participant diff broadcast failed - roomId: {}, version: {}", roomId, diff.version, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 버전이 연속된 변경끼리 묶어 순 변경(diff)으로 합친다.
+     */
+    static List<Diff> coalesce(SortedMap<Long, Change> changes) {
+        List<Diff> diffs = new ArrayList<>();
+        Diff current = null;
+        for (Map.Entry<Long, Change> entry : changes.entrySet()) {
+            long version = entry.getKey();
+            if (current == null || version != current.version + 1) {
+                current = new Diff(version - 1);
+                diffs.add(current);
+            }
+            current.apply(version, entry.getValue());
+        }
+        return diffs;
+    }
+
+    private void publish(String roomId, Diff diff) {
+        boolean largeRoom = largeRoomPolicy.update(roomId, diff.participantCount);
+        ParticipantsDiffResponse response = new ParticipantsDiffResponse(roomId,
+                diff.fromVersion, diff.version, diff.participantCount,
+                roomParticipantService.resolve(List.copyOf(diff.added)), List.copyOf(diff.removed));
+        log.debug("Participant diff - roomId: {}, version: {} -> {}, added: {}, removed: {}",
+                roomId, diff.fromVersion, diff.version, diff.added.size(), diff.removed.size());
+        messageBroadcaster.broadcastParticipantsDiff(response, largeRoom ? null
+                : () -> roomParticipantService.page(roomId, 0, Integer.MAX_VALUE)
+                        .map(ParticipantPageResponse::getParticipants)
+                        .orElse(List.of()));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Participant diff flush failed", e);
+        }
+    }
+
+    record Change(String userId, boolean joined, int participantCount) {
+    }
+
+    static final class Diff {
+        final long fromVersion;
+        long version;
+        int participantCount;
+        final LinkedHashSet<String> added = new LinkedHashSet<>();
+        final LinkedHashSet<String> removed = new LinkedHashSet<>();
+
+        Diff(long fromVersion) {
+            this.fromVersion = fromVersion;
+            this.version = fromVersion;
+        }
+
+        void apply(long version, Change change) {
+            this.version = version;
+            this.participantCount = change.participantCount();
+            if (change.joined()) {
+                if (!removed.remove(change.userId())) {
+                    added.add(change.userId());
+                }
+            } else if (!added.remove(change.userId())) {
+                removed.add(change.userId());
+            }
+        }
+    }
+}
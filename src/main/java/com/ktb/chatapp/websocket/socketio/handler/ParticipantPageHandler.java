@@ -0,0 +1,59 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.dto.FetchParticipantsRequest;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * 참가자 목록 페이지 조회 핸들러
+ * 대형 방은 joinRoomSuccess에 첫 페이지만 담기므로 나머지는 스크롤 시 이 이벤트로 가져간다.
+ * limit은 page-size를 넘지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ParticipantPageHandler {
+
+    private final RoomParticipantService roomParticipantService;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final UserRooms userRooms;
+
+    @OnEvent(FETCH_PARTICIPANTS)
+    public void handleFetchParticipants(SocketIOClient client, FetchParticipantsRequest data) {
+        SocketUser user = client.get("user");
+        if (user == null) {
+            client.sendEvent(ERROR, Map.of("message", "Unauthorized"));
+            return;
+        }
+        if (data == null || data.roomId() == null || !userRooms.isInRoom(user.id(), data.roomId())) {
+            client.sendEvent(ERROR, Map.of(
+                    "code", "PARTICIPANTS_ERROR",
+                    "message", "채팅방 접근 권한이 없습니다."
+            ));
+            return;
+        }
+
+        try {
+            roomParticipantService.page(data.roomId(), data.offsetOrZero(), data.limit(largeRoomPolicy.getPageSize()))
+                    .ifPresent(page -> client.sendEvent(PARTICIPANTS_PAGE, page));
+        } catch (Exception e) {
+            log.error("Error fetching participants - roomId: {}, userId: {}", data.roomId(), user.id(), e);
+            client.sendEvent(ERROR, Map.of(
+                    "code", "PARTICIPANTS_ERROR",
+                    "message", "참가자 목록을 불러오는 중 오류가 발생했습니다."
+            ));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessagesReadResponse;
+import com.ktb.chatapp.event.MessagesReadEvent;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.ReadCountService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 읽음 처리 모음 전송기.
+ * 스크롤 중인 클라이언트는 markMessagesAsRead를 연속으로 보내므로 요청을 바로 반영하지 않고
+ * flush 주기 동안 (방, 사용자)별로 메시지 ID를 모은 뒤 사용자당 한 번의 업데이트로 저장한다.
+ * MESSAGES_READ는 tick마다 방별로 한 번만 브로드캐스트한다.
+ * COMPACT 클라이언트는 방별 묶음 하나를 받고, LEGACY 클라이언트는 프로토콜상 사용자별 이벤트를 받으므로
+ * 같은 사용자의 연속 요청이 tick당 이벤트 하나로 합쳐지는 만큼만 줄어든다. 방 단위로 더 줄여야 하는 대형 방은
+ * LargeRoomPolicy의 읽은 사람 수 모드가 처리한다.
+ * 모인 메시지 ID가 max-pending을 넘으면 tick을 기다리지 않고 바로 flush해 메모리를 제한한다.
+ * 대형 방은 readers 대신 읽은 사람 수만 기록하고, 바뀐 메시지의 수를 MESSAGES_READ_COUNT로 보낸다.
+ * 읽음 상태가 바뀐 메시지는 방별로 MessagesReadEvent 하나로 알려 캐시된 과거 메시지 페이지를 무효화한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadReceiptAggregator {
+
+    private final MessageRepository messageRepository;
+    private final MessageBroadcaster messageBroadcaster;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final ReadCountService readCountService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long flushIntervalMillis;
+    private final int maxPending;
+
+    // roomId -> userId -> messageIds
+    private Map<String, Map<String, Set<String>>> pending = new HashMap<>();
+    private int pendingIds;
+    private boolean earlyFlushScheduled;
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> flushTask;
+
+    public ReadReceiptAggregator(
+            MessageRepository messageRepository,
+            MessageBroadcaster messageBroadcaster,
+            LargeRoomPolicy largeRoomPolicy,
+            ReadCountService readCountService,
+            ApplicationEventPublisher eventPublisher,
+            TaskScheduler taskScheduler,
+            @Value("${socketio.read-receipt.flush-interval:200ms}") Duration flushInterval,
+            @Value("${socketio.read-receipt.max-pending:50000}") int maxPending) {
+        this.taskScheduler = taskScheduler;
+        this.messageRepository = messageRepository;
+        this.messageBroadcaster = messageBroadcaster;
+        this.largeRoomPolicy = largeRoomPolicy;
+        this.readCountService = readCountService;
+        this.eventPublisher = eventPublisher;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.maxPending = maxPending;
+    }
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushSafely,
+                Instant.now().plusMillis(flushIntervalMillis), Duration.ofMillis(flushIntervalMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushSafely();
+    }
+
+    /**
+     * 읽음 처리를 다음 tick에 반영하도록 등록한다.
+     */
+    public synchronized void enqueue(String roomId, String userId, List<String> messageIds) {
+        Set<String> ids = pending.computeIfAbsent(roomId, k -> new HashMap<>())
+                .computeIfAbsent(userId, k -> new LinkedHashSet<>());
+        int before = ids.size();
+        ids.addAll(messageIds);
+        pendingIds += ids.size() - before;
+
+        if (pendingIds >= maxPending && !earlyFlushScheduled) {
+            earlyFlushScheduled = true;
+            log.debug("Read receipt pending limit reached - {} ids, flushing early", pendingIds);
+            try {
+                taskScheduler.schedule(this::flushSafely, Instant.now());
+            } catch (TaskRejectedException e) {
+                // 종료 중이면 @PreDestroy의 마지막 flush가 처리한다
+                earlyFlushScheduled = false;
+            }
+        }
+    }
+
+    void flush() {
+        Map<String, Map<String, Set<String>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            pendingIds = 0;
+            earlyFlushScheduled = false;
+        }
+
+        LocalDateTime readAt = LocalDateTime.now();
+        batch.forEach((roomId, readsByUser) -> {
+            if (largeRoomPolicy.isLarge(roomId)) {
+                flushCounts(roomId, readsByUser);
+                return;
+            }
+            List<MessagesReadResponse> reads = new ArrayList<>(readsByUser.size());
+            Set<String> changed = new LinkedHashSet<>();
+            Set<String> counted = new LinkedHashSet<>();
+            readsByUser.forEach((userId, messageIds) -> {
+                List<String> ids = List.copyOf(messageIds);
+                try {
+                    long modified = messageRepository.addReaderToMessages(ids, roomId, userId,
+                            Message.MessageReader.builder().userId(userId).readAt(readAt).build());
+                    if (modified > 0) {
+                        reads.add(new MessagesReadResponse(userId, ids));
+                        changed.addAll(ids);
+                    }
+                    // 대형 방 모드에서 readCount로 세던 메시지는 readers에 넣지 않고 계속 센다
+                    if (modified < ids.size()) {
+                        counted.addAll(readCountService.recordCountedReads(roomId, userId, ids));
+                    }
+                } catch (Exception e) {
+                    log.error("Read receipt update failed - roomId: {}, userId: {}", roomId, userId, e);
+                }
+            });
+            if (!reads.isEmpty()) {
+                log.debug("Read receipts flushed - roomId: {}, users: {}", roomId, reads.size());
+                messageBroadcaster.broadcastReads(roomId, reads);
+            }
+            if (!counted.isEmpty()) {
+                messageBroadcaster.broadcastReadCounts(roomId, readCountService.readerCounts(counted));
+            }
+            changed.addAll(counted);
+            publishRead(roomId, changed);
+        });
+    }
+
+    private void flushCounts(String roomId, Map<String, Set<String>> readsByUser) {
+        Set<String> counted = new LinkedHashSet<>();
+        readsByUser.forEach((userId, messageIds) -> {
+            try {
+                counted.addAll(readCountService.recordReads(roomId, userId, messageIds));
+            } catch (Exception e) {
+                log.error("Read count update failed - roomId: {}, userId: {}", roomId, userId, e);
+            }
+        });
+        if (!counted.isEmpty()) {
+            log.debug("Read counts flushed - roomId: {}, users: {}, messages: {}",
+                    roomId, readsByUser.size(), counted.size());
+            messageBroadcaster.broadcastReadCounts(roomId, readCountService.readerCounts(counted));
+        }
+        publishRead(roomId, counted);
+    }
+
+    private void publishRead(String roomId, Set<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            eventPublisher.publishEvent(new MessagesReadEvent(this, roomId, messageIds));
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Read receipt flush failed", e);
+        }
+    }
+}
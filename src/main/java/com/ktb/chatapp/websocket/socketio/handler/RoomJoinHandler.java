@@ -1,21 +1,23 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.dto.CompactJoinRoomSuccessResponse;
 import com.ktb.chatapp.dto.FetchMessagesRequest;
 import com.ktb.chatapp.dto.FetchMessagesResponse;
 import com.ktb.chatapp.dto.JoinRoomSuccessResponse;
+import com.ktb.chatapp.dto.ParticipantPageResponse;
+import com.ktb.chatapp.dto.PresenceDiffResponse;
 import com.ktb.chatapp.dto.UserResponse;
-import com.ktb.chatapp.model.Message;
-import com.ktb.chatapp.model.MessageType;
-import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.RoomRepository;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.UserRooms;
-import java.time.LocalDateTime;
+import com.ktb.chatapp.websocket.socketio.affinity.RoomRelay;
+import com.ktb.chatapp.websocket.socketio.WireFormat;
+import com.ktb.chatapp.websocket.socketio.presence.PresenceService;
 import java.util.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +29,8 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 /**
  * 방 입장 처리 핸들러
  * 채팅방 입장, 참가자 관리, 초기 메시지 로드 담당
+ * 참가자 목록은 방 문서를 다시 읽지 않고 한 번의 $slice/$in 조회로 만들며, 대형 방은 첫 페이지만 응답한다.
+ * 다른 참가자에게는 ParticipantDiffAggregator가 버전이 붙은 diff로 알린다.
  */
 @Slf4j
 @Component
@@ -34,14 +38,16 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class RoomJoinHandler {
 
-    private final SocketIOServer socketIOServer;
-    private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final UserRooms userRooms;
     private final MessageLoader messageLoader;
-    private final MessageResponseMapper messageResponseMapper;
     private final RoomLeaveHandler roomLeaveHandler;
+    private final SystemEventAggregator systemEventAggregator;
+    private final PresenceService presenceService;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final RoomParticipantService roomParticipantService;
+    private final RoomRelay roomRelay;
     
     @OnEvent(JOIN_ROOM)
     public void handleJoinRoom(SocketIOClient client, String roomId) {
@@ -54,12 +60,12 @@ public class RoomJoinHandler {
                 return;
             }
             
-            if (userRepository.findById(userId).isEmpty()) {
+            if (!userRepository.existsById(userId)) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "User not found"));
                 return;
             }
             
-            if (roomRepository.findById(roomId).isEmpty()) {
+            if (!roomRepository.existsById(roomId)) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "채팅방을 찾을 수 없습니다."));
                 return;
             }
@@ -72,64 +78,51 @@ public class RoomJoinHandler {
                 return;
             }
 
-            // MongoDB의 $addToSet 연산자를 사용한 원자적 업데이트
-            roomRepository.addParticipant(roomId, userId);
+            // 실제로 추가된 경우에만 participantsVersion이 오르고, 다른 참가자에게는 ParticipantDiffAggregator가 diff로 알린다
+            roomParticipantService.add(roomId, userId);
 
             // Join socket room and add to user's room set
             client.joinRoom(roomId);
             userRooms.add(userId, roomId);
+            roomRelay.follow(List.of(roomId));
 
-            Message joinMessage = Message.builder()
-                .roomId(roomId)
-                .content(userName + "님이 입장하였습니다.")
-                .type(MessageType.system)
-                .timestamp(LocalDateTime.now())
-                .mentions(new ArrayList<>())
-                .isDeleted(false)
-                .reactions(new HashMap<>())
-                .readers(new ArrayList<>())
-                .metadata(new HashMap<>())
-                .build();
-
-            joinMessage = messageRepository.save(joinMessage);
+            // 입장 메시지는 방별로 모아서 저장/브로드캐스트한다
+            systemEventAggregator.joined(roomId, userId, userName);
 
             // 초기 메시지 로드
             FetchMessagesRequest req = new FetchMessagesRequest(roomId, 30, null);
             FetchMessagesResponse messageLoadResult = messageLoader.loadMessages(req, userId);
 
-            // 업데이트된 room 다시 조회하여 최신 participantIds 가져오기
-            Optional<Room> roomOpt = roomRepository.findById(roomId);
-            if (roomOpt.isEmpty()) {
+            // 참가자 정보 조회, 대형 방은 첫 페이지만 보내고 나머지는 fetchParticipants로 조회한다
+            int pageSize = largeRoomPolicy.getPageSize();
+            Optional<ParticipantPageResponse> pageOpt = roomParticipantService.page(roomId, 0,
+                    largeRoomPolicy.isLarge(roomId) ? pageSize : Integer.MAX_VALUE);
+            if (pageOpt.isEmpty()) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "채팅방을 찾을 수 없습니다."));
                 return;
             }
-
-            // 참가자 정보 조회
-            List<UserResponse> participants = roomOpt.get().getParticipantIds()
-                    .stream()
-                    .map(userRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .map(UserResponse::from)
-                    .toList();
+            ParticipantPageResponse page = pageOpt.get();
+            boolean largeRoom = largeRoomPolicy.update(roomId, page.getTotal());
+            List<UserResponse> participants = largeRoom && page.getParticipants().size() > pageSize
+                    ? page.getParticipants().subList(0, pageSize)
+                    : page.getParticipants();
             
             JoinRoomSuccessResponse response = JoinRoomSuccessResponse.builder()
                 .roomId(roomId)
                 .participants(participants)
+                .participantCount(page.getTotal())
+                .participantsVersion(page.getVersion())
+                .largeRoom(largeRoom)
                 .messages(messageLoadResult.getMessages())
                 .hasMore(messageLoadResult.isHasMore())
                 .activeStreams(Collections.emptyList())
                 .build();
 
-            client.sendEvent(JOIN_ROOM_SUCCESS, response);
-
-            // 입장 메시지 브로드캐스트
-            socketIOServer.getRoomOperations(roomId)
-                .sendEvent(MESSAGE, messageResponseMapper.mapToMessageResponse(joinMessage, null));
-
-            // 참가자 목록 업데이트 브로드캐스트
-            socketIOServer.getRoomOperations(roomId)
-                .sendEvent(PARTICIPANTS_UPDATE, participants);
+            client.sendEvent(JOIN_ROOM_SUCCESS, WireFormat.isCompact(client)
+                    ? CompactJoinRoomSuccessResponse.from(response, userId)
+                    : response);
+            client.sendEvent(PRESENCE_UPDATE, new PresenceDiffResponse(roomId,
+                    presenceService.onlineAmong(participants.stream().map(UserResponse::getId).toList()), List.of()));
 
             log.info("User {} joined room {} successfully. Message count: {}, hasMore: {}",
                 userName, roomId, messageLoadResult.getMessages().size(), messageLoadResult.isHasMore());
@@ -1,23 +1,22 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
-import com.ktb.chatapp.dto.MessageResponse;
-import com.ktb.chatapp.dto.UserResponse;
-import com.ktb.chatapp.model.Message;
-import com.ktb.chatapp.model.MessageType;
 import com.ktb.chatapp.model.Room;
 import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.RoomRepository;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
+import com.ktb.chatapp.service.MessageSequenceService;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.affinity.RoomOwnership;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +29,7 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 /**
  * 방 퇴장 처리 핸들러
  * 채팅방 퇴장, 스트리밍 세션 종료, 참가자 목록 업데이트 담당
+ * 참가자 목록 변경은 ParticipantDiffAggregator가 버전이 붙은 diff로 알린다.
  */
 @Slf4j
 @Component
@@ -37,12 +37,19 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class RoomLeaveHandler {
 
-    private final SocketIOServer socketIOServer;
+    private final OutboundDispatcher outboundDispatcher;
     private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final UserRooms userRooms;
-    private final MessageResponseMapper messageResponseMapper;
+    private final FanoutSettings fanoutSettings;
+    private final MessageSequenceService messageSequenceService;
+    private final HistoryPageCache historyPageCache;
+    private final MessageReplayBuffer messageReplayBuffer;
+    private final SystemEventAggregator systemEventAggregator;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final RoomParticipantService roomParticipantService;
+    private final Optional<RoomOwnership> roomOwnership;
     
     @OnEvent(LEAVE_ROOM)
     public void handleLeaveRoom(SocketIOClient client, String roomId) {
@@ -68,7 +75,7 @@ public class RoomLeaveHandler {
                 return;
             }
             
-            roomRepository.removeParticipant(roomId, userId);
+            roomParticipantService.remove(roomId, userId);
             
             client.leaveRoom(roomId);
             userRooms.remove(userId, roomId);
@@ -77,13 +84,11 @@ public class RoomLeaveHandler {
             
             log.debug("Leave room cleanup - roomId: {}, userId: {}", roomId, userId);
             
-            sendSystemMessage(roomId, userName + "님이 퇴장하였습니다.");
-            broadcastParticipantList(roomId);
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(USER_LEFT, Map.of(
-                            "userId", userId,
-                            "userName", userName
-                    ));
+            systemEventAggregator.left(roomId, userId, userName);
+            outboundDispatcher.sendToRoom(roomId, OutboundEvent.reliable(USER_LEFT, Map.of(
+                    "userId", userId,
+                    "userName", userName
+            )));
             
             cleanupEmptyRoom(roomId);
             
@@ -103,8 +108,15 @@ public class RoomLeaveHandler {
                             log.info("Room {} is now empty, deleting room", r.getId());
                             roomRepository.deleteById(r.getId());
                             messageRepository.deleteByRoomId(r.getId());
-                            socketIOServer.getRoomOperations("room-list")
-                                    .sendEvent(ROOM_DELETED, r.getId());
+                            messageSequenceService.release(r.getId());
+                            historyPageCache.invalidateRoom(r.getId());
+                            messageReplayBuffer.invalidateRoom(r.getId());
+                            largeRoomPolicy.forget(r.getId());
+                            roomOwnership.ifPresent(ownership -> ownership.forget(r.getId()));
+                            if (!fanoutSettings.isChangeStreamEnabled()) {
+                                outboundDispatcher.sendToRoom("room-list",
+                                        OutboundEvent.reliable(ROOM_DELETED, r.getId()));
+                            }
                         });
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -113,53 +125,6 @@ public class RoomLeaveHandler {
         }).start();
     }
     
-    private void sendSystemMessage(String roomId, String content) {
-        try {
-            Message systemMessage = new Message();
-            systemMessage.setRoomId(roomId);
-            systemMessage.setContent(content);
-            systemMessage.setType(MessageType.system);
-            systemMessage.setTimestamp(LocalDateTime.now());
-            systemMessage.setMentions(new ArrayList<>());
-            systemMessage.setIsDeleted(false);
-            systemMessage.setReactions(new HashMap<>());
-            systemMessage.setReaders(new ArrayList<>());
-            systemMessage.setMetadata(new HashMap<>());
-
-            Message savedMessage = messageRepository.save(systemMessage);
-            MessageResponse response = messageResponseMapper.mapToMessageResponse(savedMessage, null);
-
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGE, response);
-
-        } catch (Exception e) {
-            log.error("Error sending system message", e);
-        }
-    }
-    
-    private void broadcastParticipantList(String roomId) {
-        Optional<Room> roomOpt = roomRepository.findById(roomId);
-        if (roomOpt.isEmpty()) {
-            return;
-        }
-        
-        var participantList = roomOpt.get()
-                .getParticipantIds()
-                .stream()
-                .map(userRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(UserResponse::from)
-                .toList();
-        
-        if (participantList.isEmpty()) {
-            return;
-        }
-        
-        socketIOServer.getRoomOperations(roomId)
-                .sendEvent(PARTICIPANTS_UPDATE, participantList);
-    }
-
     private SocketUser getUserDto(SocketIOClient client) {
         return client.get("user");
     }
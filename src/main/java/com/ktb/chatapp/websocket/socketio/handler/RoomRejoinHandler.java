@@ -0,0 +1,110 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.ktb.chatapp.dto.RoomBootstrapResponse;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.model.RoomMessageSummary;
+import com.ktb.chatapp.repository.RoomRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.ReadCountService;
+import com.ktb.chatapp.service.RoomSummaryService;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.presence.PresenceService;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * 재연결 시 기존 참여 방 일괄 재입장 처리.
+ * 방마다 joinRoom 전체 흐름(메시지 로드, 참가자 조회, 브로드캐스트)을 반복하지 않고
+ * rooms 1회, messages 1회 조회로 소켓 방을 다시 구독하고 방별 요약을 한 번에 보낸다.
+ * 요약은 방마다 최근 메시지 일부만 읽으므로 안 읽은 수는 RoomSummaryService의 unread-cap이 상한이다.
+ * 클라이언트는 요약을 보고 필요한 방만 fetchPreviousMessages(afterSeq)로 동기화한다.
+ * 대형 방은 readers가 없으므로 안 읽은 수를 읽음 커서로 계산하고, 온라인 목록은 보내지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RoomRejoinHandler {
+
+    private final RoomRepository roomRepository;
+    private final RoomSummaryService roomSummaryService;
+    private final UserRooms userRooms;
+    private final PresenceService presenceService;
+    private final LargeRoomPolicy largeRoomPolicy;
+    private final ReadCountService readCountService;
+
+    /**
+     * @return 재입장한 방 ID, 최근 메시지가 있는 방부터 (메시지가 없는 방은 뒤)
+     */
+    public List<String> rejoin(SocketIOClient client, String userId) {
+        Set<String> roomIds = userRooms.get(userId);
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
+
+        // 삭제되었거나 더 이상 참가자가 아닌 방은 재입장 대상에서 제외
+        List<Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .filter(room -> room.getParticipantIds().contains(userId))
+                .toList();
+        Set<String> staleRoomIds = new HashSet<>(roomIds);
+        rooms.forEach(room -> staleRoomIds.remove(room.getId()));
+        staleRoomIds.forEach(roomId -> userRooms.remove(userId, roomId));
+
+        if (rooms.isEmpty()) {
+            return List.of();
+        }
+
+        client.joinRooms(rooms.stream().map(Room::getId).collect(Collectors.toSet()));
+
+        Map<String, RoomMessageSummary> summaries = roomSummaryService
+                .summarize(rooms.stream().map(Room::getId).toList(), userId)
+                .stream()
+                .collect(Collectors.toMap(RoomMessageSummary::roomId, Function.identity()));
+
+        List<RoomBootstrapResponse> bootstrap = rooms.stream()
+                .map(room -> toResponse(room, summaries.get(room.getId()), userId))
+                .toList();
+
+        client.sendEvent(ROOMS_BOOTSTRAP, Map.of("rooms", bootstrap));
+
+        log.debug("Rejoined {} rooms for user {} ({} stale)", rooms.size(), userId, staleRoomIds.size());
+
+        return bootstrap.stream()
+                .sorted(Comparator.comparing(RoomBootstrapResponse::getLatestTimestamp,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(RoomBootstrapResponse::getRoomId)
+                .toList();
+    }
+
+    private RoomBootstrapResponse toResponse(Room room, RoomMessageSummary summary, String userId) {
+        boolean largeRoom = largeRoomPolicy.update(room.getId(), room.getParticipantCount());
+        long unreadCount = largeRoom
+                ? readCountService.unreadCount(room.getId(), userId, roomSummaryService.getUnreadCap())
+                : summary != null ? summary.unreadCount() : 0;
+        return RoomBootstrapResponse.builder()
+                .roomId(room.getId())
+                .latestSeq(summary != null ? summary.latestSeq() : null)
+                .latestTimestamp(summary != null && summary.latestTimestamp() != null
+                        ? summary.latestTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : null)
+                .unreadCount(unreadCount)
+                .participantsVersion(room.getParticipantsVersion())
+                .participantCount(room.getParticipantCount())
+                .onlineUserIds(largeRoom ? null : presenceService.onlineAmong(room.getParticipantIds()))
+                .largeRoom(largeRoom)
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 입장/퇴장 시스템 메시지 모음 전송기.
+ * 이벤트마다 메시지를 저장하지 않고 window 동안 방별로 모아 "A, B님 외 N명이 입장하였습니다." 형태의
+ * 메시지 하나로 저장하고 브로드캐스트한다.
+ * <ul>
+ *   <li>같은 window 안의 퇴장 후 재입장(재연결)과 입장 후 퇴장은 서로 상쇄되어 메시지를 남기지 않는다.</li>
+ *   <li>퇴장은 최소 window 만큼 보류했다가 전송하여 재연결로 인한 퇴장/입장 쌍을 걸러낸다.</li>
+ *   <li>입장/퇴장한 사용자 ID는 metadata(joined, left)에 담긴다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class SystemEventAggregator {
+
+    static final int MAX_NAMES = 3;
+
+    private final MessageRepository messageRepository;
+    private final MessageResponseMapper messageResponseMapper;
+    private final MessageBroadcaster messageBroadcaster;
+    private final FanoutSettings fanoutSettings;
+    private final long windowMillis;
+
+    private final Map<String, RoomEvents> pending = new HashMap<>();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> flushTask;
+
+    public SystemEventAggregator(
+            MessageRepository messageRepository,
+            MessageResponseMapper messageResponseMapper,
+            MessageBroadcaster messageBroadcaster,
+            FanoutSettings fanoutSettings,
+            TaskScheduler taskScheduler,
+            @Value("${socketio.system-message.window:3s}") Duration window) {
+        this.taskScheduler = taskScheduler;
+        this.messageRepository = messageRepository;
+        this.messageResponseMapper = messageResponseMapper;
+        this.messageBroadcaster = messageBroadcaster;
+        this.fanoutSettings = fanoutSettings;
+        this.windowMillis = window.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(() -> flushSafely(System.currentTimeMillis()),
+                Instant.now().plusMillis(windowMillis), Duration.ofMillis(windowMillis));
+    }
+
+    /**
+     * 종료 시에는 window가 지나지 않은 입장/퇴장도 모두 전송한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushSafely(Long.MAX_VALUE);
+    }
+
+    public synchronized void joined(String roomId, String userId, String userName) {
+        RoomEvents events = pending.computeIfAbsent(roomId, k -> new RoomEvents());
+        // 보류 중인 퇴장이 있으면 재연결로 보고 둘 다 버린다
+        if (events.left.remove(userId) == null) {
+            events.joined.putIfAbsent(userId, new Entry(userName, System.currentTimeMillis()));
+        }
+    }
+
+    public synchronized void left(String roomId, String userId, String userName) {
+        RoomEvents events = pending.computeIfAbsent(roomId, k -> new RoomEvents());
+        if (events.joined.remove(userId) == null) {
+            events.left.putIfAbsent(userId, new Entry(userName, System.currentTimeMillis()));
+        }
+    }
+
+    void flush(long now) {
+        Map<String, Summary> ready = new LinkedHashMap<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, RoomEvents>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, RoomEvents> room = iterator.next();
+                Summary summary = room.getValue().drain(now - windowMillis);
+                if (!summary.isEmpty()) {
+                    ready.put(room.getKey(), summary);
+                }
+                if (room.getValue().isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        ready.forEach(this::publish);
+    }
+
+    private void publish(String roomId, Summary summary) {
+        try {
+            List<String> parts = new ArrayList<>(2);
+            if (!summary.joined().isEmpty()) {
+                parts.add(describe(summary.joined()) + "이 입장하였습니다.");
+            }
+            if (!summary.left().isEmpty()) {
+                parts.add(describe(summary.left()) + "이 퇴장하였습니다.");
+            }
+
+            // 빈 reactions/readers는 저장하지 않는다
+            Message message = Message.builder()
+                    .roomId(roomId)
+                    .content(String.join(" ", parts))
+                    .type(MessageType.system)
+                    .timestamp(LocalDateTime.now())
+                    .mentions(null)
+                    .reactions(null)
+                    .readers(null)
+                    .metadata(Map.of(
+                            "joined", summary.joined().keySet().stream().toList(),
+                            "left", summary.left().keySet().stream().toList()))
+                    .isDeleted(false)
+                    .build();
+            Message saved = messageRepository.save(message);
+
+            // change stream 모드에서는 저장된 메시지를 change stream이 전달한다
+            if (!fanoutSettings.isChangeStreamEnabled()) {
+                messageBroadcaster.broadcastMessage(roomId, messageResponseMapper.mapToMessageResponse(saved, null));
+            }
+        } catch (Exception e) {
+            log.error("Error sending system message - roomId: {}", roomId, e);
+        }
+    }
+
+    /**
+     * "A님", "A, B님", "A, B, C님 외 N명"
+     */
+    static String describe(Map<String, String> names) {
+        List<String> shown = names.values().stream().limit(MAX_NAMES).toList();
+        String text = String.join(", ", shown) + "님";
+        int others = names.size() - shown.size();
+        return others > 0 ? text + " 외 " + others + "명" : text;
+    }
+
+    private void flushSafely(long now) {
+        try {
+            flush(now);
+        } catch (Exception e) {
+            log.error("System message flush failed", e);
+        }
+    }
+
+    private record Entry(String userName, long at) {
+    }
+
+    /**
+     * @param joined userId -> userName
+     * @param left userId -> userName
+     */
+    private record Summary(Map<String, String> joined, Map<String, String> left) {
+        boolean isEmpty() {
+            return joined.isEmpty() && left.isEmpty();
+        }
+    }
+
+    private static class RoomEvents {
+        private final LinkedHashMap<String, Entry> joined = new LinkedHashMap<>();
+        private final LinkedHashMap<String, Entry> left = new LinkedHashMap<>();
+
+        /**
+         * 입장은 모두, 퇴장은 leftBefore 이전에 발생한 것만 꺼낸다.
+         */
+        Summary drain(long leftBefore) {
+            Map<String, String> joinedNames = new LinkedHashMap<>();
+            joined.forEach((userId, entry) -> joinedNames.put(userId, entry.userName()));
+            joined.clear();
+
+            Map<String, String> leftNames = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, Entry>> iterator = left.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+                if (entry.getValue().at() <= leftBefore) {
+                    leftNames.put(entry.getKey(), entry.getValue().userName());
+                    iterator.remove();
+                }
+            }
+            return new Summary(joinedNames, leftNames);
+        }
+
+        boolean isEmpty() {
+            return joined.isEmpty() && left.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.ktb.chatapp.websocket.socketio.ordinal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자/방 ID를 0부터 시작하는 int ordinal로 바꿔 주는 intern 테이블.
+ * <ul>
+ *   <li>ObjectId 형식(소문자 hex 24자) ID는 문자열 대신 long + int 12바이트로 담고,
+ *       그 밖의 ID만 문자열 그대로 보관한다.</li>
+ *   <li>조회({@link #find})는 잠금 없이 동작하고 참조 획득/반납({@link #acquire}, {@link #release})만 잠금을 잡는다.</li>
+ *   <li>ordinal은 참조 수로 관리한다. ordinal을 보관하는 쪽(연결 중인 사용자의 방 목록, presence 등)은
+ *       acquire한 만큼 release해야 하며, 참조가 0이 되면 해시 슬롯을 tombstone으로 바꾸고 ordinal을 재사용한다.
+ *       삭제된 방이나 떠난 사용자의 ID가 프로세스 수명 동안 쌓이지 않는다.</li>
+ *   <li>find로 얻은 ordinal은 참조를 잡지 않으므로, 같은 ID의 acquire/release와 같은 잠금 안에서만 쓴다.
+ *       클라이언트가 보낸 임의의 ID는 find로만 조회한다.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class IdInterner {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int OBJECT_ID_LENGTH = 24;
+    private static final int TOMBSTONE = -1;
+
+    // ordinal + 1, 0은 빈 슬롯, TOMBSTONE은 회수된 슬롯
+    private volatile int[] slots = new int[1024];
+    private volatile Storage storage = new Storage(512);
+    // 참조가 남은 ordinal 수
+    private int size;
+    // 발급한 적 있는 가장 큰 ordinal + 1
+    private int next;
+    // 비어 있지 않은 슬롯 수 (tombstone 포함)
+    private int used;
+    private int[] free = new int[64];
+    private int freeCount;
+
+    public IdInterner(MeterRegistry meterRegistry) {
+        Gauge.builder("socketio.intern.ids", this, IdInterner::size).register(meterRegistry);
+    }
+
+    /**
+     * 참조 수를 1 늘리고 ordinal을 돌려준다. 등록되지 않은 ID면 새로 발급한다.
+     */
+    public synchronized int acquire(String id) {
+        int ordinal = find(id);
+        if (ordinal >= 0) {
+            storage.refs[ordinal]++;
+            return ordinal;
+        }
+        return insert(id);
+    }
+
+    /**
+     * acquire로 얻은 참조를 반납한다. 마지막 참조면 ID를 지우고 ordinal을 재사용 목록에 넣는다.
+     */
+    public synchronized void release(int ordinal) {
+        Storage current = storage;
+        if (ordinal < 0 || ordinal >= next || current.refs[ordinal] == 0) {
+            throw new IllegalArgumentException("Unknown ordinal: " + ordinal);
+        }
+        if (--current.refs[ordinal] > 0) {
+            return;
+        }
+        int[] table = slots;
+        int mask = table.length - 1;
+        int slot = hashOf(current, ordinal) & mask;
+        while (table[slot] != ordinal + 1) {
+            slot = (slot + 1) & mask;
+        }
+        SLOT.setRelease(table, slot, TOMBSTONE);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount << 1);
+        }
+        free[freeCount++] = ordinal;
+        size--;
+    }
+
+    /**
+     * 등록된 ordinal, 없으면 -1. 새로 등록하지 않는다.
+     */
+    public int find(String id) {
+        if (isObjectId(id)) {
+            long high = parseHex(id, 0, 16);
+            int low = (int) parseHex(id, 16, 24);
+            return find(hash(high, low), high, low, null);
+        }
+        return find(mix(id.hashCode()), 0, 0, id);
+    }
+
+    /**
+     * ordinal에 해당하는 ID 문자열. ObjectId 형식은 호출마다 새 문자열을 만든다.
+     */
+    public String resolve(int ordinal) {
+        Storage current = storage;
+        if (ordinal < 0 || ordinal >= current.others.length) {
+            throw new IllegalArgumentException("Unknown ordinal: " + ordinal);
+        }
+        String other = current.others[ordinal];
+        if (other != null) {
+            return other;
+        }
+        char[] hex = new char[OBJECT_ID_LENGTH];
+        writeHex(current.high[ordinal], hex, 0, 16);
+        writeHex(current.low[ordinal] & 0xFFFFFFFFL, hex, 16, 8);
+        return new String(hex);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int find(int hash, long high, int low, String other) {
+        int[] table = slots;
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = (int) SLOT.getAcquire(table, slot)) != 0) {
+            int ordinal = entry - 1;
+            // insert는 storage를 늘려 교체한 뒤 슬롯을 공개하므로, 슬롯을 읽은 다음에 storage를 읽어야 ordinal이 범위 안에 있다
+            Storage current = storage;
+            if (entry != TOMBSTONE && (other == null
+                    ? current.others[ordinal] == null && current.high[ordinal] == high && current.low[ordinal] == low
+                    : other.equals(current.others[ordinal]))) {
+                return ordinal;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(String id) {
+        Storage current = storage;
+        if ((used + 1) * 2 > slots.length) {
+            // tombstone만 많으면 같은 크기로 다시 만들어 정리한다
+            rehash((size + 1) * 4 > slots.length ? slots.length << 1 : slots.length, current);
+        }
+        int ordinal;
+        if (freeCount > 0) {
+            ordinal = free[--freeCount];
+        } else {
+            ordinal = next++;
+            if (ordinal == current.others.length) {
+                current = current.grow();
+                storage = current;
+            }
+        }
+        int hash;
+        if (isObjectId(id)) {
+            current.others[ordinal] = null;
+            current.high[ordinal] = parseHex(id, 0, 16);
+            current.low[ordinal] = (int) parseHex(id, 16, 24);
+            hash = hash(current.high[ordinal], current.low[ordinal]);
+        } else {
+            current.others[ordinal] = id;
+            hash = mix(id.hashCode());
+        }
+        current.refs[ordinal] = 1;
+        size++;
+        used++;
+        int[] table = slots;
+        SLOT.setRelease(table, emptySlot(table, hash), ordinal + 1);
+        return ordinal;
+    }
+
+    private void rehash(int capacity, Storage current) {
+        int[] table = new int[capacity];
+        for (int ordinal = 0; ordinal < next; ordinal++) {
+            if (current.refs[ordinal] > 0) {
+                table[emptySlot(table, hashOf(current, ordinal))] = ordinal + 1;
+            }
+        }
+        slots = table;
+        used = size;
+    }
+
+    private static int emptySlot(int[] table, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hashOf(Storage current, int ordinal) {
+        String other = current.others[ordinal];
+        return other != null ? mix(other.hashCode()) : hash(current.high[ordinal], current.low[ordinal]);
+    }
+
+    static boolean isObjectId(String id) {
+        if (id.length() != OBJECT_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 4) | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+
+    private static void writeHex(long value, char[] out, int offset, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            out[offset + i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+    }
+
+    private static int hash(long high, int low) {
+        return mix(Long.hashCode(high * 0x9E3779B97F4A7C15L) ^ low);
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x85EBCA6B;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * ordinal별 ID와 참조 수. 늘릴 때는 복사본을 만든 뒤 교체하므로 이미 공개된 ordinal은 어느 배열에서나 읽힌다.
+     * 참조 수는 잠금 안에서만 읽고 쓴다.
+     */
+    private record Storage(long[] high, int[] low, String[] others, int[] refs) {
+
+        Storage(int capacity) {
+            this(new long[capacity], new int[capacity], new String[capacity], new int[capacity]);
+        }
+
+        Storage grow() {
+            int capacity = others.length << 1;
+            return new Storage(Arrays.copyOf(high, capacity), Arrays.copyOf(low, capacity),
+                    Arrays.copyOf(others, capacity), Arrays.copyOf(refs, capacity));
+        }
+    }
+}
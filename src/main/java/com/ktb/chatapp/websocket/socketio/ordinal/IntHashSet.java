@@ -0,0 +1,135 @@
+package com.ktb.chatapp.websocket.socketio.ordinal;
+
+import java.util.function.IntConsumer;
+
+/**
+ * 음이 아닌 int(ordinal) 전용 open addressing 집합.
+ * 원소를 박싱하지 않고 int 배열 하나에 담는다(값 + 1을 저장하고 0을 빈 슬롯으로 쓴다).
+ * 호출자가 동기화를 책임진다.
+ */
+public final class IntHashSet {
+
+    private int[] slots;
+    private int size;
+
+    public IntHashSet() {
+        this(4);
+    }
+
+    public IntHashSet(int expectedSize) {
+        this.slots = new int[capacityFor(expectedSize)];
+    }
+
+    public boolean add(int value) {
+        int slot = slotOf(value);
+        if (slots[slot] != 0) {
+            return false;
+        }
+        slots[slot] = value + 1;
+        if (++size * 4 > slots.length * 3) {
+            resize(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = slotOf(value);
+        if (slots[slot] == 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return slots[slotOf(value)] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int entry : slots) {
+            if (entry != 0) {
+                action.accept(entry - 1);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int index = 0;
+        for (int entry : slots) {
+            if (entry != 0) {
+                values[index++] = entry - 1;
+            }
+        }
+        return values;
+    }
+
+    // 값이 있으면 그 슬롯, 없으면 들어갈 빈 슬롯
+    private int slotOf(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0 && entry != value + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // linear probing 삭제: tombstone 대신 뒤따르는 엔트리를 당겨온다
+    private void removeAt(int slot) {
+        int mask = slots.length - 1;
+        slots[slot] = 0;
+        size--;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (slots[next] != 0) {
+            int home = mix(slots[next] - 1) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                slots[hole] = slots[next];
+                slots[next] = 0;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] old = slots;
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = mix(entry - 1) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry;
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 4;
+        while (capacity * 3 < Math.max(1, expectedSize) * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
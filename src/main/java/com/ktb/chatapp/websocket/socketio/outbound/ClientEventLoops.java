@@ -0,0 +1,77 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.messages.PacketsMessage;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 세션별로 채널이 속한 Netty event loop.
+ * netty-socketio는 SocketIOClient에서 채널을 노출하지 않으므로, 파이프라인에 넣은 {@link #tracker()}가
+ * 수신 패킷(연결 직후 클라이언트가 보내는 CONNECT 포함)을 보고 기록한다.
+ * <ul>
+ *   <li>세션마다 처음 기록된 loop를 계속 쓴다. OutboundDispatcher가 이 loop에서 연결별 전송 순서를 맞추므로
+ *       세션이 살아 있는 동안 loop를 바꾸지 않는다. 다른 loop의 채널에 쓰더라도 Netty가 채널의 loop로 넘긴다.</li>
+ *   <li>기록한 채널이 닫히면 해제한다. 인증에 실패해 @OnDisconnect가 불리지 않는 세션도 남지 않는다.
+ *       polling 전송은 요청 채널이 닫힐 때 해제되고 다음 요청의 채널로 다시 기록된다.</li>
+ * </ul>
+ */
+public class ClientEventLoops {
+
+    public static final String TRACKER_NAME = "clientEventLoopTracker";
+
+    private static final AttributeKey<UUID> TRACKED_SESSION = AttributeKey.valueOf("clientEventLoopSession");
+
+    private final Map<UUID, EventLoop> loops = new ConcurrentHashMap<>();
+    private final Tracker tracker = new Tracker();
+
+    /**
+     * @return 세션에 기록된 event loop, 이미 있으면 기존 loop
+     */
+    public EventLoop bind(UUID sessionId, EventLoop loop) {
+        EventLoop bound = loops.get(sessionId);
+        return bound != null ? bound : loops.computeIfAbsent(sessionId, id -> loop);
+    }
+
+    /**
+     * @return 기록된 event loop, 아직 패킷을 받지 못한 세션은 null
+     */
+    public EventLoop get(UUID sessionId) {
+        return loops.get(sessionId);
+    }
+
+    public void unbind(UUID sessionId) {
+        loops.remove(sessionId);
+    }
+
+    public int size() {
+        return loops.size();
+    }
+
+    public ChannelHandler tracker() {
+        return tracker;
+    }
+
+    @ChannelHandler.Sharable
+    private final class Tracker extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof PacketsMessage message) {
+                UUID sessionId = message.getClient().getSessionId();
+                Channel channel = ctx.channel();
+                bind(sessionId, channel.eventLoop());
+                if (channel.attr(TRACKED_SESSION).setIfAbsent(sessionId) == null) {
+                    channel.closeFuture().addListener(future -> unbind(sessionId));
+                }
+            }
+            super.channelRead(ctx, msg);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.annotation.OnDisconnect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoop;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채널 쓰기 가능 여부를 고려한 서버 → 클라이언트 전송기.
+ * 방 브로드캐스트를 연결별 OutboundQueue로 나누어, 느린 클라이언트 하나가 Netty 출력 버퍼를
+ * 무한히 키우지 않도록 한다.
+ * <ul>
+ *   <li>대기열이 비어 있고 채널이 쓰기 가능하면 바로 보낸다 (기존과 같은 경로).</li>
+ *   <li>밀린 이벤트는 정책에 따라 쌓이거나(RELIABLE), 최신 값으로 교체되거나(LATEST), 버려진다(DROPPABLE).</li>
+ *   <li>high watermark 초과 상태가 overflow-timeout 동안 low watermark 아래로 내려가지 않거나
+ *       max-depth를 넘으면 연결을 끊는다. 클라이언트는 재연결 후 replayMessages로 따라잡고,
+ *       응답의 resyncRequired가 true면 방 상태를 다시 불러온다.</li>
+ *   <li>event loop가 기록된 연결({@link ClientEventLoops})로 가는 이벤트는 경로(직접 전송, 작은 방, 큰 방)와 관계없이
+ *       모두 그 loop의 작업 큐를 거쳐 대기열에 들어가므로 연결별 순서가 유지된다.
+ *       loop를 아직 모르는 연결(첫 패킷 이전)만 호출 스레드에서 바로 대기열에 넣는다.</li>
+ *   <li>parallel-threshold 이상인 방은 멤버를 event loop별로 나누어 loop마다 작업 하나로 보낸다.
+ *       호출 스레드가 모든 채널에 차례로 쓰는 대신 각 채널은 자기 loop에서 쓰이고 loop끼리는 병렬로 진행된다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboundDispatcher {
+
+    private final SocketIOServer socketIOServer;
+    private final ClientEventLoops clientEventLoops;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final int maxDepth;
+    private final long overflowTimeoutMillis;
+    private final long drainIntervalMillis;
+    private final int parallelThreshold;
+
+    private final Map<UUID, OutboundQueue> queues = new ConcurrentHashMap<>();
+    private final Set<UUID> backlogged = ConcurrentHashMap.newKeySet();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> drainTask;
+
+    private final Counter merged;
+    private final Counter dropped;
+    private final Counter overflowDisconnects;
+    private final Counter partitionedBroadcasts;
+
+    public OutboundDispatcher(
+            SocketIOServer socketIOServer,
+            ClientEventLoops clientEventLoops,
+            MeterRegistry meterRegistry,
+            TaskScheduler taskScheduler,
+            @Value("${socketio.outbound.high-watermark:256}") int highWatermark,
+            @Value("${socketio.outbound.low-watermark:64}") int lowWatermark,
+            @Value("${socketio.outbound.max-depth:4096}") int maxDepth,
+            @Value("${socketio.outbound.overflow-timeout:10s}") Duration overflowTimeout,
+            @Value("${socketio.outbound.drain-interval:20ms}") Duration drainInterval,
+            @Value("${socketio.outbound.parallel-threshold:1000}") int parallelThreshold) {
+        this.taskScheduler = taskScheduler;
+        this.socketIOServer = socketIOServer;
+        this.clientEventLoops = clientEventLoops;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.maxDepth = maxDepth;
+        this.overflowTimeoutMillis = overflowTimeout.toMillis();
+        this.drainIntervalMillis = drainInterval.toMillis();
+        this.parallelThreshold = parallelThreshold;
+
+        this.merged = Counter.builder("socketio.outbound.events").tag("result", "merged").register(meterRegistry);
+        this.dropped = Counter.builder("socketio.outbound.events").tag("result", "dropped").register(meterRegistry);
+        this.overflowDisconnects = Counter.builder("socketio.outbound.overflow.disconnects").register(meterRegistry);
+        this.partitionedBroadcasts = Counter.builder("socketio.outbound.broadcasts.partitioned").register(meterRegistry);
+        Gauge.builder("socketio.outbound.queue.depth.total", this, OutboundDispatcher::totalDepth).register(meterRegistry);
+        Gauge.builder("socketio.outbound.queue.depth.max", this, OutboundDispatcher::maxQueueDepth).register(meterRegistry);
+        Gauge.builder("socketio.outbound.queues.backlogged", backlogged, Set::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        drainTask = taskScheduler.scheduleWithFixedDelay(this::drainSafely,
+                Instant.now().plusMillis(drainIntervalMillis), Duration.ofMillis(drainIntervalMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (drainTask != null) {
+            drainTask.cancel(false);
+        }
+    }
+
+    public void sendToRoom(String roomId, OutboundEvent event) {
+        sendToRoom(roomId, event, client -> false);
+    }
+
+    /**
+     * @param exclude true인 클라이언트는 제외
+     */
+    public void sendToRoom(String roomId, OutboundEvent event, Predicate<SocketIOClient> exclude) {
+        Collection<SocketIOClient> clients = socketIOServer.getRoomOperations(roomId).getClients();
+        if (clients.size() >= parallelThreshold) {
+            sendPartitioned(clients, event, exclude);
+            return;
+        }
+        for (SocketIOClient client : clients) {
+            if (!exclude.test(client)) {
+                send(client, event);
+            }
+        }
+    }
+
+    public void send(SocketIOClient client, OutboundEvent event) {
+        EventLoop loop = clientEventLoops.get(client.getSessionId());
+        if (loop == null || !executeOn(loop, () -> offer(client, event))) {
+            offer(client, event);
+        }
+    }
+
+    private void offer(SocketIOClient client, OutboundEvent event) {
+        OutboundQueue queue = queues.computeIfAbsent(client.getSessionId(), id -> new OutboundQueue(client));
+        switch (queue.offer(event, highWatermark, System.currentTimeMillis())) {
+            case SENT -> {
+                return;
+            }
+            case MERGED -> merged.increment();
+            case DROPPED -> dropped.increment();
+            case QUEUED -> {
+                if (queue.depth() > maxDepth) {
+                    disconnect(queue, "max depth exceeded");
+                    return;
+                }
+            }
+        }
+        backlogged.add(client.getSessionId());
+    }
+
+    @OnDisconnect
+    public void onDisconnect(SocketIOClient client) {
+        queues.remove(client.getSessionId());
+        backlogged.remove(client.getSessionId());
+        clientEventLoops.unbind(client.getSessionId());
+    }
+
+    /**
+     * 멤버를 event loop별로 묶어 loop마다 한 번만 작업을 넘긴다.
+     * 현재 스레드의 loop 몫도 먼저 넘어간 작업 뒤에 오도록 작업으로 넘기고, loop를 아직 모르는 세션만 호출 스레드에서 보낸다.
+     */
+    void sendPartitioned(Collection<SocketIOClient> clients, OutboundEvent event, Predicate<SocketIOClient> exclude) {
+        partitionedBroadcasts.increment();
+        Map<EventLoop, List<SocketIOClient>> byLoop = new HashMap<>();
+        List<SocketIOClient> inline = new ArrayList<>();
+        for (SocketIOClient client : clients) {
+            if (exclude.test(client)) {
+                continue;
+            }
+            EventLoop loop = clientEventLoops.get(client.getSessionId());
+            if (loop == null) {
+                inline.add(client);
+            } else {
+                byLoop.computeIfAbsent(loop, key -> new ArrayList<>()).add(client);
+            }
+        }
+        byLoop.forEach((loop, members) -> {
+            if (!executeOn(loop, () -> offerAll(members, event))) {
+                offerAll(members, event);
+            }
+        });
+        offerAll(inline, event);
+    }
+
+    void drain(long now) {
+        for (UUID sessionId : backlogged) {
+            OutboundQueue queue = queues.get(sessionId);
+            if (queue == null) {
+                backlogged.remove(sessionId);
+                continue;
+            }
+            queue.drain(lowWatermark);
+            long overflow = queue.overflowMillis(now);
+            if (overflow > overflowTimeoutMillis) {
+                disconnect(queue, "sustained overflow " + overflow + "ms");
+            } else if (queue.depth() == 0) {
+                backlogged.remove(sessionId);
+            }
+        }
+    }
+
+    int depth(SocketIOClient client) {
+        OutboundQueue queue = queues.get(client.getSessionId());
+        return queue != null ? queue.depth() : 0;
+    }
+
+    /**
+     * @return false면 loop가 종료 중이라 작업을 넘기지 못했다
+     */
+    private static boolean executeOn(EventLoop loop, Runnable task) {
+        try {
+            loop.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void offerAll(List<SocketIOClient> clients, OutboundEvent event) {
+        for (SocketIOClient client : clients) {
+            try {
+                offer(client, event);
+            } catch (Exception e) {
+                log.warn("Broadcast to {} failed", client.getSessionId(), e);
+            }
+        }
+    }
+
+    private void disconnect(OutboundQueue queue, String reason) {
+        SocketIOClient client = queue.client();
+        log.warn("Disconnecting slow client {} - {}, depth: {}", client.getSessionId(), reason, queue.depth());
+        queues.remove(client.getSessionId());
+        backlogged.remove(client.getSessionId());
+        overflowDisconnects.increment();
+        client.disconnect();
+    }
+
+    private double totalDepth() {
+        long total = 0;
+        for (UUID sessionId : backlogged) {
+            OutboundQueue queue = queues.get(sessionId);
+            total += queue != null ? queue.depth() : 0;
+        }
+        return total;
+    }
+
+    private double maxQueueDepth() {
+        int max = 0;
+        for (UUID sessionId : backlogged) {
+            OutboundQueue queue = queues.get(sessionId);
+            max = Math.max(max, queue != null ? queue.depth() : 0);
+        }
+        return max;
+    }
+
+    private void drainSafely() {
+        try {
+            drain(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Outbound drain failed", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+/**
+ * 전송할 Socket.IO 이벤트
+ *
+ * @param name 이벤트명
+ * @param payload 페이로드
+ * @param policy 대기열이 밀렸을 때 처리 방식
+ * @param mergeKey LATEST 정책에서 교체 대상을 식별하는 키
+ */
+public record OutboundEvent(String name, Object payload, OutboundPolicy policy, String mergeKey) {
+
+    public static OutboundEvent reliable(String name, Object payload) {
+        return new OutboundEvent(name, payload, OutboundPolicy.RELIABLE, null);
+    }
+
+    public static OutboundEvent latest(String name, Object payload, String mergeKey) {
+        return new OutboundEvent(name, payload, OutboundPolicy.LATEST, name + ":" + mergeKey);
+    }
+
+    public static OutboundEvent droppable(String name, Object payload) {
+        return new OutboundEvent(name, payload, OutboundPolicy.DROPPABLE, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+/**
+ * 전송 대기열이 밀렸을 때 이벤트 처리 방식
+ */
+public enum OutboundPolicy {
+    /** 버리지 않는다 (채팅 메시지, 읽음, 시스템 이벤트) */
+    RELIABLE,
+    /** 같은 mergeKey의 대기 중 이벤트를 최신 값으로 교체한다 (AI 청크, 참가자 목록, 리액션) */
+    LATEST,
+    /** high watermark를 넘으면 버린다 */
+    DROPPABLE
+}
@@ -0,0 +1,104 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 연결 하나의 전송 대기열.
+ * 채널이 쓰기 가능하고 대기열이 비어 있으면 바로 보내고, 아니면 순서대로 쌓아 두었다가 drain한다.
+ * 모든 메서드는 큐 단위로 동기화되어 직접 전송과 drain 사이의 순서를 보장한다.
+ */
+class OutboundQueue {
+
+    enum Result { SENT, QUEUED, MERGED, DROPPED }
+
+    private final SocketIOClient client;
+    private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+    private final Map<String, Slot> pendingByKey = new HashMap<>();
+    private long overflowSince = -1;
+
+    OutboundQueue(SocketIOClient client) {
+        this.client = client;
+    }
+
+    synchronized Result offer(OutboundEvent event, int highWatermark, long now) {
+        if (slots.isEmpty() && client.isWritable()) {
+            client.sendEvent(event.name(), event.payload());
+            return Result.SENT;
+        }
+
+        if (event.policy() == OutboundPolicy.LATEST) {
+            Slot pending = pendingByKey.get(event.mergeKey());
+            if (pending != null) {
+                pending.event = event;
+                return Result.MERGED;
+            }
+        }
+        if (event.policy() == OutboundPolicy.DROPPABLE && slots.size() >= highWatermark) {
+            markOverflow(now);
+            return Result.DROPPED;
+        }
+
+        Slot slot = new Slot(event);
+        slots.addLast(slot);
+        if (event.mergeKey() != null) {
+            pendingByKey.put(event.mergeKey(), slot);
+        }
+        if (slots.size() > highWatermark) {
+            markOverflow(now);
+        }
+        return Result.QUEUED;
+    }
+
+    /**
+     * 채널이 쓰기 가능한 동안 대기 이벤트를 보낸다.
+     *
+     * @return 보낸 이벤트 수
+     */
+    synchronized int drain(int lowWatermark) {
+        int sent = 0;
+        while (!slots.isEmpty() && client.isWritable()) {
+            Slot slot = slots.pollFirst();
+            if (slot.event.mergeKey() != null) {
+                pendingByKey.remove(slot.event.mergeKey(), slot);
+            }
+            client.sendEvent(slot.event.name(), slot.event.payload());
+            sent++;
+        }
+        if (slots.size() <= lowWatermark) {
+            overflowSince = -1;
+        }
+        return sent;
+    }
+
+    synchronized int depth() {
+        return slots.size();
+    }
+
+    /**
+     * @return high watermark를 넘은 뒤 low watermark 아래로 내려가지 못한 시간, 넘지 않았으면 -1
+     */
+    synchronized long overflowMillis(long now) {
+        return overflowSince < 0 ? -1 : now - overflowSince;
+    }
+
+    SocketIOClient client() {
+        return client;
+    }
+
+    private void markOverflow(long now) {
+        if (overflowSince < 0) {
+            overflowSince = now;
+        }
+    }
+
+    private static final class Slot {
+        private OutboundEvent event;
+
+        private Slot(OutboundEvent event) {
+            this.event = event;
+        }
+    }
+}
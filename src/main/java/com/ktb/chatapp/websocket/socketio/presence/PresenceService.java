@@ -0,0 +1,175 @@
+package com.ktb.chatapp.websocket.socketio.presence;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.dto.PresenceDiffResponse;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.PRESENCE_UPDATE;
+
+/**
+ * 다중 기기 presence 추적.
+ * <ul>
+ *   <li>사용자별 연결 수를 세어 첫 연결에서 온라인, 마지막 연결 해제에서 오프라인으로 본다.</li>
+ *   <li>Engine.IO ping/pong을 heartbeat로 사용하고, ttl 동안 heartbeat가 없는 사용자는
+ *       disconnect 이벤트가 유실된 것으로 보고 오프라인 처리한다.</li>
+ *   <li>전환은 tick마다 모아서 사용자가 속한 방별로 한 번에 presenceUpdate로 보낸다.
+ *       tick 안에서 끊겼다 다시 붙은 사용자(새로고침, 재연결)는 전송하지 않는다.</li>
+ * </ul>
+ * 노드 로컬 연결만 추적하며, 사용자는 IdInterner ordinal로 다룬다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class PresenceService {
+
+    private final SocketIOServer socketIOServer;
+    private final UserRooms userRooms;
+    private final IdInterner idInterner;
+    private final OutboundDispatcher outboundDispatcher;
+    private final long ttlMillis;
+    private final long tickMillis;
+
+    private final PresenceTable table = new PresenceTable(1024, System.currentTimeMillis());
+    // tick 시작 시점의 온라인 여부, 현재 상태와 다를 때만 전송
+    private Map<String, Boolean> pending = new HashMap<>();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> tickTask;
+
+    public PresenceService(
+            SocketIOServer socketIOServer,
+            UserRooms userRooms,
+            IdInterner idInterner,
+            OutboundDispatcher outboundDispatcher,
+            MeterRegistry meterRegistry,
+            TaskScheduler taskScheduler,
+            @Value("${socketio.presence.ttl:90s}") Duration ttl,
+            @Value("${socketio.presence.tick:1s}") Duration tick) {
+        this.taskScheduler = taskScheduler;
+        this.socketIOServer = socketIOServer;
+        this.userRooms = userRooms;
+        this.idInterner = idInterner;
+        this.outboundDispatcher = outboundDispatcher;
+        this.ttlMillis = ttl.toMillis();
+        this.tickMillis = tick.toMillis();
+        Gauge.builder("socketio.presence.online.users", this, PresenceService::onlineCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        socketIOServer.addPongListener(this::heartbeat);
+        socketIOServer.addPingListener(this::heartbeat);
+        tickTask = taskScheduler.scheduleWithFixedDelay(this::tickSafely,
+                Instant.now().plusMillis(tickMillis), Duration.ofMillis(tickMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+        }
+    }
+
+    // 테이블에 있는 사용자마다 interner 참조를 하나 잡고, 테이블에서 빠질 때 반납한다
+    public synchronized void connected(String userId) {
+        int user = idInterner.acquire(userId);
+        if (table.connect(user, System.currentTimeMillis()) == 1) {
+            pending.putIfAbsent(userId, false);
+        } else {
+            idInterner.release(user);
+        }
+    }
+
+    public synchronized void disconnected(String userId) {
+        int user = idInterner.find(userId);
+        if (table.disconnect(user) == 0) {
+            pending.putIfAbsent(userId, true);
+            idInterner.release(user);
+        }
+    }
+
+    public synchronized boolean isOnline(String userId) {
+        return table.contains(idInterner.find(userId));
+    }
+
+    /**
+     * 주어진 사용자 중 현재 온라인인 사용자
+     */
+    public synchronized List<String> onlineAmong(Collection<String> userIds) {
+        List<String> online = new ArrayList<>();
+        for (String userId : userIds) {
+            if (table.contains(idInterner.find(userId))) {
+                online.add(userId);
+            }
+        }
+        return online;
+    }
+
+    public synchronized int onlineCount() {
+        return table.size();
+    }
+
+    void heartbeat(SocketIOClient client) {
+        SocketUser user = client.get("user");
+        if (user != null) {
+            synchronized (this) {
+                table.heartbeat(idInterner.find(user.id()), System.currentTimeMillis());
+            }
+        }
+    }
+
+    void tick(long now) {
+        Map<String, Boolean> changed;
+        Map<String, Boolean> current = new HashMap<>();
+        synchronized (this) {
+            table.expire(now - ttlMillis, user -> {
+                pending.putIfAbsent(idInterner.resolve(user), true);
+                idInterner.release(user);
+            });
+            changed = pending;
+            pending = new HashMap<>();
+            changed.keySet().forEach(userId -> current.put(userId, table.contains(idInterner.find(userId))));
+        }
+
+        Map<String, PresenceDiffResponse> diffs = new HashMap<>();
+        changed.forEach((userId, wasOnline) -> {
+            boolean online = current.get(userId);
+            if (online == wasOnline) {
+                return;
+            }
+            for (String roomId : userRooms.get(userId)) {
+                PresenceDiffResponse diff = diffs.computeIfAbsent(roomId,
+                        id -> new PresenceDiffResponse(id, new ArrayList<>(), new ArrayList<>()));
+                (online ? diff.getOnline() : diff.getOffline()).add(userId);
+            }
+        });
+
+        diffs.forEach((roomId, diff) ->
+                outboundDispatcher.sendToRoom(roomId, OutboundEvent.reliable(PRESENCE_UPDATE, diff)));
+    }
+
+    private void tickSafely() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Presence tick failed", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ktb.chatapp.websocket.socketio.presence;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * 온라인 사용자별 연결 수와 마지막 heartbeat를 사용자 ordinal로 바로 찾는 배열 테이블.
+ * 사용자마다 long 하나(상위 16비트 연결 수, 하위 48비트 heartbeat 시각)만 쓰고,
+ * 온라인 여부는 BitSet으로 따로 들고 있어 만료 검사는 온라인 사용자만 훑는다.
+ * 호출자가 동기화를 책임진다.
+ */
+class PresenceTable {
+
+    private static final int COUNT_SHIFT = 48;
+    private static final long TIME_MASK = (1L << COUNT_SHIFT) - 1;
+    private static final int MAX_CONNECTIONS = 0xFFFF;
+
+    private final long epochMillis;
+    private final BitSet online = new BitSet();
+    private long[] states;
+    private int size;
+
+    PresenceTable(int initialCapacity, long epochMillis) {
+        this.states = new long[Math.max(16, initialCapacity)];
+        this.epochMillis = epochMillis;
+    }
+
+    /**
+     * 연결 수를 1 늘리고 heartbeat를 갱신한다.
+     *
+     * @return 증가 후 연결 수
+     */
+    int connect(int user, long now) {
+        if (user >= states.length) {
+            states = Arrays.copyOf(states, Math.max(user + 1, states.length << 1));
+        }
+        if (!online.get(user)) {
+            online.set(user);
+            size++;
+            states[user] = pack(1, now);
+            return 1;
+        }
+        int count = Math.min(MAX_CONNECTIONS, count(states[user]) + 1);
+        states[user] = pack(count, now);
+        return count;
+    }
+
+    /**
+     * 연결 수를 1 줄이고 0이 되면 제거한다. 이미 만료된 사용자는 무시한다.
+     *
+     * @return 감소 후 연결 수, 없던 사용자는 -1
+     */
+    int disconnect(int user) {
+        if (!contains(user)) {
+            return -1;
+        }
+        int count = count(states[user]) - 1;
+        if (count <= 0) {
+            removeAt(user);
+            return 0;
+        }
+        states[user] = (states[user] & TIME_MASK) | ((long) count << COUNT_SHIFT);
+        return count;
+    }
+
+    void heartbeat(int user, long now) {
+        if (contains(user)) {
+            states[user] = pack(count(states[user]), now);
+        }
+    }
+
+    boolean contains(int user) {
+        return user >= 0 && online.get(user);
+    }
+
+    int connections(int user) {
+        return contains(user) ? count(states[user]) : 0;
+    }
+
+    /**
+     * deadline 이전에 마지막 heartbeat를 받은 사용자를 모두 제거한다.
+     */
+    void expire(long deadline, IntConsumer onExpired) {
+        long threshold = Math.max(0, deadline - epochMillis);
+        for (int user = online.nextSetBit(0); user >= 0; user = online.nextSetBit(user + 1)) {
+            if ((states[user] & TIME_MASK) < threshold) {
+                removeAt(user);
+                onExpired.accept(user);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void removeAt(int user) {
+        online.clear(user);
+        states[user] = 0;
+        size--;
+    }
+
+    private long pack(int count, long now) {
+        return ((long) count << COUNT_SHIFT) | (Math.max(0, now - epochMillis) & TIME_MASK);
+    }
+
+    private static int count(long state) {
+        return (int) (state >>> COUNT_SHIFT);
+    }
+}
@@ -0,0 +1,186 @@
+package com.ktb.chatapp.config;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 재연결 폭주 벤치마크.
+ * 소켓을 동시에 연결해 TCP accept 지연, Engine.IO 핸드셰이크(open 패킷 수신까지) 지연,
+ * 연결당 힙/direct 메모리를 출력한다.
+ *
+ * 실행: ./mvnw test -Dtest=ConnectionStormBenchmarkTest -Dbenchmark=true
+ *       -Dbenchmark.connections=10000 -Dbenchmark.transport.profile=compat
+ * 클라이언트 소켓도 같은 JVM에 있으므로 fd 한도(ulimit -n)는 연결 수의 2배 이상이어야 하고,
+ * 힙 수치에는 클라이언트 Socket 객체가 포함된다(프로필 간 비교용).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConnectionStormBenchmarkTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1_000);
+    private static final String PROFILE = System.getProperty("benchmark.transport.profile", "high-connection");
+
+    @Test
+    void connectionStorm() throws Exception {
+        int port = freePort();
+        var settings = SocketTransportSettings.of(SocketTransportProfile.from(PROFILE));
+        var config = new com.corundumstudio.socketio.Configuration();
+        config.setHostname("127.0.0.1");
+        config.setPort(port);
+        config.setPingInterval(60_000);
+        config.setPingTimeout(120_000);
+        settings.applyTo(config);
+        SocketIOServer server = new TransportTunedSocketIOServer(config, settings);
+        server.start();
+
+        List<Socket> sockets = new CopyOnWriteArrayList<>();
+        long[] acceptNanos = new long[CONNECTIONS];
+        long[] handshakeNanos = new long[CONNECTIONS];
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            long heapBefore = usedHeap();
+            long directBefore = PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory();
+
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            long start = System.nanoTime();
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONNECTIONS; i++) {
+                    int index = i;
+                    inFlight.acquire();
+                    executor.submit(() -> {
+                        try {
+                            sockets.add(connect(port, index, acceptNanos, handshakeNanos));
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            long heapAfter = usedHeap();
+            long directAfter = PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory();
+            int connected = server.getAllClients().size();
+
+            System.out.printf("transport: %s%n", settings);
+            System.out.printf("connections: %d established, %d failed, %d server clients in %d ms (%.0f conn/s)%n",
+                    sockets.size(), failures.get(), connected, elapsedMillis,
+                    sockets.size() * 1000.0 / Math.max(1, elapsedMillis));
+            System.out.printf("accept latency (ms): %s%n", percentiles(acceptNanos));
+            System.out.printf("handshake latency (ms): %s%n", percentiles(handshakeNanos));
+            System.out.printf("memory per connection: heap %.1f KB, pooled direct %.1f KB%n",
+                    (heapAfter - heapBefore) / 1024.0 / Math.max(1, sockets.size()),
+                    (directAfter - directBefore) / 1024.0 / Math.max(1, sockets.size()));
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // 종료 중
+                }
+            }
+            server.stop();
+        }
+    }
+
+    // TCP 연결 후 websocket 업그레이드, Engine.IO open 패킷까지 읽는다
+    private Socket connect(int port, int index, long[] acceptNanos, long[] handshakeNanos) throws IOException {
+        long begin = System.nanoTime();
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 30_000);
+            acceptNanos[index] = System.nanoTime() - begin;
+            socket.setSoTimeout(30_000);
+
+            byte[] nonce = new byte[16];
+            ThreadLocalRandom.current().nextBytes(nonce);
+            String key = Base64.getEncoder().encodeToString(nonce);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /socket.io/?EIO=4&transport=websocket HTTP/1.1\r\n"
+                    + "Host: 127.0.0.1:" + port + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: " + key + "\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            readHttpHeaders(in);
+            readFrame(in);
+            handshakeNanos[index] = System.nanoTime() - begin;
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static void readHttpHeaders(DataInputStream in) throws IOException {
+        int matched = 0;
+        byte[] terminator = {'\r', '\n', '\r', '\n'};
+        while (matched < terminator.length) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("connection closed during handshake");
+            }
+            matched = b == terminator[matched] ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+    }
+
+    private static void readFrame(DataInputStream in) throws IOException {
+        in.readUnsignedByte();
+        int length = in.readUnsignedByte() & 0x7F;
+        if (length == 126) {
+            length = in.readUnsignedShort();
+        } else if (length == 127) {
+            length = (int) in.readLong();
+        }
+        in.skipNBytes(length);
+    }
+
+    private static String percentiles(long[] nanos) {
+        long[] sorted = Arrays.stream(nanos).filter(n -> n > 0).sorted().toArray();
+        if (sorted.length == 0) {
+            return "n/a";
+        }
+        List<String> parts = new ArrayList<>();
+        for (double p : new double[]{0.5, 0.9, 0.99, 1.0}) {
+            int idx = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+            parts.add(String.format("p%s=%.2f", p == 1.0 ? "max" : String.valueOf((int) (p * 100)),
+                    sorted[Math.max(0, idx)] / 1_000_000.0));
+        }
+        return String.join(", ", parts);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
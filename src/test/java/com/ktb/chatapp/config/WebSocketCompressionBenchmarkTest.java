@@ -0,0 +1,153 @@
+package com.ktb.chatapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.JoinRoomSuccessResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.MessageType;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * permessage-deflate CPU/절감량 측정.
+ * 대표 payload(previousMessagesLoaded 30건, joinRoomSuccess, participantsUpdate 100명, 단건 message)를
+ * Socket.IO 프레임으로 인코딩한 뒤 압축 레벨/context takeover 조합별로 바이트와 프레임당 CPU 시간을 출력한다.
+ * context takeover 효과가 과장되지 않도록 내용이 서로 다른 payload를 돌려가며 보낸다.
+ *
+ * 실행: ./mvnw test -Dtest=WebSocketCompressionBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WebSocketCompressionBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2_000);
+    private static final int VARIANTS = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Faker faker = new Faker();
+
+    @Test
+    void compressionCostVersusSavings() throws Exception {
+        Map<String, List<String>> payloads = Map.of(
+                "message", frames("message", i -> message("m" + i, user(i))),
+                "participantsUpdate", frames("participantsUpdate", i -> participants(100)),
+                "previousMessagesLoaded", frames("previousMessagesLoaded", i -> new FetchMessagesResponse(messages(30), true)),
+                "joinRoomSuccess", frames("joinRoomSuccess", i -> JoinRoomSuccessResponse.builder()
+                        .roomId("room")
+                        .participants(participants(50))
+                        .messages(messages(30))
+                        .hasMore(true)
+                        .activeStreams(Collections.emptyList())
+                        .build()));
+
+        System.out.printf("%-24s %-20s %10s %10s %8s %10s%n", "payload", "settings", "raw B", "wire B", "saved", "cpu us");
+        for (var entry : payloads.entrySet()) {
+            for (int level : new int[]{1, 6}) {
+                for (boolean takeover : new boolean[]{true, false}) {
+                    var settings = new WebSocketCompressionSettings(true, 1024, level, takeover);
+                    report(entry.getKey(), settings, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void report(String name, WebSocketCompressionSettings settings, List<String> frames) {
+        Map<String, String> offer = settings.isContextTakeover()
+                ? Map.of()
+                : Map.of("server_no_context_takeover", "", "client_no_context_takeover", "");
+        var extension = settings.perMessageDeflate().handshakeExtension(new WebSocketExtensionData("permessage-deflate", offer));
+        EmbeddedChannel channel = new EmbeddedChannel(extension.newExtensionEncoder());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        // 워밍업
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            send(channel, frames.get(i % frames.size())).release();
+        }
+
+        long rawBytes = 0;
+        long wireBytes = 0;
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            String frame = frames.get(i % frames.size());
+            rawBytes += frame.length();
+            WebSocketFrame out = send(channel, frame);
+            wireBytes += out.content().readableBytes();
+            out.release();
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        channel.finishAndReleaseAll();
+
+        System.out.printf("%-24s %-20s %10d %10d %7.1f%% %10.1f%n",
+                name,
+                "level=" + settings.getLevel() + (settings.isContextTakeover() ? " ctx" : " no-ctx"),
+                rawBytes / ITERATIONS,
+                wireBytes / ITERATIONS,
+                100.0 * (rawBytes - wireBytes) / rawBytes,
+                cpuNanos / 1_000.0 / ITERATIONS);
+    }
+
+    private WebSocketFrame send(EmbeddedChannel channel, String text) {
+        channel.writeOutbound(new TextWebSocketFrame(Unpooled.wrappedBuffer(text.getBytes())));
+        return channel.readOutbound();
+    }
+
+    private List<String> frames(String event, IntFunction<Object> payload) throws Exception {
+        List<String> frames = new ArrayList<>();
+        for (int i = 0; i < VARIANTS; i++) {
+            frames.add("42[\"" + event + "\"," + objectMapper.writeValueAsString(payload.apply(i)) + "]");
+        }
+        return frames;
+    }
+
+    private List<MessageResponse> messages(int count) {
+        List<MessageResponse> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(message(faker.internet().uuid(), user(faker.number().numberBetween(0, 20))));
+        }
+        return messages;
+    }
+
+    private MessageResponse message(String id, UserResponse sender) {
+        return MessageResponse.builder()
+                .id(id)
+                .roomId("6740a1b2c3d4e5f6a7b8c9d0")
+                .content(faker.lorem().sentence(faker.number().numberBetween(3, 25)))
+                .type(MessageType.text)
+                .sender(sender)
+                .timestamp(System.currentTimeMillis() - faker.number().numberBetween(0, 86_400_000))
+                .reactions(Map.of())
+                .readers(List.of())
+                .build();
+    }
+
+    private List<UserResponse> participants(int count) {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(user(faker.number().numberBetween(0, 10_000)));
+        }
+        return users;
+    }
+
+    private UserResponse user(int seed) {
+        return UserResponse.builder()
+                .id(String.format("6740a1b2c3d4e5f6%08x", seed))
+                .name(faker.name().fullName())
+                .email(faker.internet().emailAddress())
+                .profileImage("")
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ktb.chatapp.config;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WebSocketCompressionSettings 테스트")
+class WebSocketCompressionSettingsTest {
+
+    private static final int RSV1 = 0x4;
+
+    @Test
+    @DisplayName("threshold 미만 프레임은 압축하지 않고 이상은 압축")
+    void encoder_skipsFramesBelowThreshold() {
+        EmbeddedChannel channel = encoderChannel(new WebSocketCompressionSettings(true, 1024, 6, true), Map.of());
+
+        WebSocketFrame small = write(channel, "42[\"message\",{\"content\":\"hi\"}]");
+        assertThat(small.rsv() & RSV1).isZero();
+        small.release();
+
+        String large = "42[\"previousMessagesLoaded\",{\"messages\":[" + "{\"content\":\"hello\"},".repeat(200) + "]}]";
+        WebSocketFrame compressed = write(channel, large);
+        assertThat(compressed.rsv() & RSV1).isEqualTo(RSV1);
+        assertThat(compressed.content().readableBytes()).isLessThan(large.length() / 10);
+        compressed.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("context-takeover=false이면 클라이언트의 no_context_takeover 제안을 수락")
+    void handshake_acceptsNoContextTakeover() {
+        var offer = new WebSocketExtensionData("permessage-deflate", Map.of("server_no_context_takeover", ""));
+
+        WebSocketServerExtension shared = new WebSocketCompressionSettings(true, 1024, 6, false)
+                .perMessageDeflate().handshakeExtension(offer);
+        WebSocketServerExtension takeover = new WebSocketCompressionSettings(true, 1024, 6, true)
+                .perMessageDeflate().handshakeExtension(offer);
+
+        assertThat(shared.newReponseData().parameters()).containsKey("server_no_context_takeover");
+        assertThat(takeover).isNull();
+    }
+
+    private EmbeddedChannel encoderChannel(WebSocketCompressionSettings settings, Map<String, String> params) {
+        WebSocketServerExtension extension = settings.perMessageDeflate()
+                .handshakeExtension(new WebSocketExtensionData("permessage-deflate", params));
+        return new EmbeddedChannel(extension.newExtensionEncoder());
+    }
+
+    private WebSocketFrame write(EmbeddedChannel channel, String text) {
+        channel.writeOutbound(new TextWebSocketFrame(Unpooled.copiedBuffer(text, StandardCharsets.UTF_8)));
+        return channel.readOutbound();
+    }
+}
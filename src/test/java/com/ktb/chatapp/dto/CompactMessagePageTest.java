@@ -0,0 +1,71 @@
+package com.ktb.chatapp.dto;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompactMessagePage 변환 단위 테스트
+ */
+@DisplayName("CompactMessagePage 테스트")
+class CompactMessagePageTest {
+
+    private final UserResponse alice = UserResponse.builder().id("alice").name("Alice").build();
+    private final UserResponse bob = UserResponse.builder().id("bob").name("Bob").build();
+
+    @Test
+    @DisplayName("읽음/리액션 목록을 개수와 조회자 기준 값으로 축약")
+    void compactsReadersAndReactionsForViewer() {
+        MessageResponse message = message("m1", alice);
+        message.setReaders(List.of(reader("alice"), reader("bob")));
+        message.setReactions(Map.of("👍", Set.of("alice", "bob"), "❤️", Set.of("alice")));
+
+        CompactMessageResponse compact = CompactMessageResponse.from(message, "bob", false);
+
+        assertThat(compact.getReaderCount()).isEqualTo(2);
+        assertThat(compact.isReadByMe()).isTrue();
+        assertThat(compact.getReactions()).containsEntry("👍", 2).containsEntry("❤️", 1);
+        assertThat(compact.getMyReactions()).containsExactly("👍");
+        assertThat(compact.getSenderId()).isEqualTo("alice");
+        assertThat(compact.getSender()).isNull();
+    }
+
+    @Test
+    @DisplayName("페이지의 sender는 한 번씩만 포함")
+    void internsSendersOncePerPage() {
+        FetchMessagesResponse page = new FetchMessagesResponse(
+                List.of(message("m1", alice), message("m2", bob), message("m3", alice)), true);
+
+        CompactMessagePage compact = CompactMessagePage.from(page, "carol");
+
+        assertThat(compact.getMessages()).hasSize(3);
+        assertThat(compact.getSenders()).containsOnlyKeys("alice", "bob");
+        assertThat(compact.getMessages()).allSatisfy(m -> {
+            assertThat(m.isReadByMe()).isFalse();
+            assertThat(m.getReactions()).isNull();
+        });
+        assertThat(compact.isHasMore()).isTrue();
+    }
+
+    private MessageResponse message(String id, UserResponse sender) {
+        return MessageResponse.builder()
+                .id(id)
+                .roomId("room")
+                .content("hello")
+                .type(MessageType.text)
+                .sender(sender)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private Message.MessageReader reader(String userId) {
+        return new Message.MessageReader(userId, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,72 @@
+package com.ktb.chatapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LargeRoomPolicy 테스트")
+class LargeRoomPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LargeRoomPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new LargeRoomPolicy(meterRegistry, 100, 80, 20);
+    }
+
+    @Test
+    @DisplayName("enter-threshold 이상이면 대형 방, exit-threshold 미만이 되어야 일반 모드로 복귀")
+    void update_appliesHysteresis() {
+        assertThat(policy.update("room", 99)).isFalse();
+        assertThat(policy.update("room", 100)).isTrue();
+        assertThat(policy.update("room", 90)).isTrue();
+        assertThat(policy.update("room", 80)).isTrue();
+        assertThat(policy.update("room", 79)).isFalse();
+        assertThat(policy.update("room", 90)).isFalse();
+        assertThat(policy.isLarge("room")).isFalse();
+
+        assertThat(meterRegistry.counter("socketio.large-room.transitions", "to", "large").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("socketio.large-room.transitions", "to", "normal").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("관찰하지 않았거나 삭제된 방은 일반 모드")
+    void isLarge_unknownOrForgottenRoomIsNormal() {
+        policy.update("room", 500);
+        assertThat(policy.isLarge("room")).isTrue();
+        assertThat(policy.isLarge("other")).isFalse();
+
+        policy.forget("room");
+        assertThat(policy.isLarge("room")).isFalse();
+        assertThat(meterRegistry.get("socketio.large-room.rooms").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("참가자 수로 판정만 할 때는 모드와 전환 지표를 바꾸지 않음")
+    void isLargeWithCount_doesNotChangeMode() {
+        assertThat(policy.isLarge("room", 100)).isTrue();
+        assertThat(policy.isLarge("room", 90)).isFalse();
+        assertThat(policy.isLarge("room")).isFalse();
+
+        policy.update("room", 100);
+        assertThat(policy.isLarge("room", 90)).isTrue();
+        assertThat(policy.isLarge("room", 79)).isFalse();
+        assertThat(policy.isLarge("room")).isTrue();
+
+        assertThat(meterRegistry.counter("socketio.large-room.transitions", "to", "large").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("socketio.large-room.transitions", "to", "normal").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("exit-threshold가 enter-threshold보다 크면 설정 오류")
+    void constructor_rejectsInvertedThresholds() {
+        assertThatThrownBy(() -> new LargeRoomPolicy(meterRegistry, 80, 100, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.model.RetentionPolicy;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.repository.RoomRepository;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(MongoTestContainer.class)
+@TestPropertySource(properties = {
+        "socketio.enabled=false"
+})
+@DisplayName("MessageRetentionTrimmer 통합 테스트")
+class MessageRetentionTrimmerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("개수 정책을 넘는 오래된 메시지를 배치로 삭제하고 통계를 남긴다")
+    void trimNextBatch_keepsLatestMessages() {
+        Room room = saveRoom(RetentionPolicy.builder().maxMessages(25).build());
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        IntStream.range(0, 60).forEach(i -> saveMessage(room.getId(), base.plusSeconds(i)));
+
+        runOnce(new MessageRetentionTrimmer(mongoTemplate, 10, 100));
+
+        assertThat(messageRepository.count()).isEqualTo(25);
+        assertThat(roomRepository.findById(room.getId()).orElseThrow().getRetention().getTrimmedCount())
+                .isEqualTo(35);
+    }
+
+    @Test
+    @DisplayName("배치 예산을 넘으면 남은 분량은 다음 실행으로 넘기고 통계는 남긴다")
+    void trimNextBatch_respectsBatchBudget() {
+        Room room = saveRoom(RetentionPolicy.builder().maxAgeDays(1).build());
+        LocalDateTime old = LocalDateTime.now().minusDays(3);
+        IntStream.range(0, 50).forEach(i -> saveMessage(room.getId(), old.plusSeconds(i)));
+        MessageRetentionTrimmer trimmer = new MessageRetentionTrimmer(mongoTemplate, 10, 2);
+
+        runOnce(trimmer);
+        assertThat(messageRepository.count()).isEqualTo(30);
+        assertThat(roomRepository.findById(room.getId()).orElseThrow().getRetention().getTrimmedCount())
+                .isEqualTo(20);
+
+        runOnce(trimmer);
+        assertThat(messageRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("예산이 떨어져 밀린 방은 다음 실행에서 먼저 정리한다")
+    void planRun_startsWithDeferredRooms() {
+        Room busy = saveRoom(RetentionPolicy.builder().maxMessages(1).build());
+        Room quiet = saveRoom(RetentionPolicy.builder().maxAgeDays(1).build());
+        LocalDateTime old = LocalDateTime.now().minusDays(3);
+        IntStream.range(0, 10).forEach(i -> saveMessage(quiet.getId(), old.plusSeconds(i)));
+        MessageRetentionTrimmer trimmer = new MessageRetentionTrimmer(mongoTemplate, 10, 2);
+
+        // 앞쪽 방이 매번 예산 2배치를 다 쓸 만큼 메시지가 쌓인다
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        IntStream.range(0, 20).forEach(i -> saveMessage(busy.getId(), base.plusSeconds(i)));
+        runOnce(trimmer);
+        assertThat(countIn(quiet)).isEqualTo(10);
+
+        IntStream.range(20, 40).forEach(i -> saveMessage(busy.getId(), base.plusSeconds(i)));
+        runOnce(trimmer);
+        assertThat(countIn(quiet)).isZero();
+    }
+
+    /**
+     * 정리 대상을 잡고 남은 방이 없어질 때까지 배치 tick을 돌린다.
+     */
+    private void runOnce(MessageRetentionTrimmer trimmer) {
+        trimmer.planRun();
+        for (int i = 0; i < 1_000; i++) {
+            trimmer.trimNextBatch();
+        }
+    }
+
+    private long countIn(Room room) {
+        return mongoTemplate.count(Query.query(Criteria.where("room").is(room.getId())), Message.class);
+    }
+
+    private Room saveRoom(RetentionPolicy policy) {
+        return roomRepository.save(Room.builder()
+                .name("retention")
+                .retention(policy)
+                .build());
+    }
+
+    private void saveMessage(String roomId, LocalDateTime timestamp) {
+        Message message = new Message();
+        message.setRoomId(roomId);
+        message.setContent("message");
+        message.setType(MessageType.text);
+        message.setTimestamp(timestamp);
+        message.setIsDeleted(false);
+        messageRepository.save(message);
+    }
+}
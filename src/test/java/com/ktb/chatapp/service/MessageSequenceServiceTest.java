@@ -0,0 +1,65 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.RoomSequence;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("MessageSequenceService 테스트")
+class MessageSequenceServiceTest {
+
+    @Test
+    @DisplayName("블록 단위로 예약하고 블록 안에서는 DB 왕복 없이 연속 발급")
+    void next_reservesOncePerBlock() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        AtomicLong counter = new AtomicLong();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(RoomSequence.class)))
+                .thenAnswer(invocation -> new RoomSequence("room", counter.addAndGet(10)));
+
+        MessageSequenceService service = new MessageSequenceService(mongoTemplate, 10);
+
+        long[] issued = LongStream.range(0, 25).map(i -> service.next("room")).toArray();
+
+        assertThat(issued).containsExactly(LongStream.rangeClosed(1, 25).toArray());
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(RoomSequence.class));
+    }
+
+    @Test
+    @DisplayName("재시작한 노드는 이전 블록 잔여분을 건너뛰고 이어서 발급")
+    void next_afterRestart_skipsUnusedBlockTail() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        AtomicLong counter = new AtomicLong();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(RoomSequence.class)))
+                .thenAnswer(invocation -> new RoomSequence("room", counter.addAndGet(10)));
+
+        MessageSequenceService before = new MessageSequenceService(mongoTemplate, 10);
+        assertThat(before.next("room")).isEqualTo(1);
+
+        MessageSequenceService restarted = new MessageSequenceService(mongoTemplate, 10);
+        assertThat(restarted.next("room")).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("방 삭제 시 room_sequences 카운터도 삭제")
+    void release_removesCounterDocument() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MessageSequenceService service = new MessageSequenceService(mongoTemplate, 1);
+
+        service.release("room");
+
+        verify(mongoTemplate).remove(any(Query.class), eq(RoomSequence.class));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.RoomReadCursor;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.mongodb.client.result.UpdateResult;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReadCountService 테스트")
+class ReadCountServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private MessageRepository messageRepository;
+    private ReadCountService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        messageRepository = mock(MessageRepository.class);
+        service = new ReadCountService(mongoTemplate, messageRepository);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(RoomReadCursor.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    @DisplayName("큰 seq를 먼저 읽은 뒤 늦게 보인 작은 seq도 한 번 센다")
+    void recordReads_countsLowerSeqArrivingLate() {
+        cursor(5, List.of(7L), 3);
+        when(messageRepository.findSeqsByIds(anyList(), eq("room"))).thenReturn(List.of(message("m6", 6, 1)));
+
+        assertThat(service.recordReads("room", "alice", List.of("m6"))).containsExactly("m6");
+
+        verify(messageRepository).incrementReadCount(List.of("m6"), "alice");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(RoomReadCursor.class));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("seq", 7L)
+                .containsEntry("readSeqs", List.of())
+                .containsEntry("version", 4L);
+    }
+
+    @Test
+    @DisplayName("이미 센 seq는 다시 세지 않는다")
+    void recordReads_skipsCountedSeqs() {
+        cursor(5, List.of(7L), 1);
+        when(messageRepository.findSeqsByIds(anyList(), eq("room")))
+                .thenReturn(List.of(message("m5", 5, 3), message("m7", 7, 3)));
+
+        assertThat(service.recordReads("room", "alice", List.of("m5", "m7"))).isEmpty();
+
+        verify(messageRepository, never()).incrementReadCount(anyList(), anyString());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(RoomReadCursor.class));
+    }
+
+    @Test
+    @DisplayName("일반 모드에서는 readCount로 세던 메시지만 센다")
+    void recordCountedReads_onlyCountsCountedMessages() {
+        cursor(0, List.of(), 0);
+        when(messageRepository.findSeqsByIds(anyList(), eq("room")))
+                .thenReturn(List.of(message("m1", 1, 0), message("m2", 2, 4)));
+
+        assertThat(service.recordCountedReads("room", "alice", List.of("m1", "m2"))).containsExactly("m2");
+
+        verify(messageRepository).incrementReadCount(List.of("m2"), "alice");
+    }
+
+    @Test
+    @DisplayName("커서는 최근 TRACKED_WINDOW 안의 seq만 따로 기억한다")
+    void readSeqs_keepsWindowAboveFloor() {
+        ReadCountService.ReadSeqs reads = new ReadCountService.ReadSeqs(0, List.of());
+
+        assertThat(reads.add(3)).isTrue();
+        assertThat(reads.add(1)).isTrue();
+        assertThat(reads.floor).isEqualTo(1);
+        assertThat(reads.add(2)).isTrue();
+        assertThat(reads.floor).isEqualTo(3);
+        assertThat(reads.above).isEmpty();
+
+        assertThat(reads.add(1_000)).isTrue();
+        assertThat(reads.floor).isEqualTo(1_000 - ReadCountService.TRACKED_WINDOW);
+        assertThat(reads.above).containsExactly(1_000L);
+        assertThat(reads.add(10)).isFalse();
+        assertThat(reads.add(999)).isTrue();
+    }
+
+    private void cursor(long seq, List<Long> readSeqs, long version) {
+        when(mongoTemplate.findById(RoomReadCursor.idOf("room", "alice"), RoomReadCursor.class))
+                .thenReturn(RoomReadCursor.builder()
+                        .id(RoomReadCursor.idOf("room", "alice"))
+                        .seq(seq)
+                        .readSeqs(readSeqs)
+                        .version(version)
+                        .build());
+    }
+
+    private static Message message(String id, long seq, long readCount) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSeq(seq);
+        message.setReadCount(readCount);
+        return message;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.dto.RetentionPolicyRequest;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.model.RetentionPolicy;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.repository.RoomRepository;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(MongoTestContainer.class)
+@TestPropertySource(properties = {
+        "socketio.enabled=false"
+})
+@DisplayName("RoomRetentionService 통합 테스트")
+class RoomRetentionServiceTest {
+
+    @Autowired
+    private RoomRetentionService roomRetentionService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private Room room;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        roomRepository.deleteAll();
+        room = roomRepository.save(Room.builder()
+                .name("retention")
+                .retention(RetentionPolicy.builder().maxAgeDays(1).build())
+                .build());
+        message = saveMessage(room.getId(), LocalDateTime.now().minusHours(12).truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    @DisplayName("기간 정책을 늘리면 저장된 메시지의 expireAt도 새 기간으로 다시 계산한다")
+    void updatePolicy_relaxedMaxAge_reschedulesStoredMessages() {
+        assertThat(expireAtOf(message)).isEqualTo(message.getTimestamp().plusDays(1));
+
+        Room updated = roomRetentionService.updatePolicy(room.getId(),
+                RetentionPolicyRequest.builder().maxAgeDays(30).build()).orElseThrow();
+
+        assertThat(updated.getRetention().getMaxAgeDays()).isEqualTo(30);
+        assertThat(expireAtOf(message)).isEqualTo(message.getTimestamp().plusDays(30));
+    }
+
+    @Test
+    @DisplayName("기간 정책을 없애면 저장된 메시지의 expireAt을 지운다")
+    void updatePolicy_removedMaxAge_clearsExpiry() {
+        roomRetentionService.updatePolicy(room.getId(), RetentionPolicyRequest.builder().maxMessages(100).build());
+
+        assertThat(expireAtOf(message)).isNull();
+        Message later = saveMessage(room.getId(), LocalDateTime.now());
+        assertThat(expireAtOf(later)).isNull();
+    }
+
+    private LocalDateTime expireAtOf(Message saved) {
+        LocalDateTime expireAt = messageRepository.findById(saved.getId()).orElseThrow().getExpireAt();
+        return expireAt != null ? expireAt.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+
+    private Message saveMessage(String roomId, LocalDateTime timestamp) {
+        Message message = new Message();
+        message.setRoomId(roomId);
+        message.setContent("message");
+        message.setType(MessageType.text);
+        message.setTimestamp(timestamp);
+        message.setIsDeleted(false);
+        return messageRepository.save(message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.model.RoomMessageSummary;
+import com.ktb.chatapp.repository.MessageRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(MongoTestContainer.class)
+@TestPropertySource(properties = {
+        "socketio.enabled=false"
+})
+@DisplayName("RoomSummaryService 통합 테스트")
+class RoomSummaryServiceTest {
+
+    private static final String ROOM_A = "6740a1b2c3d4e5f600000001";
+    private static final String ROOM_B = "6740a1b2c3d4e5f600000002";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    private RoomSummaryService service;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository.deleteAll();
+        service = new RoomSummaryService(mongoTemplate, 5);
+        base = LocalDateTime.now().minusHours(1);
+    }
+
+    @Test
+    @DisplayName("내가 보낸 메시지, 시스템 메시지, 읽은 메시지는 안 읽은 수에서 빠지고 latestSeq에는 포함")
+    void summarize_excludesOwnAndSystemMessagesFromUnread() {
+        saveMessage(ROOM_A, 1, "bob", MessageType.text, List.of());
+        saveMessage(ROOM_A, 2, "bob", MessageType.text, List.of("alice"));
+        saveMessage(ROOM_A, 3, null, MessageType.system, List.of());
+        saveMessage(ROOM_A, 4, "bob", MessageType.text, List.of());
+        saveMessage(ROOM_A, 5, "alice", MessageType.text, List.of());
+        saveMessage(ROOM_B, 1, "alice", MessageType.text, List.of());
+
+        Map<String, RoomMessageSummary> summaries = summarize(List.of(ROOM_A, ROOM_B));
+
+        assertThat(summaries.get(ROOM_A).unreadCount()).isEqualTo(2);
+        assertThat(summaries.get(ROOM_A).latestSeq()).isEqualTo(5);
+        assertThat(summaries.get(ROOM_A).latestTimestamp()).isNotNull();
+        assertThat(summaries.get(ROOM_B).unreadCount()).isZero();
+        assertThat(summaries.get(ROOM_B).latestSeq()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("안 읽은 수는 최근 unreadCap개 안에서만 세고, 메시지가 없는 방은 결과에 없음")
+    void summarize_capsUnreadAndSkipsEmptyRooms() {
+        IntStream.rangeClosed(1, 8).forEach(seq -> saveMessage(ROOM_A, seq, "bob", MessageType.text, List.of()));
+
+        Map<String, RoomMessageSummary> summaries = summarize(List.of(ROOM_A, ROOM_B));
+
+        assertThat(summaries).containsOnlyKeys(ROOM_A);
+        assertThat(summaries.get(ROOM_A).unreadCount()).isEqualTo(5);
+        assertThat(summaries.get(ROOM_A).latestSeq()).isEqualTo(8);
+        assertThat(service.summarize(List.of(), "alice")).isEmpty();
+    }
+
+    private Map<String, RoomMessageSummary> summarize(List<String> roomIds) {
+        return service.summarize(roomIds, "alice").stream()
+                .collect(Collectors.toMap(RoomMessageSummary::roomId, Function.identity()));
+    }
+
+    private void saveMessage(String roomId, long seq, String senderId, MessageType type, List<String> readers) {
+        Message message = new Message();
+        message.setRoomId(roomId);
+        message.setSeq(seq);
+        message.setSenderId(senderId);
+        message.setType(type);
+        message.setContent("message " + seq);
+        message.setTimestamp(base.plusSeconds(seq));
+        message.setIsDeleted(false);
+        message.setReaders(readers.stream()
+                .map(userId -> Message.MessageReader.builder().userId(userId).readAt(base).build())
+                .collect(Collectors.toList()));
+        messageRepository.save(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LocalChatDataStore 테스트")
+class LocalChatDataStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final LocalChatDataStore store = new LocalChatDataStore(Integer.MAX_VALUE, now::get);
+
+    @Test
+    @DisplayName("동시 setAdd가 서로의 멤버를 덮어쓰지 않는다")
+    void setAdd_isAtomicUnderConcurrency() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 500; i++) {
+                    store.setAdd("rooms", thread + ":" + i);
+                }
+            }));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(store.setMembers("rooms")).hasSize(4_000);
+    }
+
+    @Test
+    @DisplayName("set/hash는 마지막 멤버가 빠지면 키를 지운다")
+    void setAndHash_deleteKeyWhenEmpty() {
+        assertThat(store.setAdd("s", "a")).isTrue();
+        assertThat(store.setAdd("s", "a")).isFalse();
+        assertThat(store.setContains("s", "a")).isTrue();
+        assertThat(store.setRemove("s", "a")).isTrue();
+        assertThat(store.get("s", Object.class)).isEmpty();
+
+        store.hashPut("h", "u1", "socket-1");
+        store.hashPut("h", "u2", "socket-2");
+        assertThat(store.hashGet("h", "u1", String.class)).contains("socket-1");
+        assertThat(store.hashRemove("h", "u1")).isTrue();
+        assertThat(store.hashEntries("h")).isEqualTo(Map.of("u2", "socket-2"));
+        store.hashRemove("h", "u2");
+        assertThat(store.get("h", Object.class)).isEmpty();
+
+        store.set("plain", "value");
+        assertThatThrownBy(() -> store.setAdd("plain", "a")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("TTL이 지난 키는 조회되지 않고 set은 TTL을 해제한다")
+    void ttl_expiresKeys() {
+        store.set("k", "v", Duration.ofSeconds(1));
+        store.setAdd("s", "a");
+        assertThat(store.expire("s", Duration.ofMillis(500))).isTrue();
+        assertThat(store.expire("missing", Duration.ofSeconds(1))).isFalse();
+
+        now.addAndGet(500);
+        assertThat(store.setContains("s", "a")).isFalse();
+        assertThat(store.get("k", String.class)).contains("v");
+
+        store.set("k", "v2");
+        now.addAndGet(1_000);
+        assertThat(store.get("k", String.class)).contains("v2");
+    }
+
+    @Test
+    @DisplayName("접근이 없어도 hashed wheel이 만료된 키를 지운다")
+    void expirySweep_removesUntouchedKeys() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (LocalChatDataStore realClock = new LocalChatDataStore(100).bindTo(meterRegistry)) {
+            realClock.set("conn_users:userid:u1", "socket", Duration.ofMillis(100));
+            realClock.setAdd("userroom:roomids:u1", "r1");
+            realClock.expire("userroom:roomids:u1", Duration.ofMillis(100));
+            realClock.setAdd("userroom:roomids:u2", "r1");
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (realClock.size() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(realClock.size()).isEqualTo(1);
+            assertThat(meterRegistry.get("socketio.store.removed").tag("reason", "expired").counter().count())
+                    .isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("max-entries를 넘으면 TTL이 걸린 엔트리만 축출하고 TTL이 없는 엔트리는 남긴다")
+    void maxEntries_evictsOnlyExpiringEntries() {
+        LocalChatDataStore bounded = new LocalChatDataStore(3, now::get);
+        bounded.setAdd("userroom:roomids:active", "r1");
+        bounded.setAdd("userroom:roomids:gone", "r1");
+        bounded.expire("userroom:roomids:gone", Duration.ofHours(1));
+        bounded.setAdd("userroom:roomids:other", "r1");
+
+        bounded.setAdd("userroom:roomids:new", "r1");
+
+        assertThat(bounded.size()).isEqualTo(3);
+        assertThat(bounded.setMembers("userroom:roomids:gone")).isEmpty();
+        assertThat(bounded.setContains("userroom:roomids:new", "r1")).isTrue();
+
+        // 접속 중인 사용자의 방 목록은 max-entries를 넘어도 지우지 않는다
+        bounded.setAdd("userroom:roomids:late", "r1");
+        assertThat(bounded.size()).isEqualTo(4);
+        assertThat(bounded.setContains("userroom:roomids:active", "r1")).isTrue();
+        assertThat(bounded.setContains("userroom:roomids:other", "r1")).isTrue();
+        bounded.close();
+    }
+
+    @Test
+    @DisplayName("고정 prefix 키는 TTL이 있어도 축출하지 않는다")
+    void maxEntries_neverEvictsPinnedKeys() {
+        LocalChatDataStore bounded = new LocalChatDataStore(2, Set.of("conn_users:userid:"), now::get);
+        bounded.set("conn_users:userid:u1", "socket-1", Duration.ofHours(24));
+        bounded.set("conn_users:userid:u2", "socket-2", Duration.ofHours(24));
+        bounded.setAdd("userroom:roomids:u1", "r1");
+        bounded.expire("userroom:roomids:u1", Duration.ofHours(24));
+
+        bounded.set("conn_users:userid:u3", "socket-3", Duration.ofHours(24));
+
+        assertThat(bounded.get("conn_users:userid:u1", String.class)).contains("socket-1");
+        assertThat(bounded.get("conn_users:userid:u2", String.class)).contains("socket-2");
+        assertThat(bounded.get("conn_users:userid:u3", String.class)).contains("socket-3");
+        assertThat(bounded.setMembers("userroom:roomids:u1")).isEmpty();
+        bounded.close();
+    }
+
+    @Test
+    @DisplayName("prefix별 엔트리 수와 대략적인 점유 바이트를 노출한다")
+    void refreshStats_exposesPerPrefixGauges() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalChatDataStore measured = new LocalChatDataStore(100, now::get).bindTo(meterRegistry);
+        measured.setAdd("userroom:roomids:u1", "r1");
+        measured.setAdd("userroom:roomids:u2", "r1");
+        measured.setAdd("userroom:roomids:u2", "r2");
+        measured.set("conn_users:userid:u1", new SocketUser("u1", "name", "session", "socket"));
+
+        measured.refreshStats();
+
+        assertThat(meterRegistry.get("socketio.store.entries").tag("prefix", "userroom:roomids:").gauge().value())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("socketio.store.entries").tag("prefix", "conn_users:userid:").gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("socketio.store.bytes").tag("prefix", "userroom:roomids:").gauge().value())
+                .isGreaterThan(meterRegistry.get("socketio.store.bytes").tag("prefix", "conn_users:userid:").gauge().value());
+        measured.close();
+    }
+
+    @Test
+    @DisplayName("키 prefix는 마지막 구분자까지")
+    void prefixOf_usesLastSeparator() {
+        assertThat(LocalChatDataStore.prefixOf("userroom:roomids:u1")).isEqualTo("userroom:roomids:");
+        assertThat(LocalChatDataStore.prefixOf("plain")).isEqualTo("plain");
+    }
+}
@@ -0,0 +1,59 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재시작 복구 시간 측정.
+ * 사용자별 방 목록(set)과 TTL이 걸린 연결 정보를 합쳐 ENTRIES개 키를 기록한 뒤
+ * 두 번 재생(첫 번째는 JIT 워밍업 전, 두 번째는 compaction 후)해 로그 크기와 복구 시간을 출력한다.
+ *
+ * 실행: ./mvnw test -Dtest=PersistentChatDataStoreBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PersistentChatDataStoreBenchmarkTest {
+
+    private static final int ENTRIES = Integer.getInteger("benchmark.entries", 1_000_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoveryTime() throws Exception {
+        Path path = dir.resolve("store.log");
+        long writeStart = System.nanoTime();
+        try (PersistentChatDataStore store = new PersistentChatDataStore(new LocalChatDataStore(), path, Long.MAX_VALUE)) {
+            for (int i = 0; i < ENTRIES / 2; i++) {
+                String userId = String.format("6740a1b2c3d4e5f6%08x", i);
+                store.setAdd("userrooms:" + userId, "6740a1b2c3d4e5f6a7b8c9d" + (i % 10));
+                store.setAdd("userrooms:" + userId, "6740a1b2c3d4e5f6a7b8c9e" + (i % 10));
+                store.set("conn_users:userid:" + userId, "socket-" + i, Duration.ofHours(24));
+            }
+        }
+        double writeMs = (System.nanoTime() - writeStart) / 1e6;
+
+        System.out.printf("%-12s %10s %12s %12s%n", "log", "entries", "file MB", "recover ms");
+        System.out.printf("%-12s %10d %12s %12.0f%n", "write", ENTRIES, "-", writeMs);
+        report("raw", path);
+
+        try (PersistentChatDataStore store = new PersistentChatDataStore(new LocalChatDataStore(), path, Long.MAX_VALUE)) {
+            store.compact();
+        }
+        report("compacted", path);
+    }
+
+    private void report(String name, Path path) throws Exception {
+        long start = System.nanoTime();
+        try (PersistentChatDataStore store = new PersistentChatDataStore(new LocalChatDataStore(), path, Long.MAX_VALUE)) {
+            double millis = (System.nanoTime() - start) / 1e6;
+            assertThat(store.logSize()).isPositive();
+            // 파일은 매핑 단위로 미리 늘어나 있으므로 실제 기록된 로그 크기를 출력한다
+            System.out.printf("%-12s %10d %12.1f %12.0f%n", name, ENTRIES, store.logSize() / 1e6, millis);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PersistentChatDataStore 테스트")
+class PersistentChatDataStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private PersistentChatDataStore open() {
+        return new PersistentChatDataStore(new LocalChatDataStore(), dir.resolve("store.log"), 0);
+    }
+
+    @Test
+    @DisplayName("재시작하면 값, set, hash, TTL을 복구한다")
+    void restart_recoversState() {
+        try (PersistentChatDataStore store = open()) {
+            store.set("plain", "value");
+            store.set("count", 42L);
+            store.set("ttl", "short", Duration.ofHours(1));
+            store.set("gone", "value", Duration.ofMillis(1));
+            store.setAdd("userrooms:u1", "r1");
+            store.setAdd("userrooms:u1", "r2");
+            store.setRemove("userrooms:u1", "r1");
+            store.hashPut("hash", "a", "1");
+            store.hashPut("hash", "b", "2");
+            store.hashRemove("hash", "a");
+            store.set("deleted", "value");
+            store.delete("deleted");
+            store.expire("userrooms:u1", Duration.ofHours(1));
+            store.persist("userrooms:u1");
+        }
+
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.get("plain", String.class)).contains("value");
+            assertThat(store.get("count", Long.class)).contains(42L);
+            assertThat(store.get("ttl", String.class)).contains("short");
+            assertThat(store.get("gone", String.class)).isEmpty();
+            assertThat(store.get("deleted", String.class)).isEmpty();
+            assertThat(store.setMembers("userrooms:u1")).containsExactly("r2");
+            assertThat(store.hashEntries("hash")).isEqualTo(Map.of("b", "2"));
+        }
+    }
+
+    @Test
+    @DisplayName("비정상 종료 뒤 TTL 없이 남은 방 목록에는 복구 시 user-rooms-ttl을 건다")
+    void restart_expiresUnboundedUserRooms() throws InterruptedException {
+        try (PersistentChatDataStore store = open()) {
+            store.setAdd("userroom:roomids:online", "r1");
+            store.setAdd("userroom:roomids:offline", "r1");
+            store.expire("userroom:roomids:offline", Duration.ofMillis(1));
+            store.setAdd("other", "kept");
+        }
+
+        Map<String, Duration> recoveredTtls = Map.of("userroom:roomids:", Duration.ofMillis(200));
+        try (PersistentChatDataStore store = new PersistentChatDataStore(new LocalChatDataStore(),
+                dir.resolve("store.log"), 0, recoveredTtls)) {
+            assertThat(store.setMembers("userroom:roomids:online")).containsExactly("r1");
+            assertThat(store.setMembers("userroom:roomids:offline")).isEmpty();
+        }
+
+        // TTL도 로그에 남으므로 다음 재시작에서 prefix 설정 없이도 만료된다
+        Thread.sleep(300);
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.setMembers("userroom:roomids:online")).isEmpty();
+            assertThat(store.setMembers("other")).containsExactly("kept");
+        }
+    }
+
+    @Test
+    @DisplayName("compaction은 현재 상태만 남겨 로그를 줄인다")
+    void compact_shrinksLog() {
+        try (PersistentChatDataStore store = open()) {
+            for (int i = 0; i < 1_000; i++) {
+                store.setAdd("rooms", "r" + i);
+                store.setRemove("rooms", "r" + i);
+            }
+            store.setAdd("rooms", "kept");
+            store.set("ttl", "value", Duration.ofHours(1));
+            long before = store.logSize();
+
+            store.compact();
+
+            assertThat(store.logSize()).isLessThan(before / 10);
+            store.setAdd("rooms", "after");
+        }
+
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.setMembers("rooms")).containsExactlyInAnyOrder("kept", "after");
+            assertThat(store.get("ttl", String.class)).contains("value");
+        }
+    }
+
+    @Test
+    @DisplayName("기록 중 끊긴 마지막 레코드는 버리고 이어서 쓴다")
+    void tornTail_isDiscarded() throws IOException {
+        long tail;
+        try (PersistentChatDataStore store = open()) {
+            store.setAdd("rooms", "r1");
+            tail = store.logSize();
+            store.setAdd("rooms", "r2");
+        }
+        try (FileChannel channel = FileChannel.open(dir.resolve("store.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), tail + 10);
+        }
+
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.setMembers("rooms")).containsExactly("r1");
+            assertThat(store.logSize()).isEqualTo(tail);
+            store.setAdd("rooms", "r3");
+        }
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.setMembers("rooms")).containsExactlyInAnyOrder("r1", "r3");
+        }
+    }
+
+    @Test
+    @DisplayName("허용되지 않은 타입이나 복원할 수 없는 값은 건너뛰고 나머지를 복구한다")
+    void replay_skipsUndecodableRecords() throws IOException {
+        SocketUser user = new SocketUser("u1", "name", "auth", "socket");
+        try (PersistentChatDataStore store = open()) {
+            store.set("conn_users:userid:u1", user, Duration.ofHours(1));
+            store.set("conn_users:userid:u2", user);
+            assertThatThrownBy(() -> store.set("thread", Thread.currentThread()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        try (MappedAppendLog appendLog = new MappedAppendLog(dir.resolve("store.log"))) {
+            appendLog.replay(record -> { });
+            appendLog.append(jsonSet("gadget", "java.net.URL", "\"http://example.com\""));
+            appendLog.append(jsonSet("conn_users:userid:u2", SocketUser.class.getName(), "{not json"));
+            appendLog.append(jsonSet("conn_users:userid:u3", SocketUser.class.getName(), "{\"id\":\"u3\",\"removed\":1}"));
+        }
+
+        try (PersistentChatDataStore store = open()) {
+            assertThat(store.get("conn_users:userid:u1", SocketUser.class)).contains(user);
+            assertThat(store.get("conn_users:userid:u2", SocketUser.class)).isEmpty();
+            assertThat(store.get("gadget", Object.class)).isEmpty();
+            assertThat(store.get("conn_users:userid:u3", SocketUser.class))
+                    .contains(new SocketUser("u3", null, null, null));
+        }
+    }
+
+    // PersistentChatDataStore의 SET 레코드 형식: op, key, expiresAt, JSON 값(클래스 이름, 본문)
+    private static byte[] jsonSet(String key, String className, String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        writeString(out, key);
+        out.writeLong(0);
+        out.writeByte(2);
+        writeString(out, className);
+        writeString(out, json);
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import com.ktb.chatapp.websocket.socketio.ordinal.IntHashSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 사용자별 방 목록의 메모리/조회 비용 비교 (USERS명 × 방 ROOMS_PER_USER개, 방은 ROOMS개 중에서 고른다).
+ * <ul>
+ *   <li>string sets: 기존 UserRooms 경로. LocalChatDataStore에 "userroom:roomids:" + userId 키로 방 ID 문자열 set을 둔다.
+ *       요청마다 역직렬화된 ID를 쓰므로 방 ID 문자열은 사용자마다 별도 인스턴스다.</li>
+ *   <li>ordinals: IdInterner + UserRoomIndex. intern 테이블 자체의 비용을 포함한다.</li>
+ * </ul>
+ * 힙 사용량은 GC 직후 값의 차이로 잰다.
+ *
+ * 실행: ./mvnw test -Dtest=UserRoomsMemoryBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserRoomsMemoryBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int ROOMS = Integer.getInteger("benchmark.rooms", 100_000);
+    private static final int ROOMS_PER_USER = 10;
+    private static final int LOOKUPS = 5_000_000;
+
+    @Test
+    void memoryAndLookupCost() {
+        System.out.printf("%-14s %12s %14s %14s%n", "structure", "heap MB", "B/membership", "lookups/s");
+        stringSets();
+        ordinals();
+    }
+
+    private void stringSets() {
+        long base = usedAfterGc();
+        LocalChatDataStore store = new LocalChatDataStore();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int user = 0; user < USERS; user++) {
+            String key = "userroom:roomids:" + userId(user);
+            for (int i = 0; i < ROOMS_PER_USER; i++) {
+                store.setAdd(key, roomId(random.nextInt(ROOMS)));
+            }
+        }
+        long bytes = usedAfterGc() - base;
+        double lookups = lookups((userId, roomId) -> store.setContains("userroom:roomids:" + userId, roomId));
+        report("string sets", bytes, lookups);
+        store.close();
+    }
+
+    private void ordinals() {
+        long base = usedAfterGc();
+        IdInterner interner = new IdInterner(new SimpleMeterRegistry());
+        UserRoomIndex index = new UserRoomIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int user = 0; user < USERS; user++) {
+            IntHashSet rooms = new IntHashSet(ROOMS_PER_USER);
+            for (int i = 0; i < ROOMS_PER_USER; i++) {
+                rooms.add(interner.acquire(roomId(random.nextInt(ROOMS))));
+            }
+            index.load(interner.acquire(userId(user)), rooms);
+        }
+        long bytes = usedAfterGc() - base;
+        double lookups = lookups((userId, roomId) -> {
+            IntHashSet rooms = index.rooms(interner.find(userId));
+            int room = interner.find(roomId);
+            return rooms != null && room >= 0 && rooms.contains(room);
+        });
+        report("ordinals", bytes, lookups);
+        Reference.reachabilityFence(index);
+    }
+
+    private void report(String name, long bytes, double lookupsPerSecond) {
+        System.out.printf("%-14s %12.1f %14.1f %14.0f%n",
+                name, bytes / 1e6, (double) bytes / ((long) USERS * ROOMS_PER_USER), lookupsPerSecond);
+    }
+
+    private double lookups(Membership membership) {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] users = new String[1024];
+        String[] rooms = new String[1024];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = userId(random.nextInt(USERS));
+            rooms[i] = roomId(random.nextInt(ROOMS));
+        }
+        int hits = 0;
+        // 워밍업
+        for (int i = 0; i < LOOKUPS / 4; i++) {
+            hits += membership.contains(users[i & 1023], rooms[(i >>> 10) & 1023]) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits += membership.contains(users[i & 1023], rooms[(i >>> 10) & 1023]) ? 1 : 0;
+        }
+        double perSecond = LOOKUPS / ((System.nanoTime() - start) / 1e9);
+        return hits >= 0 ? perSecond : 0;
+    }
+
+    private static String userId(int user) {
+        return String.format("6740a1b2c3d4e5f6%08x", user);
+    }
+
+    private static String roomId(int room) {
+        return String.format("6740a1b2c3d4e5f7%08x", room);
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @FunctionalInterface
+    private interface Membership {
+        boolean contains(String userId, String roomId);
+    }
+}
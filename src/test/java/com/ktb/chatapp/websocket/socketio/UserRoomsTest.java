@@ -0,0 +1,139 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserRooms 테스트")
+class UserRoomsTest {
+
+    private static final String USER = "6740a1b2c3d4e5f600000001";
+    private static final String ROOM_1 = "6740a1b2c3d4e5f6a7b8c9d0";
+    private static final String ROOM_2 = "6740a1b2c3d4e5f6a7b8c9d1";
+
+    private final LocalChatDataStore store = new LocalChatDataStore();
+    private final IdInterner interner = new IdInterner(new SimpleMeterRegistry());
+    private final UserRooms userRooms = new UserRooms(store, interner, Duration.ofHours(24));
+
+    @Test
+    @DisplayName("연결 중에는 ordinal 인덱스로 조회하고 변경은 저장소에도 기록한다")
+    void retainAndExpire_writeThroughToStore() {
+        userRooms.add(USER, ROOM_1);
+        store.expire("userroom:roomids:" + USER, Duration.ofHours(1));
+
+        userRooms.retain(USER);
+        assertThat(store.setMembers("userroom:roomids:" + USER)).containsExactly(ROOM_1);
+        assertThat(store.persist("userroom:roomids:" + USER)).isTrue();
+        assertThat(userRooms.add(USER, ROOM_2)).isTrue();
+        assertThat(store.setMembers("userroom:roomids:" + USER)).containsExactlyInAnyOrder(ROOM_1, ROOM_2);
+        assertThat(userRooms.add(USER, ROOM_2)).isFalse();
+        assertThat(userRooms.isInRoom(USER, ROOM_1)).isTrue();
+        assertThat(userRooms.isInRoom(USER, "6740a1b2c3d4e5f6a7b8c9ff")).isFalse();
+        assertThat(userRooms.remove(USER, ROOM_1)).isTrue();
+        assertThat(userRooms.get(USER)).containsExactly(ROOM_2);
+        assertThat(store.setMembers("userroom:roomids:" + USER)).containsExactly(ROOM_2);
+
+        userRooms.expireAfterDisconnect(USER);
+        assertThat(store.setMembers("userroom:roomids:" + USER)).containsExactly(ROOM_2);
+        assertThat(userRooms.isInRoom(USER, ROOM_2)).isTrue();
+
+        userRooms.retain(USER);
+        assertThat(userRooms.get(USER)).containsExactly(ROOM_2);
+    }
+
+    @Test
+    @DisplayName("종료 시 연결 중인 사용자의 방 목록에도 TTL을 건다")
+    void expireAll_setsTtlOnLoadedUsers() {
+        AtomicLong now = new AtomicLong(1_000);
+        LocalChatDataStore timed = new LocalChatDataStore(Integer.MAX_VALUE, now::get);
+        UserRooms rooms = new UserRooms(timed, interner, Duration.ofMinutes(1));
+        rooms.retain(USER);
+        rooms.add(USER, ROOM_1);
+
+        rooms.expireAll();
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+
+        assertThat(timed.setMembers("userroom:roomids:" + USER)).isEmpty();
+        timed.close();
+    }
+
+    @Test
+    @DisplayName("방을 떠나거나 연결이 끊기면 interner ordinal을 반납한다")
+    void leaveAndDisconnect_releaseOrdinals() {
+        userRooms.retain(USER);
+        userRooms.add(USER, ROOM_1);
+        userRooms.add(USER, ROOM_2);
+        assertThat(interner.size()).isEqualTo(3);
+
+        userRooms.remove(USER, ROOM_1);
+        assertThat(interner.find(ROOM_1)).isEqualTo(-1);
+
+        userRooms.expireAfterDisconnect(USER);
+        assertThat(interner.size()).isZero();
+        assertThat(store.setMembers("userroom:roomids:" + USER)).containsExactly(ROOM_2);
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 동시 입장/퇴장과 재연결이 겹쳐도 변경이 유실되지 않는다")
+    void concurrentJoinLeave_loseNoUpdates() throws Exception {
+        int threads = 8;
+        int roomsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                for (int i = 0; i < roomsPerThread; i++) {
+                    String roomId = String.format("6740a1b2c3d4%04x%08x", thread, i);
+                    assertThat(userRooms.add(USER, roomId)).isTrue();
+                    assertThat(userRooms.isInRoom(USER, roomId)).isTrue();
+                    if (i % 2 == 1) {
+                        assertThat(userRooms.remove(USER, roomId)).isTrue();
+                    }
+                }
+            }, executor));
+        }
+        // 입장/퇴장 중 연결/해제를 반복해 인덱스와 저장소 사이 이동과 경합시킨다
+        CompletableFuture<Void> reconnects = CompletableFuture.runAsync(() -> {
+            await(start);
+            while (running.get()) {
+                userRooms.retain(USER);
+                assertThat(userRooms.get(USER).size()).isLessThanOrEqualTo(threads * roomsPerThread);
+                userRooms.expireAfterDisconnect(USER);
+            }
+        }, executor);
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        running.set(false);
+        reconnects.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Set<String> rooms = userRooms.get(USER);
+        assertThat(rooms).hasSize(threads * roomsPerThread / 2);
+        assertThat(rooms).allMatch(roomId -> Integer.parseInt(roomId.substring(16), 16) % 2 == 0);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * UserRooms 처리량: 잠금 하나(stripes=1)와 사용자별 striped lock 비교.
+ * 스레드마다 서로 다른 사용자 USERS명을 맡아 isInRoom 80%, add/remove 20%를 섞어 호출한다.
+ * 모든 사용자는 retain되어 있어 ordinal 인덱스 경로를 탄다.
+ *
+ * 실행: ./mvnw test -Dtest=UserRoomsThroughputBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserRoomsThroughputBenchmarkTest {
+
+    private static final int USERS = 10_000;
+    private static final int ROOMS = 1_000;
+    private static final long MILLIS = Long.getLong("benchmark.millis", 2_000);
+
+    @Test
+    void throughput() throws Exception {
+        System.out.printf("availableProcessors=%d%n", Runtime.getRuntime().availableProcessors());
+        // 워밍업
+        run(64, 4, false);
+        System.out.printf("%-8s %8s %14s%n", "stripes", "threads", "ops/s");
+        for (int stripes : new int[]{1, 64}) {
+            for (int threads : new int[]{1, 4, 8}) {
+                run(stripes, threads, true);
+            }
+        }
+    }
+
+    private void run(int stripes, int threads, boolean report) throws Exception {
+        LocalChatDataStore store = new LocalChatDataStore();
+        UserRooms userRooms = new UserRooms(store, new IdInterner(new SimpleMeterRegistry()), Duration.ofHours(24), stripes);
+        String[] rooms = new String[ROOMS];
+        for (int i = 0; i < ROOMS; i++) {
+            rooms[i] = String.format("6740a1b2c3d4e5f7%08x", i);
+        }
+        String[][] users = new String[threads][USERS];
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < USERS; i++) {
+                users[t][i] = String.format("6740a1b2c3d4%04x%08x", t, i);
+                userRooms.retain(users[t][i]);
+                userRooms.add(users[t][i], rooms[i % ROOMS]);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String[] own = users[t];
+            int seed = t;
+            results.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                start.await();
+                long deadline = System.nanoTime() + MILLIS * 1_000_000;
+                long ops = 0;
+                while ((ops & 1023) != 0 || System.nanoTime() < deadline) {
+                    String userId = own[random.nextInt(USERS)];
+                    String roomId = rooms[random.nextInt(ROOMS)];
+                    int op = random.nextInt(10);
+                    if (op == 0) {
+                        userRooms.add(userId, roomId);
+                    } else if (op == 1) {
+                        userRooms.remove(userId, roomId);
+                    } else {
+                        userRooms.isInRoom(userId, roomId);
+                    }
+                    ops++;
+                }
+                return ops;
+            }));
+        }
+        start.countDown();
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        store.close();
+        if (report) {
+            System.out.printf("%-8d %8d %14.0f%n", stripes, threads, total / (MILLIS / 1000.0));
+        }
+    }
+}
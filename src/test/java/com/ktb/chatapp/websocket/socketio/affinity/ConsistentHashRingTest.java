@@ -0,0 +1,58 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConsistentHashRing 테스트")
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    @DisplayName("부하 제한 배정은 어떤 노드도 평균의 loadFactor배를 넘지 않음")
+    void locate_respectsLoadBound() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d", "e"), 64);
+        Map<String, Long> loads = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            loads.merge(ring.locate("room-" + i, loads, 1.25), 1L, Long::sum);
+        }
+
+        assertThat(loads.values()).allSatisfy(load -> assertThat(load).isLessThanOrEqualTo(2_500L));
+        assertThat(loads.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(KEYS);
+    }
+
+    @Test
+    @DisplayName("노드를 추가하면 새 노드 몫의 키만 옮겨 감")
+    void locate_movesOnlyKeysOfAddedNode() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d", "e"), 64);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "room-" + i;
+            String owner = after.locate(key);
+            if (!owner.equals(before.locate(key))) {
+                moved++;
+                assertThat(owner).isEqualTo("e");
+            }
+        }
+        // 이상적인 이동 비율은 1/5
+        assertThat(moved).isBetween(KEYS / 10, KEYS * 3 / 10);
+    }
+
+    @Test
+    @DisplayName("노드 순서와 관계없이 같은 링")
+    void locate_isIndependentOfNodeOrder() {
+        ConsistentHashRing first = new ConsistentHashRing(List.of("a", "b", "c"), 16);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("c", "a", "b"), 16);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(second.locate("room-" + i)).isEqualTo(first.locate("room-" + i));
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.directory.NodeInbox;
+import com.ktb.chatapp.websocket.socketio.handler.MessageReplayBuffer;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 한 JVM 안에 노드 여러 개를 띄워 방 이벤트의 노드 간 전송 비율을 측정한다.
+ * 노드들은 소유 디렉터리를 공유하고, node_inbox는 대상 노드의 RoomRelay를 바로 호출하는 것으로 대신한다.
+ * 같은 사용자/방/이벤트로 least_conn 배치와 affinityHint를 따른 배치를 비교한다.
+ * <ul>
+ *   <li>community: 사용자가 자기 그룹(반, 팀)의 방 2개와 전체 공개 방 1개에 참여한다.</li>
+ *   <li>random: 방 구조 없이 무작위 방 3개에 참여한다 (최악의 경우).</li>
+ * </ul>
+ * 실행: ./mvnw test -Dtest=RoomAffinityClusterBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RoomAffinityClusterBenchmarkTest {
+
+    private static final int NODES = 4;
+    private static final int USERS = 2_000;
+    private static final int COMMUNITIES = 50;
+    private static final int ROOMS_PER_COMMUNITY = 4;
+    private static final int GLOBAL_ROOMS = 20;
+    private static final int EVENTS = 5_000;
+
+    private final LocalRoomOwnerDirectory directory = new LocalRoomOwnerDirectory();
+    private final List<NodeInfo> liveNodes = new ArrayList<>();
+    // 노드별 현재 연결 수, heartbeat 대신 배치 중인 값을 바로 보여 준다
+    private final Map<String, Long> connections = new HashMap<>();
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NODES; i++) {
+            liveNodes.add(new NodeInfo("node-" + i, "ws://node-" + i + ":5002", 0));
+        }
+        for (NodeInfo info : liveNodes) {
+            nodes.put(info.nodeId(), new Node(info.nodeId()));
+        }
+    }
+
+    @Test
+    void affinityReducesCrossNodeTraffic() {
+        Workload community = communityWorkload(new Random(42));
+        Result communityLeastConn = run(community, place(community, false));
+        Result communityAffinity = run(community, place(community, true));
+
+        Workload random = randomWorkload(new Random(42));
+        Result randomLeastConn = run(random, place(random, false));
+        Result randomAffinity = run(random, place(random, true));
+
+        for (Result result : List.of(communityLeastConn, communityAffinity, randomLeastConn, randomAffinity)) {
+            assertThat(result.recipients()).isEqualTo(result.expectedRecipients());
+            assertThat(result.maxOverAvg()).isLessThanOrEqualTo(1.3);
+        }
+        assertThat(communityAffinity.remoteRatio()).isLessThan(communityLeastConn.remoteRatio() * 0.7);
+        assertThat(communityAffinity.relayPerEvent()).isLessThan(communityLeastConn.relayPerEvent());
+        assertThat(randomAffinity.remoteRatio()).isLessThan(randomLeastConn.remoteRatio());
+    }
+
+    private Workload communityWorkload(Random random) {
+        Map<String, Double> activity = new LinkedHashMap<>();
+        int next = 0;
+        List<List<String>> communityRooms = new ArrayList<>();
+        for (int c = 0; c < COMMUNITIES; c++) {
+            List<String> rooms = new ArrayList<>();
+            for (int r = 0; r < ROOMS_PER_COMMUNITY; r++) {
+                String room = roomId(next++);
+                activity.put(room, 1.0 / (r + 1));
+                rooms.add(room);
+            }
+            communityRooms.add(rooms);
+        }
+        Map<String, Double> global = new LinkedHashMap<>();
+        for (int g = 0; g < GLOBAL_ROOMS; g++) {
+            String room = roomId(next++);
+            global.put(room, 1.0 / (g + 1));
+            activity.put(room, 0.5 / (g + 1));
+        }
+
+        List<List<String>> userRooms = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            List<String> own = communityRooms.get(random.nextInt(COMMUNITIES));
+            Map<String, Double> ownWeights = new LinkedHashMap<>();
+            own.forEach(room -> ownWeights.put(room, activity.get(room)));
+            Set<String> rooms = new LinkedHashSet<>();
+            while (rooms.size() < 2) {
+                rooms.add(pick(ownWeights, random));
+            }
+            rooms.add(pick(global, random));
+            userRooms.add(sortByActivity(rooms, activity));
+        }
+        return new Workload(activity, userRooms);
+    }
+
+    private Workload randomWorkload(Random random) {
+        Map<String, Double> activity = new LinkedHashMap<>();
+        int rooms = COMMUNITIES * ROOMS_PER_COMMUNITY;
+        for (int i = 0; i < rooms; i++) {
+            activity.put(roomId(i), 1.0);
+        }
+        List<List<String>> userRooms = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            Set<String> joined = new LinkedHashSet<>();
+            while (joined.size() < 3) {
+                joined.add(roomId(random.nextInt(rooms)));
+            }
+            userRooms.add(List.copyOf(joined));
+        }
+        return new Workload(activity, userRooms);
+    }
+
+    /**
+     * @param followHint true이면 least_conn으로 붙은 노드가 보낸 affinityHint의 노드로 다시 붙는다
+     * @return 사용자별 접속 노드
+     */
+    private List<String> place(Workload workload, boolean followHint) {
+        connections.clear();
+        liveNodes.forEach(node -> connections.put(node.nodeId(), 0L));
+        List<String> placement = new ArrayList<>();
+        for (List<String> rooms : workload.userRooms()) {
+            String node = connections.entrySet().stream()
+                    .min(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .orElseThrow()
+                    .getKey();
+            if (followHint) {
+                node = nodes.get(node).ownership.preferredNode(rooms)
+                        .map(preference -> preference.node().nodeId())
+                        .orElse(node);
+            }
+            connections.merge(node, 1L, Long::sum);
+            placement.add(node);
+        }
+        return placement;
+    }
+
+    private Result run(Workload workload, List<String> placement) {
+        Map<String, Map<String, Integer>> members = new HashMap<>();
+        Map<String, List<Integer>> roomMembers = new HashMap<>();
+        for (int u = 0; u < USERS; u++) {
+            String node = placement.get(u);
+            for (String room : workload.userRooms().get(u)) {
+                members.computeIfAbsent(node, key -> new HashMap<>()).merge(room, 1, Integer::sum);
+                roomMembers.computeIfAbsent(room, key -> new ArrayList<>()).add(u);
+            }
+        }
+        nodes.values().forEach(node -> node.reset(members.getOrDefault(node.nodeId, Map.of())));
+        members.forEach((node, rooms) -> nodes.get(node).relay.follow(rooms.keySet()));
+
+        Random random = new Random(7);
+        long expected = 0;
+        for (int e = 0; e < EVENTS; e++) {
+            String room = pick(workload.activity(), random);
+            List<Integer> roomUsers = roomMembers.getOrDefault(room, List.of());
+            if (roomUsers.isEmpty()) {
+                continue;
+            }
+            Node origin = nodes.get(placement.get(roomUsers.get(random.nextInt(roomUsers.size()))));
+            origin.origin = true;
+            origin.relay.sendToRoom(room, OutboundEvent.reliable("aiMessageChunk", Map.of("messageId", "m" + e)));
+            origin.origin = false;
+            expected += roomUsers.size();
+        }
+
+        long recipients = nodes.values().stream().mapToLong(node -> node.local + node.remote).sum();
+        long remote = nodes.values().stream().mapToLong(node -> node.remote).sum();
+        long relayed = nodes.values().stream().mapToLong(node -> node.posted.get()).sum();
+        double maxOverAvg = connections.values().stream().mapToLong(Long::longValue).max().orElse(0)
+                / ((double) USERS / NODES);
+        return new Result(expected, recipients, remote, relayed, maxOverAvg);
+    }
+
+    private static List<String> sortByActivity(Set<String> rooms, Map<String, Double> activity) {
+        return rooms.stream().sorted(Comparator.comparing(activity::get).reversed()).toList();
+    }
+
+    private static String pick(Map<String, Double> weights, Random random) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double target = random.nextDouble() * total;
+        String last = null;
+        for (var entry : weights.entrySet()) {
+            target -= entry.getValue();
+            last = entry.getKey();
+            if (target <= 0) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    private static String roomId(int index) {
+        return String.format("6740a1b2c3d4e5f6%08x", index);
+    }
+
+    /**
+     * @param activity 방별 이벤트 발생 가중치
+     * @param userRooms 사용자별 참여 방, 활발한 순
+     */
+    private record Workload(Map<String, Double> activity, List<List<String>> userRooms) {
+    }
+
+    private record Result(long expectedRecipients, long recipients, long remote, long relayed, double maxOverAvg) {
+
+        double remoteRatio() {
+            return (double) remote / recipients;
+        }
+
+        double relayPerEvent() {
+            return (double) relayed / EVENTS;
+        }
+    }
+
+    private class Node {
+
+        private final String nodeId;
+        private final RoomOwnership ownership;
+        private final AtomicLong posted = new AtomicLong();
+        private RoomRelay relay;
+        private Map<String, Integer> members = Map.of();
+        private boolean origin;
+        private long local;
+        private long remote;
+
+        Node(String nodeId) {
+            this.nodeId = nodeId;
+            this.ownership = new RoomOwnership(() -> liveNodes.stream()
+                    .map(node -> new NodeInfo(node.nodeId(), node.url(), connections.getOrDefault(node.nodeId(), 0L)))
+                    .toList(), directory, new ClusterNode(nodeId),
+                    new SimpleMeterRegistry(), 64, 1.25, 5, Duration.ZERO);
+        }
+
+        /**
+         * 배치가 바뀔 때마다 follower 기록 없이 새 relay로 시작한다. 방 소유 배정은 그대로 둔다.
+         */
+        void reset(Map<String, Integer> members) {
+            this.members = members;
+            this.local = 0;
+            this.remote = 0;
+            this.posted.set(0);
+            for (int i = 0; i < COMMUNITIES * ROOMS_PER_COMMUNITY + GLOBAL_ROOMS; i++) {
+                directory.removeFollower(roomId(i), nodeId);
+            }
+
+            OutboundDispatcher dispatcher = mock(OutboundDispatcher.class);
+            doAnswer(invocation -> {
+                int count = this.members.getOrDefault(invocation.<String>getArgument(0), 0);
+                if (origin) {
+                    local += count;
+                } else {
+                    remote += count;
+                }
+                return null;
+            }).when(dispatcher).sendToRoom(anyString(), any(OutboundEvent.class));
+
+            NodeInbox inbox = mock(NodeInbox.class);
+            doAnswer(invocation -> {
+                List<NodeInboxMessage> messages = invocation.getArgument(0);
+                for (NodeInboxMessage message : messages) {
+                    posted.incrementAndGet();
+                    nodes.get(message.getNodeId()).relay.receive(message);
+                }
+                return null;
+            }).when(inbox).postAll(anyList());
+
+            this.relay = new RoomRelay(mock(SocketIOServer.class), dispatcher, mock(MessageReplayBuffer.class),
+                    Optional.of(ownership), Optional.of(inbox), new ClusterNode(nodeId), new SimpleMeterRegistry(),
+                    mock(TaskScheduler.class), Duration.ofSeconds(10), Duration.ZERO);
+        }
+    }
+}
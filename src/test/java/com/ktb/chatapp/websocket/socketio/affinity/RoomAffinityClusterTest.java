@@ -0,0 +1,105 @@
+package com.ktb.chatapp.websocket.socketio.affinity;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.directory.NodeInbox;
+import com.ktb.chatapp.websocket.socketio.handler.MessageReplayBuffer;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 소유 노드 배정과 노드 간 중계의 결정적인 동작만 확인한다.
+ * 배치별 노드 간 전송 비율은 RoomAffinityClusterBenchmarkTest에서 측정한다.
+ */
+@DisplayName("Room affinity 멀티 노드 테스트")
+class RoomAffinityClusterTest {
+
+    private static final String ROOM = "6740a1b2c3d4e5f600000000";
+
+    private final LocalRoomOwnerDirectory directory = new LocalRoomOwnerDirectory();
+    private final List<NodeInfo> liveNodes = new ArrayList<>(List.of(
+            new NodeInfo("node-0", "ws://node-0:5002", 0),
+            new NodeInfo("node-1", "ws://node-1:5002", 0),
+            new NodeInfo("node-2", "ws://node-2:5002", 0)));
+
+    @Test
+    @DisplayName("소유 노드가 죽으면 모든 노드가 같은 살아 있는 노드로 재배정")
+    void deadOwnerIsReassignedConsistently() {
+        String owner = ownership("node-0").ownerOf(ROOM);
+
+        liveNodes.removeIf(node -> node.nodeId().equals(owner));
+        Set<String> owners = new LinkedHashSet<>();
+        for (NodeInfo info : liveNodes) {
+            owners.add(ownership(info.nodeId()).ownerOf(ROOM));
+        }
+
+        assertThat(owners).hasSize(1).doesNotContain(owner);
+    }
+
+    @Test
+    @DisplayName("AI 청크는 follower별로 최신 하나만 모아 보내고, RELIABLE 이벤트는 모아 둔 청크 뒤에 바로 보냄")
+    void relayCoalescesChunksPerFollower() {
+        RoomOwnership ownership = mock(RoomOwnership.class);
+        when(ownership.ownerOf(ROOM)).thenReturn("node-0");
+        when(ownership.followers(ROOM)).thenReturn(Set.of("node-1", "node-2"));
+        NodeInbox inbox = mock(NodeInbox.class);
+        RoomRelay relay = new RoomRelay(mock(SocketIOServer.class), mock(OutboundDispatcher.class), mock(MessageReplayBuffer.class),
+                Optional.of(ownership), Optional.of(inbox), new ClusterNode("node-0"), new SimpleMeterRegistry(),
+                mock(TaskScheduler.class), Duration.ofSeconds(10), Duration.ofMillis(50));
+
+        for (int i = 1; i <= 3; i++) {
+            relay.sendToRoom(ROOM, chunk("m1", "a".repeat(i)));
+        }
+        verify(inbox, never()).postAll(anyList());
+
+        relay.flush();
+        relay.sendToRoom(ROOM, chunk("m1", "aaaa"));
+        relay.sendToRoom(ROOM, OutboundEvent.reliable("aiMessageComplete", Map.of("_id", "m1")));
+        relay.flush();
+
+        ArgumentCaptor<List<NodeInboxMessage>> batches = ArgumentCaptor.captor();
+        verify(inbox, times(3)).postAll(batches.capture());
+        assertThat(batches.getAllValues().getFirst())
+                .extracting(NodeInboxMessage::getNodeId, RoomAffinityClusterTest::content)
+                .containsExactlyInAnyOrder(tuple("node-1", "aaa"), tuple("node-2", "aaa"));
+        // follower마다 모아 둔 청크를 앞에 붙여 한 번에 보낸다
+        for (List<NodeInboxMessage> batch : batches.getAllValues().subList(1, 3)) {
+            assertThat(batch).extracting(NodeInboxMessage::getEvent)
+                    .containsExactly("aiMessageChunk", "aiMessageComplete");
+            assertThat(batch).extracting(NodeInboxMessage::getNodeId).containsOnly(batch.getFirst().getNodeId());
+            assertThat(content(batch.getFirst())).isEqualTo("aaaa");
+        }
+    }
+
+    private RoomOwnership ownership(String nodeId) {
+        return new RoomOwnership(() -> List.copyOf(liveNodes), directory, new ClusterNode(nodeId),
+                new SimpleMeterRegistry(), 64, 1.25, 5, Duration.ZERO);
+    }
+
+    private static OutboundEvent chunk(String messageId, String fullContent) {
+        return OutboundEvent.latest("aiMessageChunk", Map.of("messageId", messageId, "fullContent", fullContent),
+                messageId);
+    }
+
+    private static Object content(NodeInboxMessage message) {
+        return ((Map<?, ?>) message.getPayload()).get("fullContent");
+    }
+}
@@ -0,0 +1,112 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("연결별 이벤트 배칭 테스트")
+class EventBatchWriterTest {
+
+    private final PacketFrameEncoder frameEncoder = new PacketFrameEncoder(
+            new MsgPackPacketCodec(), new PacketEncoder(new Configuration(), new JacksonJsonSupport()));
+    private final Queue<Packet> queue = new LinkedList<>();
+    private final EmbeddedChannel channel = new EmbeddedChannel(new EventBatchWriter(frameEncoder, 10, 3));
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("interval 동안 모인 이벤트를 batch 프레임 하나로 전송")
+    void flushesBatchOnInterval() {
+        channel.freezeTime();
+        send(clientHead("1"), event("message", Map.of("content", "hi")));
+        send(clientHead("1"), event("messagesRead", "m1"));
+
+        assertThat((Object) channel.readOutbound()).isNull();
+
+        channel.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+
+        assertThat(readText()).isEqualTo("42[\"batch\",[[\"message\",{\"content\":\"hi\"}],[\"messagesRead\",\"m1\"]]]");
+        assertThat((Object) channel.readOutbound()).isNull();
+    }
+
+    @Test
+    @DisplayName("max-events 도달 또는 ping 같은 비배칭 패킷은 순서를 지키며 즉시 전송")
+    void flushesOnThresholdAndKeepsOrder() {
+        ClientHead clientHead = clientHead("1");
+        send(clientHead, event("a", 1), event("b", 2), event("c", 3), event("d", 4),
+                new Packet(PacketType.PING, EngineIOVersion.V4));
+
+        assertThat(readText()).isEqualTo("42[\"batch\",[[\"a\",1],[\"b\",2],[\"c\",3]]]");
+        assertThat(readText()).isEqualTo("42[\"d\",4]");
+        assertThat(readText()).isEqualTo("2");
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    @DisplayName("batch 쿼리 없이 연결한 클라이언트는 기존 경로로 전달")
+    void passesThroughWithoutOptIn() {
+        queue.add(event("message", "hi"));
+        OutPacketMessage message = new OutPacketMessage(clientHead(null), Transport.WEBSOCKET);
+        channel.writeOutbound(message);
+
+        assertThat((Object) channel.readOutbound()).isSameAs(message);
+        assertThat(queue).hasSize(1);
+    }
+
+    private void send(ClientHead clientHead, Packet... packets) {
+        queue.addAll(List.of(packets));
+        channel.writeOutbound(new OutPacketMessage(clientHead, Transport.WEBSOCKET));
+    }
+
+    private String readText() {
+        TextWebSocketFrame frame = channel.readOutbound();
+        try {
+            return frame.text();
+        } finally {
+            frame.release();
+        }
+    }
+
+    private ClientHead clientHead(String batchParam) {
+        HandshakeData handshakeData = mock(HandshakeData.class);
+        when(handshakeData.getSingleUrlParam(EventBatchWriter.BATCH_PARAM)).thenReturn(batchParam);
+        ClientHead clientHead = mock(ClientHead.class);
+        when(clientHead.getHandshakeData()).thenReturn(handshakeData);
+        when(clientHead.getPacketsQueue(Transport.WEBSOCKET)).thenReturn(queue);
+        return clientHead;
+    }
+
+    private Packet event(String name, Object data) {
+        Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+        packet.setSubType(PacketType.EVENT);
+        packet.setNsp("");
+        packet.setName(name);
+        packet.setData(List.of(data));
+        return packet;
+    }
+}
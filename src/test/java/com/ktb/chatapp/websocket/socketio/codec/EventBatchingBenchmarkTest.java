@@ -0,0 +1,192 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.HandshakeData;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.handler.EncoderHandler;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.MessageReactionResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.MessagesReadResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.MessageType;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.ReferenceCountUtil;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 초당 500개 이벤트가 발생하는 방에서 연결별 배칭 전후의 프레임/flush 수와 CPU 시간을 비교한다.
+ * 이벤트 구성은 message 60%, messagesRead 25%, messageReactionUpdate 10%, participantsUpdate 5%이며
+ * 연결마다 ClientHead.send와 같이 패킷 하나당 writeAndFlush(OutPacketMessage)를 호출한다.
+ * 실제 소켓 대신 EmbeddedChannel을 쓰므로 flush 수를 syscall 수의 근사로 본다.
+ *
+ * 실행: ./mvnw test -Dtest=EventBatchingBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventBatchingBenchmarkTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 20);
+    private static final int EVENTS_PER_SECOND = 500;
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    private final Configuration configuration = new Configuration();
+    private final PacketEncoder packetEncoder = new PacketEncoder(configuration, new JacksonJsonSupport(new JavaTimeModule()));
+    private final PacketFrameEncoder frameEncoder = new PacketFrameEncoder(new MsgPackPacketCodec(), packetEncoder);
+    private final List<Packet> events = events(EVENTS_PER_SECOND * SECONDS);
+
+    @Test
+    void framesAndCpuPerSecond() throws Exception {
+        run("warmup", false, 0);
+        run("warmup", true, 10);
+
+        System.out.printf("%-14s %12s %12s %12s %12s%n", "mode", "events/s", "frames/s", "flushes/s", "cpu ms/s");
+        run("per-event", false, 0);
+        for (int interval : new int[]{5, 10, 20}) {
+            run("batch " + interval + "ms", true, interval);
+        }
+    }
+
+    private void run(String mode, boolean batch, int intervalMillis) throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            connections.add(new Connection(batch, intervalMillis));
+        }
+        long tickNanos = TimeUnit.SECONDS.toNanos(1) / EVENTS_PER_SECOND;
+
+        var threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (Packet event : events) {
+            for (Connection connection : connections) {
+                connection.send(event);
+                connection.channel.advanceTimeBy(tickNanos, TimeUnit.NANOSECONDS);
+                connection.channel.runScheduledPendingTasks();
+                connection.drain();
+            }
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+
+        long frames = 0;
+        long flushes = 0;
+        for (Connection connection : connections) {
+            connection.channel.advanceTimeBy(intervalMillis, TimeUnit.MILLISECONDS);
+            connection.channel.runScheduledPendingTasks();
+            connection.drain();
+            frames += connection.frames;
+            flushes += connection.flushes.count;
+            connection.channel.finishAndReleaseAll();
+        }
+        if (!mode.equals("warmup")) {
+            System.out.printf("%-14s %12d %12d %12d %12.1f%n",
+                    mode,
+                    (long) events.size() * CONNECTIONS / SECONDS,
+                    frames / SECONDS,
+                    flushes / SECONDS,
+                    cpuNanos / 1e6 / SECONDS);
+        }
+    }
+
+    private final class Connection {
+
+        private final Queue<Packet> queue = new LinkedList<>();
+        private final ClientHead clientHead = mock(ClientHead.class);
+        private final FlushCounter flushes = new FlushCounter();
+        private final EmbeddedChannel channel;
+        private long frames;
+
+        private Connection(boolean batch, int intervalMillis) throws Exception {
+            HandshakeData handshakeData = mock(HandshakeData.class);
+            when(handshakeData.getSingleUrlParam(EventBatchWriter.BATCH_PARAM)).thenReturn(batch ? "1" : null);
+            when(clientHead.getHandshakeData()).thenReturn(handshakeData);
+            when(clientHead.getPacketsQueue(Transport.WEBSOCKET)).thenReturn(queue);
+            channel = batch
+                    ? new EmbeddedChannel(flushes, new EncoderHandler(configuration, packetEncoder),
+                            new EventBatchWriter(frameEncoder, intervalMillis, 64))
+                    : new EmbeddedChannel(flushes, new EncoderHandler(configuration, packetEncoder));
+            channel.freezeTime();
+        }
+
+        private void send(Packet packet) {
+            queue.add(packet);
+            channel.writeAndFlush(new OutPacketMessage(clientHead, Transport.WEBSOCKET));
+        }
+
+        private void drain() {
+            Object out;
+            while ((out = channel.readOutbound()) != null) {
+                if (out instanceof WebSocketFrame) {
+                    frames++;
+                }
+                ReferenceCountUtil.release(out);
+            }
+        }
+    }
+
+    private static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+        private long count;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            count++;
+            ctx.flush();
+        }
+    }
+
+    private static List<Packet> events(int count) {
+        UserResponse sender = UserResponse.builder()
+                .id("6740a1b2c3d4e5f600000001").name("김철수").email("chulsoo@example.com").profileImage("").build();
+        List<UserResponse> participants = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            participants.add(UserResponse.builder()
+                    .id(String.format("6740a1b2c3d4e5f6%08x", i)).name("user" + i).email("u" + i + "@example.com").build());
+        }
+        List<Packet> packets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = i % 20;
+            if (kind < 12) {
+                packets.add(event("message", MessageResponse.builder()
+                        .id("m" + i).roomId("room").content("메시지 " + i).type(MessageType.text)
+                        .sender(sender).timestamp(1_731_000_000_000L + i)
+                        .reactions(Map.of()).readers(List.of()).build()));
+            } else if (kind < 17) {
+                packets.add(event("messagesRead", new MessagesReadResponse("u" + i, List.of("m" + (i - 1), "m" + i))));
+            } else if (kind < 19) {
+                packets.add(event("messageReactionUpdate",
+                        new MessageReactionResponse("m" + (i - 1), Map.of("👍", Set.of("u1", "u2")))));
+            } else {
+                packets.add(event("participantsUpdate", participants));
+            }
+        }
+        return packets;
+    }
+
+    private static Packet event(String name, Object data) {
+        Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+        packet.setSubType(PacketType.EVENT);
+        packet.setNsp("");
+        packet.setName(name);
+        packet.setData(List.of(data));
+        return packet;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.MessagesReadBatchResponse;
+import com.ktb.chatapp.dto.MessagesReadResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.MessageType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+/**
+ * 고빈도 이벤트(message, aiMessageChunk, messagesRead)의 JSON vs MessagePack 인코딩/디코딩 처리량 비교.
+ * JSON 인코딩은 PacketEncoder와 같이 JacksonJsonSupport.writeValue로 [event, payload]를 쓰고,
+ * 디코딩은 클라이언트 파싱 비용의 근사로 트리 파싱을 측정한다.
+ *
+ * 실행: ./mvnw test -Dtest=MsgPackBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MsgPackBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+
+    private final JacksonJsonSupport jsonSupport = new JacksonJsonSupport(new JavaTimeModule());
+    private final MsgPackPacketCodec codec = new MsgPackPacketCodec();
+    private final ObjectMapper jsonMapper = new ObjectMapper(new JsonFactory());
+    private final ObjectMapper msgpackMapper = new ObjectMapper(new MessagePackFactory());
+
+    @Test
+    void encodeDecodeThroughput() throws Exception {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("message", message());
+        payloads.put("aiMessageChunk", Map.of(
+                "messageId", "ai-6740a1b2c3d4e5f6a7b8c9d0",
+                "fullContent", "코드 예시입니다.\n```java\nSystem.out.println(\"hello\");\n```\n추가 설명이 이어집니다. ".repeat(4),
+                "isCodeBlock", true,
+                "isComplete", false));
+        payloads.put("messagesRead", new MessagesReadBatchResponse("6740a1b2c3d4e5f6a7b8c9d0", List.of(
+                new MessagesReadResponse("6740a1b2c3d4e5f600000001", ids(5)),
+                new MessagesReadResponse("6740a1b2c3d4e5f600000002", ids(3)))));
+
+        System.out.printf("%-16s %8s %8s %14s %14s %14s %14s%n",
+                "event", "json B", "mpk B", "json enc/s", "mpk enc/s", "json dec/s", "mpk dec/s");
+        for (var entry : payloads.entrySet()) {
+            Packet packet = packet(entry.getKey(), entry.getValue());
+            byte[] json = encodeJson(packet);
+            byte[] msgpack = codec.encode(packet);
+
+            // 워밍업
+            run(ITERATIONS / 4, () -> encodeJson(packet));
+            run(ITERATIONS / 4, () -> codec.encode(packet));
+            run(ITERATIONS / 4, () -> jsonMapper.readTree(json));
+            run(ITERATIONS / 4, () -> msgpackMapper.readTree(msgpack));
+
+            System.out.printf("%-16s %8d %8d %14.0f %14.0f %14.0f %14.0f%n",
+                    entry.getKey(), json.length, msgpack.length,
+                    run(ITERATIONS, () -> encodeJson(packet)),
+                    run(ITERATIONS, () -> codec.encode(packet)),
+                    run(ITERATIONS, () -> jsonMapper.readTree(json)),
+                    run(ITERATIONS, () -> msgpackMapper.readTree(msgpack)));
+        }
+    }
+
+    private byte[] encodeJson(Packet packet) throws Exception {
+        List<Object> args = new ArrayList<>();
+        args.add(packet.getName());
+        args.addAll(packet.<List<?>>getData());
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            jsonSupport.writeValue(new ByteBufOutputStream(buf), args);
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private double run(int iterations, Task task) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return iterations / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private Packet packet(String name, Object data) {
+        Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+        packet.setSubType(PacketType.EVENT);
+        packet.setNsp("");
+        packet.setName(name);
+        packet.setData(List.of(data));
+        return packet;
+    }
+
+    private MessageResponse message() {
+        return MessageResponse.builder()
+                .id("6740a1b2c3d4e5f6a7b8c9d1")
+                .roomId("6740a1b2c3d4e5f6a7b8c9d0")
+                .content("오늘 회의는 3시에 시작합니다. 자료는 공유 폴더에 올려두었어요.")
+                .type(MessageType.text)
+                .sender(UserResponse.builder()
+                        .id("6740a1b2c3d4e5f600000001")
+                        .name("김철수")
+                        .email("chulsoo@example.com")
+                        .profileImage("")
+                        .build())
+                .timestamp(1_731_000_000_000L)
+                .reactions(Map.of("👍", Set.of("6740a1b2c3d4e5f600000002")))
+                .readers(List.of())
+                .build();
+    }
+
+    private List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(String.format("6740a1b2c3d4e5f6%08x", i));
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ktb.chatapp.websocket.socketio.codec;
+
+import com.corundumstudio.socketio.Configuration;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.EngineIOVersion;
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketEncoder;
+import com.corundumstudio.socketio.protocol.PacketType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("MessagePack 패킷 코덱 테스트")
+class MsgPackPacketCodecTest {
+
+    private final MsgPackPacketCodec codec = new MsgPackPacketCodec();
+    private final ObjectMapper msgpackMapper = new ObjectMapper(new MessagePackFactory());
+
+    @Test
+    @DisplayName("이벤트 패킷을 socket.io-msgpack-parser 형식으로 인코딩")
+    void encode_eventPacket() throws Exception {
+        JsonNode decoded = msgpackMapper.readTree(codec.encode(event("message", Map.of("content", "hi"))));
+
+        assertThat(decoded.get("type").asInt()).isEqualTo(2);
+        assertThat(decoded.get("nsp").asText()).isEqualTo("/");
+        assertThat(decoded.get("data").get(0).asText()).isEqualTo("message");
+        assertThat(decoded.get("data").get(1).get("content").asText()).isEqualTo("hi");
+        assertThat(decoded.has("id")).isFalse();
+    }
+
+    @Test
+    @DisplayName("클라이언트 msgpack 패킷을 텍스트 Socket.IO 패킷으로 변환")
+    void toTextMessage_convertsClientPackets() throws Exception {
+        byte[] connect = msgpackMapper.writeValueAsBytes(Map.of("type", 0, "nsp", "/", "data", Map.of("token", "t")));
+        byte[] eventWithAck = msgpackMapper.writeValueAsBytes(Map.of(
+                "type", 2, "nsp", "/", "id", 7, "data", List.of("joinRoom", "room-1")));
+
+        assertThat(codec.toTextMessage(connect)).isEqualTo("40{\"token\":\"t\"}");
+        assertThat(codec.toTextMessage(eventWithAck)).isEqualTo("427[\"joinRoom\",\"room-1\"]");
+    }
+
+    @Test
+    @DisplayName("parser=msgpack 업그레이드 채널만 바이너리 프레임으로 송수신")
+    void pipeline_switchesPerConnection() throws Exception {
+        Configuration configuration = new Configuration();
+        PacketEncoder textEncoder = new PacketEncoder(configuration, new JacksonJsonSupport());
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new MsgPackFrameDecoder(codec), new MsgPackPacketWriter(new PacketFrameEncoder(codec, textEncoder)));
+
+        FullHttpRequest upgrade = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET,
+                "/socket.io/?EIO=4&transport=websocket&parser=msgpack");
+        channel.writeInbound(upgrade);
+        assertThat((Object) channel.readInbound()).isSameAs(upgrade);
+        assertThat(MsgPackSupport.isEnabled(channel)).isTrue();
+
+        byte[] clientEvent = msgpackMapper.writeValueAsBytes(Map.of("type", 2, "nsp", "/", "data", List.of("leaveRoom", "r1")));
+        channel.writeInbound(new BinaryWebSocketFrame(Unpooled.wrappedBuffer(clientEvent)));
+        TextWebSocketFrame text = channel.readInbound();
+        assertThat(text.text()).isEqualTo("42[\"leaveRoom\",\"r1\"]");
+        text.release();
+
+        Queue<Packet> queue = new LinkedList<>(List.of(new Packet(PacketType.PING, EngineIOVersion.V4),
+                event("message", Map.of("content", "hi"))));
+        ClientHead clientHead = mock(ClientHead.class);
+        when(clientHead.getPacketsQueue(Transport.WEBSOCKET)).thenReturn(queue);
+        channel.writeOutbound(new OutPacketMessage(clientHead, Transport.WEBSOCKET));
+
+        TextWebSocketFrame ping = channel.readOutbound();
+        assertThat(ping.text()).isEqualTo("2");
+        ping.release();
+        BinaryWebSocketFrame message = channel.readOutbound();
+        assertThat(msgpackMapper.readTree(ByteBufUtil.getBytes(message.content())).get("data").get(0).asText())
+                .isEqualTo("message");
+        message.release();
+        assertThat(queue).isEmpty();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("parser 쿼리가 없으면 기존 JSON 경로 유지")
+    void pipeline_leavesJsonClientsUntouched() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MsgPackFrameDecoder(codec));
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET,
+                "/socket.io/?EIO=4&transport=websocket"));
+        channel.readInbound();
+
+        BinaryWebSocketFrame attachment = new BinaryWebSocketFrame(
+                Unpooled.copiedBuffer("raw", StandardCharsets.UTF_8));
+        channel.writeInbound(attachment);
+
+        assertThat(MsgPackSupport.isEnabled(channel)).isFalse();
+        assertThat((Object) channel.readInbound()).isSameAs(attachment);
+        channel.finishAndReleaseAll();
+    }
+
+    private Packet event(String name, Object data) {
+        Packet packet = new Packet(PacketType.MESSAGE, EngineIOVersion.V4);
+        packet.setSubType(PacketType.EVENT);
+        packet.setNsp("");
+        packet.setName(name);
+        packet.setData(List.of(data));
+        return packet;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ktb.chatapp.websocket.socketio.directory;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.model.NodeInboxMessage;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.SESSION_ENDED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("디렉터리 기반 사용자 지정 전송 테스트")
+class UserDeliveryTest {
+
+    private final SocketIOServer socketIOServer = mock(SocketIOServer.class);
+    private final OutboundDispatcher outboundDispatcher = mock(OutboundDispatcher.class);
+    private final NodeInbox nodeInbox = mock(NodeInbox.class);
+    private final LocalUserDirectory userDirectory = new LocalUserDirectory();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboundEvent event = OutboundEvent.reliable(SESSION_ENDED, Map.of("reason", "logout"));
+
+    private UserDelivery userDelivery;
+
+    @BeforeEach
+    void setUp() {
+        userDelivery = new UserDelivery(socketIOServer, outboundDispatcher, userDirectory,
+                Optional.of(nodeInbox), new ClusterNode("node-a"), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("로컬 노드 사용자는 바로 전송하고 다른 노드 사용자는 해당 노드 수신함으로만 보낸다")
+    void routesByDirectory() {
+        userDirectory.register(new UserLocation("local-user", "node-a", UUID.randomUUID().toString()));
+        userDirectory.register(new UserLocation("remote-user", "node-b", UUID.randomUUID().toString()));
+
+        userDelivery.sendToUser("local-user", event);
+        userDelivery.sendToUser("remote-user", event);
+        userDelivery.sendToUser("offline-user", event);
+
+        verify(outboundDispatcher).sendToRoom("user:local-user", event);
+        ArgumentCaptor<NodeInboxMessage> posted = ArgumentCaptor.forClass(NodeInboxMessage.class);
+        verify(nodeInbox).post(posted.capture());
+        assertThat(posted.getValue().getNodeId()).isEqualTo("node-b");
+        assertThat(posted.getValue().getUserId()).isEqualTo("remote-user");
+        assertThat(posted.getValue().getSocketId()).isNull();
+        verifyNoMoreInteractions(outboundDispatcher);
+        assertThat(meterRegistry.get("socketio.user.delivery").tag("result", "offline").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("수신함 메시지는 지정된 연결에 전달하고 지연 시간을 기록한다")
+    void receive_deliversToSocketAndRecordsLatency() {
+        UUID socketId = UUID.randomUUID();
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(socketIOServer.getClient(socketId)).thenReturn(client);
+
+        userDelivery.receive(NodeInboxMessage.builder()
+                .nodeId("node-a")
+                .userId("u1")
+                .socketId(socketId.toString())
+                .event(SESSION_ENDED)
+                .payload(Map.of("reason", "duplicate_login"))
+                .createdAt(Instant.now().minusMillis(30))
+                .build());
+
+        ArgumentCaptor<OutboundEvent> sent = ArgumentCaptor.forClass(OutboundEvent.class);
+        verify(outboundDispatcher).send(eq(client), sent.capture());
+        assertThat(sent.getValue().name()).isEqualTo(SESSION_ENDED);
+        var latency = meterRegistry.get("socketio.user.delivery.latency").tag("route", "remote").timer();
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("새 연결이 덮어쓴 뒤 이전 연결의 해제는 디렉터리를 지우지 않는다")
+    void unregister_keepsNewerConnection() {
+        userDirectory.register(new UserLocation("u1", "node-a", "old"));
+        Optional<UserLocation> previous = userDirectory.register(new UserLocation("u1", "node-b", "new"));
+
+        userDirectory.unregister("u1", "old");
+
+        assertThat(previous).map(UserLocation::socketId).contains("old");
+        assertThat(userDirectory.find("u1")).map(UserLocation::nodeId).contains("node-b");
+        verify(nodeInbox, never()).post(any());
+    }
+}
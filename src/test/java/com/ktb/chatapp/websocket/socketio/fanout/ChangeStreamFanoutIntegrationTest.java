@@ -0,0 +1,210 @@
+package com.ktb.chatapp.websocket.socketio.fanout;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.repository.ChangeStreamResumeTokenRepository;
+import com.ktb.chatapp.repository.FileRepository;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.websocket.socketio.ClusterNode;
+import com.ktb.chatapp.websocket.socketio.handler.HistoryPageCache;
+import com.ktb.chatapp.websocket.socketio.handler.MessageBroadcaster;
+import com.ktb.chatapp.websocket.socketio.handler.MessageReplayBuffer;
+import com.ktb.chatapp.websocket.socketio.handler.MessageResponseMapper;
+import com.ktb.chatapp.websocket.socketio.handler.ParticipantDiffAggregator;
+import com.ktb.chatapp.websocket.socketio.outbound.ClientEventLoops;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.TestPropertySource;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.MESSAGE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * MongoTestContainer는 단일 노드 replica set으로 기동되므로 change stream을 사용할 수 있다.
+ */
+@SpringBootTest
+@Import(MongoTestContainer.class)
+@TestPropertySource(properties = {
+        "socketio.enabled=false"
+})
+class ChangeStreamFanoutIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FileRepository fileRepository;
+
+    @Autowired
+    private ChangeStreamResumeTokenRepository resumeTokenRepository;
+
+    private SocketIOServer socketIOServer;
+    private BroadcastOperations localRoom;
+    private BroadcastOperations emptyRoom;
+    private SocketIOClient localClient;
+    private OutboundDispatcher outboundDispatcher;
+    private ChangeStreamFanout fanout;
+    private Faker faker;
+    private String roomId;
+
+    @BeforeEach
+    void setUp() {
+        faker = new Faker();
+        roomId = faker.internet().uuid();
+
+        socketIOServer = mock(SocketIOServer.class);
+        localRoom = mock(BroadcastOperations.class);
+        emptyRoom = mock(BroadcastOperations.class);
+        localClient = mock(SocketIOClient.class);
+        when(localClient.getSessionId()).thenReturn(UUID.randomUUID());
+        when(localClient.isWritable()).thenReturn(true);
+        when(localRoom.getClients()).thenReturn(List.of(localClient));
+        when(emptyRoom.getClients()).thenReturn(List.of());
+        when(socketIOServer.getRoomOperations(anyString())).thenReturn(emptyRoom);
+        when(socketIOServer.getRoomOperations(roomId)).thenReturn(localRoom);
+
+        outboundDispatcher = new OutboundDispatcher(socketIOServer, new ClientEventLoops(), new SimpleMeterRegistry(),
+                mock(TaskScheduler.class), 256, 64, 4096, Duration.ofSeconds(10), Duration.ofMillis(20), 1000);
+        fanout = newFanout();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanout.stop();
+        messageRepository.deleteAll();
+        resumeTokenRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("다른 노드가 저장한 메시지를 로컬 구독자에게 브로드캐스트")
+    void broadcastsInsertedMessageToLocalSubscribers() {
+        fanout.start();
+        awaitResumeToken();
+
+        Message saved = messageRepository.save(createMessage(roomId));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(localClient, timeout(10_000)).sendEvent(eq(MESSAGE), payload.capture());
+        assertThat(((MessageResponse) payload.getValue()).getId()).isEqualTo(saved.getId());
+    }
+
+    @Test
+    @DisplayName("로컬 구독자가 없는 방의 메시지는 전달하지 않음")
+    void skipsRoomsWithoutLocalSubscribers() {
+        fanout.start();
+        awaitResumeToken();
+
+        messageRepository.save(createMessage(faker.internet().uuid()));
+        messageRepository.save(createMessage(roomId));
+
+        verify(localClient, timeout(10_000)).sendEvent(eq(MESSAGE), any(Object.class));
+        verify(emptyRoom, never()).sendEvent(eq(MESSAGE), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("AI 응답 저장은 AI_MESSAGE_COMPLETE로 전달되므로 MESSAGE로 다시 보내지 않음")
+    void skipsAiMessageInserts() {
+        fanout.start();
+        awaitResumeToken();
+
+        Message ai = createMessage(roomId);
+        ai.setType(MessageType.ai);
+        messageRepository.save(ai);
+        Message text = messageRepository.save(createMessage(roomId));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(localClient, timeout(10_000)).sendEvent(eq(MESSAGE), payload.capture());
+        assertThat(((MessageResponse) payload.getValue()).getId()).isEqualTo(text.getId());
+        // change stream은 insert 순서대로 전달하므로 text가 도착했으면 ai는 이미 걸러졌다
+        verify(localClient, after(200).times(1)).sendEvent(eq(MESSAGE), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("재시작 시 저장된 resume token부터 놓친 메시지를 전달")
+    void resumesFromPersistedTokenAfterRestart() {
+        fanout.start();
+        awaitResumeToken();
+        fanout.stop();
+
+        // 노드가 내려가 있는 동안 저장된 메시지
+        Message missed = messageRepository.save(createMessage(roomId));
+
+        fanout = newFanout();
+        fanout.start();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(localClient, timeout(10_000)).sendEvent(eq(MESSAGE), payload.capture());
+        assertThat(((MessageResponse) payload.getValue()).getId()).isEqualTo(missed.getId());
+    }
+
+    private ChangeStreamFanout newFanout() {
+        return new ChangeStreamFanout(
+                socketIOServer,
+                mongoTemplate,
+                userRepository,
+                new MessageResponseMapper(fileRepository),
+                new MessageBroadcaster(socketIOServer,
+                        new MessageReplayBuffer(mock(TaskScheduler.class), 16, Duration.ofMinutes(1)), outboundDispatcher),
+                outboundDispatcher,
+                resumeTokenRepository,
+                mock(ParticipantDiffAggregator.class),
+                mock(HistoryPageCache.class),
+                new ClusterNode("test-node"),
+                Duration.ofMillis(10)
+        );
+    }
+
+    private void awaitResumeToken() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (resumeTokenRepository.findById("test-node:" + ChangeStreamFanout.MESSAGES).isEmpty()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Message createMessage(String targetRoomId) {
+        Message message = new Message();
+        message.setRoomId(targetRoomId);
+        message.setContent(faker.lorem().sentence(5));
+        message.setType(MessageType.text);
+        message.setTimestamp(LocalDateTime.now());
+        message.setIsDeleted(false);
+        return message;
+    }
+}
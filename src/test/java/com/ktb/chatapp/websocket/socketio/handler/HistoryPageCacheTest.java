@@ -0,0 +1,145 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.event.MessagesReadEvent;
+import com.ktb.chatapp.model.MessageType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("HistoryPageCache 테스트")
+class HistoryPageCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("동일 키 동시 요청은 한 번만 로드")
+    void get_coalescesConcurrentLoads() throws Exception {
+        HistoryPageCache cache = new HistoryPageCache(objectMapper, mock(TaskScheduler.class), 1 << 20, Duration.ofMinutes(1), false);
+        var key = new HistoryPageCache.PageKey("room", 1000L, 30);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<FetchMessagesResponse>> results = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(() -> cache.get(key, k -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return page("m1");
+                })))
+                .toList();
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<FetchMessagesResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getMessages()).hasSize(1);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(key, k -> page("other")).getMessages().getFirst().getId()).isEqualTo("m1");
+    }
+
+    @Test
+    @DisplayName("캐시 적중 시 역직렬화 없이 저장한 응답을 그대로 반환")
+    void get_returnsStoredPageWithoutCopy() {
+        HistoryPageCache cache = new HistoryPageCache(objectMapper, mock(TaskScheduler.class), 1 << 20, Duration.ofMinutes(1), false);
+        var key = new HistoryPageCache.PageKey("room", 1000L, 30);
+        FetchMessagesResponse loaded = page("m1");
+
+        cache.get(key, k -> loaded);
+
+        assertThat(cache.get(key, k -> page("other"))).isSameAs(loaded);
+        assertThat(cache.usedBytes()).isEqualTo(objectMapperSize(loaded));
+    }
+
+    @Test
+    @DisplayName("방 무효화 후에는 다시 로드")
+    void invalidateRoom_forcesReload() {
+        HistoryPageCache cache = new HistoryPageCache(objectMapper, mock(TaskScheduler.class), 1 << 20, Duration.ofMinutes(1), false);
+        var key = new HistoryPageCache.PageKey("room", 1000L, 30);
+
+        cache.get(key, k -> page("before"));
+        cache.invalidateRoom("room");
+
+        assertThat(cache.get(key, k -> page("after")).getMessages().getFirst().getId()).isEqualTo("after");
+    }
+
+    @Test
+    @DisplayName("읽음 상태가 바뀐 메시지가 든 페이지만 다시 로드")
+    void invalidateMessages_dropsOnlyPagesWithReadMessages() {
+        HistoryPageCache cache = new HistoryPageCache(objectMapper, mock(TaskScheduler.class), 1 << 20, Duration.ofMinutes(1), false);
+        var readPage = new HistoryPageCache.PageKey("room", 1000L, 30);
+        var otherPage = new HistoryPageCache.PageKey("room", 2000L, 30);
+        cache.get(readPage, k -> page("m1"));
+        cache.get(otherPage, k -> page("m2"));
+
+        cache.onMessagesRead(new MessagesReadEvent(this, "room", List.of("m1")));
+
+        assertThat(cache.get(readPage, k -> page("reloaded")).getMessages().getFirst().getId()).isEqualTo("reloaded");
+        assertThat(cache.get(otherPage, k -> page("other")).getMessages().getFirst().getId()).isEqualTo("m2");
+    }
+
+    @Test
+    @DisplayName("용량을 넘으면 가장 오래 사용하지 않은 페이지부터 제거")
+    void write_evictsLeastRecentlyUsedOverCapacity() {
+        long pageSize = objectMapperSize(page("m0"));
+        HistoryPageCache cache = new HistoryPageCache(objectMapper, mock(TaskScheduler.class), pageSize * 2, Duration.ofMinutes(1), false);
+
+        cache.get(new HistoryPageCache.PageKey("room", 1L, 30), k -> page("m0"));
+        cache.get(new HistoryPageCache.PageKey("room", 2L, 30), k -> page("m1"));
+        cache.get(new HistoryPageCache.PageKey("room", 1L, 30), k -> page("reloaded"));
+        cache.get(new HistoryPageCache.PageKey("room", 3L, 30), k -> page("m2"));
+
+        assertThat(cache.usedBytes()).isLessThanOrEqualTo(pageSize * 2);
+        assertThat(cache.get(new HistoryPageCache.PageKey("room", 2L, 30), k -> page("evicted"))
+                .getMessages().getFirst().getId()).isEqualTo("evicted");
+    }
+
+    private long objectMapperSize(FetchMessagesResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FetchMessagesResponse page(String messageId) {
+        return FetchMessagesResponse.builder()
+                .messages(List.of(MessageResponse.builder()
+                        .id(messageId)
+                        .roomId("room")
+                        .content("hello")
+                        .type(MessageType.text)
+                        .timestamp(1L)
+                        .build()))
+                .hasMore(true)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("MessageReplayBuffer 테스트")
+class MessageReplayBufferTest {
+
+    @Test
+    @DisplayName("버퍼 범위 안의 gap은 메모리에서 seq 순으로 반환")
+    void replay_returnsMissedMessagesInOrder() {
+        MessageReplayBuffer buffer = new MessageReplayBuffer(mock(TaskScheduler.class), 10, Duration.ofMinutes(1));
+        buffer.record("room", message(1));
+        buffer.record("room", message(3));
+        buffer.record("room", message(2));
+
+        assertThat(buffer.replay("room", 1)).extracting(MessageResponse::getSeq).containsExactly(2L, 3L);
+        assertThat(buffer.replay("room", 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("버퍼가 gap을 모두 갖고 있지 않으면 null")
+    void replay_returnsNullWhenGapExceedsBuffer() {
+        MessageReplayBuffer buffer = new MessageReplayBuffer(mock(TaskScheduler.class), 3, Duration.ofMinutes(1));
+        for (long seq = 10; seq <= 15; seq++) {
+            buffer.record("room", message(seq));
+        }
+
+        // 10~12는 용량 초과로 제거됨
+        assertThat(buffer.replay("room", 11)).isNull();
+        assertThat(buffer.replay("room", 12)).extracting(MessageResponse::getSeq).containsExactly(13L, 14L, 15L);
+        // 버퍼 생성 이전 구간
+        assertThat(buffer.replay("other", 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("두 노드의 seq 블록이 섞여 늦게 도착한 낮은 seq도 보관하고, 빈 seq가 있으면 null")
+    void replay_keepsInterleavedBlocksAndRequiresContiguousRange() {
+        MessageReplayBuffer buffer = new MessageReplayBuffer(mock(TaskScheduler.class), 10, Duration.ofMinutes(1));
+        // 노드 A 블록 33~, 노드 B 블록 1~ 이 번갈아 저장됨
+        buffer.record("room", message(33));
+        buffer.record("room", message(1));
+        buffer.record("room", message(34));
+        buffer.record("room", message(2));
+
+        assertThat(buffer.replay("room", 0)).isNull();
+        assertThat(buffer.replay("room", 32)).extracting(MessageResponse::getSeq).containsExactly(33L, 34L);
+
+        for (long seq = 3; seq <= 32; seq++) {
+            buffer.record("room", message(seq));
+        }
+        // 용량 초과로 1~26이 제거되어 afterSeq 0은 DB 조회, 26 이후는 빈틈 없음
+        assertThat(buffer.replay("room", 0)).isNull();
+        assertThat(buffer.replay("room", 26)).extracting(MessageResponse::getSeq)
+                .containsExactly(27L, 28L, 29L, 30L, 31L, 32L, 33L, 34L);
+    }
+
+    @Test
+    @DisplayName("마지막으로 받은 메시지 이후 방 이벤트가 있었거나 그 메시지가 없으면 재동기화 필요")
+    void missedRoomEvents_tracksEventsAfterLastSeq() {
+        MessageReplayBuffer buffer = new MessageReplayBuffer(mock(TaskScheduler.class), 10, Duration.ofMinutes(1));
+        buffer.record("room", message(1));
+        buffer.record("room", message(2));
+        assertThat(buffer.missedRoomEvents("room", 1)).isFalse();
+
+        buffer.recordRoomEvent("room");
+        buffer.record("room", message(3));
+
+        assertThat(buffer.missedRoomEvents("room", 2)).isTrue();
+        assertThat(buffer.missedRoomEvents("room", 3)).isFalse();
+        assertThat(buffer.missedRoomEvents("room", 9)).isTrue();
+        assertThat(buffer.missedRoomEvents("other", 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("retention이 지난 방은 제거")
+    void sweep_removesExpiredRooms() {
+        MessageReplayBuffer buffer = new MessageReplayBuffer(mock(TaskScheduler.class), 10, Duration.ofMillis(100));
+        buffer.record("room", message(5));
+
+        buffer.sweep(System.currentTimeMillis() + 1_000);
+
+        assertThat(buffer.replay("room", 4)).isNull();
+    }
+
+    private MessageResponse message(long seq) {
+        return MessageResponse.builder().id("m" + seq).roomId("room").seq(seq).build();
+    }
+}
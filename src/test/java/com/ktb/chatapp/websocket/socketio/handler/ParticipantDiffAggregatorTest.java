@@ -0,0 +1,113 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.ParticipantsDiffResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.event.ParticipantsChangedEvent;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.RoomParticipantService;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ParticipantDiffAggregator 테스트")
+class ParticipantDiffAggregatorTest {
+
+    private RoomParticipantService roomParticipantService;
+    private MessageBroadcaster messageBroadcaster;
+    private FanoutSettings fanoutSettings;
+    private ParticipantDiffAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        roomParticipantService = mock(RoomParticipantService.class);
+        when(roomParticipantService.resolve(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .map(id -> UserResponse.builder().id(id).build())
+                .toList());
+        messageBroadcaster = mock(MessageBroadcaster.class);
+        fanoutSettings = mock(FanoutSettings.class);
+        aggregator = new ParticipantDiffAggregator(roomParticipantService, messageBroadcaster,
+                new LargeRoomPolicy(new SimpleMeterRegistry(), 5, 4, 2), fanoutSettings, mock(TaskScheduler.class), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("window 안의 연속 변경은 diff 하나로 합치고, 입장 후 퇴장/퇴장 후 재입장은 상쇄")
+    void flush_coalescesContiguousVersions() {
+        aggregator.record("room", "alice", true, 11, 3);
+        aggregator.record("room", "bob", true, 12, 4);
+        aggregator.record("room", "alice", false, 13, 3);
+        aggregator.record("room", "carol", false, 14, 2);
+        aggregator.record("room", "carol", true, 15, 3);
+        aggregator.record("room", "dave", false, 16, 2);
+        aggregator.record("room", "dave", false, 16, 2);
+        aggregator.flush();
+
+        List<ParticipantsDiffResponse> diffs = captureDiffs(1);
+        ParticipantsDiffResponse diff = diffs.getFirst();
+        assertThat(diff.getFromVersion()).isEqualTo(10);
+        assertThat(diff.getVersion()).isEqualTo(16);
+        assertThat(diff.getParticipantCount()).isEqualTo(2);
+        assertThat(diff.getAdded()).extracting(UserResponse::getId).containsExactly("bob");
+        assertThat(diff.getRemoved()).containsExactly("dave");
+        verify(roomParticipantService, times(1)).resolve(anyList());
+    }
+
+    @Test
+    @DisplayName("중간 버전이 빠지면 연속 구간별로 diff를 나눔")
+    void flush_splitsOnVersionGap() {
+        aggregator.record("room", "alice", true, 3, 2);
+        aggregator.record("room", "bob", true, 6, 4);
+        aggregator.record("room", "carol", true, 7, 5);
+        aggregator.flush();
+
+        List<ParticipantsDiffResponse> diffs = captureDiffs(2);
+        assertThat(diffs).extracting(ParticipantsDiffResponse::getFromVersion).containsExactly(2L, 5L);
+        assertThat(diffs).extracting(ParticipantsDiffResponse::getVersion).containsExactly(3L, 7L);
+    }
+
+    @Test
+    @DisplayName("일반 모드 방은 LEGACY용 전체 목록 supplier를 넘기고, 대형 방은 diff만 보냄")
+    @SuppressWarnings("unchecked")
+    void flush_fullListOnlyForNormalRooms() {
+        aggregator.record("small", "alice", true, 1, 3);
+        aggregator.record("large", "bob", true, 1, 5);
+        aggregator.flush();
+
+        ArgumentCaptor<ParticipantsDiffResponse> diff = ArgumentCaptor.forClass(ParticipantsDiffResponse.class);
+        ArgumentCaptor<Supplier<List<UserResponse>>> fullList = ArgumentCaptor.forClass(Supplier.class);
+        verify(messageBroadcaster, times(2)).broadcastParticipantsDiff(diff.capture(), fullList.capture());
+        for (int i = 0; i < 2; i++) {
+            boolean large = diff.getAllValues().get(i).getRoomId().equals("large");
+            assertThat(fullList.getAllValues().get(i) == null).isEqualTo(large);
+        }
+        // 전체 목록은 LEGACY 클라이언트에게 보낼 때만 조회한다
+        verify(roomParticipantService, never()).page(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("change stream 모드에서는 로컬 이벤트를 무시")
+    void onParticipantsChanged_ignoredInChangeStreamMode() {
+        when(fanoutSettings.isChangeStreamEnabled()).thenReturn(true);
+        aggregator.onParticipantsChanged(new ParticipantsChangedEvent(this, "room", "alice", true, 1, 1));
+        aggregator.flush();
+
+        verifyNoInteractions(messageBroadcaster);
+    }
+
+    private List<ParticipantsDiffResponse> captureDiffs(int count) {
+        ArgumentCaptor<ParticipantsDiffResponse> diff = ArgumentCaptor.forClass(ParticipantsDiffResponse.class);
+        verify(messageBroadcaster, times(count)).broadcastParticipantsDiff(diff.capture(), any());
+        return diff.getAllValues();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessagesReadResponse;
+import com.ktb.chatapp.event.MessagesReadEvent;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.ReadCountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReadReceiptAggregator 테스트")
+class ReadReceiptAggregatorTest {
+
+    private MessageRepository messageRepository;
+    private MessageBroadcaster messageBroadcaster;
+    private LargeRoomPolicy largeRoomPolicy;
+    private ReadCountService readCountService;
+    private ApplicationEventPublisher eventPublisher;
+    private ReadReceiptAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(MessageRepository.class);
+        messageBroadcaster = mock(MessageBroadcaster.class);
+        largeRoomPolicy = new LargeRoomPolicy(new SimpleMeterRegistry(), 3, 2, 50);
+        readCountService = mock(ReadCountService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        aggregator = new ReadReceiptAggregator(messageRepository, messageBroadcaster,
+                largeRoomPolicy, readCountService, eventPublisher, mock(TaskScheduler.class), Duration.ofSeconds(1), 10_000);
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 읽음 처리는 한 번의 업데이트로 병합")
+    void flush_mergesReadsPerUser() {
+        when(messageRepository.addReaderToMessages(anyList(), anyString(), anyString(), any())).thenReturn(1L);
+
+        aggregator.enqueue("room", "alice", List.of("m1", "m2"));
+        aggregator.enqueue("room", "alice", List.of("m2", "m3"));
+        aggregator.enqueue("room", "bob", List.of("m3"));
+        aggregator.flush();
+
+        verify(messageRepository).addReaderToMessages(eq(List.of("m1", "m2", "m3")), eq("room"), eq("alice"), any());
+        verify(messageRepository).addReaderToMessages(eq(List.of("m3")), eq("room"), eq("bob"), any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MessagesReadResponse>> reads = ArgumentCaptor.forClass(List.class);
+        verify(messageBroadcaster, times(1)).broadcastReads(eq("room"), reads.capture());
+        assertThat(reads.getValue()).extracting(MessagesReadResponse::getUserId)
+                .containsExactlyInAnyOrder("alice", "bob");
+
+        ArgumentCaptor<MessagesReadEvent> event = ArgumentCaptor.forClass(MessagesReadEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getRoomId()).isEqualTo("room");
+        assertThat(event.getValue().getMessageIds()).containsExactlyInAnyOrder("m1", "m2", "m3");
+    }
+
+    @Test
+    @DisplayName("모인 메시지 ID가 상한을 넘으면 주기를 기다리지 않고 flush")
+    void enqueue_flushesEarlyOverPendingLimit() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        ReadReceiptAggregator bounded = new ReadReceiptAggregator(messageRepository, messageBroadcaster,
+                largeRoomPolicy, readCountService, eventPublisher, scheduler, Duration.ofHours(1), 3);
+        when(messageRepository.addReaderToMessages(anyList(), anyString(), anyString(), any())).thenReturn(1L);
+
+        bounded.enqueue("room", "alice", List.of("m1", "m2"));
+        bounded.enqueue("room", "alice", List.of("m2"));
+        verifyNoInteractions(messageRepository);
+
+        bounded.enqueue("room", "bob", List.of("m1"));
+        verify(messageRepository, timeout(1000).times(2)).addReaderToMessages(anyList(), eq("room"), anyString(), any());
+        bounded.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("변경이 없으면 브로드캐스트하지 않고, flush 후에는 비어 있음")
+    void flush_skipsUnmodifiedAndDrains() {
+        when(messageRepository.addReaderToMessages(anyList(), anyString(), anyString(), any())).thenReturn(0L);
+
+        aggregator.enqueue("room", "alice", List.of("m1"));
+        aggregator.flush();
+        aggregator.flush();
+
+        verify(messageRepository, times(1)).addReaderToMessages(anyList(), anyString(), anyString(), any());
+        verifyNoInteractions(messageBroadcaster);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("대형 방은 readers 대신 읽은 사람 수만 기록하고 수를 브로드캐스트")
+    void flush_largeRoomRecordsCountsOnly() {
+        largeRoomPolicy.update("room", 3);
+        when(readCountService.recordReads(eq("room"), eq("alice"), any())).thenReturn(List.of("m1", "m2"));
+        when(readCountService.recordReads(eq("room"), eq("bob"), any())).thenReturn(List.of("m2"));
+        when(readCountService.readerCounts(Set.of("m1", "m2"))).thenReturn(Map.of("m1", 1, "m2", 2));
+
+        aggregator.enqueue("room", "alice", List.of("m1", "m2"));
+        aggregator.enqueue("room", "bob", List.of("m2"));
+        aggregator.flush();
+
+        verify(messageRepository, never()).addReaderToMessages(anyList(), anyString(), anyString(), any());
+        verify(messageBroadcaster).broadcastReadCounts("room", Map.of("m1", 1, "m2", 2));
+        verify(messageBroadcaster, never()).broadcastReads(anyString(), anyList());
+        verify(eventPublisher).publishEvent(argThat((MessagesReadEvent event) ->
+                event.getMessageIds().equals(Set.of("m1", "m2"))));
+    }
+}
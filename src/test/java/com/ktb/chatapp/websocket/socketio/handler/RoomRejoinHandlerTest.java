@@ -0,0 +1,97 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.ktb.chatapp.dto.RoomBootstrapResponse;
+import com.ktb.chatapp.model.Room;
+import com.ktb.chatapp.model.RoomMessageSummary;
+import com.ktb.chatapp.repository.RoomRepository;
+import com.ktb.chatapp.service.LargeRoomPolicy;
+import com.ktb.chatapp.service.ReadCountService;
+import com.ktb.chatapp.service.RoomSummaryService;
+import com.ktb.chatapp.websocket.socketio.LocalChatDataStore;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import com.ktb.chatapp.websocket.socketio.presence.PresenceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.ROOMS_BOOTSTRAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoomRejoinHandler 테스트")
+class RoomRejoinHandlerTest {
+
+    private RoomRepository roomRepository;
+    private RoomSummaryService roomSummaryService;
+    private UserRooms userRooms;
+    private RoomRejoinHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomSummaryService = mock(RoomSummaryService.class);
+        userRooms = new UserRooms(new LocalChatDataStore(), new IdInterner(new SimpleMeterRegistry()), Duration.ofHours(24));
+        PresenceService presenceService = mock(PresenceService.class);
+        when(presenceService.onlineAmong(any())).thenReturn(List.of("bob"));
+        handler = new RoomRejoinHandler(roomRepository, roomSummaryService, userRooms, presenceService,
+                new LargeRoomPolicy(new SimpleMeterRegistry(), 1000, 800, 50), mock(ReadCountService.class));
+    }
+
+    @Test
+    @DisplayName("참여 중인 방을 일괄 재구독하고 요약을 한 번에 전송")
+    @SuppressWarnings("unchecked")
+    void rejoin_sendsSingleBootstrap() {
+        userRooms.add("alice", "r1");
+        userRooms.add("alice", "r2");
+        userRooms.add("alice", "gone");
+        Room r1 = room("r1", 3, "alice", "bob");
+        Room r2 = room("r2", 1, "alice");
+        when(roomRepository.findAllById(any())).thenReturn(List.of(r1, r2));
+        when(roomSummaryService.summarize(anyList(), eq("alice"))).thenReturn(List.of(
+                new RoomMessageSummary("r1", 42L, LocalDateTime.now(), 5)));
+        SocketIOClient client = mock(SocketIOClient.class);
+
+        handler.rejoin(client, "alice");
+
+        verify(client).joinRooms(Set.of("r1", "r2"));
+        verify(roomRepository, times(1)).findAllById(any());
+        verify(roomSummaryService, times(1)).summarize(anyList(), eq("alice"));
+        assertThat(userRooms.get("alice")).containsExactlyInAnyOrder("r1", "r2");
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(client).sendEvent(eq(ROOMS_BOOTSTRAP), payload.capture());
+        List<RoomBootstrapResponse> rooms = ((Map<String, List<RoomBootstrapResponse>>) payload.getValue()).get("rooms");
+        assertThat(rooms).extracting(RoomBootstrapResponse::getRoomId).containsExactly("r1", "r2");
+        assertThat(rooms.get(0).getLatestSeq()).isEqualTo(42L);
+        assertThat(rooms.get(0).getUnreadCount()).isEqualTo(5);
+        assertThat(rooms.get(0).getParticipantsVersion()).isEqualTo(3);
+        assertThat(rooms.get(1).getLatestSeq()).isNull();
+        assertThat(rooms.get(0).getOnlineUserIds()).containsExactly("bob");
+    }
+
+    @Test
+    @DisplayName("참여 방이 없으면 조회하지 않음")
+    void rejoin_noRooms() {
+        SocketIOClient client = mock(SocketIOClient.class);
+
+        handler.rejoin(client, "alice");
+
+        verifyNoInteractions(roomRepository, roomSummaryService, client);
+    }
+
+    private Room room(String id, long version, String... participants) {
+        Room room = Room.builder().id(id).participantIds(Set.of(participants)).build();
+        room.setParticipantsVersion(version);
+        return room;
+    }
+}
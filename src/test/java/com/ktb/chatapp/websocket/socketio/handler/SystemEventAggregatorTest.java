@@ -0,0 +1,105 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.repository.FileRepository;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.websocket.socketio.fanout.FanoutSettings;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SystemEventAggregator 테스트")
+class SystemEventAggregatorTest {
+
+    private static final long WINDOW = 1_000;
+
+    private MessageRepository messageRepository;
+    private MessageBroadcaster messageBroadcaster;
+    private SystemEventAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(MessageRepository.class);
+        messageBroadcaster = mock(MessageBroadcaster.class);
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        FanoutSettings fanoutSettings = mock(FanoutSettings.class);
+        aggregator = new SystemEventAggregator(messageRepository, new MessageResponseMapper(mock(FileRepository.class)),
+                messageBroadcaster, fanoutSettings, mock(TaskScheduler.class), Duration.ofMillis(WINDOW));
+    }
+
+    @Test
+    @DisplayName("window 동안의 입장은 메시지 하나로 저장")
+    void flush_collapsesJoinsIntoOneMessage() {
+        for (int i = 1; i <= 5; i++) {
+            aggregator.joined("room", "u" + i, "user" + i);
+        }
+        aggregator.flush(System.currentTimeMillis());
+
+        Message saved = savedMessage();
+        assertThat(saved.getContent()).isEqualTo("user1, user2, user3님 외 2명이 입장하였습니다.");
+        assertThat(saved.getMetadata().get("joined")).isEqualTo(List.of("u1", "u2", "u3", "u4", "u5"));
+        verify(messageBroadcaster).broadcastMessage(eq("room"), any());
+    }
+
+    @Test
+    @DisplayName("재연결로 인한 퇴장 후 재입장은 메시지를 남기지 않음")
+    void flush_suppressesReconnectLeaveAndRejoin() {
+        long now = System.currentTimeMillis();
+        aggregator.left("room", "u1", "user1");
+        aggregator.flush(now);
+        aggregator.joined("room", "u1", "user1");
+        aggregator.flush(now + WINDOW * 2);
+
+        verify(messageRepository, never()).save(any(Message.class));
+        verifyNoInteractions(messageBroadcaster);
+    }
+
+    @Test
+    @DisplayName("퇴장은 window가 지난 뒤 전송")
+    void flush_holdsLeavesForWindow() {
+        long now = System.currentTimeMillis();
+        aggregator.left("room", "u1", "user1");
+        aggregator.flush(now);
+        verify(messageRepository, never()).save(any(Message.class));
+
+        aggregator.flush(now + WINDOW * 2);
+        assertThat(savedMessage().getContent()).isEqualTo("user1님이 퇴장하였습니다.");
+    }
+
+    @Test
+    @DisplayName("종료 시 window가 지나지 않은 이벤트도 전송")
+    void shutdown_flushesPendingEvents() {
+        aggregator.left("room", "u1", "user1");
+
+        aggregator.shutdown();
+
+        assertThat(savedMessage().getContent()).isEqualTo("user1님이 퇴장하였습니다.");
+    }
+
+    @Test
+    @DisplayName("사용자 이름 요약")
+    void describe_limitsNames() {
+        Map<String, String> names = new LinkedHashMap<>();
+        names.put("a", "A");
+        assertThat(SystemEventAggregator.describe(names)).isEqualTo("A님");
+        names.put("b", "B");
+        assertThat(SystemEventAggregator.describe(names)).isEqualTo("A, B님");
+    }
+
+    private Message savedMessage() {
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messageRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ktb.chatapp.websocket.socketio.ordinal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IdInterner / IntHashSet 테스트")
+class IdInternerTest {
+
+    private final IdInterner interner = new IdInterner(new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("ObjectId와 일반 문자열 모두 같은 ordinal로 되돌아온다")
+    void intern_roundTripsObjectIdsAndOtherIds() {
+        int objectId = interner.acquire("6740a1b2c3d4e5f6a7b8c9d0");
+        int uuid = interner.acquire("fcf50dda-182c-4507-9be3-a23d881600d2");
+        int upper = interner.acquire("6740A1B2C3D4E5F6A7B8C9D0");
+
+        assertThat(List.of(objectId, uuid, upper)).containsExactly(0, 1, 2);
+        assertThat(interner.acquire(new String("6740a1b2c3d4e5f6a7b8c9d0"))).isEqualTo(objectId);
+        assertThat(interner.resolve(objectId)).isEqualTo("6740a1b2c3d4e5f6a7b8c9d0");
+        assertThat(interner.resolve(uuid)).isEqualTo("fcf50dda-182c-4507-9be3-a23d881600d2");
+        assertThat(interner.resolve(upper)).isEqualTo("6740A1B2C3D4E5F6A7B8C9D0");
+        assertThat(interner.find("6740a1b2c3d4e5f6a7b8c9d1")).isEqualTo(-1);
+        assertThat(interner.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("동시 intern에서도 ID마다 ordinal은 하나")
+    void intern_isConsistentUnderConcurrency() {
+        Set<String> pairs = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    String id = String.format("6740a1b2c3d4e5f6%08x", i);
+                    pairs.add(id + "=" + interner.acquire(id));
+                }
+            }));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(pairs).hasSize(20_000);
+        assertThat(interner.size()).isEqualTo(20_000);
+        for (int i = 0; i < 20_000; i += 997) {
+            String id = String.format("6740a1b2c3d4e5f6%08x", i);
+            assertThat(interner.resolve(interner.find(id))).isEqualTo(id);
+        }
+    }
+
+    @Test
+    @DisplayName("acquire가 storage를 늘리는 동안에도 잠금 없는 find는 예외 없이 등록된 ordinal을 찾는다")
+    void find_isSafeWhileStorageGrows() {
+        int ids = 16_384;
+        AtomicInteger acquired = new AtomicInteger();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < ids; i++) {
+                interner.acquire(String.format("6740a1b2c3d4e5f6%08x", i));
+                acquired.set(i + 1);
+            }
+        });
+        List<CompletableFuture<Void>> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            readers.add(CompletableFuture.runAsync(() -> {
+                while (acquired.get() < ids) {
+                    // 방금 등록됐거나 곧 등록될 ID를 조회해 storage 교체와 슬롯 공개 사이를 겨냥한다
+                    int latest = acquired.get();
+                    for (int i = Math.max(0, latest - 2); i < latest + 4; i++) {
+                        int ordinal = interner.find(String.format("6740a1b2c3d4e5f6%08x", i));
+                        if (i < latest) {
+                            assertThat(ordinal).isEqualTo(i);
+                        }
+                    }
+                }
+            }));
+        }
+        writer.join();
+        readers.forEach(CompletableFuture::join);
+
+        assertThat(interner.size()).isEqualTo(ids);
+    }
+
+    @Test
+    @DisplayName("마지막 참조를 반납하면 ID를 지우고 ordinal을 재사용한다")
+    void release_reclaimsOrdinals() {
+        int kept = interner.acquire("6740a1b2c3d4e5f6a7b8c9d0");
+        int shared = interner.acquire("room-shared");
+        assertThat(interner.acquire("room-shared")).isEqualTo(shared);
+
+        interner.release(shared);
+        assertThat(interner.find("room-shared")).isEqualTo(shared);
+        interner.release(shared);
+        assertThat(interner.find("room-shared")).isEqualTo(-1);
+        assertThat(interner.size()).isEqualTo(1);
+
+        int reused = interner.acquire("6740a1b2c3d4e5f6a7b8c9d1");
+        assertThat(reused).isEqualTo(shared);
+        assertThat(interner.resolve(reused)).isEqualTo("6740a1b2c3d4e5f6a7b8c9d1");
+        assertThat(interner.find("6740a1b2c3d4e5f6a7b8c9d0")).isEqualTo(kept);
+
+        // 등록/반납을 반복해도 tombstone이 정리되어 조회가 계속 동작한다
+        for (int i = 0; i < 100_000; i++) {
+            interner.release(interner.acquire("churn-" + i));
+        }
+        assertThat(interner.size()).isEqualTo(2);
+        assertThat(interner.find("6740a1b2c3d4e5f6a7b8c9d0")).isEqualTo(kept);
+        assertThat(interner.find("churn-99999")).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("IntHashSet은 삭제 후에도 남은 원소를 찾는다")
+    void intHashSet_removalKeepsProbeChains() {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(set.add(i * 7)).isTrue();
+        }
+        assertThat(set.add(0)).isFalse();
+        for (int i = 0; i < 10_000; i += 2) {
+            assertThat(set.remove(i * 7)).isTrue();
+        }
+        assertThat(set.size()).isEqualTo(5_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(set.contains(i * 7)).isEqualTo(i % 2 == 1);
+        }
+        assertThat(Arrays.stream(set.toArray())).hasSize(5_000).allMatch(value -> value % 14 == 7);
+    }
+}
@@ -0,0 +1,235 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.messages.PacketsMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OutboundDispatcher 테스트")
+class OutboundDispatcherTest {
+
+    private static final int HIGH = 4;
+    private static final int LOW = 1;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundDispatcher dispatcher;
+    private SocketIOClient client;
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+    private final ClientEventLoops clientEventLoops = new ClientEventLoops();
+
+    @BeforeEach
+    void setUp() {
+        client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        when(client.isWritable()).thenAnswer(invocation -> writable.get());
+
+        SocketIOServer server = mock(SocketIOServer.class);
+        BroadcastOperations room = mock(BroadcastOperations.class);
+        when(room.getClients()).thenReturn(List.of(client));
+        when(server.getRoomOperations(anyString())).thenReturn(room);
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboundDispatcher(server, clientEventLoops, meterRegistry, mock(TaskScheduler.class), HIGH, LOW, 100,
+                Duration.ofSeconds(5), Duration.ofMillis(10), 1000);
+    }
+
+    @Test
+    @DisplayName("쓰기 가능하면 바로 전송")
+    void send_writesImmediatelyWhenWritable() {
+        dispatcher.sendToRoom("room", OutboundEvent.reliable("message", "m1"));
+
+        verify(client).sendEvent("message", "m1");
+        assertThat(dispatcher.depth(client)).isZero();
+    }
+
+    @Test
+    @DisplayName("밀린 AI 청크는 최신 값으로 교체되고 채팅 메시지는 순서대로 보존")
+    void send_mergesLatestAndKeepsReliableOrder() {
+        writable.set(false);
+        dispatcher.send(client, OutboundEvent.reliable("message", "m1"));
+        dispatcher.send(client, OutboundEvent.latest("aiMessageChunk", "chunk-1", "ai1"));
+        dispatcher.send(client, OutboundEvent.reliable("message", "m2"));
+        dispatcher.send(client, OutboundEvent.latest("aiMessageChunk", "chunk-2", "ai1"));
+        assertThat(dispatcher.depth(client)).isEqualTo(3);
+
+        writable.set(true);
+        dispatcher.drain(System.currentTimeMillis());
+
+        InOrder order = inOrder(client);
+        order.verify(client).sendEvent("message", "m1");
+        order.verify(client).sendEvent("aiMessageChunk", "chunk-2");
+        order.verify(client).sendEvent("message", "m2");
+        verify(client, never()).sendEvent("aiMessageChunk", "chunk-1");
+        assertThat(meterRegistry.counter("socketio.outbound.events", "result", "merged").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("high watermark 이상이면 DROPPABLE 이벤트는 버리고 RELIABLE은 보존")
+    void send_dropsDroppableAboveHighWatermark() {
+        writable.set(false);
+        for (int i = 0; i < HIGH; i++) {
+            dispatcher.send(client, OutboundEvent.reliable("message", "m" + i));
+        }
+        dispatcher.send(client, OutboundEvent.droppable("typing", "t"));
+        dispatcher.send(client, OutboundEvent.reliable("message", "m-last"));
+
+        assertThat(dispatcher.depth(client)).isEqualTo(HIGH + 1);
+        assertThat(meterRegistry.counter("socketio.outbound.events", "result", "dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("socketio.outbound.queue.depth.max").gauge().value()).isEqualTo(HIGH + 1);
+    }
+
+    @Test
+    @DisplayName("overflow가 지속되면 연결 종료, 해소되면 유지")
+    void drain_disconnectsAfterSustainedOverflow() {
+        writable.set(false);
+        for (int i = 0; i <= HIGH; i++) {
+            dispatcher.send(client, OutboundEvent.reliable("message", "m" + i));
+        }
+        long now = System.currentTimeMillis();
+
+        dispatcher.drain(now + 1_000);
+        verify(client, never()).disconnect();
+
+        dispatcher.drain(now + 6_000);
+        verify(client).disconnect();
+        assertThat(dispatcher.depth(client)).isZero();
+        assertThat(meterRegistry.counter("socketio.outbound.overflow.disconnects").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("low watermark 아래로 내려가면 overflow 해제")
+    void drain_clearsOverflowBelowLowWatermark() {
+        writable.set(false);
+        for (int i = 0; i <= HIGH; i++) {
+            dispatcher.send(client, OutboundEvent.reliable("message", "m" + i));
+        }
+        writable.set(true);
+        long now = System.currentTimeMillis();
+        dispatcher.drain(now);
+
+        writable.set(false);
+        dispatcher.send(client, OutboundEvent.reliable("message", "after"));
+        dispatcher.drain(now + 6_000);
+
+        verify(client, never()).disconnect();
+        verify(client, times(HIGH + 1)).sendEvent(eq("message"), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("큰 방은 멤버를 각자의 event loop에서 보낸다")
+    void sendPartitioned_writesEachClientOnItsOwnLoop() throws Exception {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(2);
+        try {
+            List<SocketIOClient> clients = new ArrayList<>();
+            Map<SocketIOClient, EventLoop> expected = new HashMap<>();
+            Map<SocketIOClient, Thread> writers = new ConcurrentHashMap<>();
+            CountDownLatch sent = new CountDownLatch(7);
+            for (int i = 0; i < 8; i++) {
+                SocketIOClient member = mock(SocketIOClient.class);
+                UUID sessionId = UUID.randomUUID();
+                when(member.getSessionId()).thenReturn(sessionId);
+                when(member.isWritable()).thenReturn(true);
+                doAnswer(invocation -> {
+                    writers.put(member, Thread.currentThread());
+                    sent.countDown();
+                    return null;
+                }).when(member).sendEvent(anyString(), any(Object.class));
+                if (i < 6) {
+                    EventLoop loop = group.next();
+                    clientEventLoops.bind(sessionId, loop);
+                    expected.put(member, loop);
+                }
+                clients.add(member);
+            }
+
+            dispatcher.sendPartitioned(clients, OutboundEvent.reliable("message", "m1"), member -> member == clients.get(7));
+
+            assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+            for (var entry : expected.entrySet()) {
+                assertThat(entry.getValue().submit(() -> Thread.currentThread()).get())
+                        .isSameAs(writers.get(entry.getKey()));
+            }
+            // loop를 모르는 세션은 호출 스레드에서 보내고, 제외 대상은 보내지 않는다
+            assertThat(writers.get(clients.get(6))).isSameAs(Thread.currentThread());
+            verify(clients.get(7), never()).sendEvent(anyString(), any(Object.class));
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("loop가 기록된 연결은 큰 방 전송 뒤의 직접 전송도 같은 loop 순서를 따른다")
+    void send_keepsOrderAcrossPartitionedAndDirectSends() throws Exception {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+        try {
+            EventLoop loop = group.next();
+            clientEventLoops.bind(client.getSessionId(), loop);
+            CountDownLatch blocked = new CountDownLatch(1);
+            loop.execute(() -> awaitQuietly(blocked));
+
+            dispatcher.sendPartitioned(List.of(client), OutboundEvent.reliable("message", "m1"), member -> false);
+            dispatcher.send(client, OutboundEvent.reliable("message", "m2"));
+            verify(client, never()).sendEvent(anyString(), any(Object.class));
+
+            blocked.countDown();
+            loop.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            InOrder order = inOrder(client);
+            order.verify(client).sendEvent("message", "m1");
+            order.verify(client).sendEvent("message", "m2");
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("패킷을 받은 채널이 닫히면 세션의 loop 기록을 지운다")
+    void tracker_unbindsWhenChannelCloses() {
+        ClientHead head = mock(ClientHead.class);
+        UUID sessionId = UUID.randomUUID();
+        when(head.getSessionId()).thenReturn(sessionId);
+        EmbeddedChannel channel = new EmbeddedChannel(clientEventLoops.tracker());
+
+        channel.writeInbound(new PacketsMessage(head, Unpooled.EMPTY_BUFFER, Transport.WEBSOCKET));
+        assertThat(clientEventLoops.get(sessionId)).isSameAs(channel.eventLoop());
+
+        channel.close();
+        assertThat(clientEventLoops.get(sessionId)).isNull();
+        assertThat(clientEventLoops.size()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
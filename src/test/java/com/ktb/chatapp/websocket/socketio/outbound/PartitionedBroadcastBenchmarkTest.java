@@ -0,0 +1,167 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.codec.MessageToByteEncoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.scheduling.TaskScheduler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 방 크기별 브로드캐스트 완료 시간: 멤버마다 자기 event loop에 작업을 하나씩 넘기는 방식과 event loop별로 묶어 한 번에 넘기는 방식 비교.
+ * 멤버마다 LocalChannel 한 쌍을 두고 서버 쪽 채널에서 payload를 JSON으로 인코딩해 보낸다.
+ * 호출 시점부터 모든 멤버가 프레임을 받을 때까지의 시간(중앙값)을 출력한다.
+ *
+ * 실행: ./mvnw test -Dtest=PartitionedBroadcastBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PartitionedBroadcastBenchmarkTest {
+
+    private static final int LOOPS = Integer.getInteger("benchmark.loops", 4);
+    private static final int ROUNDS = 30;
+    private static final int[] ROOM_SIZES = {100, 1_000, 10_000};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<CountDownLatch> received = new AtomicReference<>();
+
+    @Test
+    void broadcastCompletionTime() throws Exception {
+        DefaultEventLoopGroup serverLoops = new DefaultEventLoopGroup(LOOPS);
+        DefaultEventLoopGroup clientLoops = new DefaultEventLoopGroup(1);
+        ClientEventLoops clientEventLoops = new ClientEventLoops();
+        try {
+            List<SocketIOClient> members = connect(serverLoops, clientLoops, clientEventLoops, ROOM_SIZES[ROOM_SIZES.length - 1]);
+            Map<String, Object> payload = Map.of(
+                    "_id", "6740a1b2c3d4e5f6a7b8c9d1",
+                    "room", "6740a1b2c3d4e5f6a7b8c9d0",
+                    "content", "오늘 회의는 3시에 시작합니다. 자료는 공유 폴더에 올려두었어요.",
+                    "type", "text",
+                    "timestamp", 1_731_000_000_000L);
+
+            System.out.printf("availableProcessors=%d, loops=%d%n", Runtime.getRuntime().availableProcessors(), LOOPS);
+            System.out.printf("%-8s %16s %16s%n", "members", "sequential ms", "partitioned ms");
+            for (int size : ROOM_SIZES) {
+                List<SocketIOClient> room = members.subList(0, size);
+                double sequential = median(room, payload, dispatcher(room, clientEventLoops, Integer.MAX_VALUE));
+                double partitioned = median(room, payload, dispatcher(room, clientEventLoops, 0));
+                System.out.printf("%-8d %16.2f %16.2f%n", size, sequential, partitioned);
+            }
+        } finally {
+            clientLoops.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+            serverLoops.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    private double median(List<SocketIOClient> room, Map<String, Object> payload, OutboundDispatcher dispatcher)
+            throws InterruptedException {
+        double[] millis = new double[ROUNDS];
+        for (int round = -5; round < ROUNDS; round++) {
+            CountDownLatch latch = new CountDownLatch(room.size());
+            received.set(latch);
+            long start = System.nanoTime();
+            dispatcher.sendToRoom("room", OutboundEvent.reliable("message", payload));
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Broadcast did not complete");
+            }
+            if (round >= 0) {
+                millis[round] = (System.nanoTime() - start) / 1e6;
+            }
+        }
+        Arrays.sort(millis);
+        return millis[ROUNDS / 2];
+    }
+
+    private OutboundDispatcher dispatcher(List<SocketIOClient> room, ClientEventLoops clientEventLoops, int threshold) {
+        SocketIOServer server = mock(SocketIOServer.class, withSettings().stubOnly());
+        BroadcastOperations operations = mock(BroadcastOperations.class, withSettings().stubOnly());
+        when(operations.getClients()).thenReturn(room);
+        when(server.getRoomOperations(anyString())).thenReturn(operations);
+        return new OutboundDispatcher(server, clientEventLoops, new SimpleMeterRegistry(), mock(TaskScheduler.class),
+                256, 64, 4096,
+                Duration.ofSeconds(10), Duration.ofMillis(20), threshold);
+    }
+
+    private List<SocketIOClient> connect(DefaultEventLoopGroup serverLoops, DefaultEventLoopGroup clientLoops,
+                                         ClientEventLoops clientEventLoops, int count) throws Exception {
+        BlockingQueue<Channel> accepted = new LinkedBlockingQueue<>();
+        LocalAddress address = new LocalAddress("broadcast-benchmark-" + UUID.randomUUID());
+        new ServerBootstrap()
+                .group(serverLoops)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel channel) {
+                        channel.pipeline().addLast(new JsonEncoder());
+                        accepted.add(channel);
+                    }
+                })
+                .bind(address).sync();
+        Bootstrap client = new Bootstrap()
+                .group(clientLoops)
+                .channel(LocalChannel.class)
+                .handler(new ReceiveCounter());
+
+        List<SocketIOClient> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            client.connect(address).sync();
+            Channel channel = accepted.take();
+            SocketIOClient member = mock(SocketIOClient.class, withSettings().stubOnly());
+            UUID sessionId = UUID.randomUUID();
+            when(member.getSessionId()).thenReturn(sessionId);
+            when(member.isWritable()).thenReturn(true);
+            doAnswer(invocation -> channel.writeAndFlush(invocation.getArgument(1)))
+                    .when(member).sendEvent(anyString(), any(Object.class));
+            clientEventLoops.bind(sessionId, channel.eventLoop());
+            members.add(member);
+        }
+        return members;
+    }
+
+    @ChannelHandler.Sharable
+    private final class ReceiveCounter extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ((ByteBuf) msg).release();
+            received.get().countDown();
+        }
+    }
+
+    private final class JsonEncoder extends MessageToByteEncoder<Object> {
+
+        @Override
+        protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+            out.writeBytes(objectMapper.writeValueAsBytes(msg));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ktb.chatapp.websocket.socketio.presence;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.ktb.chatapp.dto.PresenceDiffResponse;
+import com.ktb.chatapp.websocket.socketio.LocalChatDataStore;
+import com.ktb.chatapp.websocket.socketio.UserRooms;
+import com.ktb.chatapp.websocket.socketio.ordinal.IdInterner;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.OutboundEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.PRESENCE_UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PresenceService 테스트")
+class PresenceServiceTest {
+
+    private OutboundDispatcher outboundDispatcher;
+    private UserRooms userRooms;
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        outboundDispatcher = mock(OutboundDispatcher.class);
+        IdInterner idInterner = new IdInterner(new SimpleMeterRegistry());
+        userRooms = new UserRooms(new LocalChatDataStore(), idInterner, Duration.ofHours(24));
+        userRooms.add("alice", "r1");
+        userRooms.add("alice", "r2");
+        userRooms.add("bob", "r1");
+        presenceService = new PresenceService(mock(SocketIOServer.class), userRooms, idInterner, outboundDispatcher,
+                new SimpleMeterRegistry(), mock(TaskScheduler.class), Duration.ofSeconds(90), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("tick마다 방별로 온라인 전환을 한 번에 전송")
+    void tick_batchesTransitionsPerRoom() {
+        presenceService.connected("alice");
+        presenceService.connected("bob");
+
+        presenceService.tick(System.currentTimeMillis());
+
+        PresenceDiffResponse r1 = sentDiff("r1");
+        assertThat(r1.getOnline()).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(r1.getOffline()).isEmpty();
+        assertThat(sentDiff("r2").getOnline()).containsExactly("alice");
+        verify(outboundDispatcher, times(2)).sendToRoom(any(), any(OutboundEvent.class));
+    }
+
+    @Test
+    @DisplayName("다른 기기 연결이 남아 있으면 오프라인으로 보지 않음")
+    void disconnect_keepsOnlineWhileOtherDeviceConnected() {
+        presenceService.connected("alice");
+        presenceService.connected("alice");
+        presenceService.tick(System.currentTimeMillis());
+        clearInvocations(outboundDispatcher);
+
+        presenceService.disconnected("alice");
+        presenceService.tick(System.currentTimeMillis());
+        verifyNoInteractions(outboundDispatcher);
+        assertThat(presenceService.isOnline("alice")).isTrue();
+
+        presenceService.disconnected("alice");
+        presenceService.tick(System.currentTimeMillis());
+        assertThat(sentDiff("r1").getOffline()).containsExactly("alice");
+        assertThat(presenceService.isOnline("alice")).isFalse();
+    }
+
+    @Test
+    @DisplayName("tick 안에서 끊겼다 다시 연결되면 전송하지 않음")
+    void reconnectWithinTick_isSuppressed() {
+        presenceService.connected("alice");
+        presenceService.tick(System.currentTimeMillis());
+        clearInvocations(outboundDispatcher);
+
+        presenceService.disconnected("alice");
+        presenceService.connected("alice");
+        presenceService.tick(System.currentTimeMillis());
+
+        verifyNoInteractions(outboundDispatcher);
+    }
+
+    @Test
+    @DisplayName("heartbeat가 ttl 동안 없으면 오프라인 처리")
+    void tick_expiresStaleUsers() {
+        presenceService.connected("alice");
+        presenceService.tick(System.currentTimeMillis());
+        clearInvocations(outboundDispatcher);
+
+        presenceService.tick(System.currentTimeMillis() + Duration.ofSeconds(91).toMillis());
+
+        assertThat(sentDiff("r1").getOffline()).containsExactly("alice");
+        assertThat(presenceService.isOnline("alice")).isFalse();
+        // 만료 이후 늦게 도착한 disconnect는 무시
+        presenceService.disconnected("alice");
+        assertThat(presenceService.onlineCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("ordinal 테이블은 연결 수와 heartbeat 만료를 추적")
+    void table_tracksConnectionsByOrdinal() {
+        PresenceTable table = new PresenceTable(16, 0);
+        for (int user = 0; user < 10_000; user++) {
+            table.connect(user, 1_000);
+        }
+        for (int user = 0; user < 10_000; user += 2) {
+            table.disconnect(user);
+        }
+        assertThat(table.size()).isEqualTo(5_000);
+        for (int user = 0; user < 10_000; user++) {
+            assertThat(table.contains(user)).isEqualTo(user % 2 == 1);
+        }
+        assertThat(table.contains(-1)).isFalse();
+        assertThat(table.disconnect(-1)).isEqualTo(-1);
+
+        table.connect(1, 5_000);
+        assertThat(table.connections(1)).isEqualTo(2);
+        List<Integer> expired = new ArrayList<>();
+        table.expire(2_000, expired::add);
+        assertThat(expired).hasSize(4_999).doesNotContain(1);
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.contains(1)).isTrue();
+    }
+
+    private PresenceDiffResponse sentDiff(String roomId) {
+        ArgumentCaptor<OutboundEvent> event = ArgumentCaptor.forClass(OutboundEvent.class);
+        verify(outboundDispatcher).sendToRoom(eq(roomId), event.capture());
+        assertThat(event.getValue().name()).isEqualTo(PRESENCE_UPDATE);
+        return (PresenceDiffResponse) event.getValue().payload();
+    }
+}